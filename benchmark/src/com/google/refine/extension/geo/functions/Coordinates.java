@@ -0,0 +1,76 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Random;
+
+/**
+ * Synthetic coordinates shared by the benchmarks. Values are generated from a fixed seed so that runs are comparable.
+ */
+final class Coordinates {
+
+    private Coordinates() {
+    }
+
+    static double[] latitudes(int count, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextDouble() * 180.0 - 90.0;
+        }
+        return values;
+    }
+
+    static double[] longitudes(int count, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextDouble() * 360.0 - 180.0;
+        }
+        return values;
+    }
+
+    /**
+     * Coordinates a short hop away from the given ones: each value is offset by up to {@code spread} degrees, and
+     * clamped to {@code [-limit, limit]}.
+     */
+    static double[] nearby(double[] values, double spread, double limit, long seed) {
+        Random random = new Random(seed);
+        double[] nearby = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            nearby[i] = Math.max(-limit, Math.min(limit, values[i] + (random.nextDouble() * 2.0 - 1.0) * spread));
+        }
+        return nearby;
+    }
+}
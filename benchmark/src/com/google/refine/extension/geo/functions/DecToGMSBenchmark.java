@@ -0,0 +1,123 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DecToGMS#call(Properties, Object[])} end to end, including the formatting of the result string and
+ * the {@code EvalError} paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecToGMSBenchmark {
+
+    private static final int ROWS = 1 << 16;
+
+    private final DecToGMS function = new DecToGMS();
+    private final Properties bindings = new Properties();
+
+    private Object[][] plain;
+    private Object[][] latitudes;
+    private Object[][] longitudes;
+    private Object[][] outOfRange;
+    private Object[][] invalidType;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] lat = Coordinates.latitudes(ROWS, 5L);
+        double[] lng = Coordinates.longitudes(ROWS, 6L);
+
+        plain = new Object[ROWS][];
+        latitudes = new Object[ROWS][];
+        longitudes = new Object[ROWS][];
+        outOfRange = new Object[ROWS][];
+        invalidType = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            plain[i] = new Object[] { lng[i] };
+            latitudes[i] = new Object[] { lat[i], "lat" };
+            longitudes[i] = new Object[] { lng[i], "lng" };
+            outOfRange[i] = new Object[] { lat[i] + 180.0, "lat" };
+            invalidType[i] = new Object[] { lat[i], "north" };
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public Object withoutCoordType() {
+        return function.call(bindings, plain[next()]);
+    }
+
+    @Benchmark
+    public Object latitude() {
+        return function.call(bindings, latitudes[next()]);
+    }
+
+    @Benchmark
+    public Object longitude() {
+        return function.call(bindings, longitudes[next()]);
+    }
+
+    @Benchmark
+    public Object rangeError() {
+        return function.call(bindings, outOfRange[next()]);
+    }
+
+    @Benchmark
+    public Object coordTypeError() {
+        return function.call(bindings, invalidType[next()]);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link GeoDistance#call(Properties, Object[])} end to end, the way GREL invokes it: boxed arguments in an
+ * {@code Object[]}, validation, unit handling and the {@code EvalError} paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoDistanceBenchmark {
+
+    private static final int ROWS = 1 << 16;
+
+    private final GeoDistance function = new GeoDistance();
+    private final Properties bindings = new Properties();
+
+    private Object[][] meters;
+    private Object[][] kilometers;
+    private Object[][] miles;
+    private Object[][] wgs84;
+    private Object[][] outOfRange;
+    private Object[][] notANumber;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] lat1 = Coordinates.latitudes(ROWS, 1L);
+        double[] lng1 = Coordinates.longitudes(ROWS, 2L);
+        double[] lat2 = Coordinates.latitudes(ROWS, 3L);
+        double[] lng2 = Coordinates.longitudes(ROWS, 4L);
+
+        meters = new Object[ROWS][];
+        kilometers = new Object[ROWS][];
+        miles = new Object[ROWS][];
+        wgs84 = new Object[ROWS][];
+        outOfRange = new Object[ROWS][];
+        notANumber = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            meters[i] = new Object[] { lat1[i], lng1[i], lat2[i], lng2[i] };
+            kilometers[i] = new Object[] { lat1[i], lng1[i], lat2[i], lng2[i], "km" };
+            miles[i] = new Object[] { lat1[i], lng1[i], lat2[i], lng2[i], "mi" };
+            wgs84[i] = new Object[] { lat1[i], lng1[i], lat2[i], lng2[i], "m", "wgs84" };
+            outOfRange[i] = new Object[] { lat1[i] + 180.0, lng1[i], lat2[i], lng2[i] };
+            notANumber[i] = new Object[] { Double.toString(lat1[i]), lng1[i], lat2[i], lng2[i] };
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public Object defaultUnit() {
+        return function.call(bindings, meters[next()]);
+    }
+
+    @Benchmark
+    public Object kilometers() {
+        return function.call(bindings, kilometers[next()]);
+    }
+
+    @Benchmark
+    public Object miles() {
+        return function.call(bindings, miles[next()]);
+    }
+
+    @Benchmark
+    public Object wgs84() {
+        return function.call(bindings, wgs84[next()]);
+    }
+
+    @Benchmark
+    public Object rangeError() {
+        return function.call(bindings, outOfRange[next()]);
+    }
+
+    @Benchmark
+    public Object typeError() {
+        return function.call(bindings, notANumber[next()]);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link GeoDistanceFast} with {@link GeoDistance} on short hops (points up to about 1 km apart), both as
+ * tight loops over primitive columns, with and without a fixed reference point, and through GREL calls.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoDistanceFastBenchmark {
+
+    private static final int PAIRS = 1 << 20;
+    private static final int ROWS = 1 << 16;
+
+    private static final double DEPOT_LAT = 48.8566;
+    private static final double DEPOT_LNG = 2.3522;
+
+    private final GeoDistance geoDistance = new GeoDistance();
+    private final GeoDistanceFast geoDistanceFast = new GeoDistanceFast();
+    private final Properties bindings = new Properties();
+
+    private double[] lat1;
+    private double[] lng1;
+    private double[] lat2;
+    private double[] lng2;
+    private Object[][] rows;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lat1 = Coordinates.latitudes(PAIRS, 11L);
+        lng1 = Coordinates.longitudes(PAIRS, 12L);
+        lat2 = Coordinates.nearby(lat1, 0.01, 90.0, 13L);
+        lng2 = Coordinates.nearby(lng1, 0.01, 180.0, 14L);
+
+        rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[] { lat1[i], lng1[i], lat2[i], lng2[i] };
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double haversineColumn() {
+        double total = 0.0;
+        for (int i = 0; i < PAIRS; i++) {
+            total += GeoDistance.haversineDistance(lat1[i], lng1[i], lat2[i], lng2[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double fastColumn() {
+        double total = 0.0;
+        for (int i = 0; i < PAIRS; i++) {
+            total += GeoDistanceFast.fastDistance(lat1[i], lng1[i], lat2[i], lng2[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Distances to a single reference point, whose cosine is computed once.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double fastColumnToDepot() {
+        double cosDepot = GeoDistanceFast.cosLatitude(DEPOT_LAT);
+        double total = 0.0;
+        for (int i = 0; i < PAIRS; i++) {
+            double lat = DEPOT_LAT + (lat2[i] - lat1[i]);
+            total += GeoDistanceFast.fastDistance(DEPOT_LAT, cosDepot, DEPOT_LNG, lat, GeoDistanceFast.cosLatitude(lat),
+                    DEPOT_LNG + (lng2[i] - lng1[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Object geoDistanceCall() {
+        return geoDistance.call(bindings, rows[next()]);
+    }
+
+    @Benchmark
+    public Object geoDistanceFastCall() {
+        return geoDistanceFast.call(bindings, rows[next()]);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link GmsToDec#call(Properties, Object[])} end to end on the output of {@code decToGMS()}, on compact
+ * {@code N40:42:46} strings, and on the {@code EvalError} path of unparseable input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GmsToDecBenchmark {
+
+    private static final int ROWS = 1 << 16;
+
+    private final GmsToDec function = new GmsToDec();
+    private final Properties bindings = new Properties();
+
+    private Object[][] formatted;
+    private Object[][] compact;
+    private Object[][] invalid;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] lat = Coordinates.latitudes(ROWS, 7L);
+
+        formatted = new Object[ROWS][];
+        compact = new Object[ROWS][];
+        invalid = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            String gms = DecToGMS.convertToGMS(lat[i], "lat");
+            formatted[i] = new Object[] { gms, "lat" };
+            compact[i] = new Object[] { gms.charAt(gms.length() - 1) + gms.substring(0, gms.length() - 2)
+                    .replace("° ", ":").replace("' ", ":").replace("\"", ""), "lat" };
+            invalid[i] = new Object[] { gms + " ?", "lat" };
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public Object formatted() {
+        return function.call(bindings, formatted[next()]);
+    }
+
+    @Benchmark
+    public Object compact() {
+        return function.call(bindings, compact[next()]);
+    }
+
+    @Benchmark
+    public Object parseError() {
+        return function.call(bindings, invalid[next()]);
+    }
+}
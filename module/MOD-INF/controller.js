@@ -32,18 +32,64 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 
 function registerCommands() {
-    // No commands for this extension
+    var RS = Packages.com.google.refine.RefineServlet;
+    RS.registerCommand(module, "get-geodesic-stats", new Packages.com.google.refine.extension.geo.commands.GetGeodesicStatsCommand());
+    RS.registerCommand(module, "get-cache-stats", new Packages.com.google.refine.extension.geo.commands.GetCacheStatsCommand());
+    RS.registerCommand(module, "get-resources", new Packages.com.google.refine.extension.geo.commands.GetResourcesCommand());
+    RS.registerCommand(module, "get-metrics", new Packages.com.google.refine.extension.geo.commands.GetMetricsCommand());
 }
 
 function registerOperations() {
-    // No operations for this extension
+    var OR = Packages.com.google.refine.operations.OperationRegistry;
+
+    OR.registerOperation(module, "geo-distance", Packages.com.google.refine.extension.geo.operations.GeoDistanceOperation);
+    OR.registerOperation(module, "dec-to-gms", Packages.com.google.refine.extension.geo.operations.DecToGMSOperation);
+    OR.registerOperation(module, "gms-to-dec", Packages.com.google.refine.extension.geo.operations.GmsToDecOperation);
+    OR.registerOperation(module, "track-length", Packages.com.google.refine.extension.geo.operations.TrackLengthOperation);
+    OR.registerOperation(module, "simplify-track", Packages.com.google.refine.extension.geo.operations.SimplifyTrackOperation);
+    OR.registerOperation(module, "spatial-join", Packages.com.google.refine.extension.geo.operations.SpatialJoinOperation);
+}
+
+function registerFacets() {
+    Packages.com.google.refine.extension.geo.facets.GeoFacet.registerFacetType();
+}
+
+function registerClusterers() {
+    Packages.com.google.refine.extension.geo.clustering.ProximityClusterer.registerClustererType();
+}
+
+function registerImporters() {
+    var IM = Packages.com.google.refine.importing.ImportingManager;
+    IM.registerFormat("text/json/geojson", "GeoJSON files", "LineBasedParserUI", new Packages.com.google.refine.extension.geo.importers.GeoJsonImporter());
+    IM.registerFormat("binary/shapefile", "ESRI shapefiles", "LineBasedParserUI", new Packages.com.google.refine.extension.geo.importers.ShapefileImporter());
+    IM.registerExtension(".geojson", "text/json/geojson");
+    IM.registerExtension(".shp", "binary/shapefile");
+    IM.registerExtension(".dbf", "binary/shapefile");
+    IM.registerMimeType("application/geo+json", "text/json/geojson");
+}
+
+function registerExporters() {
+    var ER = Packages.com.google.refine.exporters.ExporterRegistry;
+    ER.registerExporter("geojson", new Packages.com.google.refine.extension.geo.exporters.GeoJsonExporter(false));
+    ER.registerExporter("ndgeojson", new Packages.com.google.refine.extension.geo.exporters.GeoJsonExporter(true));
+    ER.registerExporter("wkt-csv", new Packages.com.google.refine.extension.geo.exporters.WktExporter());
+    ER.registerExporter("distance-matrix-csv", new Packages.com.google.refine.extension.geo.exporters.DistanceMatrixCsvExporter());
+    ER.registerExporter("distance-matrix-bin", new Packages.com.google.refine.extension.geo.exporters.DistanceMatrixBinaryExporter());
 }
 
 function registerFunctions() {
     var CFR = Packages.com.google.refine.grel.ControlFunctionRegistry;
     
     CFR.registerFunction("decToGMS", new Packages.com.google.refine.extension.geo.functions.DecToGMS());
+    CFR.registerFunction("gmsToDec", new Packages.com.google.refine.extension.geo.functions.GmsToDec());
     CFR.registerFunction("geoDistance", new Packages.com.google.refine.extension.geo.functions.GeoDistance());
+    CFR.registerFunction("geoDistanceFast", new Packages.com.google.refine.extension.geo.functions.GeoDistanceFast());
+    CFR.registerFunction("geoNearest", new Packages.com.google.refine.extension.geo.functions.GeoNearest());
+    CFR.registerFunction("geoWithin", new Packages.com.google.refine.extension.geo.functions.GeoWithin());
+    CFR.registerFunction("geoRegion", new Packages.com.google.refine.extension.geo.functions.GeoRegion());
+    CFR.registerFunction("reverseGeocode", new Packages.com.google.refine.extension.geo.functions.ReverseGeocode());
+    CFR.registerFunction("geoHash", new Packages.com.google.refine.extension.geo.functions.GeoHash());
+    CFR.registerFunction("geoHashDecode", new Packages.com.google.refine.extension.geo.functions.GeoHashDecode());
 }
 
 /*
@@ -52,6 +98,10 @@ function registerFunctions() {
 function init() {
     registerCommands();
     registerOperations();
+    registerFacets();
+    registerClusterers();
+    registerImporters();
+    registerExporters();
     registerFunctions();
 }
 
@@ -33,12 +33,29 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package com.google.refine.extension.geo;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
 import javax.servlet.ServletConfig;
 
 import edu.mit.simile.butterfly.ButterflyModuleImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.extension.geo.index.Gazetteer;
+import com.google.refine.extension.geo.index.RegionIndexCache;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoResources;
+import com.google.refine.extension.geo.util.GeoResultCache;
+
 public class GeoModuleImpl extends ButterflyModuleImpl {
 
     private static final Logger logger = LoggerFactory.getLogger("GeoModuleImpl");
@@ -52,6 +69,110 @@ public class GeoModuleImpl extends ButterflyModuleImpl {
 
         instance = this;
 
+        // nothing heavy is loaded here: resources load on first use, or in the background if asked to
+        Properties properties = loadModuleProperties();
+        configureResultCache(properties);
+        configureMetrics(properties);
+        configureGazetteer(properties);
+        registerResources();
+        warmUpResources(properties);
+
         logger.info("GEO Extension module initialization completed");
     }
+
+    @Override
+    public void destroy() throws Exception {
+        getResources().releaseAll();
+        GeoExecutors.shutdown();
+        super.destroy();
+    }
+
+    /**
+     * @return the registry of the heavy structures of the extension
+     */
+    public GeoResources getResources() {
+        return GeoResources.get();
+    }
+
+    private Properties loadModuleProperties() {
+        Properties properties = new Properties();
+        File file = new File(getPath(), "MOD-INF/module.properties");
+        try (InputStream stream = new FileInputStream(file)) {
+            properties.load(stream);
+        } catch (IOException e) {
+            logger.warn("Could not read " + file, e);
+        }
+        return properties;
+    }
+
+    /**
+     * Sizes the {@link GeoResultCache} from the {@code cache.size} property of {@code module.properties}.
+     */
+    private void configureResultCache(Properties properties) {
+        String size = properties.getProperty(GeoResultCache.SIZE_PROPERTY, "0").trim();
+        try {
+            GeoResultCache.configure(Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} in module.properties: {}", GeoResultCache.SIZE_PROPERTY, size);
+            return;
+        }
+        if (GeoResultCache.get().isEnabled()) {
+            logger.info("Caching up to {} geo function results", GeoResultCache.get().getCapacity());
+        }
+    }
+
+    /**
+     * Turns the {@link GeoMetrics} off if the {@code metrics.enabled} property of {@code module.properties} is false.
+     */
+    private void configureMetrics(Properties properties) {
+        boolean enabled = Boolean.parseBoolean(properties.getProperty(GeoMetrics.ENABLED_PROPERTY, "true").trim());
+        GeoMetrics.setEnabled(enabled);
+        if (!enabled) {
+            logger.info("Geo function metrics are disabled");
+        }
+    }
+
+    private void registerResources() {
+        GeoResources resources = getResources();
+        resources.registerCache("coordinate-stores", CoordinateStoreCache::getBuildMillis,
+                CoordinateStoreCache::estimatedBytes, CoordinateStoreCache::clear);
+        resources.registerCache("spatial-indexes", SpatialIndexCache::getBuildMillis, SpatialIndexCache::estimatedBytes,
+                SpatialIndexCache::clear);
+        resources.registerCache("region-indexes", RegionIndexCache::getBuildMillis, RegionIndexCache::estimatedBytes,
+                RegionIndexCache::clear);
+        resources.registerCache("result-cache", () -> 0L, () -> GeoResultCache.get().estimatedBytes(),
+                () -> GeoResultCache.get().clear());
+    }
+
+    /**
+     * Loads the resources listed, comma separated, by the {@code resources.warmup} property of
+     * {@code module.properties} in a background thread, so that their first use does not wait for them.
+     */
+    private void warmUpResources(Properties properties) {
+        List<String> names = new ArrayList<>();
+        for (String name : properties.getProperty(GeoResources.WARM_UP_PROPERTY, "").split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        if (!names.isEmpty()) {
+            getResources().warmUp(names);
+        }
+    }
+
+    /**
+     * Points the {@link Gazetteer} to the {@code gazetteer.dir} property of {@code module.properties}, relative to the
+     * module directory. The gazetteer itself is only read by the first reverse geocoding.
+     */
+    private void configureGazetteer(Properties properties) {
+        String path = properties.getProperty(Gazetteer.DIRECTORY_PROPERTY, "").trim();
+        if (path.isEmpty()) {
+            return;
+        }
+        File directory = new File(path);
+        if (!directory.isAbsolute()) {
+            directory = new File(getPath(), path);
+        }
+        Gazetteer.configure(directory);
+    }
 }
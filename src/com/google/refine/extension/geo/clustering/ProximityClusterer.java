@@ -0,0 +1,294 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.clustering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.FilteredRows;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.clustering.ClusteredEntry;
+import com.google.refine.clustering.Clusterer;
+import com.google.refine.clustering.ClustererConfig;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.SpatialGrid;
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Clusters the values of a column holding points, such as {@code "48.8584, 2.2945"}, which lie within a given distance
+ * of each other. Two values are in the same cluster when a chain of values links them, each within the distance of the
+ * next.
+ * <p>
+ * Distinct values are hashed into a {@link SpatialGrid} with cells as wide as the distance, so each point is only
+ * compared with the points of the neighbouring cells, with {@link GeoDistance#haversineDistance}. Pairs already in
+ * the same cluster are not compared at all.
+ */
+public class ProximityClusterer extends Clusterer {
+
+    public static final String TYPE = "geo/proximity";
+
+    public static class ProximityClustererConfig extends ClustererConfig {
+
+        @JsonIgnore
+        private ProximityParameters _parameters = new ProximityParameters();
+
+        @JsonProperty("params")
+        public ProximityParameters getParameters() {
+            return _parameters;
+        }
+
+        @JsonProperty("params")
+        public void setParameters(ProximityParameters params) {
+            _parameters = params == null ? new ProximityParameters() : params;
+        }
+
+        @Override
+        public ProximityClusterer apply(Project project) {
+            ProximityClusterer clusterer = new ProximityClusterer();
+            clusterer.initializeFromConfig(project, this);
+            return clusterer;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+    }
+
+    public static class ProximityParameters {
+
+        @JsonProperty("radius")
+        public double radius = 100;
+
+        @JsonProperty("unit")
+        public String unit = "m";
+    }
+
+    /**
+     * Makes the clusterer known to the JSON deserialization of clusterer configurations, so that it can be used with
+     * the {@code compute-clusters} command. The clusterer types of OpenRefine are declared on {@link ClustererConfig}
+     * itself, so extensions register theirs as additional subtypes.
+     */
+    public static void registerClustererType() {
+        ParsingUtilities.mapper.registerSubtypes(new NamedType(ProximityClustererConfig.class, TYPE));
+    }
+
+    final static Logger logger = LoggerFactory.getLogger("proximity_clusterer");
+
+    protected double _radius;
+
+    List<List<ClusteredEntry>> _clusters;
+
+    public void initializeFromConfig(Project project, ProximityClustererConfig config) {
+        super.initializeFromConfig(project, config);
+        ProximityParameters parameters = config.getParameters();
+        double metersPerUnit = GeoDistance.metersPerUnit(
+                parameters.unit == null ? "m" : parameters.unit.toLowerCase(Locale.ROOT));
+        if (Double.isNaN(metersPerUnit)) {
+            throw new IllegalArgumentException("Unit must be 'm', 'km' or 'mi'");
+        }
+        if (!(parameters.radius > 0)) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        _radius = parameters.radius * metersPerUnit;
+    }
+
+    @Override
+    public void computeClusters(Engine engine) {
+        Map<String, Integer> counts = new HashMap<>();
+        FilteredRows filteredRows = engine.getAllFilteredRows();
+        filteredRows.accept(_project, new RowVisitor() {
+
+            @Override
+            public void start(Project project) {
+            }
+
+            @Override
+            public boolean visit(Project project, int rowIndex, Row row) {
+                Cell cell = row.getCell(_colindex);
+                if (cell != null && cell.value != null) {
+                    Object v = cell.value;
+                    String s = (v instanceof String) ? ((String) v) : v.toString();
+                    counts.merge(s, 1, Integer::sum);
+                }
+                return false;
+            }
+
+            @Override
+            public void end(Project project) {
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        int size = counts.size();
+        String[] values = new String[size];
+        int[] valueCounts = new int[size];
+        double[] lats = new double[size];
+        double[] lngs = new double[size];
+        double[] point = new double[2];
+        int n = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (parsePoint(entry.getKey(), point)) {
+                values[n] = entry.getKey();
+                valueCounts[n] = entry.getValue();
+                lats[n] = point[0];
+                lngs[n] = point[1];
+                n++;
+            }
+        }
+
+        int[] parents = link(lats, lngs, n, _radius);
+
+        // most points are usually alone: only the roots of actual clusters get a list
+        int[] roots = new int[n];
+        int[] members = new int[n];
+        for (int i = 0; i < n; i++) {
+            roots[i] = find(parents, i);
+            members[roots[i]]++;
+        }
+        Map<Integer, List<ClusteredEntry>> clusters = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (members[roots[i]] > 1) {
+                clusters.computeIfAbsent(roots[i], k -> new ArrayList<>())
+                        .add(new ClusteredEntry(values[i], valueCounts[i]));
+            }
+        }
+        _clusters = new ArrayList<>(clusters.values());
+        for (List<ClusteredEntry> cluster : _clusters) {
+            cluster.sort(ClusteredEntry.comparator);
+        }
+        Collections.sort(_clusters, (a, b) -> b.size() - a.size());
+        logger.info("Clustered {} points within {} m into {} clusters in {} ms", n, _radius, _clusters.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Links every pair of points within {@code radius} meters, and returns the resulting union-find forest, indexed
+     * like the points. Points with a NaN coordinate are left alone.
+     */
+    static int[] link(double[] lats, double[] lngs, int count, double radius) {
+        SpatialGrid grid = new SpatialGrid(lats, lngs, count, radius);
+        int size = grid.size();
+        // union-find over the positions in the grid, which are visited in cell order
+        int[] parents = new int[size];
+        int[] sizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        for (int i = 0; i < size; i++) {
+            final int point = i;
+            double lat = grid.latitude(i);
+            double lng = grid.longitude(i);
+            grid.candidates(lat, lng, radius, other -> {
+                // each pair is seen from both sides, only the first one compares it
+                if (other <= point) {
+                    return;
+                }
+                int a = find(parents, point);
+                int b = find(parents, other);
+                if (a != b && GeoDistance.haversineDistance(lat, lng, grid.latitude(other), grid.longitude(other)) <= radius) {
+                    if (sizes[a] < sizes[b]) {
+                        int swap = a;
+                        a = b;
+                        b = swap;
+                    }
+                    parents[b] = a;
+                    sizes[a] += sizes[b];
+                }
+            });
+        }
+
+        int[] forest = new int[count];
+        for (int i = 0; i < count; i++) {
+            forest[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            forest[grid.id(i)] = grid.id(find(parents, i));
+        }
+        return forest;
+    }
+
+    static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Parses a point written as a latitude and a longitude separated by a comma, a semicolon or spaces.
+     *
+     * @return whether the value is a valid point, in which case it is stored in {@code point}
+     */
+    static boolean parsePoint(String value, double[] point) {
+        int separator = value.indexOf(',');
+        if (separator < 0) {
+            separator = value.indexOf(';');
+        }
+        if (separator < 0) {
+            String trimmed = value.trim();
+            separator = trimmed.indexOf(' ');
+            value = trimmed;
+        }
+        if (separator < 0) {
+            return false;
+        }
+        point[0] = CoordinateColumns.toLatitude(value.substring(0, separator));
+        point[1] = CoordinateColumns.toLongitude(value.substring(separator + 1));
+        return !Double.isNaN(point[0]) && !Double.isNaN(point[1]);
+    }
+
+    @JsonValue
+    public List<List<ClusteredEntry>> getJsonRepresentation() {
+        return _clusters;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.commands;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.commands.Command;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.BatchMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.extension.geo.util.LatencyHistogram;
+
+/**
+ * Reports the {@link GeoMetrics} of the geo functions and operations, to tell whether a slow transform spends its time
+ * computing or returning errors. A POST reports them, then sets them back to 0, so that the next report covers a
+ * single transform.
+ */
+public class GetMetricsCommand extends Command {
+
+    protected static class Latency {
+
+        @JsonProperty("count")
+        protected final long count;
+        @JsonProperty("meanNanos")
+        protected final double meanNanos;
+        @JsonProperty("maxNanos")
+        protected final long maxNanos;
+        @JsonProperty("p50Nanos")
+        protected final long p50Nanos;
+        @JsonProperty("p90Nanos")
+        protected final long p90Nanos;
+        @JsonProperty("p99Nanos")
+        protected final long p99Nanos;
+        @JsonProperty("p999Nanos")
+        protected final long p999Nanos;
+
+        protected Latency(LatencyHistogram histogram) {
+            count = histogram.getCount();
+            meanNanos = count == 0 ? 0.0 : (double) histogram.getTotalNanos() / count;
+            maxNanos = histogram.getMaxNanos();
+            p50Nanos = histogram.getPercentile(50.0);
+            p90Nanos = histogram.getPercentile(90.0);
+            p99Nanos = histogram.getPercentile(99.0);
+            p999Nanos = histogram.getPercentile(99.9);
+        }
+    }
+
+    protected static class FunctionStats {
+
+        @JsonProperty("name")
+        protected final String name;
+        @JsonProperty("calls")
+        protected final long calls;
+        @JsonProperty("errors")
+        protected final Map<String, Long> errors = new LinkedHashMap<>();
+        @JsonProperty("latency")
+        protected final Latency latency;
+
+        protected FunctionStats(FunctionMetrics metrics) {
+            name = metrics.getName();
+            calls = metrics.getCalls();
+            for (ErrorReason reason : ErrorReason.values()) {
+                errors.put(reason.getKey(), metrics.getErrors(reason));
+            }
+            latency = new Latency(metrics.getLatency());
+        }
+
+        @JsonProperty("errorRate")
+        protected double getErrorRate() {
+            long total = errors.values().stream().mapToLong(Long::longValue).sum();
+            return calls == 0 ? 0.0 : (double) total / calls;
+        }
+    }
+
+    protected static class BatchStats {
+
+        @JsonProperty("name")
+        protected final String name;
+        @JsonProperty("rows")
+        protected final long rows;
+        @JsonProperty("latency")
+        protected final Latency latency;
+
+        protected BatchStats(BatchMetrics metrics) {
+            name = metrics.getName();
+            rows = metrics.getRows();
+            latency = new Latency(metrics.getLatency());
+        }
+    }
+
+    protected static class Metrics {
+
+        @JsonProperty("enabled")
+        protected final boolean enabled = GeoMetrics.isEnabled();
+        @JsonProperty("functions")
+        protected final List<FunctionStats> functions = new ArrayList<>();
+        @JsonProperty("operations")
+        protected final List<BatchStats> operations = new ArrayList<>();
+
+        protected Metrics() {
+            for (FunctionMetrics metrics : GeoMetrics.getFunctions().values()) {
+                functions.add(new FunctionStats(metrics));
+            }
+            for (BatchMetrics metrics : GeoMetrics.getBatches().values()) {
+                operations.add(new BatchStats(metrics));
+            }
+        }
+    }
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        respondJSON(response, new Metrics());
+    }
+
+    @Override
+    public void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!hasValidCSRFToken(request)) {
+            respondCSRFError(response);
+            return;
+        }
+        Metrics metrics = new Metrics();
+        GeoMetrics.reset();
+        respondJSON(response, metrics);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.commands;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.commands.Command;
+import com.google.refine.extension.geo.util.GeoResources;
+
+/**
+ * Reports the resources of {@link GeoResources}: whether each is loaded, how long it took to load and how much memory
+ * it holds.
+ */
+public class GetResourcesCommand extends Command {
+
+    protected static class ResourceStats {
+
+        @JsonProperty("name")
+        protected final String name;
+        @JsonProperty("loaded")
+        protected final boolean loaded;
+        @JsonProperty("loadMillis")
+        protected final long loadMillis;
+        @JsonProperty("estimatedBytes")
+        protected final long estimatedBytes;
+        @JsonProperty("error")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        protected final String error;
+
+        protected ResourceStats(GeoResources.Resource resource) {
+            name = resource.getName();
+            loaded = resource.isLoaded();
+            loadMillis = resource.getLoadMillis();
+            estimatedBytes = resource.getEstimatedBytes();
+            error = resource instanceof GeoResources.LazyResource ? ((GeoResources.LazyResource<?>) resource).getError() : null;
+        }
+    }
+
+    protected static class ResourcesStats {
+
+        @JsonProperty("resources")
+        protected final List<ResourceStats> resources = new ArrayList<>();
+
+        protected ResourcesStats() {
+            for (GeoResources.Resource resource : GeoResources.get().list()) {
+                resources.add(new ResourceStats(resource));
+            }
+        }
+
+        @JsonProperty("estimatedBytes")
+        protected long getEstimatedBytes() {
+            long bytes = 0;
+            for (ResourceStats resource : resources) {
+                bytes += resource.estimatedBytes;
+            }
+            return bytes;
+        }
+    }
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        respondJSON(response, new ResourcesStats());
+    }
+}
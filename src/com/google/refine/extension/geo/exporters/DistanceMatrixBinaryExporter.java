@@ -0,0 +1,79 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Properties;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.exporters.StreamExporter;
+import com.google.refine.model.Project;
+
+/**
+ * Exports a distance matrix as raw little-endian IEEE 754 numbers, row after row, without a header: one row per row of
+ * the project matching the facets, one column per target row, and NaN for pairs with an invalid point. Numbers are
+ * doubles, or floats with the {@code float32} option.
+ */
+public class DistanceMatrixBinaryExporter extends DistanceMatrixExporter implements StreamExporter {
+
+    @Override
+    public void export(Project project, Properties params, Engine engine, OutputStream outputStream) throws IOException {
+        Input input = read(project, params, engine);
+        boolean float32 = input.options.float32;
+        int columns = input.matrix.getColumns();
+        int width = float32 ? Float.BYTES : Double.BYTES;
+        // large enough for a row of the matrix, and for 64k numbers at least
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(columns, 1 << 16) * width).order(ByteOrder.LITTLE_ENDIAN);
+
+        input.matrix.compute((firstRow, rowCount, distances) -> {
+            int length = rowCount * columns;
+            for (int i = 0; i < length; i++) {
+                if (buffer.remaining() < width) {
+                    outputStream.write(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                if (float32) {
+                    buffer.putFloat((float) distances[i]);
+                } else {
+                    buffer.putDouble(distances[i]);
+                }
+            }
+        });
+        outputStream.write(buffer.array(), 0, buffer.position());
+        outputStream.flush();
+    }
+}
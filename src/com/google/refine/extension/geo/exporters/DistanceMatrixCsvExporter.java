@@ -0,0 +1,101 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Properties;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.exporters.WriterExporter;
+import com.google.refine.expr.EvalError;
+import com.google.refine.model.Project;
+
+/**
+ * Exports a distance matrix in long format, as CSV with one {@code from,to,distance} line per pair of valid points,
+ * row after row. Pairs further apart than the optional {@code maxDistance} option, in the unit of the distances, are
+ * left out.
+ */
+public class DistanceMatrixCsvExporter extends DistanceMatrixExporter implements WriterExporter {
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    @Override
+    public void export(Project project, Properties params, Engine engine, Writer writer) throws IOException {
+        Input input = read(project, params, engine);
+        String[] rowKeys = fields(input.rowKeys);
+        String[] columnKeys = input.columnKeys == input.rowKeys ? rowKeys : fields(input.columnKeys);
+        double maxDistance = input.options.maxDistance == null ? Double.POSITIVE_INFINITY : input.options.maxDistance;
+        int columns = input.matrix.getColumns();
+
+        writer.write("from,to,distance\n");
+        input.matrix.compute((firstRow, rowCount, distances) -> {
+            for (int r = 0; r < rowCount; r++) {
+                String rowKey = rowKeys[firstRow + r];
+                int offset = r * columns;
+                for (int c = 0; c < columns; c++) {
+                    double distance = distances[offset + c];
+                    // also skips NaN distances
+                    if (distance <= maxDistance) {
+                        writer.write(rowKey);
+                        writer.write(',');
+                        writer.write(columnKeys[c]);
+                        writer.write(',');
+                        writer.write(Double.toString(distance));
+                        writer.write('\n');
+                    }
+                }
+            }
+        });
+        writer.flush();
+    }
+
+    private static String[] fields(Object[] keys) throws IOException {
+        String[] fields = new String[keys.length];
+        StringWriter writer = new StringWriter();
+        for (int i = 0; i < keys.length; i++) {
+            Object key = keys[i];
+            writer.getBuffer().setLength(0);
+            if (key != null && !(key instanceof EvalError)) {
+                WktExporter.writeField(writer, key.toString());
+            }
+            fields[i] = writer.toString();
+        }
+        return fields;
+    }
+}
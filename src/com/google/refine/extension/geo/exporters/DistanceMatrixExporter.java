@@ -0,0 +1,225 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.extension.geo.util.DistanceMatrix;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.GetProjectIDException;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Base class of the exporters writing the matrix of the distances between the rows of the project matching the facets
+ * and the rows of a target project, computed by {@link DistanceMatrix}.
+ * <p>
+ * The options are read from the {@code options} parameter, as a JSON object with the {@code latColumnName} and
+ * {@code lngColumnName} fields, and optional fields: {@code keyColumnName} (the row index by default),
+ * {@code targetProjectName} (all the rows of that project, the rows matching the facets by default),
+ * {@code targetLatColumnName}, {@code targetLngColumnName} and {@code targetKeyColumnName} (the columns of the project
+ * by default), and {@code unit} ('m', 'km' or 'mi', meters by default).
+ */
+public abstract class DistanceMatrixExporter {
+
+    protected static class Configuration {
+
+        @JsonProperty("latColumnName")
+        protected String latColumnName;
+        @JsonProperty("lngColumnName")
+        protected String lngColumnName;
+        @JsonProperty("keyColumnName")
+        protected String keyColumnName;
+        @JsonProperty("targetProjectName")
+        protected String targetProjectName;
+        @JsonProperty("targetLatColumnName")
+        protected String targetLatColumnName;
+        @JsonProperty("targetLngColumnName")
+        protected String targetLngColumnName;
+        @JsonProperty("targetKeyColumnName")
+        protected String targetKeyColumnName;
+        @JsonProperty("unit")
+        protected String unit = "m";
+        @JsonProperty("maxDistance")
+        protected Double maxDistance;
+        @JsonProperty("float32")
+        protected boolean float32;
+    }
+
+    /**
+     * The matrix of one export, with the keys of its rows and columns.
+     */
+    protected static class Input {
+
+        protected final Configuration options;
+        protected final DistanceMatrix matrix;
+        protected final Object[] rowKeys;
+        protected final Object[] columnKeys;
+
+        Input(Configuration options, DistanceMatrix matrix, Object[] rowKeys, Object[] columnKeys) {
+            this.options = options;
+            this.matrix = matrix;
+            this.rowKeys = rowKeys;
+            this.columnKeys = columnKeys;
+        }
+    }
+
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    protected static Input read(Project project, Properties params, Engine engine) throws IOException {
+        String optionsString = params == null ? null : params.getProperty("options");
+        if (optionsString == null) {
+            throw new IOException("Missing export options");
+        }
+        Configuration options = ParsingUtilities.mapper.readValue(optionsString, Configuration.class);
+        if (options.latColumnName == null || options.lngColumnName == null) {
+            throw new IOException("Missing latitude or longitude column name");
+        }
+        double metersPerUnit = GeoDistance.metersPerUnit(
+                options.unit == null ? "m" : options.unit.toLowerCase(Locale.ROOT));
+        if (Double.isNaN(metersPerUnit)) {
+            throw new IOException("Unit must be 'm', 'km' or 'mi'");
+        }
+
+        Points rows = new Points(project, options.latColumnName, options.lngColumnName, options.keyColumnName);
+        engine.getAllFilteredRows().accept(project, rows);
+        Points columns;
+        if (options.targetProjectName == null || options.targetProjectName.isEmpty()) {
+            if (options.targetLatColumnName == null && options.targetLngColumnName == null
+                    && options.targetKeyColumnName == null) {
+                columns = rows;
+            } else {
+                columns = targetPoints(project, options);
+                engine.getAllFilteredRows().accept(project, columns);
+            }
+        } else {
+            Project target;
+            try {
+                target = ProjectManager.singleton.getProject(ProjectManager.singleton.getProjectID(options.targetProjectName));
+            } catch (GetProjectIDException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            if (target == null) {
+                throw new IOException("Could not load project " + options.targetProjectName);
+            }
+            columns = targetPoints(target, options);
+            synchronized (target) {
+                for (int i = 0; i < target.rows.size(); i++) {
+                    columns.visit(target, i, target.rows.get(i));
+                }
+            }
+        }
+
+        DistanceMatrix matrix = new DistanceMatrix(rows.lats, rows.lngs, rows.size, columns.lats, columns.lngs,
+                columns.size, metersPerUnit);
+        return new Input(options, matrix, Arrays.copyOf(rows.keys, rows.size), Arrays.copyOf(columns.keys, columns.size));
+    }
+
+    private static Points targetPoints(Project project, Configuration options) throws IOException {
+        return new Points(project,
+                options.targetLatColumnName == null ? options.latColumnName : options.targetLatColumnName,
+                options.targetLngColumnName == null ? options.lngColumnName : options.targetLngColumnName,
+                options.targetKeyColumnName == null ? options.keyColumnName : options.targetKeyColumnName);
+    }
+
+    /**
+     * Collects the points and keys of visited rows into growing primitive arrays.
+     */
+    private static class Points implements RowVisitor {
+
+        final CoordinateColumns coordinates;
+        final int keyCellIndex;
+        double[] lats = new double[1024];
+        double[] lngs = new double[1024];
+        Object[] keys = new Object[1024];
+        int size;
+
+        Points(Project project, String latColumnName, String lngColumnName, String keyColumnName) throws IOException {
+            try {
+                coordinates = CoordinateColumns.resolve(project, latColumnName, lngColumnName);
+            } catch (Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            if (keyColumnName == null) {
+                keyCellIndex = -1;
+            } else {
+                Column column = project.columnModel.getColumnByName(keyColumnName);
+                if (column == null) {
+                    throw new IOException("No column named " + keyColumnName);
+                }
+                keyCellIndex = column.getCellIndex();
+            }
+        }
+
+        @Override
+        public void start(Project project) {
+        }
+
+        @Override
+        public boolean visit(Project project, int rowIndex, Row row) {
+            if (size == lats.length) {
+                lats = Arrays.copyOf(lats, size * 2);
+                lngs = Arrays.copyOf(lngs, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            double lat = coordinates.latitude(row);
+            double lng = coordinates.longitude(row);
+            if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                lat = lng = Double.NaN;
+            }
+            lats[size] = lat;
+            lngs[size] = lng;
+            keys[size] = keyCellIndex < 0 ? (Object) rowIndex : row.getCellValue(keyCellIndex);
+            size++;
+            return false;
+        }
+
+        @Override
+        public void end(Project project) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Exports rows as GeoJSON point features, either as a single FeatureCollection or as newline-delimited features, one
+ * per line.
+ * <p>
+ * Features are written with a streaming JSON generator straight to the response. The feature id is the row index, the
+ * geometry is null for rows without a valid point, and the properties hold the values of the exported columns.
+ */
+public class GeoJsonExporter extends PointExporter {
+
+    private final boolean lineDelimited;
+
+    /**
+     * @param lineDelimited
+     *            true to write one feature per line, false to write a FeatureCollection
+     */
+    public GeoJsonExporter(boolean lineDelimited) {
+        this.lineDelimited = lineDelimited;
+    }
+
+    @Override
+    public String getContentType() {
+        return lineDelimited ? "application/x-ndjson" : "application/geo+json";
+    }
+
+    @Override
+    protected PointWriter open(Writer writer, List<String> columnNames) throws IOException {
+        JsonGenerator generator = ParsingUtilities.mapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        if (!lineDelimited) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+        }
+        String[] names = columnNames.toArray(new String[0]);
+
+        return new PointWriter() {
+
+            @Override
+            public void write(int rowIndex, double lat, double lng, Object[] values) throws IOException {
+                generator.writeStartObject();
+                generator.writeStringField("type", "Feature");
+                generator.writeNumberField("id", rowIndex);
+                if (Double.isNaN(lat)) {
+                    generator.writeNullField("geometry");
+                } else {
+                    generator.writeObjectFieldStart("geometry");
+                    generator.writeStringField("type", "Point");
+                    generator.writeArrayFieldStart("coordinates");
+                    generator.writeNumber(lng);
+                    generator.writeNumber(lat);
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.writeObjectFieldStart("properties");
+                for (int i = 0; i < names.length; i++) {
+                    generator.writeFieldName(names[i]);
+                    writeValue(generator, values[i]);
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+                if (lineDelimited) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            @Override
+            public void finish() throws IOException {
+                if (!lineDelimited) {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.close();
+            }
+        };
+    }
+
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null || value instanceof EvalError) {
+            generator.writeNull();
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                generator.writeNumber(number);
+            } else {
+                generator.writeNull();
+            }
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
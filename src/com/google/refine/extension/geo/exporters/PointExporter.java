@@ -0,0 +1,172 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.exporters.WriterExporter;
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Base class of the exporters writing one point per row, read from a latitude and a longitude column, along with the
+ * values of other columns.
+ * <p>
+ * Rows matching the facets are visited once and written as they come through a {@link PointWriter}, so nothing but the
+ * current row is held in memory whatever the size of the project. The options are read from the {@code options}
+ * parameter, as a JSON object with the {@code latColumnName} and {@code lngColumnName} fields, and an optional
+ * {@code columns} list of the columns to write (all the other columns by default).
+ */
+public abstract class PointExporter implements WriterExporter {
+
+    protected static class Configuration {
+
+        @JsonProperty("latColumnName")
+        protected String latColumnName;
+        @JsonProperty("lngColumnName")
+        protected String lngColumnName;
+        @JsonProperty("columns")
+        protected List<String> columns;
+    }
+
+    /**
+     * Writes the points of one export.
+     */
+    protected interface PointWriter {
+
+        /**
+         * Writes a row. The coordinates are NaN if the row has no valid point, and the values array is reused from
+         * one row to the next.
+         */
+        void write(int rowIndex, double lat, double lng, Object[] values) throws IOException;
+
+        /**
+         * Completes the output after the last row.
+         */
+        void finish() throws IOException;
+    }
+
+    /**
+     * Starts an export to the given writer, with the names of the columns whose values will be written.
+     */
+    protected abstract PointWriter open(Writer writer, List<String> columnNames) throws IOException;
+
+    @Override
+    public void export(Project project, Properties params, Engine engine, Writer writer) throws IOException {
+        String optionsString = params == null ? null : params.getProperty("options");
+        if (optionsString == null) {
+            throw new IOException("Missing export options");
+        }
+        Configuration options = ParsingUtilities.mapper.readValue(optionsString, Configuration.class);
+        if (options.latColumnName == null || options.lngColumnName == null) {
+            throw new IOException("Missing latitude or longitude column name");
+        }
+
+        CoordinateColumns coordinates;
+        try {
+            coordinates = CoordinateColumns.resolve(project, options.latColumnName, options.lngColumnName);
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        List<String> columnNames = new ArrayList<>();
+        List<Integer> cellIndices = new ArrayList<>();
+        if (options.columns == null) {
+            for (Column column : project.columnModel.columns) {
+                String name = column.getName();
+                if (!name.equals(options.latColumnName) && !name.equals(options.lngColumnName)) {
+                    columnNames.add(name);
+                    cellIndices.add(column.getCellIndex());
+                }
+            }
+        } else {
+            for (String name : options.columns) {
+                Column column = project.columnModel.getColumnByName(name);
+                if (column == null) {
+                    throw new IOException("No column named " + name);
+                }
+                columnNames.add(name);
+                cellIndices.add(column.getCellIndex());
+            }
+        }
+        int[] cells = cellIndices.stream().mapToInt(Integer::intValue).toArray();
+        Object[] values = new Object[cells.length];
+
+        PointWriter pointWriter = open(writer, columnNames);
+        try {
+            engine.getAllFilteredRows().accept(project, new RowVisitor() {
+
+                @Override
+                public void start(Project project) {
+                }
+
+                @Override
+                public boolean visit(Project project, int rowIndex, Row row) {
+                    for (int i = 0; i < cells.length; i++) {
+                        values[i] = row.getCellValue(cells[i]);
+                    }
+                    double lat = coordinates.latitude(row);
+                    double lng = coordinates.longitude(row);
+                    if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                        lat = lng = Double.NaN;
+                    }
+                    try {
+                        pointWriter.write(rowIndex, lat, lng, values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return false;
+                }
+
+                @Override
+                public void end(Project project) {
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        pointWriter.finish();
+    }
+}
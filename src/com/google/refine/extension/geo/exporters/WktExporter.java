@@ -0,0 +1,113 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.util.Wkt;
+
+/**
+ * Exports rows as CSV, with the point of each row as WKT in a first {@code WKT} column, followed by the exported
+ * columns. Rows without a valid point get an empty geometry. This is the layout GIS tools expect for delimited text
+ * with geometries.
+ */
+public class WktExporter extends PointExporter {
+
+    public static final String GEOMETRY_COLUMN = "WKT";
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    @Override
+    protected PointWriter open(Writer writer, List<String> columnNames) throws IOException {
+        writer.write(GEOMETRY_COLUMN);
+        for (String name : columnNames) {
+            writer.write(',');
+            writeField(writer, name);
+        }
+        writer.write('\n');
+
+        return new PointWriter() {
+
+            @Override
+            public void write(int rowIndex, double lat, double lng, Object[] values) throws IOException {
+                if (!Double.isNaN(lat)) {
+                    writer.write("POINT (");
+                    writer.write(Wkt.formatCoordinate(lng));
+                    writer.write(' ');
+                    writer.write(Wkt.formatCoordinate(lat));
+                    writer.write(')');
+                }
+                for (Object value : values) {
+                    writer.write(',');
+                    if (value != null && !(value instanceof EvalError)) {
+                        writeField(writer, value.toString());
+                    }
+                }
+                writer.write('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    static void writeField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
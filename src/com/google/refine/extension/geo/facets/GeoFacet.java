@@ -0,0 +1,391 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.facets;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.browsing.FilteredRecords;
+import com.google.refine.browsing.FilteredRows;
+import com.google.refine.browsing.RecordFilter;
+import com.google.refine.browsing.RecordVisitor;
+import com.google.refine.browsing.RowFilter;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.browsing.facets.Facet;
+import com.google.refine.browsing.facets.FacetConfig;
+import com.google.refine.browsing.filters.AnyRowRecordFilter;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.CoordinateStore;
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.extension.geo.index.PointIndex;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.extension.geo.util.GeoCircle;
+import com.google.refine.model.Project;
+import com.google.refine.model.Record;
+import com.google.refine.model.Row;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Selects the rows whose point, read from a latitude and a longitude column, lies within a circle (centre and radius)
+ * or a latitude/longitude box.
+ * <p>
+ * Matching rows are found with the cached {@link PointIndex} of the two columns rather than by evaluating every row:
+ * the index returns the points of the bounding box of the area, and only those are tested against the circle, with
+ * {@link GeoCircle}. The set of matching rows is computed once per facet and shared by all the filters it hands out.
+ */
+public class GeoFacet implements Facet {
+
+    public static final String TYPE = "geo/area";
+
+    public static final String SHAPE_CIRCLE = "circle";
+    public static final String SHAPE_BOX = "box";
+
+    /*
+     * Configuration, from the client side
+     */
+    public static class GeoFacetConfig implements FacetConfig {
+
+        @JsonProperty("name")
+        protected String name;
+        @JsonProperty("latColumnName")
+        protected String latColumnName;
+        @JsonProperty("lngColumnName")
+        protected String lngColumnName;
+        @JsonProperty("shape")
+        protected String shape = SHAPE_CIRCLE;
+
+        // circle
+        @JsonProperty("lat")
+        protected double lat;
+        @JsonProperty("lng")
+        protected double lng;
+        @JsonProperty("radius")
+        protected double radius;
+        @JsonProperty("unit")
+        protected String unit = "m";
+
+        // box, which crosses the antimeridian when minLng > maxLng
+        @JsonProperty("minLat")
+        protected double minLat;
+        @JsonProperty("maxLat")
+        protected double maxLat;
+        @JsonProperty("minLng")
+        protected double minLng;
+        @JsonProperty("maxLng")
+        protected double maxLng;
+
+        @JsonProperty("invert")
+        protected boolean invert;
+
+        /**
+         * Accepts the unit in any case, as geoDistance() does.
+         */
+        @JsonProperty("unit")
+        protected void setUnit(String unit) {
+            this.unit = unit == null ? null : unit.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public GeoFacet apply(Project project) {
+            GeoFacet facet = new GeoFacet();
+            facet.initializeFromConfig(this, project);
+            return facet;
+        }
+
+        @Override
+        public void validate() {
+            Validate.notNull(latColumnName, "Missing latitude column name");
+            Validate.notNull(lngColumnName, "Missing longitude column name");
+            if (SHAPE_CIRCLE.equals(shape)) {
+                Validate.isTrue(lat >= -90 && lat <= 90, "lat must be between -90 and 90 degrees");
+                Validate.isTrue(lng >= -180 && lng <= 180, "lng must be between -180 and 180 degrees");
+                Validate.isTrue(radius >= 0, "radius must not be negative");
+                Validate.isTrue(unit != null && !Double.isNaN(GeoDistance.metersPerUnit(unit)), "Unit must be 'm', 'km' or 'mi'");
+            } else if (SHAPE_BOX.equals(shape)) {
+                Validate.isTrue(minLat >= -90 && maxLat <= 90 && minLat <= maxLat,
+                        "minLat and maxLat must be ordered and between -90 and 90 degrees");
+                Validate.isTrue(minLng >= -180 && minLng <= 180 && maxLng >= -180 && maxLng <= 180,
+                        "minLng and maxLng must be between -180 and 180 degrees");
+            } else {
+                throw new IllegalArgumentException("Shape must be 'circle' or 'box'");
+            }
+        }
+
+        @Override
+        public Optional<Set<String>> getColumnDependencies() {
+            return Optional.of(Set.of(latColumnName, lngColumnName));
+        }
+
+        @Override
+        public String getJsonType() {
+            return TYPE;
+        }
+    }
+
+    /**
+     * Makes the facet known to the JSON deserialization of engine configurations. The facet types of OpenRefine are
+     * declared on {@link FacetConfig} itself, so extensions register theirs as additional subtypes.
+     */
+    public static void registerFacetType() {
+        ParsingUtilities.mapper.registerSubtypes(new NamedType(GeoFacetConfig.class, TYPE));
+    }
+
+    GeoFacetConfig config;
+
+    /*
+     * Derived configuration data
+     */
+    protected CoordinateColumns columns;
+    protected GeoCircle circle;
+    protected String errorMessage;
+
+    /*
+     * Computed results
+     */
+    protected BitSet matchingRows;
+    protected int matchCount;
+    protected int blankCount;
+
+    @JsonProperty("name")
+    public String getName() {
+        return config.name;
+    }
+
+    @JsonProperty("latColumnName")
+    public String getLatColumnName() {
+        return config.latColumnName;
+    }
+
+    @JsonProperty("lngColumnName")
+    public String getLngColumnName() {
+        return config.lngColumnName;
+    }
+
+    @JsonProperty("shape")
+    public String getShape() {
+        return config.shape;
+    }
+
+    @JsonProperty("invert")
+    public boolean isInverted() {
+        return config.invert;
+    }
+
+    @JsonProperty("error")
+    @JsonInclude(Include.NON_NULL)
+    public String getError() {
+        return errorMessage;
+    }
+
+    /**
+     * Number of rows (or records) in the area, among those selected by the other facets.
+     */
+    @JsonProperty("count")
+    @JsonInclude(Include.NON_NULL)
+    public Integer getCount() {
+        return errorMessage == null ? matchCount : null;
+    }
+
+    /**
+     * Number of rows (or records) without a valid point, among those selected by the other facets.
+     */
+    @JsonProperty("blankCount")
+    @JsonInclude(Include.NON_NULL)
+    public Integer getBlankCount() {
+        return errorMessage == null ? blankCount : null;
+    }
+
+    public void initializeFromConfig(GeoFacetConfig configuration, Project project) {
+        config = configuration;
+        try {
+            config.validate();
+            columns = CoordinateColumns.resolve(project, config.latColumnName, config.lngColumnName);
+        } catch (Exception e) {
+            errorMessage = e.getMessage();
+            return;
+        }
+        if (SHAPE_CIRCLE.equals(config.shape)) {
+            circle = new GeoCircle(config.lat, config.lng, config.radius * GeoDistance.metersPerUnit(config.unit));
+        }
+    }
+
+    @Override
+    public RowFilter getRowFilter(Project project) {
+        if (errorMessage != null) {
+            return null;
+        }
+        BitSet matching = getMatchingRows(project);
+        boolean invert = config.invert;
+        return (p, rowIndex, row) -> matching.get(rowIndex) != invert;
+    }
+
+    @Override
+    public RecordFilter getRecordFilter(Project project) {
+        RowFilter rowFilter = getRowFilter(project);
+        return rowFilter == null ? null : new AnyRowRecordFilter(rowFilter);
+    }
+
+    @Override
+    public void computeChoices(Project project, FilteredRows filteredRows) {
+        if (errorMessage != null) {
+            return;
+        }
+        BitSet matching = getMatchingRows(project);
+        CoordinateStore store = getStore(project);
+        filteredRows.accept(project, new RowVisitor() {
+
+            @Override
+            public void start(Project project) {
+            }
+
+            @Override
+            public boolean visit(Project project, int rowIndex, Row row) {
+                count(matching.get(rowIndex), !store.isValid(rowIndex));
+                return false;
+            }
+
+            @Override
+            public void end(Project project) {
+            }
+        });
+    }
+
+    @Override
+    public void computeChoices(Project project, FilteredRecords filteredRecords) {
+        if (errorMessage != null) {
+            return;
+        }
+        BitSet matching = getMatchingRows(project);
+        CoordinateStore store = getStore(project);
+        filteredRecords.accept(project, new RecordVisitor() {
+
+            @Override
+            public void start(Project project) {
+            }
+
+            @Override
+            public boolean visit(Project project, Record record) {
+                int firstMatch = matching.nextSetBit(record.fromRowIndex);
+                boolean blank = true;
+                for (int i = record.fromRowIndex; i < record.toRowIndex && blank; i++) {
+                    blank = !store.isValid(i);
+                }
+                count(firstMatch >= 0 && firstMatch < record.toRowIndex, blank);
+                return false;
+            }
+
+            @Override
+            public void end(Project project) {
+            }
+        });
+    }
+
+    private void count(boolean matches, boolean blank) {
+        if (matches) {
+            matchCount++;
+        } else if (blank) {
+            blankCount++;
+        }
+    }
+
+    /**
+     * Coordinates of the rows of the project, read once rather than from the cells of every visited row.
+     */
+    private CoordinateStore getStore(Project project) {
+        try {
+            return CoordinateStoreCache.get(project, config.latColumnName, config.lngColumnName);
+        } catch (Exception e) {
+            // the columns were resolved when the facet was initialized
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Rows of the project whose point lies within the area, by row index.
+     */
+    protected BitSet getMatchingRows(Project project) {
+        if (matchingRows == null) {
+            PointIndex index;
+            try {
+                index = SpatialIndexCache.get(project, config.latColumnName, config.lngColumnName);
+            } catch (Exception e) {
+                // the columns were resolved when the facet was initialized
+                throw new IllegalStateException(e);
+            }
+            BitSet matching = new BitSet(project.rows.size());
+            if (circle != null) {
+                GeoCircle c = circle;
+                double fromLng = c.coversAllLongitudes() ? -180.0 : c.getMinLongitude();
+                double toLng = c.coversAllLongitudes() ? 180.0 : c.getMaxLongitude();
+                queryBox(index, c.getMinLatitude(), c.getMaxLatitude(), fromLng, toLng, position -> {
+                    if (c.contains(index.latitude(position), index.longitude(position))) {
+                        matching.set(index.id(position));
+                    }
+                });
+            } else {
+                double toLng = config.minLng > config.maxLng ? config.maxLng + 360.0 : config.maxLng;
+                queryBox(index, config.minLat, config.maxLat, config.minLng, toLng,
+                        position -> matching.set(index.id(position)));
+            }
+            matchingRows = matching;
+        }
+        return matchingRows;
+    }
+
+    /**
+     * Queries a box whose longitudes may extend past the antimeridian, by at most one turn, as two boxes.
+     */
+    private static void queryBox(PointIndex index, double minLat, double maxLat, double minLng, double maxLng,
+            IntConsumer consumer) {
+        if (minLng < -180.0) {
+            index.withinBox(minLat, maxLat, minLng + 360.0, 180.0, consumer);
+            index.withinBox(minLat, maxLat, -180.0, Math.min(maxLng, 180.0), consumer);
+        } else if (maxLng > 180.0) {
+            index.withinBox(minLat, maxLat, minLng, 180.0, consumer);
+            index.withinBox(minLat, maxLat, -180.0, maxLng - 360.0, consumer);
+        } else {
+            index.withinBox(minLat, maxLat, minLng, maxLng, consumer);
+        }
+    }
+}
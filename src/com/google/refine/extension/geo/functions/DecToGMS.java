@@ -33,25 +33,38 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package com.google.refine.extension.geo.functions;
 
-import java.util.Locale;
 import java.util.Properties;
 
-import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.extension.geo.util.GeoResultCache;
 import com.google.refine.grel.ControlFunctionRegistry;
 import com.google.refine.grel.EvalErrorMessage;
 import com.google.refine.grel.Function;
 
 public class DecToGMS implements Function {
 
+    private final FunctionMetrics metrics = GeoMetrics.function("decToGMS");
+
     @Override
     public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
         if (args.length < 1 || args.length > 2) {
-            return new EvalError("decToGMS() expects one or two arguments: decimal degrees and optional coordinate type");
+            return metrics.error(ErrorReason.ARGUMENTS, "decToGMS() expects one or two arguments: decimal degrees and optional coordinate type");
         }
 
         Object decimal = args[0];
         if (!(decimal instanceof Number)) {
-            return new EvalError(EvalErrorMessage.expects_first_param_number(ControlFunctionRegistry.getFunctionName(this)));
+            return metrics.error(ErrorReason.TYPE, EvalErrorMessage.expects_first_param_number(ControlFunctionRegistry.getFunctionName(this)));
         }
 
         double decimalValue = ((Number) decimal).doubleValue();
@@ -61,26 +74,39 @@ public class DecToGMS implements Function {
             if (args[1] != null && args[1] instanceof String) {
                 coordType = ((String) args[1]).toLowerCase();
                 if (!"lat".equals(coordType) && !"lng".equals(coordType) && !"lon".equals(coordType)) {
-                    return new EvalError(EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
+                    return metrics.error(ErrorReason.UNIT, EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
                 }
                 if ("lon".equals(coordType)) {
                     coordType = "lng";
                 }
             } else {
-                return new EvalError(EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
+                return metrics.error(ErrorReason.TYPE, EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
             }
         }
         if ("lat".equals(coordType) && (decimalValue < -90 || decimalValue > 90)) {
-            return new EvalError("Latitude must be between -90 and 90 degrees");
+            return metrics.error(ErrorReason.RANGE, "Latitude must be between -90 and 90 degrees");
         }
         if ("lng".equals(coordType) && (decimalValue < -180 || decimalValue > 180)) {
-            return new EvalError("Longitude must be between -180 and 180 degrees");
+            return metrics.error(ErrorReason.RANGE, "Longitude must be between -180 and 180 degrees");
         }
 
-        return convertToGMS(decimalValue, coordType);
+        GeoResultCache cache = GeoResultCache.get();
+        int tag = "lat".equals(coordType) ? GeoResultCache.TAG_GMS_LAT
+                : "lng".equals(coordType) ? GeoResultCache.TAG_GMS_LNG : GeoResultCache.TAG_GMS;
+        Object cached = cache.lookup(tag, decimalValue, 0, 0, 0);
+        if (cached != null) {
+            return cached;
+        }
+        String gms = convertToGMS(decimalValue, coordType);
+        cache.store(tag, decimalValue, 0, 0, 0, gms);
+        return gms;
     }
 
-    private String convertToGMS(double decimal, String coordType) {
+    /**
+     * Formats decimal degrees as degrees, minutes and seconds. The coordinate type ('lat', 'lng' or null) selects the
+     * direction suffix; the value is not range checked.
+     */
+    public static String convertToGMS(double decimal, String coordType) {
         boolean isNegative = decimal < 0;
         double absDecimal = Math.abs(decimal);
 
@@ -101,7 +127,7 @@ public class DecToGMS implements Function {
                 direction = " (-)";
             }
         }
-        return String.format(Locale.ROOT, "%d° %d' %.2f\"%s", degrees, minutes, seconds, direction);
+        return GMSFormatter.format(degrees, minutes, seconds, direction);
     }
 
     @Override
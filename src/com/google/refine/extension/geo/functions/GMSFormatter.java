@@ -0,0 +1,94 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Locale;
+
+/**
+ * Formats degrees, minutes and seconds the same way as
+ * {@code String.format(Locale.ROOT, "%d° %d' %.2f\"%s", degrees, minutes, seconds, direction)}, without going through
+ * {@link java.util.Formatter}.
+ * <p>
+ * Seconds are rounded to hundredths in fixed point and written into a per-thread {@link StringBuilder}. The JDK rounds
+ * the shortest decimal representation of the value half-up, which can differ from rounding its exact binary value when
+ * the value lies right next to a tie (59.995 is stored as 59.99499999...). Those rare inputs are handed to
+ * {@link String#format} so that the output stays identical in every case, and so are seconds of
+ * {@link #MAX_FAST_SECONDS} or more, which only come out of huge decimals converted without a coordinate type.
+ */
+final class GMSFormatter {
+
+    private static final String PATTERN = "%d° %d' %.2f\"%s";
+
+    /**
+     * Distance from a rounding tie, in hundredths of a second, under which the fixed-point rounding is not trusted.
+     */
+    private static final double TIE_MARGIN = 1e-7;
+
+    /**
+     * Seconds from which the fixed-point path is not used: beyond it, a double no longer holds hundredths precisely
+     * enough for the rounding to match the shortest decimal representation.
+     */
+    static final double MAX_FAST_SECONDS = 1e6;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private GMSFormatter() {
+    }
+
+    static String format(int degrees, int minutes, double seconds, String direction) {
+        double scaled = seconds * 100.0;
+        // also rejects NaN and negative values (including -0.0, which the JDK prints as "-0.00")
+        if (!(seconds >= 0 && seconds < MAX_FAST_SECONDS) || Double.doubleToRawLongBits(seconds) < 0) {
+            return String.format(Locale.ROOT, PATTERN, degrees, minutes, seconds, direction);
+        }
+        long hundredths = (long) scaled;
+        double fraction = scaled - hundredths;
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            return String.format(Locale.ROOT, PATTERN, degrees, minutes, seconds, direction);
+        }
+        if (fraction > 0.5) {
+            hundredths++;
+        }
+
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        builder.append(degrees).append("° ").append(minutes).append("' ").append(hundredths / 100).append('.');
+        int cents = (int) (hundredths % 100);
+        if (cents < 10) {
+            builder.append('0');
+        }
+        builder.append(cents).append('"').append(direction);
+        return builder.toString();
+    }
+}
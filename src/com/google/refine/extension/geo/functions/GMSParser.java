@@ -0,0 +1,255 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+/**
+ * Parses degrees, minutes and seconds into decimal degrees in a single pass over the characters, without regular
+ * expressions or intermediate strings.
+ * <p>
+ * A coordinate is one to three numbers (degrees, then minutes, then seconds), only the last of which may have a
+ * fraction. Numbers are separated by spaces, colons or unit marks ({@code °}, {@code '}, {@code "} and their typographic
+ * variants), and each unit mark must follow the number of its unit. The hemisphere is given by a leading or trailing
+ * N, S, E or W, or by a leading sign or a trailing {@code (-)}, so that every output of {@link DecToGMS#convertToGMS}
+ * is accepted: {@code 40°42'46.08"N}, {@code 40 42 46.08 N}, {@code N40:42:46} and {@code 74° 0' 21.60" (-)} all parse.
+ */
+final class GMSParser {
+
+    /**
+     * Significant digits kept per number, so that the mantissa is exact in a long and the scale in {@link #POWERS}.
+     */
+    private static final int MAX_DIGITS = 18;
+
+    private static final double[] POWERS = new double[MAX_DIGITS + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i <= MAX_DIGITS; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private static final int DEGREES = 0;
+    private static final int MINUTES = 1;
+    private static final int SECONDS = 2;
+    private static final int SEPARATOR = -1;
+    private static final int NONE = -2;
+
+    private GMSParser() {
+    }
+
+    /**
+     * Parses a coordinate. The coordinate type ('lat', 'lng' or null) rejects the hemispheres of the other axis; when
+     * the axis is known, from the type or the hemisphere, the value is range checked.
+     *
+     * @return the decimal degrees, or NaN if the text is not a valid coordinate
+     */
+    static double parse(CharSequence text, String coordType) {
+        int length = text.length();
+        int i = skipSpaces(text, 0, length);
+        boolean negative = false;
+        boolean signed = false;
+        char hemisphere = 0;
+        if (i < length) {
+            char c = text.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                signed = true;
+                i++;
+            } else if (isHemisphere(c)) {
+                hemisphere = Character.toUpperCase(c);
+                i = skipSpaces(text, i + 1, length);
+            }
+        }
+
+        double degrees = 0;
+        double minutes = 0;
+        double seconds = 0;
+        int components = 0;
+        boolean fraction = false;
+        while (i < length && components <= SECONDS) {
+            char c = text.charAt(i);
+            if (!isDigit(c) && c != '.') {
+                break;
+            }
+            if (fraction) {
+                // only the last number may have a fraction
+                return Double.NaN;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean any = false;
+            for (; i < length; i++) {
+                c = text.charAt(i);
+                if (isDigit(c)) {
+                    any = true;
+                    if (digits < MAX_DIGITS) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                        if (fraction) {
+                            scale++;
+                        }
+                    } else if (!fraction) {
+                        return Double.NaN;
+                    }
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (!any) {
+                return Double.NaN;
+            }
+            double value = mantissa / POWERS[scale];
+            if (components == DEGREES) {
+                degrees = value;
+            } else if (components == MINUTES) {
+                minutes = value;
+            } else {
+                seconds = value;
+            }
+
+            i = skipSpaces(text, i, length);
+            int mark = i < length ? unitMark(text.charAt(i)) : NONE;
+            if (mark == MINUTES && i + 1 < length && unitMark(text.charAt(i + 1)) == MINUTES) {
+                // two single quotes standing for a double quote
+                mark = SECONDS;
+                i++;
+            }
+            if (mark >= 0 && mark != components) {
+                return Double.NaN;
+            }
+            if (mark != NONE) {
+                i = skipSpaces(text, i + 1, length);
+            }
+            components++;
+        }
+        if (components == 0) {
+            return Double.NaN;
+        }
+
+        if (i < length) {
+            char c = text.charAt(i);
+            if (isHemisphere(c)) {
+                if (hemisphere != 0 || signed) {
+                    return Double.NaN;
+                }
+                hemisphere = Character.toUpperCase(c);
+                i++;
+            } else if (c == '(' && i + 2 < length && text.charAt(i + 1) == '-' && text.charAt(i + 2) == ')') {
+                if (hemisphere != 0 || signed) {
+                    return Double.NaN;
+                }
+                negative = true;
+                i += 3;
+            }
+            i = skipSpaces(text, i, length);
+        }
+        if (i < length || minutes >= 60 || seconds > 60) {
+            return Double.NaN;
+        }
+
+        double limit = Double.POSITIVE_INFINITY;
+        if (hemisphere == 'N' || hemisphere == 'S') {
+            if ("lng".equals(coordType)) {
+                return Double.NaN;
+            }
+            limit = 90;
+        } else if (hemisphere == 'E' || hemisphere == 'W') {
+            if ("lat".equals(coordType)) {
+                return Double.NaN;
+            }
+            limit = 180;
+        } else if ("lat".equals(coordType)) {
+            limit = 90;
+        } else if ("lng".equals(coordType)) {
+            limit = 180;
+        }
+        double decimal = degrees + minutes / 60 + seconds / 3600;
+        if (decimal > limit) {
+            return Double.NaN;
+        }
+        return negative || hemisphere == 'S' || hemisphere == 'W' ? -decimal : decimal;
+    }
+
+    private static int unitMark(char c) {
+        switch (c) {
+            case '°':
+            case 'º':
+            case '˚':
+                return DEGREES;
+            case '\'':
+            case '′':
+            case '’':
+            case '´':
+                return MINUTES;
+            case '"':
+            case '″':
+            case '”':
+                return SECONDS;
+            case ':':
+                return SEPARATOR;
+            default:
+                return NONE;
+        }
+    }
+
+    private static boolean isHemisphere(char c) {
+        switch (c) {
+            case 'N':
+            case 'S':
+            case 'E':
+            case 'W':
+            case 'n':
+            case 's':
+            case 'e':
+            case 'w':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(CharSequence text, int i, int length) {
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
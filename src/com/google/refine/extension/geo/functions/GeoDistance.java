@@ -35,68 +35,195 @@ package com.google.refine.extension.geo.functions;
 
 import java.util.Properties;
 
-import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.extension.geo.util.GeoResultCache;
 import com.google.refine.grel.ControlFunctionRegistry;
 import com.google.refine.grel.EvalErrorMessage;
 import com.google.refine.grel.Function;
 
 public class GeoDistance implements Function {
 
-    private static final double EARTH_RADIUS_M = 6371000.0;
+    /**
+     * Radius in meters of the spherical model of the Earth, used by every spherical distance, index and bound of the
+     * extension.
+     */
+    public static final double EARTH_RADIUS_M = 6371000.0;
+
+    /**
+     * Great circle distance in meters per degree of latitude, or of longitude along the equator, on that sphere.
+     */
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_M / 180.0;
+
+    /**
+     * Model of the Earth as a sphere of radius {@link #EARTH_RADIUS_M}, the default.
+     */
+    public static final String MODEL_SPHERE = "sphere";
+
+    /**
+     * Model of the Earth as the WGS84 ellipsoid, see {@link Wgs84Geodesic}.
+     */
+    public static final String MODEL_WGS84 = "wgs84";
+
+    private final FunctionMetrics metrics = GeoMetrics.function(name());
+
+    // unit and model arguments of the last call which passed validation, see evaluate()
+    private Options lastOptions;
 
     @Override
     public Object call(Properties bindings, Object[] args) {
-        if (args.length < 4 || args.length > 5) {
-            return new EvalError("geoDistance() expects 4 or 5 arguments: lat1, lng1, lat2, lng2, and optional unit ('m', 'km', 'mi')");
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    /**
+     * Unit and model arguments, resolved once. An expression passes the same string instances for its literal unit and
+     * model on every row, so that a call with the very same argument objects can reuse them without lowercasing and
+     * looking them up again.
+     */
+    private static final class Options {
+
+        final int argumentCount;
+        final Object unit;
+        final Object model;
+        final double metersPerUnit;
+        final boolean ellipsoid;
+
+        Options(Object[] args, double metersPerUnit, boolean ellipsoid) {
+            argumentCount = args.length;
+            unit = args.length >= 5 ? args[4] : null;
+            model = args.length == 6 ? args[5] : null;
+            this.metersPerUnit = metersPerUnit;
+            this.ellipsoid = ellipsoid;
+        }
+
+        boolean matches(Object[] args) {
+            return args.length == argumentCount && (argumentCount < 5 || args[4] == unit)
+                    && (argumentCount < 6 || args[5] == model);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        // fast path: four numbers in range with the unit and model of the previous call, read without boxing
+        Options options = lastOptions;
+        if (options != null && options.matches(args) && args[0] instanceof Number && args[1] instanceof Number
+                && args[2] instanceof Number && args[3] instanceof Number) {
+            double lat1 = ((Number) args[0]).doubleValue();
+            double lng1 = ((Number) args[1]).doubleValue();
+            double lat2 = ((Number) args[2]).doubleValue();
+            double lng2 = ((Number) args[3]).doubleValue();
+            // written as the negation of the checks below, so that NaN coordinates pass as they do there
+            if (!(lat1 < -90 || lat1 > 90 || lat2 < -90 || lat2 > 90 || lng1 < -180 || lng1 > 180 || lng2 < -180
+                    || lng2 > 180)) {
+                return compute(lat1, lng1, lat2, lng2, options);
+            }
+        }
+        return evaluateChecked(args);
+    }
+
+    /**
+     * Validates every argument in turn, returning the error of the first invalid one.
+     */
+    private Object evaluateChecked(Object[] args) {
+        if (args.length < 4 || args.length > 6) {
+            return metrics.error(ErrorReason.ARGUMENTS, name()
+                    + "() expects 4 to 6 arguments: lat1, lng1, lat2, lng2, optional unit ('m', 'km', 'mi') and optional model ('sphere', 'wgs84')");
         }
 
         Double lat1 = extractCoordinate(args[0], "lat1");
-        if (lat1 == null) return new EvalError(EvalErrorMessage.expects_first_param_number(ControlFunctionRegistry.getFunctionName(this)));
+        if (lat1 == null) return metrics.error(ErrorReason.TYPE, EvalErrorMessage.expects_first_param_number(ControlFunctionRegistry.getFunctionName(this)));
 
         Double lng1 = extractCoordinate(args[1], "lng1");
-        if (lng1 == null) return new EvalError(EvalErrorMessage.expects_second_param_number(ControlFunctionRegistry.getFunctionName(this)));
+        if (lng1 == null) return metrics.error(ErrorReason.TYPE, EvalErrorMessage.expects_second_param_number(ControlFunctionRegistry.getFunctionName(this)));
 
         Double lat2 = extractCoordinate(args[2], "lat2");
-        if (lat2 == null) return new EvalError("geoDistance() third argument (lat2) must be a number");
+        if (lat2 == null) return metrics.error(ErrorReason.TYPE, name() + "() third argument (lat2) must be a number");
 
         Double lng2 = extractCoordinate(args[3], "lng2");
-        if (lng2 == null) return new EvalError("geoDistance() fourth argument (lng2) must be a number");
+        if (lng2 == null) return metrics.error(ErrorReason.TYPE, name() + "() fourth argument (lng2) must be a number");
         if (lat1 < -90 || lat1 > 90) {
-            return new EvalError("lat1 must be between -90 and 90 degrees");
+            return metrics.error(ErrorReason.RANGE, "lat1 must be between -90 and 90 degrees");
         }
         if (lat2 < -90 || lat2 > 90) {
-            return new EvalError("lat2 must be between -90 and 90 degrees");
+            return metrics.error(ErrorReason.RANGE, "lat2 must be between -90 and 90 degrees");
         }
         if (lng1 < -180 || lng1 > 180) {
-            return new EvalError("lng1 must be between -180 and 180 degrees");
+            return metrics.error(ErrorReason.RANGE, "lng1 must be between -180 and 180 degrees");
         }
         if (lng2 < -180 || lng2 > 180) {
-            return new EvalError("lng2 must be between -180 and 180 degrees");
+            return metrics.error(ErrorReason.RANGE, "lng2 must be between -180 and 180 degrees");
         }
 
         String unit = "m";
-        if (args.length == 5) {
+        if (args.length >= 5) {
             if (args[4] != null && args[4] instanceof String) {
                 unit = ((String) args[4]).toLowerCase();
-                if (!"m".equals(unit) && !"km".equals(unit) && !"mi".equals(unit)) {
-                    return new EvalError("geoDistance() unit must be 'm' (meters), 'km' (kilometers), or 'mi' (miles)");
+                if (Double.isNaN(metersPerUnit(unit))) {
+                    return metrics.error(ErrorReason.UNIT, name() + "() unit must be 'm' (meters), 'km' (kilometers), or 'mi' (miles)");
                 }
             } else {
-                return new EvalError("geoDistance() fifth argument (unit) must be a string");
+                return metrics.error(ErrorReason.TYPE, name() + "() fifth argument (unit) must be a string");
             }
         }
-        double distance = haversineDistance(lat1, lng1, lat2, lng2);
+        boolean ellipsoid = false;
+        if (args.length == 6) {
+            if (!(args[5] instanceof String)) {
+                return metrics.error(ErrorReason.TYPE, name() + "() sixth argument (model) must be a string");
+            }
+            String model = ((String) args[5]).toLowerCase();
+            if (MODEL_WGS84.equals(model)) {
+                ellipsoid = true;
+            } else if (!MODEL_SPHERE.equals(model)) {
+                return metrics.error(ErrorReason.UNIT, name() + "() model must be 'sphere' or 'wgs84'");
+            }
+        }
+        Options options = new Options(args, metersPerUnit(unit), ellipsoid);
+        lastOptions = options;
+        return compute(lat1, lng1, lat2, lng2, options);
+    }
 
-        switch (unit) {
-            case "km":
-                distance = distance / 1000.0;
-                break;
-            case "mi":
-                distance = distance / 1609.344;
-                break;
+    private double compute(double lat1, double lng1, double lat2, double lng2, Options options) {
+        int tag = options.ellipsoid ? GeoResultCache.TAG_WGS84 : cacheTag();
+        GeoResultCache cache = GeoResultCache.get();
+        Object cached = tag == 0 ? null : cache.lookup(tag, lat1, lng1, lat2, lng2);
+        double distance;
+        if (cached != null) {
+            distance = (Double) cached;
+        } else {
+            distance = options.ellipsoid ? Wgs84Geodesic.distance(lat1, lng1, lat2, lng2)
+                    : distance(lat1, lng1, lat2, lng2);
+            if (tag != 0) {
+                cache.store(tag, lat1, lng1, lat2, lng2, distance);
+            }
         }
+        return distance / options.metersPerUnit;
+    }
+
+    /**
+     * Name of the function in error messages.
+     */
+    protected String name() {
+        return "geoDistance";
+    }
+
+    /**
+     * Tag of the distances of {@link #distance(double, double, double, double)} in the {@link GeoResultCache}, or 0 if
+     * they are not worth caching.
+     */
+    protected int cacheTag() {
+        return GeoResultCache.TAG_HAVERSINE;
+    }
 
-        return distance;
+    /**
+     * Distance in meters between two validated points.
+     */
+    protected double distance(double lat1, double lng1, double lat2, double lng2) {
+        return haversineDistance(lat1, lng1, lat2, lng2);
     }
 
     private Double extractCoordinate(Object arg, String paramName) {
@@ -106,7 +233,26 @@ public class GeoDistance implements Function {
         return ((Number) arg).doubleValue();
     }
 
-    private double haversineDistance(double lat1, double lng1, double lat2, double lng2) {
+    /**
+     * Returns the number of meters in a distance unit: 'm', 'km' or 'mi'. Returns NaN for any other unit.
+     */
+    public static double metersPerUnit(String unit) {
+        switch (unit) {
+            case "m":
+                return 1.0;
+            case "km":
+                return 1000.0;
+            case "mi":
+                return 1609.344;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Great circle distance in meters between two points given in decimal degrees. Coordinates are not validated.
+     */
+    public static double haversineDistance(double lat1, double lng1, double lat2, double lng2) {
         double lat1Rad = Math.toRadians(lat1);
         double lng1Rad = Math.toRadians(lng1);
         double lat2Rad = Math.toRadians(lat2);
@@ -123,14 +269,25 @@ public class GeoDistance implements Function {
         return EARTH_RADIUS_M * c;
     }
 
+    /**
+     * Computes the distances in meters between the pairs of points at positions {@code [from, to)} of the given arrays,
+     * into {@code distances}. Pairs with a NaN coordinate get a NaN distance.
+     */
+    public static void haversineDistances(double[] lat1, double[] lng1, double[] lat2, double[] lng2,
+            double[] distances, int from, int to) {
+        for (int i = from; i < to; i++) {
+            distances[i] = haversineDistance(lat1[i], lng1[i], lat2[i], lng2[i]);
+        }
+    }
+
     @Override
     public String getDescription() {
-        return "Calculates the great circle distance between two coordinate pairs using the Haversine formula. Usage: geoDistance(lat1, lng1, lat2, lng2) or geoDistance(lat1, lng1, lat2, lng2, unit)";
+        return "Calculates the great circle distance between two coordinate pairs using the Haversine formula, or the geodesic distance on the WGS84 ellipsoid with the 'wgs84' model. Usage: geoDistance(lat1, lng1, lat2, lng2), geoDistance(lat1, lng1, lat2, lng2, unit) or geoDistance(lat1, lng1, lat2, lng2, unit, model)";
     }
 
     @Override
     public String getParams() {
-        return "number lat1, number lng1, number lat2, number lng2, optional string unit";
+        return "number lat1, number lng1, number lat2, number lng2, optional string unit, optional string model";
     }
 
     @Override
@@ -0,0 +1,130 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+/**
+ * Same as {@link GeoDistance}, with a cheaper formula for points close to each other.
+ * <p>
+ * When the points are less than {@link #MAX_FAST_ANGLE} radians apart in both latitude and longitude (about 600 km
+ * along a meridian), the Haversine formula is evaluated with short polynomials instead of trigonometric functions:
+ * sines of the half differences and the final arc sine come from their Taylor series, and the cosines of the latitudes
+ * from a polynomial. Over that range, the result differs from {@link GeoDistance#haversineDistance} by less than one
+ * part in 10^9 (1 mm every 1000 km) above about 1 km, and by less than 0.1 mm below, the rounding noise of the exact
+ * formula. Points further apart go through the exact formula.
+ * <p>
+ * Callers measuring many distances to the same reference point can compute the cosine of its latitude once with
+ * {@link #cosLatitude(double)} and pass it to {@link #fastDistance(double, double, double, double, double, double)}.
+ */
+public class GeoDistanceFast extends GeoDistance {
+
+    /**
+     * Largest difference of latitude or longitude, in radians, handled by the polynomial path.
+     */
+    public static final double MAX_FAST_ANGLE = 0.1;
+
+    private static final double RADIANS_PER_DEGREE = Math.PI / 180.0;
+
+    // Taylor coefficients of cos(x), up to x^16: the remainder is below 1e-12 over [-pi/2, pi/2]
+    private static final double C2 = -1.0 / 2;
+    private static final double C4 = 1.0 / 24;
+    private static final double C6 = -1.0 / 720;
+    private static final double C8 = 1.0 / 40320;
+    private static final double C10 = -1.0 / 3628800;
+    private static final double C12 = 1.0 / 479001600;
+    private static final double C14 = -1.0 / 87178291200.0;
+    private static final double C16 = 1.0 / 20922789888000.0;
+
+    @Override
+    protected String name() {
+        return "geoDistanceFast";
+    }
+
+    @Override
+    protected int cacheTag() {
+        // the polynomial path is cheaper than a cache lookup
+        return 0;
+    }
+
+    @Override
+    protected double distance(double lat1, double lng1, double lat2, double lng2) {
+        return fastDistance(lat1, lng1, lat2, lng2);
+    }
+
+    /**
+     * Great circle distance in meters between two points given in decimal degrees. Coordinates are not validated.
+     */
+    public static double fastDistance(double lat1, double lng1, double lat2, double lng2) {
+        return fastDistance(lat1, cosLatitude(lat1), lng1, lat2, cosLatitude(lat2), lng2);
+    }
+
+    /**
+     * Great circle distance in meters between two points given in decimal degrees, with the cosines of their latitudes
+     * precomputed by {@link #cosLatitude(double)}. Coordinates are not validated.
+     */
+    public static double fastDistance(double lat1, double cosLat1, double lng1, double lat2, double cosLat2, double lng2) {
+        double dLng = lng2 - lng1;
+        if (dLng > 180.0) {
+            dLng -= 360.0;
+        } else if (dLng < -180.0) {
+            dLng += 360.0;
+        }
+        double halfLat = (lat2 - lat1) * (RADIANS_PER_DEGREE / 2);
+        double halfLng = dLng * (RADIANS_PER_DEGREE / 2);
+        if (!(Math.abs(halfLat) <= MAX_FAST_ANGLE / 2 && Math.abs(halfLng) <= MAX_FAST_ANGLE / 2)) {
+            return haversineDistance(lat1, lng1, lat2, lng2);
+        }
+        // sin(h) = h - h^3/6 + h^5/120, with |h| <= 0.05
+        double sinLat = halfLat * (1 + halfLat * halfLat * (-1.0 / 6 + halfLat * halfLat * (1.0 / 120)));
+        double sinLng = halfLng * (1 + halfLng * halfLng * (-1.0 / 6 + halfLng * halfLng * (1.0 / 120)));
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLng * sinLng;
+        // 2 asin(sqrt(a)) = 2 sqrt(a) (1 + a/6 + 3a^2/40 + 5a^3/112), with a <= 0.005
+        double series = 1 + a * (1.0 / 6 + a * (3.0 / 40 + a * (5.0 / 112)));
+        return 2 * EARTH_RADIUS_M * Math.sqrt(a) * series;
+    }
+
+    /**
+     * Cosine of a latitude in decimal degrees, between -90 and 90, by polynomial evaluation. The absolute error is
+     * below 1e-12.
+     */
+    public static double cosLatitude(double lat) {
+        double x = lat * RADIANS_PER_DEGREE;
+        double x2 = x * x;
+        return 1 + x2 * (C2 + x2 * (C4 + x2 * (C6 + x2 * (C8 + x2 * (C10 + x2 * (C12 + x2 * (C14 + x2 * C16)))))));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Calculates the great circle distance between two coordinate pairs like geoDistance(), with a faster approximation for points less than about 600 km apart. The difference with geoDistance() stays below 1e-9 in relative terms above about 1 km, and below 0.1 mm otherwise. Usage: geoDistanceFast(lat1, lng1, lat2, lng2) or geoDistanceFast(lat1, lng1, lat2, lng2, unit)";
+    }
+}
@@ -0,0 +1,106 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.model.Project;
+import com.google.refine.util.GetProjectIDException;
+
+/**
+ * Argument handling shared by the functions which look a point up in a reference project, such as {@link GeoNearest}
+ * and {@link GeoRegion}: {@code lat, lng, projectName} followed by column names.
+ */
+final class GeoFunctions {
+
+    private GeoFunctions() {
+    }
+
+    /**
+     * Checks that the first two arguments are a latitude and a longitude in range, and that the following ones, the
+     * project and column names, are strings.
+     *
+     * @return the error to return, counted in the metrics of the function, or null if the arguments are valid
+     */
+    static EvalError checkPointLookup(FunctionMetrics metrics, Object[] args) {
+        String name = metrics.getName();
+        if (!(args[0] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, name + "() first argument (lat) must be a number");
+        }
+        if (!(args[1] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, name + "() second argument (lng) must be a number");
+        }
+        for (int i = 2; i < args.length; i++) {
+            if (!(args[i] instanceof String)) {
+                return metrics.error(ErrorReason.TYPE, name + "() project and column names must be strings");
+            }
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+        if (lat < -90 || lat > 90) {
+            return metrics.error(ErrorReason.RANGE, "lat must be between -90 and 90 degrees");
+        }
+        if (lng < -180 || lng > 180) {
+            return metrics.error(ErrorReason.RANGE, "lng must be between -180 and 180 degrees");
+        }
+        return null;
+    }
+
+    /**
+     * Finds a reference project by name. As with {@code cross()}, an empty name refers to the current project.
+     *
+     * @throws Exception
+     *             if there is no such project or it cannot be loaded
+     */
+    static Project resolveProject(Properties bindings, String projectName) throws Exception {
+        Project project;
+        if (projectName.isEmpty()) {
+            project = (Project) bindings.get("project");
+        } else {
+            try {
+                project = ProjectManager.singleton.getProject(ProjectManager.singleton.getProjectID(projectName));
+            } catch (GetProjectIDException e) {
+                throw new Exception(e.getMessage(), e);
+            }
+        }
+        if (project == null) {
+            throw new Exception("Could not load project " + projectName);
+        }
+        return project;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+
+/**
+ * Encodes a coordinate pair as a geohash: a base 32 string naming a cell of a recursive subdivision of the globe, where
+ * longitude and latitude bits alternate. Nearby points share a prefix, so the hashes can be used as sortable keys for
+ * clustering, deduplication or joins on a plain string column.
+ * <p>
+ * Coordinates are quantized to 30 bits each and the bits are interleaved on a {@code long} with the usual Morton
+ * masks. Shorter hashes are prefixes of the full 60 bit code, as in the bisection algorithm, and characters are looked
+ * up in a table.
+ */
+public class GeoHash implements Function {
+
+    /**
+     * Longest supported hash: 12 characters of 5 bits fit in a {@code long}.
+     */
+    public static final int MAX_PRECISION = 12;
+
+    static final int DEFAULT_PRECISION = 12;
+
+    private static final int COORDINATE_BITS = 30;
+    private static final int CODE_BITS = 2 * COORDINATE_BITS;
+
+    private static final char[] ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+            DIGITS[Character.toUpperCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    private final FunctionMetrics metrics = GeoMetrics.function("geoHash");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        if (args.length < 2 || args.length > 3) {
+            return metrics.error(ErrorReason.ARGUMENTS, "geoHash() expects 2 or 3 arguments: lat, lng and optional precision (1 to " + MAX_PRECISION + ")");
+        }
+        if (!(args[0] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, "geoHash() first argument (lat) must be a number");
+        }
+        if (!(args[1] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, "geoHash() second argument (lng) must be a number");
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+        if (!(lat >= -90 && lat <= 90)) {
+            return metrics.error(ErrorReason.RANGE, "lat must be between -90 and 90 degrees");
+        }
+        if (!(lng >= -180 && lng <= 180)) {
+            return metrics.error(ErrorReason.RANGE, "lng must be between -180 and 180 degrees");
+        }
+        int precision = DEFAULT_PRECISION;
+        if (args.length == 3) {
+            if (!(args[2] instanceof Number) || ((Number) args[2]).doubleValue() != ((Number) args[2]).intValue()) {
+                return metrics.error(ErrorReason.TYPE, "geoHash() third argument (precision) must be an integer");
+            }
+            precision = ((Number) args[2]).intValue();
+            if (precision < 1 || precision > MAX_PRECISION) {
+                return metrics.error(ErrorReason.RANGE, "geoHash() precision must be between 1 and " + MAX_PRECISION);
+            }
+        }
+        return encode(lat, lng, precision);
+    }
+
+    /**
+     * Encodes a coordinate pair, which must be within range, as a geohash of {@code precision} characters (1 to
+     * {@link #MAX_PRECISION}).
+     */
+    public static String encode(double lat, double lng, int precision) {
+        long code = interleave(quantize(lng, 180.0), quantize(lat, 90.0));
+        char[] chars = new char[precision];
+        int shift = CODE_BITS;
+        for (int i = 0; i < precision; i++) {
+            shift -= 5;
+            chars[i] = ALPHABET[(int) (code >>> shift) & 0x1f];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes a geohash into the bounds of its cell: {@code {minLat, maxLat, minLng, maxLng}}.
+     *
+     * @return the bounds, or null if the hash is empty, too long or contains a character outside of the alphabet
+     */
+    public static double[] decodeBounds(String hash) {
+        int length = hash.length();
+        if (length == 0 || length > MAX_PRECISION) {
+            return null;
+        }
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            char c = hash.charAt(i);
+            int digit = c < 128 ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return null;
+            }
+            code = (code << 5) | digit;
+        }
+        int bits = 5 * length;
+        code <<= CODE_BITS - bits;
+        // longitude takes the first bit, hence the extra one when the count is odd
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        double lngSize = 360.0 / (1L << lngBits);
+        double latSize = 180.0 / (1L << latBits);
+        double minLng = -180.0 + (compact(code >>> 1) >>> (COORDINATE_BITS - lngBits)) * lngSize;
+        double minLat = -90.0 + (compact(code) >>> (COORDINATE_BITS - latBits)) * latSize;
+        return new double[] { minLat, minLat + latSize, minLng, minLng + lngSize };
+    }
+
+    /**
+     * Index of the cell of a 2^30 subdivision of {@code [-range, range]} containing a value. The cell bounds are exact
+     * doubles, so the rounding of the scaled value is corrected against them, which gives the same cells as repeated
+     * bisection.
+     */
+    static long quantize(double value, double range) {
+        double cellSize = 2 * range / (1L << COORDINATE_BITS);
+        long cell = (long) ((value + range) / cellSize);
+        long maxCell = (1L << COORDINATE_BITS) - 1;
+        if (cell > maxCell) {
+            cell = maxCell;
+        }
+        if (cell > 0 && value < -range + cell * cellSize) {
+            cell--;
+        } else if (cell < maxCell && value >= -range + (cell + 1) * cellSize) {
+            cell++;
+        }
+        return cell;
+    }
+
+    /**
+     * Interleaves the bits of two 30 bit values, the first one taking the most significant position.
+     */
+    static long interleave(long high, long low) {
+        return (spread(high) << 1) | spread(low);
+    }
+
+    /**
+     * Moves bit {@code i} of a 32 bit value to bit {@code 2i}.
+     */
+    private static long spread(long x) {
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    /**
+     * Inverse of {@link #spread}: gathers the even bits of a value.
+     */
+    private static long compact(long x) {
+        x &= 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Encodes a coordinate pair as a geohash string of the given precision (1 to 12 characters, 12 by default). Nearby points share a common prefix. Usage: geoHash(lat, lng) or geoHash(lat, lng, precision)";
+    }
+
+    @Override
+    public String getParams() {
+        return "number lat, number lng, optional number precision";
+    }
+
+    @Override
+    public String getReturns() {
+        return "string";
+    }
+}
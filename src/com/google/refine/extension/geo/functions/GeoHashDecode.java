@@ -0,0 +1,142 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.expr.HasFields;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+
+/**
+ * Decodes a geohash produced by {@link GeoHash} into the centre of its cell and the half size of the cell, which bounds
+ * the error on the original coordinates.
+ */
+public class GeoHashDecode implements Function {
+
+    private final FunctionMetrics metrics = GeoMetrics.function("geoHashDecode");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        if (args.length != 1) {
+            return metrics.error(ErrorReason.ARGUMENTS, "geoHashDecode() expects 1 argument: hash");
+        }
+        if (!(args[0] instanceof String)) {
+            return metrics.error(ErrorReason.TYPE, "geoHashDecode() argument (hash) must be a string");
+        }
+        double[] bounds = GeoHash.decodeBounds((String) args[0]);
+        if (bounds == null) {
+            return metrics.error(ErrorReason.OTHER, "geoHashDecode() expects a geohash of 1 to " + GeoHash.MAX_PRECISION
+                    + " characters from '0123456789bcdefghjkmnpqrstuvwxyz'");
+        }
+        return new DecodedCell(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * A geohash cell, exposing its centre as the fields {@code lat} and {@code lng}, and its half height and half width
+     * as {@code latError} and {@code lngError}, in decimal degrees.
+     */
+    public static class DecodedCell implements HasFields {
+
+        @JsonProperty("lat")
+        public final double lat;
+        @JsonProperty("lng")
+        public final double lng;
+        @JsonProperty("latError")
+        public final double latError;
+        @JsonProperty("lngError")
+        public final double lngError;
+
+        public DecodedCell(double minLat, double maxLat, double minLng, double maxLng) {
+            lat = (minLat + maxLat) / 2;
+            lng = (minLng + maxLng) / 2;
+            latError = (maxLat - minLat) / 2;
+            lngError = (maxLng - minLng) / 2;
+        }
+
+        @Override
+        public Object getField(String name, Properties bindings) {
+            switch (name) {
+                case "lat":
+                    return lat;
+                case "lng":
+                    return lng;
+                case "latError":
+                    return latError;
+                case "lngError":
+                    return lngError;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public boolean fieldAlsoHasFields(String name) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "{lat=" + lat + ", lng=" + lng + ", latError=" + latError + ", lngError=" + lngError + "}";
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "Decodes a geohash into the centre of its cell, with the fields lat and lng, and the half size of the cell in degrees, with the fields latError and lngError. Usage: geoHashDecode(hash)";
+    }
+
+    @Override
+    public String getParams() {
+        return "string hash";
+    }
+
+    @Override
+    public String getReturns() {
+        return "object";
+    }
+}
@@ -0,0 +1,174 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.expr.HasFields;
+import com.google.refine.extension.geo.index.PointIndex;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+
+/**
+ * Finds the row of a reference project closest to a point. The reference points are indexed once per project state by
+ * {@link SpatialIndexCache}, so each call is a tree lookup rather than a scan of the reference project.
+ */
+public class GeoNearest implements Function {
+
+    private final FunctionMetrics metrics = GeoMetrics.function("geoNearest");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(bindings, args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Properties bindings, Object[] args) {
+        if (args.length < 5 || args.length > 6) {
+            return metrics.error(ErrorReason.ARGUMENTS,
+                    "geoNearest() expects 5 or 6 arguments: lat, lng, project name, latitude column, longitude column and optional key column");
+        }
+        EvalError error = GeoFunctions.checkPointLookup(metrics, args);
+        if (error != null) {
+            return error;
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+
+        Project project;
+        try {
+            project = GeoFunctions.resolveProject(bindings, (String) args[2]);
+        } catch (Exception e) {
+            return metrics.error(ErrorReason.OTHER, e.getMessage());
+        }
+
+        Column keyColumn = null;
+        if (args.length == 6) {
+            keyColumn = project.columnModel.getColumnByName((String) args[5]);
+            if (keyColumn == null) {
+                return metrics.error(ErrorReason.OTHER, "No column named " + args[5]);
+            }
+        }
+
+        PointIndex index;
+        try {
+            index = SpatialIndexCache.get(project, (String) args[3], (String) args[4]);
+        } catch (Exception e) {
+            return metrics.error(ErrorReason.OTHER, e.getMessage());
+        }
+        int position = index.nearest(lat, lng);
+        if (position < 0) {
+            return null;
+        }
+
+        int rowIndex = index.id(position);
+        Object key = rowIndex;
+        if (keyColumn != null) {
+            key = rowIndex < project.rows.size() ? project.rows.get(rowIndex).getCellValue(keyColumn.getCellIndex()) : null;
+        }
+        double distance = GeoDistance.haversineDistance(lat, lng, index.latitude(position), index.longitude(position));
+        return new NearestMatch(key, distance, rowIndex);
+    }
+
+    /**
+     * The reference row found by {@link GeoNearest}, exposing its fields as {@code key}, {@code distance} (in meters)
+     * and {@code row}.
+     */
+    public static class NearestMatch implements HasFields {
+
+        @JsonProperty("key")
+        public final Object key;
+        @JsonProperty("distance")
+        public final double distance;
+        @JsonProperty("row")
+        public final int row;
+
+        public NearestMatch(Object key, double distance, int row) {
+            this.key = key;
+            this.distance = distance;
+            this.row = row;
+        }
+
+        @Override
+        public Object getField(String name, Properties bindings) {
+            switch (name) {
+                case "key":
+                    return key;
+                case "distance":
+                    return distance;
+                case "row":
+                    return row;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public boolean fieldAlsoHasFields(String name) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "{key=" + key + ", distance=" + distance + ", row=" + row + "}";
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "Finds the row of a reference project nearest to a coordinate pair, using a cached spatial index of the reference points. Returns an object with the fields key, distance (in meters) and row. Usage: geoNearest(lat, lng, projectName, latColumn, lngColumn) or geoNearest(lat, lng, projectName, latColumn, lngColumn, keyColumn)";
+    }
+
+    @Override
+    public String getParams() {
+        return "number lat, number lng, string projectName, string latColumn, string lngColumn, optional string keyColumn";
+    }
+
+    @Override
+    public String getReturns() {
+        return "object";
+    }
+}
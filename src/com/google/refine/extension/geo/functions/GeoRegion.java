@@ -0,0 +1,123 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.index.RegionIndex;
+import com.google.refine.extension.geo.index.RegionIndexCache;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+
+/**
+ * Finds the row of a project of regions whose polygon, written as WKT or GeoJSON, contains a point. The polygons are
+ * parsed, prepared and indexed once per project state by {@link RegionIndexCache}, so each call only tests the few
+ * polygons around the point.
+ */
+public class GeoRegion implements Function {
+
+    private final FunctionMetrics metrics = GeoMetrics.function("geoRegion");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(bindings, args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Properties bindings, Object[] args) {
+        if (args.length < 4 || args.length > 5) {
+            return metrics.error(ErrorReason.ARGUMENTS, "geoRegion() expects 4 or 5 arguments: lat, lng, project name, geometry column and optional key column");
+        }
+        EvalError error = GeoFunctions.checkPointLookup(metrics, args);
+        if (error != null) {
+            return error;
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+
+        Project project;
+        try {
+            project = GeoFunctions.resolveProject(bindings, (String) args[2]);
+        } catch (Exception e) {
+            return metrics.error(ErrorReason.OTHER, e.getMessage());
+        }
+
+        Column keyColumn = null;
+        if (args.length == 5) {
+            keyColumn = project.columnModel.getColumnByName((String) args[4]);
+            if (keyColumn == null) {
+                return metrics.error(ErrorReason.OTHER, "No column named " + args[4]);
+            }
+        }
+
+        RegionIndex index;
+        try {
+            index = RegionIndexCache.get(project, (String) args[3]);
+        } catch (Exception e) {
+            return metrics.error(ErrorReason.OTHER, e.getMessage());
+        }
+        int rowIndex = index.find(lng, lat);
+        if (rowIndex < 0) {
+            return null;
+        }
+        if (keyColumn == null) {
+            return rowIndex;
+        }
+        return rowIndex < project.rows.size() ? project.rows.get(rowIndex).getCellValue(keyColumn.getCellIndex()) : null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Finds the row of a project of regions whose polygon, written as WKT or GeoJSON, contains a coordinate pair, using a cached index of the polygons. Returns the value of the key column, or the row index, or null if no polygon contains the point. Usage: geoRegion(lat, lng, projectName, geometryColumn) or geoRegion(lat, lng, projectName, geometryColumn, keyColumn)";
+    }
+
+    @Override
+    public String getParams() {
+        return "number lat, number lng, string projectName, string geometryColumn, optional string keyColumn";
+    }
+
+    @Override
+    public String getReturns() {
+        return "object";
+    }
+}
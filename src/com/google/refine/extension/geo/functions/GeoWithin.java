@@ -0,0 +1,143 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import com.google.refine.extension.geo.index.PreparedPolygon;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.extension.geo.util.PolygonParser;
+import com.google.refine.grel.Function;
+
+/**
+ * Tells whether a point lies inside a polygon given as WKT or GeoJSON. Each polygon is parsed and prepared once, then
+ * kept in a small cache keyed on its text, so that evaluating the same polygon on every row only costs a
+ * {@link PreparedPolygon#contains(double, double)} test.
+ */
+public class GeoWithin implements Function {
+
+    static final int MAX_CACHED_POLYGONS = 256;
+
+    // prepared polygons, or the error message of texts which are not polygons
+    private static final Map<String, Object> polygons = new LinkedHashMap<String, Object>(64, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > MAX_CACHED_POLYGONS;
+        }
+    };
+
+    private final FunctionMetrics metrics = GeoMetrics.function("geoWithin");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        if (args.length != 3) {
+            return metrics.error(ErrorReason.ARGUMENTS, "geoWithin() expects 3 arguments: lat, lng and polygon");
+        }
+        if (!(args[0] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, "geoWithin() first argument (lat) must be a number");
+        }
+        if (!(args[1] instanceof Number)) {
+            return metrics.error(ErrorReason.TYPE, "geoWithin() second argument (lng) must be a number");
+        }
+        if (!(args[2] instanceof String)) {
+            return metrics.error(ErrorReason.TYPE, "geoWithin() third argument (polygon) must be a WKT or GeoJSON string");
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+        if (lat < -90 || lat > 90) {
+            return metrics.error(ErrorReason.RANGE, "lat must be between -90 and 90 degrees");
+        }
+        if (lng < -180 || lng > 180) {
+            return metrics.error(ErrorReason.RANGE, "lng must be between -180 and 180 degrees");
+        }
+
+        Object polygon = prepare((String) args[2]);
+        if (polygon instanceof String) {
+            return metrics.error(ErrorReason.OTHER, "geoWithin() " + polygon);
+        }
+        return ((PreparedPolygon) polygon).contains(lng, lat);
+    }
+
+    /**
+     * @return the prepared polygon, or the error message if the text is not a polygon
+     */
+    static Object prepare(String text) {
+        Object polygon;
+        synchronized (polygons) {
+            polygon = polygons.get(text);
+        }
+        if (polygon == null) {
+            try {
+                polygon = new PreparedPolygon(PolygonParser.parse(text));
+            } catch (IllegalArgumentException e) {
+                polygon = e.getMessage();
+            }
+            synchronized (polygons) {
+                polygons.put(text, polygon);
+            }
+        }
+        return polygon;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Tells whether a coordinate pair lies inside a polygon or multipolygon written as WKT or GeoJSON, with longitudes first. Usage: geoWithin(lat, lng, polygon)";
+    }
+
+    @Override
+    public String getParams() {
+        return "number lat, number lng, string polygon";
+    }
+
+    @Override
+    public String getReturns() {
+        return "boolean";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.ControlFunctionRegistry;
+import com.google.refine.grel.EvalErrorMessage;
+import com.google.refine.grel.Function;
+
+/**
+ * Converts degrees, minutes and seconds to decimal degrees, the inverse of {@link DecToGMS}. See {@link GMSParser} for
+ * the accepted formats.
+ */
+public class GmsToDec implements Function {
+
+    private final FunctionMetrics metrics = GeoMetrics.function("gmsToDec");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        if (args.length < 1 || args.length > 2) {
+            return metrics.error(ErrorReason.ARGUMENTS, "gmsToDec() expects one or two arguments: degrees, minutes, seconds and optional coordinate type");
+        }
+
+        if (!(args[0] instanceof String)) {
+            return metrics.error(ErrorReason.TYPE, "gmsToDec() first argument (gms) must be a string");
+        }
+
+        String coordType = null;
+        if (args.length == 2) {
+            if (args[1] instanceof String) {
+                coordType = ((String) args[1]).toLowerCase();
+                if (!"lat".equals(coordType) && !"lng".equals(coordType) && !"lon".equals(coordType)) {
+                    return metrics.error(ErrorReason.UNIT, EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
+                }
+                if ("lon".equals(coordType)) {
+                    coordType = "lng";
+                }
+            } else {
+                return metrics.error(ErrorReason.TYPE, EvalErrorMessage.expects_second_param_string(ControlFunctionRegistry.getFunctionName(this)));
+            }
+        }
+
+        double decimal = convertToDec((String) args[0], coordType);
+        if (Double.isNaN(decimal)) {
+            return metrics.error(ErrorReason.OTHER, "gmsToDec() cannot parse '" + args[0] + "' as "
+                    + ("lat".equals(coordType) ? "a latitude" : "lng".equals(coordType) ? "a longitude" : "degrees, minutes, seconds"));
+        }
+        return decimal;
+    }
+
+    /**
+     * Parses degrees, minutes and seconds into decimal degrees. The coordinate type ('lat', 'lng' or null) rejects the
+     * hemispheres of the other axis and range checks the value.
+     *
+     * @return the decimal degrees, or NaN if the text is not a valid coordinate
+     */
+    public static double convertToDec(String gms, String coordType) {
+        return GMSParser.parse(gms, coordType);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Converts degrees, minutes, seconds such as 40° 42' 46.08\" N, 40 42 46.08 N or N40:42:46 to decimal degrees. Usage: gmsToDec(gms) or gmsToDec(gms, 'lat'|'lng')";
+    }
+
+    @Override
+    public String getParams() {
+        return "string gms, optional string coordType";
+    }
+
+    @Override
+    public String getReturns() {
+        return "number";
+    }
+}
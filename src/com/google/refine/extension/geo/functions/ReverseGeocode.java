@@ -0,0 +1,191 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.google.refine.expr.HasFields;
+import com.google.refine.extension.geo.index.Gazetteer;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+
+/**
+ * Finds the place of the local {@link Gazetteer} nearest to a point. The gazetteer is indexed on first use and memory
+ * mapped afterwards, and nothing is ever fetched over the network.
+ */
+public class ReverseGeocode implements Function {
+
+    private final FunctionMetrics metrics = GeoMetrics.function("reverseGeocode");
+
+    @Override
+    public Object call(Properties bindings, Object[] args) {
+        long start = metrics.start();
+        try {
+            return evaluate(args);
+        } finally {
+            metrics.finish(start);
+        }
+    }
+
+    private Object evaluate(Object[] args) {
+        if (args.length < 2 || args.length > 3) {
+            return metrics.error(ErrorReason.ARGUMENTS, "reverseGeocode() expects 2 or 3 arguments: lat, lng and optional maxDistance");
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!(args[i] instanceof Number)) {
+                return metrics.error(ErrorReason.TYPE, "reverseGeocode() arguments must be numbers");
+            }
+        }
+        double lat = ((Number) args[0]).doubleValue();
+        double lng = ((Number) args[1]).doubleValue();
+        if (lat < -90 || lat > 90) {
+            return metrics.error(ErrorReason.RANGE, "lat must be between -90 and 90 degrees");
+        }
+        if (lng < -180 || lng > 180) {
+            return metrics.error(ErrorReason.RANGE, "lng must be between -180 and 180 degrees");
+        }
+        double maxDistance = args.length == 3 ? ((Number) args[2]).doubleValue() : Double.POSITIVE_INFINITY;
+        if (!(maxDistance >= 0)) {
+            return metrics.error(ErrorReason.RANGE, "maxDistance must not be negative");
+        }
+
+        Gazetteer gazetteer;
+        try {
+            gazetteer = Gazetteer.get();
+        } catch (IOException e) {
+            return metrics.error(ErrorReason.OTHER, "reverseGeocode() " + e.getMessage());
+        }
+        int position = gazetteer.nearest(lat, lng, maxDistance);
+        if (position < 0) {
+            return null;
+        }
+        double distance = GeoDistance.haversineDistance(lat, lng, gazetteer.latitude(position), gazetteer.longitude(position));
+        return new Place(gazetteer, position, distance);
+    }
+
+    /**
+     * A place of the gazetteer, exposing its fields as {@code id}, {@code name}, {@code featureCode},
+     * {@code countryCode}, {@code admin1Code}, {@code population}, {@code lat}, {@code lng} and {@code distance} (in
+     * meters from the point looked up).
+     */
+    public static class Place implements HasFields {
+
+        @JsonProperty("id")
+        public final long id;
+        @JsonProperty("name")
+        public final String name;
+        @JsonProperty("featureCode")
+        public final String featureCode;
+        @JsonProperty("countryCode")
+        public final String countryCode;
+        @JsonProperty("admin1Code")
+        public final String admin1Code;
+        @JsonProperty("population")
+        public final long population;
+        @JsonProperty("lat")
+        public final double lat;
+        @JsonProperty("lng")
+        public final double lng;
+        @JsonProperty("distance")
+        public final double distance;
+
+        Place(Gazetteer gazetteer, int position, double distance) {
+            this.id = gazetteer.id(position);
+            this.name = gazetteer.name(position);
+            this.featureCode = gazetteer.featureCode(position);
+            this.countryCode = gazetteer.countryCode(position);
+            this.admin1Code = gazetteer.admin1Code(position);
+            this.population = gazetteer.population(position);
+            this.lat = gazetteer.latitude(position);
+            this.lng = gazetteer.longitude(position);
+            this.distance = distance;
+        }
+
+        @Override
+        public Object getField(String name, Properties bindings) {
+            switch (name) {
+                case "id":
+                    return id;
+                case "name":
+                    return this.name;
+                case "featureCode":
+                    return featureCode;
+                case "countryCode":
+                    return countryCode;
+                case "admin1Code":
+                    return admin1Code;
+                case "population":
+                    return population;
+                case "lat":
+                    return lat;
+                case "lng":
+                    return lng;
+                case "distance":
+                    return distance;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public boolean fieldAlsoHasFields(String name) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "Finds the place of the local gazetteer nearest to a coordinate pair, optionally within a maximum distance in meters. Returns an object with the fields id, name, featureCode, countryCode, admin1Code, population, lat, lng and distance (in meters), or null. Usage: reverseGeocode(lat, lng) or reverseGeocode(lat, lng, maxDistance)";
+    }
+
+    @Override
+    public String getParams() {
+        return "number lat, number lng, optional number maxDistance";
+    }
+
+    @Override
+    public String getReturns() {
+        return "object";
+    }
+}
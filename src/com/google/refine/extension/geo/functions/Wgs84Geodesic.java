@@ -0,0 +1,121 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import net.sf.geographiclib.Geodesic;
+import net.sf.geographiclib.GeodesicMask;
+
+/**
+ * Geodesic distance on the WGS84 ellipsoid, by Karney's inverse solution as implemented by GeographicLib.
+ * <p>
+ * The solution is accurate to about 15 nanometers and converges for every pair of points, nearly antipodal ones
+ * included. Each thread keeps the last pair it solved in a scratch state, so that the repeated pairs of consecutive rows
+ * are not solved again.
+ */
+public final class Wgs84Geodesic {
+
+    /**
+     * Semi-major axis, in meters.
+     */
+    public static final double SEMI_MAJOR_AXIS = Geodesic.WGS84.EquatorialRadius();
+
+    /**
+     * Flattening.
+     */
+    public static final double FLATTENING = Geodesic.WGS84.Flattening();
+
+    private static final LongAdder pairs = new LongAdder();
+    private static final LongAdder repeated = new LongAdder();
+
+    private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Last pair solved by a thread.
+     */
+    private static final class Scratch {
+
+        double lat1 = Double.NaN;
+        double lng1;
+        double lat2;
+        double lng2;
+        double distance;
+    }
+
+    private Wgs84Geodesic() {
+    }
+
+    /**
+     * Length in meters of the geodesic between two points given in decimal degrees. Coordinates are not validated.
+     */
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        Scratch last = scratch.get();
+        pairs.increment();
+        if (lat1 == last.lat1 && lng1 == last.lng1 && lat2 == last.lat2 && lng2 == last.lng2) {
+            repeated.increment();
+            return last.distance;
+        }
+        double distance = solve(lat1, lng1, lat2, lng2);
+        last.lat1 = lat1;
+        last.lng1 = lng1;
+        last.lat2 = lat2;
+        last.lng2 = lng2;
+        last.distance = distance;
+        return distance;
+    }
+
+    static double solve(double lat1, double lng1, double lat2, double lng2) {
+        return Geodesic.WGS84.Inverse(lat1, lng1, lat2, lng2, GeodesicMask.DISTANCE).s12;
+    }
+
+    /**
+     * Number of distances requested since the counters were reset.
+     */
+    public static long getPairs() {
+        return pairs.sum();
+    }
+
+    /**
+     * Number of pairs answered from the scratch state of the thread, without solving.
+     */
+    public static long getRepeated() {
+        return repeated.sum();
+    }
+
+    public static void resetCounters() {
+        pairs.reset();
+        repeated.reset();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a dBASE file, the attribute table of a shapefile, through a {@link MappedFile}.
+ * <p>
+ * Character fields are decoded with the given charset or, failing that, the one of the language driver in the header,
+ * ISO-8859-1 by default. Numeric fields are read as longs or doubles, logical fields as booleans, and dates as
+ * {@code yyyy-MM-dd} strings. Blank fields are null.
+ */
+final class DbfReader implements Closeable {
+
+    private static final int HEADER_SIZE = 32;
+    private static final int FIELD_SIZE = 32;
+    private static final byte FIELD_TERMINATOR = 0x0D;
+
+    private final MappedFile file;
+    private final int count;
+    private final int headerLength;
+    private final int recordLength;
+    private final Charset charset;
+    private final String[] names;
+    private final char[] types;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final byte[] record;
+
+    DbfReader(File file, Charset charset) throws IOException {
+        this.file = new MappedFile(file);
+        try {
+            ByteBuffer header = this.file.read(0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int start = header.position();
+            count = header.getInt(start + 4);
+            headerLength = header.getShort(start + 8) & 0xFFFF;
+            recordLength = header.getShort(start + 10) & 0xFFFF;
+            int languageDriver = header.get(start + 29) & 0xFF;
+            if (count < 0 || headerLength < HEADER_SIZE + 1 || recordLength < 1) {
+                throw new IOException("Invalid dBASE header");
+            }
+            this.charset = charset != null ? charset : languageDriverCharset(languageDriver);
+
+            ByteBuffer descriptors = this.file.read(0, headerLength);
+            start = descriptors.position();
+            List<String> names = new ArrayList<>();
+            List<int[]> fields = new ArrayList<>();
+            int offset = 1;
+            for (int p = HEADER_SIZE; p + FIELD_SIZE <= headerLength && descriptors.get(start + p) != FIELD_TERMINATOR;
+                    p += FIELD_SIZE) {
+                int nameLength = 0;
+                while (nameLength < 11 && descriptors.get(start + p + nameLength) != 0) {
+                    nameLength++;
+                }
+                byte[] name = new byte[nameLength];
+                for (int i = 0; i < nameLength; i++) {
+                    name[i] = descriptors.get(start + p + i);
+                }
+                names.add(new String(name, StandardCharsets.ISO_8859_1).trim());
+                int length = descriptors.get(start + p + 16) & 0xFF;
+                fields.add(new int[] { descriptors.get(start + p + 11) & 0xFF, offset, length });
+                offset += length;
+            }
+            if (offset > recordLength) {
+                throw new IOException("Invalid dBASE field descriptors");
+            }
+            this.names = names.toArray(new String[0]);
+            types = new char[fields.size()];
+            offsets = new int[fields.size()];
+            lengths = new int[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                types[i] = (char) fields.get(i)[0];
+                offsets[i] = fields.get(i)[1];
+                lengths[i] = fields.get(i)[2];
+            }
+            record = new byte[recordLength];
+        } catch (IOException | RuntimeException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Charset of a dBASE language driver id, ISO-8859-1 if it is not known.
+     */
+    static Charset languageDriverCharset(int languageDriver) {
+        switch (languageDriver) {
+            case 0x01:
+                return Charset.forName("IBM437");
+            case 0x02:
+                return Charset.forName("IBM850");
+            case 0x03:
+            case 0x57:
+            case 0x58:
+            case 0x59:
+                return Charset.forName("windows-1252");
+            case 0xC8:
+                return Charset.forName("windows-1250");
+            case 0xC9:
+                return Charset.forName("windows-1251");
+            case 0xCA:
+                return Charset.forName("windows-1254");
+            case 0xCB:
+                return Charset.forName("windows-1253");
+            default:
+                return StandardCharsets.ISO_8859_1;
+        }
+    }
+
+    /**
+     * @return the number of records, deleted ones included
+     */
+    int size() {
+        return count;
+    }
+
+    String[] getFieldNames() {
+        return names;
+    }
+
+    /**
+     * Reads a record into an array of one value per field.
+     *
+     * @return false if the record is deleted, in which case the values are left untouched
+     */
+    boolean read(int index, Serializable[] values) throws IOException {
+        file.read(headerLength + (long) index * recordLength, recordLength).get(record, 0, recordLength);
+        if (record[0] == '*') {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            values[i] = decode(types[i], offsets[i], lengths[i]);
+        }
+        return true;
+    }
+
+    private Serializable decode(char type, int offset, int length) {
+        int end = offset + length;
+        while (end > offset && (record[end - 1] == ' ' || record[end - 1] == 0)) {
+            end--;
+        }
+        if (type == 'C' || type == 'c') {
+            return end > offset ? new String(record, offset, end - offset, charset) : null;
+        }
+        int start = offset;
+        while (start < end && record[start] == ' ') {
+            start++;
+        }
+        if (start == end) {
+            return null;
+        }
+        String text = new String(record, start, end - start, StandardCharsets.ISO_8859_1);
+        switch (type) {
+            case 'N':
+            case 'F':
+                if (text.charAt(0) == '*') {
+                    // overflow marker
+                    return null;
+                }
+                try {
+                    if (type == 'N' && text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0
+                            && text.length() < 19) {
+                        return Long.parseLong(text);
+                    }
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    return text;
+                }
+            case 'L':
+                switch (text.charAt(0)) {
+                    case 'T':
+                    case 't':
+                    case 'Y':
+                    case 'y':
+                        return Boolean.TRUE;
+                    case 'F':
+                    case 'f':
+                    case 'N':
+                    case 'n':
+                        return Boolean.FALSE;
+                    default:
+                        return null;
+                }
+            case 'D':
+                if (text.length() == 8) {
+                    return text.substring(0, 4) + "-" + text.substring(4, 6) + "-" + text.substring(6);
+                }
+                return text;
+            default:
+                return new String(record, start, end - start, charset);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
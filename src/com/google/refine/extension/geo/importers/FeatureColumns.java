@@ -0,0 +1,138 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.refine.model.Column;
+import com.google.refine.model.ModelException;
+import com.google.refine.model.Project;
+
+/**
+ * Columns of the project an importer writes features to: the geometry columns first, then one column per attribute,
+ * created the first time the attribute is met.
+ * <p>
+ * Depending on the {@code geometry} option, the geometry is written either as a point in two columns, or as WKT in a
+ * single column. Columns which already exist, from a previous file of the same import, are reused.
+ */
+final class FeatureColumns {
+
+    static final String GEOMETRY_LATLNG = "latlng";
+    static final String GEOMETRY_WKT = "wkt";
+
+    static final String WKT_COLUMN = "geometry";
+
+    private final Project project;
+    private final boolean wkt;
+    private final int latCellIndex;
+    private final int lngCellIndex;
+    private final int wktCellIndex;
+    private final Set<String> geometryNames;
+    private final Map<String, Integer> attributeCellIndices = new HashMap<>();
+
+    /**
+     * @param geometry
+     *            {@link #GEOMETRY_LATLNG} or {@link #GEOMETRY_WKT}
+     * @param projected
+     *            true if the coordinates are projected rather than longitudes and latitudes, in which case the point
+     *            columns are named x and y
+     */
+    FeatureColumns(Project project, String geometry, boolean projected) {
+        this.project = project;
+        if (GEOMETRY_WKT.equals(geometry)) {
+            wkt = true;
+            wktCellIndex = cellIndex(WKT_COLUMN);
+            latCellIndex = lngCellIndex = -1;
+            geometryNames = Set.of(WKT_COLUMN);
+        } else if (GEOMETRY_LATLNG.equals(geometry)) {
+            wkt = false;
+            String latName = projected ? "y" : "lat";
+            String lngName = projected ? "x" : "lng";
+            latCellIndex = cellIndex(latName);
+            lngCellIndex = cellIndex(lngName);
+            wktCellIndex = -1;
+            geometryNames = Set.of(latName, lngName);
+        } else {
+            throw new IllegalArgumentException("Geometry must be 'latlng' or 'wkt'");
+        }
+    }
+
+    /**
+     * @return true if the geometry is written as WKT, false if it is written as a point
+     */
+    boolean isWkt() {
+        return wkt;
+    }
+
+    int getLatCellIndex() {
+        return latCellIndex;
+    }
+
+    int getLngCellIndex() {
+        return lngCellIndex;
+    }
+
+    int getWktCellIndex() {
+        return wktCellIndex;
+    }
+
+    /**
+     * Returns the cell index of the column of an attribute, creating the column if needed. An attribute named like a
+     * geometry column gets a " 2" suffix.
+     */
+    int attributeCellIndex(String name) {
+        Integer cellIndex = attributeCellIndices.get(name);
+        if (cellIndex == null) {
+            cellIndex = cellIndex(geometryNames.contains(name) ? name + " 2" : name);
+            attributeCellIndices.put(name, cellIndex);
+        }
+        return cellIndex;
+    }
+
+    private int cellIndex(String name) {
+        Column column = project.columnModel.getColumnByName(name);
+        if (column == null) {
+            column = new Column(project.columnModel.allocateNewCellIndex(), name);
+            try {
+                project.columnModel.addColumn(project.columnModel.columns.size(), column, false);
+            } catch (ModelException e) {
+                // cannot happen, the name is not taken
+                throw new IllegalStateException(e);
+            }
+        }
+        return column.getCellIndex();
+    }
+}
@@ -0,0 +1,392 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.google.refine.ProjectMetadata;
+import com.google.refine.extension.geo.util.Wkt;
+import com.google.refine.importers.ImportingParserBase;
+import com.google.refine.importing.ImportingJob;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.JSONUtilities;
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Imports GeoJSON features as rows: a FeatureCollection, a single Feature, an array of features, or newline-delimited
+ * features.
+ * <p>
+ * The file is read with a streaming JSON parser, and each feature is turned into a row as soon as it has been read, so
+ * only one feature is ever held in memory. The geometry goes to the {@code lat} and {@code lng} columns, with the
+ * centre of the bounding box for geometries other than points, or to a {@code geometry} column as WKT, according to the
+ * {@code geometry} option. Each property goes to its own column; nested objects and arrays are stored as JSON.
+ */
+public class GeoJsonImporter extends ImportingParserBase {
+
+    public GeoJsonImporter() {
+        super(true);
+    }
+
+    @Override
+    public ObjectNode createParserUIInitializationData(ImportingJob job, List<ObjectNode> fileRecords, String format) {
+        ObjectNode options = super.createParserUIInitializationData(job, fileRecords, format);
+        JSONUtilities.safePut(options, "geometry", FeatureColumns.GEOMETRY_LATLNG);
+        return options;
+    }
+
+    @Override
+    public void parseOneFile(Project project, ProjectMetadata metadata, ImportingJob job, String fileSource,
+            InputStream inputStream, int limit, ObjectNode options, List<Exception> exceptions) {
+        FeatureColumns columns;
+        try {
+            columns = new FeatureColumns(project, JSONUtilities.getString(options, "geometry", FeatureColumns.GEOMETRY_LATLNG),
+                    false);
+        } catch (IllegalArgumentException e) {
+            exceptions.add(e);
+            return;
+        }
+        FeatureReader reader = new FeatureReader(project, job, columns, limit(limit, options));
+        try {
+            JsonParser parser = ParsingUtilities.mapper.getFactory().createParser(inputStream);
+            JsonToken token;
+            while (!reader.isDone() && (token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    reader.readObject(parser);
+                } else if (token == JsonToken.START_ARRAY) {
+                    reader.readFeatures(parser);
+                } else {
+                    throw new IOException("Expected a GeoJSON object, found " + token);
+                }
+            }
+        } catch (IOException e) {
+            exceptions.add(e);
+        }
+    }
+
+    /**
+     * Combines the row limit of the preview with the {@code limit} option.
+     */
+    static int limit(int limit, ObjectNode options) {
+        int limit2 = JSONUtilities.getInt(options, "limit", -1);
+        if (limit > 0) {
+            return limit2 > 0 ? Math.min(limit, limit2) : limit;
+        }
+        return limit2;
+    }
+
+    /**
+     * Turns the features of one file into rows.
+     */
+    private static class FeatureReader {
+
+        private final Project project;
+        private final ImportingJob job;
+        private final FeatureColumns columns;
+        private final int limit;
+        private final double[] box = new double[4];
+        private final StringBuilder wkt = new StringBuilder();
+
+        FeatureReader(Project project, ImportingJob job, FeatureColumns columns, int limit) {
+            this.project = project;
+            this.job = job;
+            this.columns = columns;
+            this.limit = limit;
+        }
+
+        boolean isDone() {
+            return job.canceled || (limit > 0 && project.rows.size() >= limit);
+        }
+
+        /**
+         * Reads an object, after its START_OBJECT token: a FeatureCollection, whose features are streamed, or a
+         * Feature.
+         */
+        void readObject(JsonParser parser) throws IOException {
+            String type = null;
+            JsonNode geometry = null;
+            JsonNode properties = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("type".equals(name)) {
+                    type = parser.getValueAsString();
+                } else if ("features".equals(name) && token == JsonToken.START_ARRAY) {
+                    readFeatures(parser);
+                    if (isDone()) {
+                        return;
+                    }
+                } else if ("geometry".equals(name)) {
+                    geometry = parser.readValueAsTree();
+                } else if ("properties".equals(name)) {
+                    properties = parser.readValueAsTree();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if ("Feature".equals(type)) {
+                addFeature(geometry, properties);
+            }
+        }
+
+        /**
+         * Reads an array of features, after its START_ARRAY token.
+         */
+        void readFeatures(JsonParser parser) throws IOException {
+            JsonToken token;
+            while (!isDone() && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Unexpected end of GeoJSON input");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    JsonNode feature = parser.readValueAsTree();
+                    addFeature(feature.get("geometry"), feature.get("properties"));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void addFeature(JsonNode geometry, JsonNode properties) {
+            Row row = new Row(project.columnModel.columns.size());
+            if (geometry != null && geometry.isObject()) {
+                if (columns.isWkt()) {
+                    wkt.setLength(0);
+                    if (appendWkt(wkt, geometry)) {
+                        row.setCell(columns.getWktCellIndex(), new Cell(wkt.toString(), null));
+                    }
+                } else {
+                    box[0] = box[1] = Double.POSITIVE_INFINITY;
+                    box[2] = box[3] = Double.NEGATIVE_INFINITY;
+                    if (extendBox(box, geometry)) {
+                        row.setCell(columns.getLngCellIndex(), new Cell((box[0] + box[2]) / 2, null));
+                        row.setCell(columns.getLatCellIndex(), new Cell((box[1] + box[3]) / 2, null));
+                    }
+                }
+            }
+            if (properties != null && properties.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    Serializable value = toCellValue(field.getValue());
+                    if (value != null) {
+                        row.setCell(columns.attributeCellIndex(field.getKey()), new Cell(value, null));
+                    }
+                }
+            }
+            project.rows.add(row);
+        }
+    }
+
+    static Serializable toCellValue(JsonNode node) {
+        if (node.isTextual()) {
+            String text = node.textValue();
+            return text.isEmpty() ? null : text;
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return node.longValue();
+        } else if (node.isNumber()) {
+            return node.doubleValue();
+        } else if (node.isContainerNode()) {
+            return node.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Extends a {@code {minX, minY, maxX, maxY}} box with the positions of a geometry.
+     *
+     * @return false if the geometry has no valid position
+     */
+    static boolean extendBox(double[] box, JsonNode geometry) {
+        if ("GeometryCollection".equals(geometry.path("type").asText())) {
+            boolean found = false;
+            for (JsonNode member : geometry.path("geometries")) {
+                found |= member.isObject() && extendBox(box, member);
+            }
+            return found;
+        }
+        return extendBoxWithCoordinates(box, geometry.get("coordinates"));
+    }
+
+    private static boolean extendBoxWithCoordinates(double[] box, JsonNode coordinates) {
+        if (coordinates == null || !coordinates.isArray() || coordinates.size() == 0) {
+            return false;
+        }
+        if (coordinates.get(0).isNumber()) {
+            if (!isPosition(coordinates)) {
+                return false;
+            }
+            double x = coordinates.get(0).doubleValue();
+            double y = coordinates.get(1).doubleValue();
+            box[0] = Math.min(box[0], x);
+            box[1] = Math.min(box[1], y);
+            box[2] = Math.max(box[2], x);
+            box[3] = Math.max(box[3], y);
+            return true;
+        }
+        boolean found = false;
+        for (JsonNode child : coordinates) {
+            found |= extendBoxWithCoordinates(box, child);
+        }
+        return found;
+    }
+
+    /**
+     * Appends a GeoJSON geometry as WKT. Positions are written in two dimensions.
+     *
+     * @return false if the geometry is invalid, in which case the builder holds a partial output
+     */
+    static boolean appendWkt(StringBuilder builder, JsonNode geometry) {
+        JsonNode coordinates = geometry.get("coordinates");
+        switch (geometry.path("type").asText()) {
+            case "Point":
+                return appendTagged(builder, "POINT", coordinates, 0);
+            case "LineString":
+                return appendTagged(builder, "LINESTRING", coordinates, 1);
+            case "MultiPoint":
+                return appendTagged(builder, "MULTIPOINT", coordinates, -1);
+            case "Polygon":
+                return appendTagged(builder, "POLYGON", coordinates, 2);
+            case "MultiLineString":
+                return appendTagged(builder, "MULTILINESTRING", coordinates, 2);
+            case "MultiPolygon":
+                return appendTagged(builder, "MULTIPOLYGON", coordinates, 3);
+            case "GeometryCollection":
+                JsonNode geometries = geometry.get("geometries");
+                if (geometries == null || !geometries.isArray()) {
+                    return false;
+                }
+                builder.append("GEOMETRYCOLLECTION ");
+                if (geometries.size() == 0) {
+                    builder.append("EMPTY");
+                    return true;
+                }
+                builder.append('(');
+                for (int i = 0; i < geometries.size(); i++) {
+                    if (i > 0) {
+                        builder.append(", ");
+                    }
+                    if (!geometries.get(i).isObject() || !appendWkt(builder, geometries.get(i))) {
+                        return false;
+                    }
+                }
+                builder.append(')');
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Appends a tagged geometry whose coordinates are nested {@code depth} levels deep, a depth of -1 standing for the
+     * points of a MultiPoint, which are wrapped in parentheses.
+     */
+    private static boolean appendTagged(StringBuilder builder, String tag, JsonNode coordinates, int depth) {
+        if (coordinates == null || !coordinates.isArray()) {
+            return false;
+        }
+        builder.append(tag).append(' ');
+        if (coordinates.size() == 0) {
+            builder.append("EMPTY");
+            return true;
+        }
+        if (depth == 0) {
+            builder.append('(');
+            if (!appendPosition(builder, coordinates)) {
+                return false;
+            }
+            builder.append(')');
+            return true;
+        }
+        if (depth < 0) {
+            builder.append('(');
+            for (int i = 0; i < coordinates.size(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append('(');
+                if (!appendPosition(builder, coordinates.get(i))) {
+                    return false;
+                }
+                builder.append(')');
+            }
+            builder.append(')');
+            return true;
+        }
+        return appendNested(builder, coordinates, depth);
+    }
+
+    private static boolean appendNested(StringBuilder builder, JsonNode array, int depth) {
+        if (!array.isArray()) {
+            return false;
+        }
+        builder.append('(');
+        for (int i = 0; i < array.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            JsonNode child = array.get(i);
+            if (!(depth == 1 ? appendPosition(builder, child) : appendNested(builder, child, depth - 1))) {
+                return false;
+            }
+        }
+        builder.append(')');
+        return true;
+    }
+
+    private static boolean appendPosition(StringBuilder builder, JsonNode position) {
+        if (!isPosition(position)) {
+            return false;
+        }
+        Wkt.appendPosition(builder, position.get(0).doubleValue(), position.get(1).doubleValue());
+        return true;
+    }
+
+    private static boolean isPosition(JsonNode node) {
+        return node.isArray() && node.size() >= 2 && node.get(0).isNumber() && node.get(1).isNumber();
+    }
+}
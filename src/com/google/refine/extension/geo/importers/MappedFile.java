@@ -0,0 +1,100 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory-mapped windows, so that files of any size are read without copying them to the heap.
+ * <p>
+ * A window of {@link #DEFAULT_WINDOW} bytes is mapped from the position of the first read, and mapped again further on
+ * when a read goes past its end. Reads are therefore expected to move forward through the file.
+ */
+final class MappedFile implements Closeable {
+
+    static final int DEFAULT_WINDOW = 1 << 28;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+
+    MappedFile(File file) throws IOException {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    MappedFile(File file, int window) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = window;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns a buffer holding the {@code length} bytes at {@code position}, positioned at the first of them. The
+     * buffer is only valid until the next call, and its byte order is left to the caller.
+     *
+     * @throws EOFException
+     *             if the bytes go past the end of the file
+     */
+    ByteBuffer read(long position, int length) throws IOException {
+        if (position < 0 || length < 0 || position + length > size) {
+            throw new EOFException("Unexpected end of file at byte " + position);
+        }
+        if (buffer == null || position < bufferStart || position + length > bufferStart + buffer.capacity()) {
+            long mapped = Math.min(size - position, Math.max(window, length));
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+            bufferStart = position;
+        }
+        buffer.position((int) (position - bufferStart));
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,268 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.google.refine.extension.geo.util.Wkt;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Row;
+
+/**
+ * Decodes the geometry of shapefile records into the geometry columns of a row.
+ * <p>
+ * As a point, a record gives its own coordinates if it is a point, and the centre of the bounding box stored in the
+ * record otherwise, so that the coordinates of other shapes are never read. As WKT, polygon rings are grouped into
+ * polygons by orientation: each clockwise ring starts a polygon, and the counter-clockwise rings which follow are its
+ * holes. Z and M values are ignored, and multipatches have no WKT. Coordinate arrays are reused from one record to the
+ * next.
+ */
+final class ShapeReader {
+
+    static final int NULL = 0;
+    static final int POINT = 1;
+    static final int POLYLINE = 3;
+    static final int POLYGON = 5;
+    static final int MULTIPOINT = 8;
+    static final int MULTIPATCH = 31;
+
+    private final FeatureColumns columns;
+    private final StringBuilder wkt = new StringBuilder();
+    private double[] xs = new double[256];
+    private double[] ys = new double[256];
+    private int[] parts = new int[16];
+    private boolean[] outer = new boolean[16];
+
+    ShapeReader(FeatureColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Reads the record content in the buffer, from its position, into the row.
+     */
+    void read(ByteBuffer content, int length, Row row) throws IOException {
+        if (length < 4) {
+            throw new IOException("Invalid shape record");
+        }
+        content.order(ByteOrder.LITTLE_ENDIAN);
+        int start = content.position();
+        int type = content.getInt(start);
+        // Z and M variants share the layout of the plain shape, with extra values after the points
+        int baseType = type > 20 ? type - 20 : type > 10 ? type - 10 : type;
+        if (type == NULL) {
+            return;
+        }
+        if (type == MULTIPATCH) {
+            if (!columns.isWkt()) {
+                readBoxCentre(content, start, length, row);
+            }
+            return;
+        }
+        switch (baseType) {
+            case POINT:
+                check(length >= 20);
+                double x = content.getDouble(start + 4);
+                double y = content.getDouble(start + 12);
+                if (Double.isNaN(x) || Double.isNaN(y)) {
+                    return;
+                }
+                if (columns.isWkt()) {
+                    wkt.setLength(0);
+                    wkt.append("POINT (");
+                    Wkt.appendPosition(wkt, x, y);
+                    wkt.append(')');
+                    row.setCell(columns.getWktCellIndex(), new Cell(wkt.toString(), null));
+                } else {
+                    setPoint(row, x, y);
+                }
+                return;
+            case MULTIPOINT:
+            case POLYLINE:
+            case POLYGON:
+                if (!columns.isWkt()) {
+                    readBoxCentre(content, start, length, row);
+                } else if (baseType == MULTIPOINT) {
+                    readMultiPoint(content, start, length, row);
+                } else {
+                    readParts(content, start, length, row, baseType == POLYGON);
+                }
+                return;
+            default:
+                throw new IOException("Unsupported shape type " + type);
+        }
+    }
+
+    private void readBoxCentre(ByteBuffer content, int start, int length, Row row) throws IOException {
+        check(length >= 40);
+        double minX = content.getDouble(start + 4);
+        double minY = content.getDouble(start + 12);
+        double maxX = content.getDouble(start + 20);
+        double maxY = content.getDouble(start + 28);
+        // the multipoint and part counts follow the box, an empty shape has a meaningless box
+        if (length >= 44 && content.getInt(start + 36) > 0) {
+            setPoint(row, (minX + maxX) / 2, (minY + maxY) / 2);
+        }
+    }
+
+    private void setPoint(Row row, double x, double y) {
+        row.setCell(columns.getLngCellIndex(), new Cell(x, null));
+        row.setCell(columns.getLatCellIndex(), new Cell(y, null));
+    }
+
+    private void readMultiPoint(ByteBuffer content, int start, int length, Row row) throws IOException {
+        check(length >= 40);
+        int count = content.getInt(start + 36);
+        check(count >= 0 && 40 + 16L * count <= length);
+        wkt.setLength(0);
+        wkt.append("MULTIPOINT ");
+        if (count == 0) {
+            wkt.append("EMPTY");
+        } else {
+            wkt.append('(');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    wkt.append(", ");
+                }
+                wkt.append('(');
+                Wkt.appendPosition(wkt, content.getDouble(start + 40 + 16 * i), content.getDouble(start + 48 + 16 * i));
+                wkt.append(')');
+            }
+            wkt.append(')');
+        }
+        row.setCell(columns.getWktCellIndex(), new Cell(wkt.toString(), null));
+    }
+
+    private void readParts(ByteBuffer content, int start, int length, Row row, boolean polygon) throws IOException {
+        check(length >= 44);
+        int partCount = content.getInt(start + 36);
+        int pointCount = content.getInt(start + 40);
+        check(partCount >= 0 && pointCount >= 0 && 44 + 4L * partCount + 16L * pointCount <= length);
+        if (parts.length < partCount + 1) {
+            parts = new int[partCount + 1];
+            outer = new boolean[partCount + 1];
+        }
+        if (xs.length < pointCount) {
+            xs = new double[pointCount];
+            ys = new double[pointCount];
+        }
+        for (int p = 0; p < partCount; p++) {
+            parts[p] = content.getInt(start + 44 + 4 * p);
+            check(parts[p] >= 0 && parts[p] <= pointCount && (p == 0 || parts[p] >= parts[p - 1]));
+        }
+        parts[partCount] = pointCount;
+        int points = start + 44 + 4 * partCount;
+        for (int i = 0; i < pointCount; i++) {
+            xs[i] = content.getDouble(points + 16 * i);
+            ys[i] = content.getDouble(points + 16 * i + 8);
+        }
+
+        wkt.setLength(0);
+        if (partCount == 0) {
+            wkt.append(polygon ? "POLYGON EMPTY" : "LINESTRING EMPTY");
+        } else if (!polygon) {
+            if (partCount == 1) {
+                wkt.append("LINESTRING ");
+                Wkt.appendPositions(wkt, xs, ys, parts[0], parts[1]);
+            } else {
+                wkt.append("MULTILINESTRING (");
+                for (int p = 0; p < partCount; p++) {
+                    if (p > 0) {
+                        wkt.append(", ");
+                    }
+                    Wkt.appendPositions(wkt, xs, ys, parts[p], parts[p + 1]);
+                }
+                wkt.append(')');
+            }
+        } else {
+            appendPolygons(partCount);
+        }
+        row.setCell(columns.getWktCellIndex(), new Cell(wkt.toString(), null));
+    }
+
+    private void appendPolygons(int partCount) {
+        int clockwise = 0;
+        for (int p = 0; p < partCount; p++) {
+            outer[p] = signedArea(parts[p], parts[p + 1]) < 0;
+            if (outer[p]) {
+                clockwise++;
+            }
+        }
+        // rings written the other way round: counter-clockwise rings are the outer ones
+        boolean reversed = clockwise == 0;
+        int polygons = 0;
+        for (int p = 0; p < partCount; p++) {
+            outer[p] = p == 0 || outer[p] != reversed;
+            if (outer[p]) {
+                polygons++;
+            }
+        }
+
+        boolean multi = polygons > 1;
+        wkt.append(multi ? "MULTIPOLYGON (" : "POLYGON ");
+        for (int p = 0; p < partCount; p++) {
+            if (outer[p]) {
+                if (p > 0) {
+                    wkt.append("), ");
+                }
+                wkt.append('(');
+            } else {
+                wkt.append(", ");
+            }
+            Wkt.appendPositions(wkt, xs, ys, parts[p], parts[p + 1]);
+        }
+        wkt.append(')');
+        if (multi) {
+            wkt.append(')');
+        }
+    }
+
+    /**
+     * Twice the signed area of a ring, negative if it is clockwise.
+     */
+    private double signedArea(int from, int to) {
+        double area = 0;
+        for (int i = from; i + 1 < to; i++) {
+            area += xs[i] * ys[i + 1] - xs[i + 1] * ys[i];
+        }
+        return area;
+    }
+
+    private static void check(boolean valid) throws IOException {
+        if (!valid) {
+            throw new IOException("Invalid shape record");
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.google.refine.ProjectMetadata;
+import com.google.refine.importers.ImporterUtilities.MultiFileReadingProgress;
+import com.google.refine.importers.ImportingParserBase;
+import com.google.refine.importing.ImportingJob;
+import com.google.refine.importing.ImportingUtilities;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.ModelException;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.JSONUtilities;
+
+/**
+ * Imports ESRI shapefiles: one row per shape of the {@code .shp} file, with the attributes of the sibling {@code .dbf}
+ * file.
+ * <p>
+ * Both files are memory-mapped and read record by record, each record becoming a row as soon as it is decoded, so
+ * shapefiles of several gigabytes are imported without being loaded on the heap. The geometry is written according to
+ * the {@code geometry} option, see {@link ShapeReader}; when the {@code .prj} file describes a projected coordinate
+ * system, the point columns are named x and y rather than lng and lat, as the coordinates are not reprojected. The
+ * attributes are decoded with the {@code dbfEncoding} option, or the charset of the {@code .cpg} file, or the one of
+ * the dBASE header.
+ * <p>
+ * The other files making up the shapefile are read along with the {@code .shp} file and skipped when they are selected
+ * for import on their own, except a {@code .dbf} file without a {@code .shp} file, which is imported as a table.
+ */
+public class ShapefileImporter extends ImportingParserBase {
+
+    private static final int FILE_CODE = 9994;
+    private static final int HEADER_LENGTH = 100;
+
+    public ShapefileImporter() {
+        super(true);
+    }
+
+    @Override
+    public ObjectNode createParserUIInitializationData(ImportingJob job, List<ObjectNode> fileRecords, String format) {
+        ObjectNode options = super.createParserUIInitializationData(job, fileRecords, format);
+        // the guessed encoding is the one of the first file, which is binary
+        options.remove("encoding");
+        JSONUtilities.safePut(options, "geometry", FeatureColumns.GEOMETRY_LATLNG);
+        return options;
+    }
+
+    @Override
+    public void parseOneFile(Project project, ProjectMetadata metadata, ImportingJob job, ObjectNode fileRecord, int limit,
+            ObjectNode options, List<Exception> exceptions, MultiFileReadingProgress progress) throws IOException {
+        File file = ImportingUtilities.getFile(job, fileRecord);
+        String fileSource = ImportingUtilities.getFileSource(fileRecord);
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        File shp = name.endsWith(".shp") ? file : null;
+        File dbf = name.endsWith(".dbf") ? file : null;
+        if (shp != null) {
+            dbf = sibling(file, "dbf");
+        } else if (dbf == null || sibling(file, "shp") != null) {
+            // part of a shapefile, read with its .shp file
+            return;
+        }
+
+        progress.startFile(fileSource);
+        try {
+            int startingRowCount = project.rows.size();
+            int fileSourceCellIndex = JSONUtilities.getBoolean(options, "includeFileSources", false)
+                    ? fileSourceCellIndex(project)
+                    : -1;
+            parse(project, job, shp, dbf, GeoJsonImporter.limit(limit, options), options, exceptions,
+                    position -> progress.readingFile(fileSource, position));
+            if (fileSourceCellIndex >= 0) {
+                for (int i = startingRowCount; i < project.rows.size(); i++) {
+                    project.rows.get(i).setCell(fileSourceCellIndex, new Cell(fileSource, null));
+                }
+            }
+
+            ObjectNode fileOptions = options.deepCopy();
+            JSONUtilities.safePut(fileOptions, "fileSource", fileSource);
+            metadata.appendImportOptionMetadata(fileOptions);
+        } finally {
+            progress.endFile(fileSource, file.length());
+        }
+    }
+
+    interface Progress {
+
+        void reading(long position);
+    }
+
+    /**
+     * Reads a shapefile, or a lone dBASE file if {@code shp} is null, into the project.
+     */
+    static void parse(Project project, ImportingJob job, File shp, File dbf, int limit, ObjectNode options,
+            List<Exception> exceptions, Progress progress) {
+        FeatureColumns columns;
+        Charset charset;
+        try {
+            File prj = shp == null ? null : sibling(shp, "prj");
+            boolean projected = prj != null && new String(Files.readAllBytes(prj.toPath()), StandardCharsets.ISO_8859_1)
+                    .trim().startsWith("PROJCS");
+            columns = new FeatureColumns(project, JSONUtilities.getString(options, "geometry", FeatureColumns.GEOMETRY_LATLNG),
+                    projected);
+            charset = dbf == null ? null : dbfCharset(dbf, JSONUtilities.getString(options, "dbfEncoding", null));
+        } catch (IOException | IllegalArgumentException e) {
+            exceptions.add(e);
+            return;
+        }
+
+        try (MappedFile shapes = shp == null ? null : new MappedFile(shp);
+                DbfReader attributes = dbf == null ? null : new DbfReader(dbf, charset)) {
+            long end = 0;
+            if (shapes != null) {
+                ByteBuffer header = shapes.read(0, HEADER_LENGTH).order(ByteOrder.BIG_ENDIAN);
+                if (header.getInt(header.position()) != FILE_CODE) {
+                    throw new IOException("Not a shapefile: " + shp.getName());
+                }
+                end = Math.min(shapes.size(), 2L * header.getInt(header.position() + 24));
+            }
+            ShapeReader shapeReader = new ShapeReader(columns);
+            String[] fieldNames = attributes == null ? new String[0] : attributes.getFieldNames();
+            int[] cellIndices = new int[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                cellIndices[i] = columns.attributeCellIndex(fieldNames[i]);
+            }
+            Serializable[] values = new Serializable[fieldNames.length];
+
+            long position = HEADER_LENGTH;
+            for (int record = 0; !job.canceled && (limit <= 0 || project.rows.size() < limit); record++) {
+                boolean hasShape = shapes != null && position + 8 <= end;
+                boolean hasAttributes = attributes != null && record < attributes.size();
+                if (!hasShape && !hasAttributes) {
+                    break;
+                }
+                Row row = new Row(project.columnModel.columns.size());
+                if (hasShape) {
+                    ByteBuffer recordHeader = shapes.read(position, 8).order(ByteOrder.BIG_ENDIAN);
+                    int length = 2 * recordHeader.getInt(recordHeader.position() + 4);
+                    shapeReader.read(shapes.read(position + 8, length), length, row);
+                    position += 8 + length;
+                }
+                if (hasAttributes && !attributes.read(record, values)) {
+                    // deleted record
+                    continue;
+                }
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        row.setCell(cellIndices[i], new Cell(values[i], null));
+                    }
+                }
+                project.rows.add(row);
+                if ((record & 0xFFFF) == 0) {
+                    progress.reading(position);
+                }
+            }
+        } catch (IOException e) {
+            exceptions.add(e);
+        }
+    }
+
+    /**
+     * Finds a file of the same name with another extension, in any case.
+     */
+    static File sibling(File file, String extension) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        File[] candidates = file.getAbsoluteFile().getParentFile().listFiles();
+        if (candidates != null) {
+            for (File candidate : candidates) {
+                if (candidate.getName().equalsIgnoreCase(base + "." + extension) && candidate.isFile()) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Charset of the attributes: the given encoding, or the one of the {@code .cpg} file, or null to use the one of the
+     * dBASE header.
+     */
+    static Charset dbfCharset(File dbf, String encoding) throws IOException {
+        if (encoding == null || encoding.isEmpty()) {
+            File cpg = sibling(dbf, "cpg");
+            if (cpg == null) {
+                return null;
+            }
+            encoding = new String(Files.readAllBytes(cpg.toPath()), StandardCharsets.ISO_8859_1).trim();
+            if (encoding.matches("\\d+")) {
+                // a code page number
+                encoding = encoding.equals("88591") ? "ISO-8859-1" : "windows-" + encoding;
+            }
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new IOException("Unknown encoding " + encoding, e);
+        }
+    }
+
+    private static int fileSourceCellIndex(Project project) {
+        Column column = project.columnModel.getColumnByName("File");
+        if (column == null) {
+            column = new Column(project.columnModel.allocateNewCellIndex(), "File");
+            try {
+                project.columnModel.addColumn(0, column, false);
+            } catch (ModelException e) {
+                // cannot happen, the name is not taken
+                throw new IllegalStateException(e);
+            }
+        }
+        return column.getCellIndex();
+    }
+}
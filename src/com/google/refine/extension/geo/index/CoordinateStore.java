@@ -0,0 +1,147 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+/**
+ * The points of a pair of coordinate columns, materialized outside of the heap.
+ * <p>
+ * OpenRefine keeps every cell as a boxed object, and reading a coordinate means unboxing, and for strings parsing, it
+ * again. The store reads each row once and packs its latitude and longitude as two native-order doubles in a direct
+ * buffer, 16 bytes per row, by row index. Rows whose latitude or longitude is missing or invalid hold NaN for both.
+ * The store is a snapshot: {@link CoordinateStoreCache} rebuilds it when the project changes.
+ */
+public final class CoordinateStore {
+
+    static final int BYTES_PER_ROW = 16;
+    static final int MAX_ROWS = Integer.MAX_VALUE / BYTES_PER_ROW;
+
+    private static final int GRAIN = 1 << 14;
+
+    private final DoubleBuffer coordinates;
+    private final int size;
+    private int validCount;
+
+    private CoordinateStore(int size) {
+        this.size = size;
+        this.coordinates = ByteBuffer.allocateDirect(size * BYTES_PER_ROW).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    /**
+     * Reads the coordinates of every row of the project, in parallel chunks.
+     *
+     * @throws IllegalArgumentException
+     *             if the project has more than {@link #MAX_ROWS} rows
+     */
+    public static CoordinateStore build(Project project, CoordinateColumns columns) {
+        synchronized (project) {
+            int count = project.rows.size();
+            if (count > MAX_ROWS) {
+                throw new IllegalArgumentException("Too many rows to store coordinates: " + count);
+            }
+            CoordinateStore store = new CoordinateStore(count);
+            AtomicInteger valid = new AtomicInteger();
+            // chunks write disjoint ranges of the buffer through absolute puts only
+            GeoExecutors.parallelFor(count, GRAIN, (from, to) -> {
+                int chunkValid = 0;
+                for (int i = from; i < to; i++) {
+                    Row row = project.rows.get(i);
+                    double lat = columns.latitude(row);
+                    double lng = columns.longitude(row);
+                    if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                        lat = lng = Double.NaN;
+                    } else {
+                        chunkValid++;
+                    }
+                    store.coordinates.put(2 * i, lat);
+                    store.coordinates.put(2 * i + 1, lng);
+                }
+                valid.addAndGet(chunkValid);
+            });
+            store.validCount = valid.get();
+            return store;
+        }
+    }
+
+    /**
+     * @return the number of rows of the store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of rows with a valid point
+     */
+    public int validCount() {
+        return validCount;
+    }
+
+    /**
+     * @return the latitude of the row, or NaN if it is missing, invalid or beyond the store
+     */
+    public double latitude(int rowIndex) {
+        return rowIndex < size ? coordinates.get(2 * rowIndex) : Double.NaN;
+    }
+
+    /**
+     * @return the longitude of the row, or NaN if it is missing, invalid or beyond the store
+     */
+    public double longitude(int rowIndex) {
+        return rowIndex < size ? coordinates.get(2 * rowIndex + 1) : Double.NaN;
+    }
+
+    /**
+     * @return whether the row has a valid point
+     */
+    public boolean isValid(int rowIndex) {
+        return !Double.isNaN(latitude(rowIndex));
+    }
+
+    /**
+     * Size of the direct buffer, which lives outside of the heap, in bytes.
+     */
+    public long estimatedBytes() {
+        return (long) BYTES_PER_ROW * size;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.model.Project;
+
+/**
+ * Caches the {@link CoordinateStore} of a pair of coordinate columns of a project.
+ * <p>
+ * As with {@link SpatialIndexCache}, each store is stamped with the last entry of the project history at build time
+ * and rebuilt on the next lookup after any operation, undo or redo, and only the most recently used stores are kept.
+ * Likewise, the stores of a deleted or closed project are released only by eviction, or when the module shuts down.
+ */
+public final class CoordinateStoreCache {
+
+    private static final Logger logger = LoggerFactory.getLogger("CoordinateStoreCache");
+
+    static final int MAX_ENTRIES = 8;
+
+    // total time spent building stores, for GeoResources
+    private static final LongAdder buildMillis = new LongAdder();
+
+    private static final Map<Key, CachedStore> entries = new LinkedHashMap<Key, CachedStore>(MAX_ENTRIES, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedStore> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private CoordinateStoreCache() {
+    }
+
+    /**
+     * Returns the coordinates of all rows of the project, building them if needed.
+     *
+     * @throws Exception
+     *             if one of the columns does not exist
+     */
+    public static CoordinateStore get(Project project, String latColumnName, String lngColumnName) throws Exception {
+        CoordinateColumns columns = CoordinateColumns.resolve(project, latColumnName, lngColumnName);
+        Key key = new Key(project.id, latColumnName, lngColumnName);
+        CachedStore entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, k -> new CachedStore());
+        }
+        synchronized (entry) {
+            long stamp = SpatialIndexCache.historyStamp(project);
+            if (entry.store == null || entry.stamp != stamp) {
+                long start = System.currentTimeMillis();
+                entry.store = CoordinateStore.build(project, columns);
+                entry.stamp = stamp;
+                long millis = System.currentTimeMillis() - start;
+                buildMillis.add(millis);
+                logger.info("Stored {} points of ({}, {}) in project {} in {} ms", entry.store.validCount(),
+                        latColumnName, lngColumnName, project.id, millis);
+            }
+            return entry.store;
+        }
+    }
+
+    /**
+     * Drops every store.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the total time spent building stores, in milliseconds
+     */
+    public static long getBuildMillis() {
+        return buildMillis.sum();
+    }
+
+    /**
+     * Size of the cached stores, outside of the heap, in bytes.
+     */
+    public static long estimatedBytes() {
+        List<CachedStore> cached;
+        synchronized (entries) {
+            cached = new ArrayList<>(entries.values());
+        }
+        long bytes = 0;
+        for (CachedStore entry : cached) {
+            CoordinateStore store = entry.store;
+            if (store != null) {
+                bytes += store.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private static final class CachedStore {
+
+        volatile long stamp;
+        volatile CoordinateStore store;
+    }
+
+    private static final class Key {
+
+        final long projectId;
+        final String latColumnName;
+        final String lngColumnName;
+
+        Key(long projectId, String latColumnName, String lngColumnName) {
+            this.projectId = projectId;
+            this.latColumnName = latColumnName;
+            this.lngColumnName = lngColumnName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return projectId == key.projectId && latColumnName.equals(key.latColumnName)
+                    && lngColumnName.equals(key.lngColumnName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, latColumnName, lngColumnName);
+        }
+    }
+}
@@ -0,0 +1,605 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.util.GeoResources;
+
+/**
+ * An offline gazetteer, read from GeoNames-style tab-separated files and answering nearest place lookups.
+ * <p>
+ * The first time a directory is opened, its {@code .txt} and {@code .tsv} files are parsed once into a binary index,
+ * {@value #INDEX_FILE_NAME}, written in the same directory. Later opens memory-map that index instead of parsing the
+ * text again, until the source files change. The index buckets places into a grid of latitude/longitude cells, of
+ * about one place per cell on average over the globe, and stores them cell after cell. Above the grid, a pyramid of
+ * coarser grids, each cell of which covers four cells of the grid below, counts the places of each cell. A lookup is a
+ * best-first traversal of that pyramid, as in {@link PointIndex}, which skips oceans and deserts in a few steps and
+ * reads only the cells which can hold the nearest place. Nothing is loaded on the heap besides the mapping itself.
+ * <p>
+ * Source lines follow the GeoNames dump format: id, name, ascii name, alternate names, latitude, longitude, feature
+ * class, feature code, country code, cc2, admin1 code, admin2 code, admin3 code, admin4 code and population. Only the
+ * first six columns are required; other lines, such as headers and comments, are skipped.
+ */
+public final class Gazetteer {
+
+    private static final Logger logger = LoggerFactory.getLogger("Gazetteer");
+
+    public static final String DIRECTORY_PROPERTY = "gazetteer.dir";
+    public static final String INDEX_FILE_NAME = "gazetteer.idx";
+
+    static final int MAGIC = 0x47415A31; // "GAZ1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int POINT_BYTES = 12;
+    static final int MAX_CELLS_PER_DEGREE = 16;
+
+    private static final double E6 = 1e6;
+
+    public static final String RESOURCE_NAME = "gazetteer";
+
+    private static GeoResources.LazyResource<Gazetteer> resource;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int cellsPerDegree;
+    // size of the grid of each level of the pyramid, from the cells holding the places to a single cell, and offsets
+    // of the place counts of the levels above the first
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] countsOffsets;
+    private final int pointsOffset;
+    private final int recordsOffset;
+
+    private Gazetteer(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(16);
+        this.cellsPerDegree = buffer.getInt(20);
+        this.pointsOffset = buffer.getInt(24);
+        this.recordsOffset = buffer.getInt(28);
+        this.rows = levelRows(cellsPerDegree);
+        this.columns = levelColumns(cellsPerDegree);
+        this.countsOffsets = new int[rows.length];
+        int offset = HEADER_BYTES + 4 * (rows[0] * columns[0] + 1);
+        for (int level = 1; level < rows.length; level++) {
+            countsOffsets[level] = offset;
+            offset += 4 * rows[level] * columns[level];
+        }
+    }
+
+    static int[] levelRows(int cellsPerDegree) {
+        return levelSizes(180 * cellsPerDegree, 360 * cellsPerDegree);
+    }
+
+    static int[] levelColumns(int cellsPerDegree) {
+        return levelSizes(360 * cellsPerDegree, 360 * cellsPerDegree);
+    }
+
+    /**
+     * Halves a grid dimension, rounding up, until the dimension {@code longest} reaches 1.
+     */
+    private static int[] levelSizes(int size, int longest) {
+        int levels = 1;
+        while (longest > 1) {
+            longest = (longest + 1) / 2;
+            levels++;
+        }
+        int[] sizes = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            sizes[level] = size;
+            size = (size + 1) / 2;
+        }
+        return sizes;
+    }
+
+    /**
+     * Sets the directory of the gazetteer returned by {@link #get()}, or removes it if null. The gazetteer is
+     * registered as the {@value #RESOURCE_NAME} resource of {@link GeoResources}, and the directory is only read on
+     * first use or warm up.
+     */
+    public static synchronized void configure(File directory) {
+        if (directory == null) {
+            GeoResources.get().unregister(RESOURCE_NAME);
+            resource = null;
+        } else {
+            resource = GeoResources.get().register(RESOURCE_NAME, () -> open(directory), Gazetteer::estimatedBytes, null);
+        }
+    }
+
+    /**
+     * Returns the gazetteer of the configured directory, opening (and if needed indexing) it on first use.
+     *
+     * @throws IOException
+     *             if no directory is configured, it holds no gazetteer, or the index cannot be read or written
+     */
+    public static Gazetteer get() throws IOException {
+        GeoResources.LazyResource<Gazetteer> current;
+        synchronized (Gazetteer.class) {
+            current = resource;
+        }
+        if (current == null) {
+            throw new IOException("No gazetteer directory configured");
+        }
+        try {
+            return current.get();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens the gazetteer of a directory, rebuilding its index if it is missing or older than the source files.
+     */
+    public static Gazetteer open(File directory) throws IOException {
+        File[] sources = sources(directory);
+        if (sources.length == 0) {
+            throw new IOException("No gazetteer file (.txt or .tsv) in " + directory);
+        }
+        long fingerprint = fingerprint(sources);
+        File indexFile = new File(directory, INDEX_FILE_NAME);
+        if (indexFile.isFile()) {
+            ByteBuffer buffer = map(indexFile);
+            if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getLong(8) == fingerprint) {
+                return new Gazetteer(buffer);
+            }
+            logger.info("Gazetteer index {} is out of date", indexFile);
+        }
+        long start = System.currentTimeMillis();
+        build(sources, fingerprint, indexFile);
+        Gazetteer gazetteer = new Gazetteer(map(indexFile));
+        logger.info("Indexed {} places of {} in {} ms", gazetteer.size(), directory, System.currentTimeMillis() - start);
+        return gazetteer;
+    }
+
+    static File[] sources(File directory) {
+        File[] files = directory.listFiles(file -> file.isFile()
+                && (file.getName().endsWith(".txt") || file.getName().endsWith(".tsv")));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static long fingerprint(File[] sources) {
+        long fingerprint = VERSION;
+        for (File source : sources) {
+            fingerprint = fingerprint * 31 + source.getName().hashCode();
+            fingerprint = fingerprint * 31 + source.length();
+            fingerprint = fingerprint * 31 + source.lastModified();
+        }
+        return fingerprint;
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Gazetteer index " + file + " is larger than 2 GB");
+            }
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Gazetteer index " + file + " is truncated");
+            }
+            // the mapping stays valid once the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return buffer;
+        }
+    }
+
+    /**
+     * Parses the source files and writes the index. The records of the places are spooled to a temporary file while
+     * parsing, so that only their coordinates are held on the heap; the index itself is written to a temporary file
+     * too and moved in place once complete.
+     */
+    static void build(File[] sources, long fingerprint, File indexFile) throws IOException {
+        File directory = indexFile.getAbsoluteFile().getParentFile();
+        File recordsFile = File.createTempFile("gazetteer", ".records", directory);
+        File temporaryFile = File.createTempFile("gazetteer", ".idx", directory);
+        try {
+            int[] latitudes = new int[1024];
+            int[] longitudes = new int[1024];
+            int[] offsets = new int[1024];
+            int count = 0;
+            try (DataOutputStream records = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(recordsFile), 1 << 16))) {
+                String[] fields = new String[15];
+                for (File source : sources) {
+                    try (BufferedReader reader = Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isEmpty() || line.charAt(0) == '#' || split(line, fields) < 6) {
+                                continue;
+                            }
+                            long id;
+                            double lat;
+                            double lng;
+                            try {
+                                id = Long.parseLong(fields[0]);
+                                lat = Double.parseDouble(fields[4]);
+                                lng = Double.parseDouble(fields[5]);
+                            } catch (NumberFormatException e) {
+                                continue;
+                            }
+                            if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+                                continue;
+                            }
+                            if (records.size() > Integer.MAX_VALUE / 2) {
+                                throw new IOException("Gazetteer too large to index");
+                            }
+                            if (count == latitudes.length) {
+                                latitudes = Arrays.copyOf(latitudes, 2 * count);
+                                longitudes = Arrays.copyOf(longitudes, 2 * count);
+                                offsets = Arrays.copyOf(offsets, 2 * count);
+                            }
+                            latitudes[count] = (int) Math.round(lat * E6);
+                            longitudes[count] = (int) Math.round(lng * E6);
+                            offsets[count] = records.size();
+                            count++;
+
+                            records.writeLong(id);
+                            records.writeLong(parsePopulation(fields[14]));
+                            writeString(records, fields[1]);
+                            writeString(records, fields[7]);
+                            writeString(records, fields[8]);
+                            writeString(records, fields[10]);
+                        }
+                    }
+                }
+            }
+
+            int cellsPerDegree = cellsPerDegree(count);
+            int rows = 180 * cellsPerDegree;
+            int columns = 360 * cellsPerDegree;
+            // counting sort of the places by cell
+            int[] cells = new int[count];
+            int[] starts = new int[rows * columns + 1];
+            for (int i = 0; i < count; i++) {
+                cells[i] = cell(latitudes[i] / E6, longitudes[i] / E6, cellsPerDegree);
+                starts[cells[i] + 1]++;
+            }
+            for (int cell = 0; cell < rows * columns; cell++) {
+                starts[cell + 1] += starts[cell];
+            }
+            int[] order = new int[count];
+            int[] next = Arrays.copyOf(starts, rows * columns);
+            for (int i = 0; i < count; i++) {
+                order[next[cells[i]]++] = i;
+            }
+            cells = null;
+            next = null;
+
+            // place counts of the coarser levels, each cell adding up the (up to) four cells below it
+            int[] levelRows = levelRows(cellsPerDegree);
+            int[] levelColumns = levelColumns(cellsPerDegree);
+            int[][] counts = new int[levelRows.length][];
+            long pointsOffset = HEADER_BYTES + 4L * starts.length;
+            for (int level = 1; level < levelRows.length; level++) {
+                counts[level] = new int[levelRows[level] * levelColumns[level]];
+                for (int r = 0; r < levelRows[level - 1]; r++) {
+                    for (int c = 0; c < levelColumns[level - 1]; c++) {
+                        int below = level == 1
+                                ? starts[r * columns + c + 1] - starts[r * columns + c]
+                                : counts[level - 1][r * levelColumns[level - 1] + c];
+                        counts[level][(r / 2) * levelColumns[level] + c / 2] += below;
+                    }
+                }
+                pointsOffset += 4L * counts[level].length;
+            }
+
+            long recordsOffset = pointsOffset + (long) POINT_BYTES * count;
+            if (recordsOffset + recordsFile.length() > Integer.MAX_VALUE) {
+                throw new IOException("Gazetteer too large to index");
+            }
+            try (FileOutputStream stream = new FileOutputStream(temporaryFile)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fingerprint);
+                out.writeInt(count);
+                out.writeInt(cellsPerDegree);
+                out.writeInt((int) pointsOffset);
+                out.writeInt((int) recordsOffset);
+                for (int start : starts) {
+                    out.writeInt(start);
+                }
+                for (int level = 1; level < counts.length; level++) {
+                    for (int value : counts[level]) {
+                        out.writeInt(value);
+                    }
+                }
+                for (int i : order) {
+                    out.writeInt(latitudes[i]);
+                    out.writeInt(longitudes[i]);
+                    out.writeInt(offsets[i]);
+                }
+                Files.copy(recordsFile.toPath(), out);
+                out.flush();
+                stream.getFD().sync();
+            }
+            try {
+                Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            recordsFile.delete();
+            temporaryFile.delete();
+        }
+    }
+
+    /**
+     * Splits a tab-separated line into at most {@code fields.length} fields, filling the missing ones with empty
+     * strings.
+     *
+     * @return the number of fields of the line
+     */
+    private static int split(String line, String[] fields) {
+        int found = 0;
+        int start = 0;
+        while (found < fields.length) {
+            int end = line.indexOf('\t', start);
+            fields[found++] = end < 0 ? line.substring(start) : line.substring(start, end);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        Arrays.fill(fields, found, fields.length, "");
+        return found;
+    }
+
+    private static long parsePopulation(String value) {
+        try {
+            return value.isEmpty() ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Cell resolution giving about one place per cell over the globe.
+     */
+    static int cellsPerDegree(int count) {
+        int cellsPerDegree = (int) Math.ceil(Math.sqrt(count / (180.0 * 360.0)));
+        return Math.max(1, Math.min(MAX_CELLS_PER_DEGREE, cellsPerDegree));
+    }
+
+    private static int cell(double lat, double lng, int cellsPerDegree) {
+        int row = Math.min(180 * cellsPerDegree - 1, (int) ((lat + 90) * cellsPerDegree));
+        int column = Math.min(360 * cellsPerDegree - 1, (int) ((lng + 180) * cellsPerDegree));
+        return row * 360 * cellsPerDegree + column;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the size of the mapped index, which lives outside of the heap
+     */
+    public long estimatedBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Returns the position of the place closest to a point, or -1 if there is none within {@code maxDistance} meters.
+     */
+    public int nearest(double lat, double lng, double maxDistance) {
+        // the places of the cell of the point bound the search from the start
+        int row = Math.min(rows[0] - 1, (int) ((lat + 90) * cellsPerDegree));
+        int column = Math.min(columns[0] - 1, (int) ((lng + 180) * cellsPerDegree));
+        int seed = row * columns[0] + column;
+        int best = closest(seed, lat, lng, -1, maxDistance);
+        double bestDistance = best < 0 ? maxDistance : distance(best, lat, lng);
+
+        double cosLat = Math.cos(Math.toRadians(lat));
+        int top = rows.length - 1;
+        PointIndex.NodeQueue queue = new PointIndex.NodeQueue();
+        if (count > 0) {
+            queue.push(0, top, 0);
+        }
+        while (!queue.isEmpty()) {
+            if (queue.peekDistance() > bestDistance) {
+                break;
+            }
+            long ref = queue.pop();
+            int level = (int) (ref >>> 32);
+            int cell = (int) ref;
+            if (level == 0) {
+                if (cell != seed) {
+                    int found = closest(cell, lat, lng, best, bestDistance);
+                    if (found != best) {
+                        best = found;
+                        bestDistance = distance(best, lat, lng);
+                    }
+                }
+                continue;
+            }
+            row = cell / columns[level];
+            column = cell % columns[level];
+            int below = level - 1;
+            for (int r = 2 * row; r < Math.min(2 * row + 2, rows[below]); r++) {
+                for (int c = 2 * column; c < Math.min(2 * column + 2, columns[below]); c++) {
+                    int child = r * columns[below] + c;
+                    if (placeCount(below, child) == 0) {
+                        continue;
+                    }
+                    double distance = distanceToCell(below, r, c, lat, lng, cosLat, bestDistance);
+                    if (distance <= bestDistance) {
+                        queue.push(distance, below, child);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int placeCount(int level, int cell) {
+        if (level == 0) {
+            return buffer.getInt(HEADER_BYTES + 4 * (cell + 1)) - buffer.getInt(HEADER_BYTES + 4 * cell);
+        }
+        return buffer.getInt(countsOffsets[level] + 4 * cell);
+    }
+
+    /**
+     * Scans the places of a cell of the grid for one closer than {@code bestDistance}.
+     *
+     * @return the position of the closest such place, or {@code best} if there is none
+     */
+    private int closest(int cell, double lat, double lng, int best, double bestDistance) {
+        int end = buffer.getInt(HEADER_BYTES + 4 * (cell + 1));
+        for (int position = buffer.getInt(HEADER_BYTES + 4 * cell); position < end; position++) {
+            double distance = distance(position, lat, lng);
+            if (distance < bestDistance || (distance == bestDistance && best == -1)) {
+                bestDistance = distance;
+                best = position;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Distance in meters between a point and a cell of a level of the pyramid, or any value above {@code limit} if it
+     * is further away.
+     */
+    private double distanceToCell(int level, int row, int column, double lat, double lng, double cosLat, double limit) {
+        double degrees = (double) (1 << level) / cellsPerDegree;
+        double minLat = row * degrees - 90;
+        double maxLat = Math.min(90, minLat + degrees);
+        double minLng = column * degrees - 180;
+        double maxLng = Math.min(180, minLng + degrees);
+        // the difference of latitudes alone is a cheaper lower bound
+        double latitudeGap = Math.max(0, Math.max(minLat - lat, lat - maxLat));
+        if (latitudeGap > 0 && Math.toRadians(latitudeGap) * GeoDistance.EARTH_RADIUS_M > limit) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (lng >= minLng && lng <= maxLng) {
+            return Math.toRadians(latitudeGap) * GeoDistance.EARTH_RADIUS_M;
+        }
+        // and so is the distance to the closest meridian, whose sine is cos(lat) sin(dlng) when dlng is below 90
+        // degrees, before the exact distance to the cell
+        double longitudeGap = Math.min(floorMod360(minLng - lng), floorMod360(lng - maxLng));
+        if (longitudeGap < 90 && cosLat * Math.sin(Math.toRadians(longitudeGap)) * GeoDistance.EARTH_RADIUS_M > limit) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return PointIndex.distanceToBox(lat, lng, minLat, maxLat, minLng, maxLng);
+    }
+
+    private static double floorMod360(double degrees) {
+        return degrees - 360 * Math.floor(degrees / 360);
+    }
+
+    private double distance(int position, double lat, double lng) {
+        return GeoDistance.haversineDistance(lat, lng, latitude(position), longitude(position));
+    }
+
+    public double latitude(int position) {
+        return buffer.getInt(pointsOffset + POINT_BYTES * position) / E6;
+    }
+
+    public double longitude(int position) {
+        return buffer.getInt(pointsOffset + POINT_BYTES * position + 4) / E6;
+    }
+
+    private int record(int position) {
+        return recordsOffset + buffer.getInt(pointsOffset + POINT_BYTES * position + 8);
+    }
+
+    public long id(int position) {
+        return buffer.getLong(record(position));
+    }
+
+    public long population(int position) {
+        return buffer.getLong(record(position) + 8);
+    }
+
+    public String name(int position) {
+        return string(record(position) + 16, 0);
+    }
+
+    public String featureCode(int position) {
+        return string(record(position) + 16, 1);
+    }
+
+    public String countryCode(int position) {
+        return string(record(position) + 16, 2);
+    }
+
+    public String admin1Code(int position) {
+        return string(record(position) + 16, 3);
+    }
+
+    /**
+     * Reads the {@code index}-th of the length-prefixed strings starting at {@code offset}, with absolute reads only so
+     * that the shared buffer can be read concurrently.
+     */
+    private String string(int offset, int index) {
+        for (int i = 0; i < index; i++) {
+            offset += 2 + Short.toUnsignedInt(buffer.getShort(offset));
+        }
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
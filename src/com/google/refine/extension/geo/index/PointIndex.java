@@ -0,0 +1,501 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+/**
+ * Static R-tree over points, packed with the Sort-Tile-Recursive algorithm.
+ * <p>
+ * The index is immutable and stored in primitive arrays: the points, reordered so that each leaf covers a contiguous
+ * range of them, and the bounding boxes of the nodes of each level. Node {@code i} of a level covers children
+ * {@code [i * NODE_CAPACITY, (i + 1) * NODE_CAPACITY)} of the level below, and the leaves (level 0) cover points the same
+ * way. Queries return positions in the index, which {@link #id(int)} maps back to the identifiers given at build time
+ * (row indices, typically). Distances are great circle distances in meters.
+ */
+public final class PointIndex {
+
+    static final int NODE_CAPACITY = 16;
+
+    /**
+     * Slack in meters when pruning nodes of a radius query, so that rounding never drops a point lying on the circle.
+     */
+    private static final double PRUNING_SLACK = 1e-6;
+
+    private final int size;
+    private final double[] lats;
+    private final double[] lngs;
+    private final int[] ids;
+
+    // [level][node]
+    private final double[][] minLats;
+    private final double[][] maxLats;
+    private final double[][] minLngs;
+    private final double[][] maxLngs;
+
+    PointIndex(double[] lats, double[] lngs, int[] ids, double[][] minLats, double[][] maxLats, double[][] minLngs,
+            double[][] maxLngs) {
+        this.size = ids.length;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.ids = ids;
+        this.minLats = minLats;
+        this.maxLats = maxLats;
+        this.minLngs = minLngs;
+        this.maxLngs = maxLngs;
+    }
+
+    /**
+     * Builds an index over the first {@code count} points of the arrays. Points with a NaN coordinate are skipped. The
+     * arrays are not modified nor retained.
+     */
+    public static PointIndex build(double[] lats, double[] lngs, int[] ids, int count) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(lats[i]) && !Double.isNaN(lngs[i])) {
+                size++;
+            }
+        }
+        int[] order = new int[size];
+        for (int i = 0, j = 0; i < count; i++) {
+            if (!Double.isNaN(lats[i]) && !Double.isNaN(lngs[i])) {
+                order[j++] = i;
+            }
+        }
+
+        // Sort-Tile-Recursive: sort by longitude, cut into vertical slices, then sort each slice by latitude
+        int leafCount = ceilDiv(size, NODE_CAPACITY);
+        int sliceCount = (int) Math.ceil(Math.sqrt(leafCount));
+        int sliceSize = sliceCount == 0 ? 0 : ceilDiv(leafCount, sliceCount) * NODE_CAPACITY;
+        sortByKey(order, 0, size, lngs, 180.0);
+        for (int start = 0; start < size; start += sliceSize) {
+            sortByKey(order, start, Math.min(start + sliceSize, size), lats, 90.0);
+        }
+
+        double[] sortedLats = new double[size];
+        double[] sortedLngs = new double[size];
+        int[] sortedIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedLats[i] = lats[order[i]];
+            sortedLngs[i] = lngs[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+
+        int levelCount = 1;
+        for (int nodes = leafCount; nodes > NODE_CAPACITY; nodes = ceilDiv(nodes, NODE_CAPACITY)) {
+            levelCount++;
+        }
+        double[][] minLats = new double[levelCount][];
+        double[][] maxLats = new double[levelCount][];
+        double[][] minLngs = new double[levelCount][];
+        double[][] maxLngs = new double[levelCount][];
+
+        int childCount = size;
+        for (int level = 0; level < levelCount; level++) {
+            int nodeCount = ceilDiv(childCount, NODE_CAPACITY);
+            minLats[level] = new double[nodeCount];
+            maxLats[level] = new double[nodeCount];
+            minLngs[level] = new double[nodeCount];
+            maxLngs[level] = new double[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                double minLat = Double.POSITIVE_INFINITY;
+                double maxLat = Double.NEGATIVE_INFINITY;
+                double minLng = Double.POSITIVE_INFINITY;
+                double maxLng = Double.NEGATIVE_INFINITY;
+                int end = Math.min((node + 1) * NODE_CAPACITY, childCount);
+                for (int child = node * NODE_CAPACITY; child < end; child++) {
+                    if (level == 0) {
+                        minLat = Math.min(minLat, sortedLats[child]);
+                        maxLat = Math.max(maxLat, sortedLats[child]);
+                        minLng = Math.min(minLng, sortedLngs[child]);
+                        maxLng = Math.max(maxLng, sortedLngs[child]);
+                    } else {
+                        minLat = Math.min(minLat, minLats[level - 1][child]);
+                        maxLat = Math.max(maxLat, maxLats[level - 1][child]);
+                        minLng = Math.min(minLng, minLngs[level - 1][child]);
+                        maxLng = Math.max(maxLng, maxLngs[level - 1][child]);
+                    }
+                }
+                minLats[level][node] = minLat;
+                maxLats[level][node] = maxLat;
+                minLngs[level][node] = minLng;
+                maxLngs[level][node] = maxLng;
+            }
+            childCount = nodeCount;
+        }
+        return new PointIndex(sortedLats, sortedLngs, sortedIds, minLats, maxLats, minLngs, maxLngs);
+    }
+
+    /**
+     * Sorts {@code order[from, to)} by the coordinate it points to. Keys are quantized to 31 bits and packed with the
+     * position into longs, so that a primitive sort can be used; the order of points closer than the quantization step
+     * does not matter for packing.
+     */
+    private static void sortByKey(int[] order, int from, int to, double[] coordinates, double range) {
+        long[] keys = new long[to - from];
+        double scale = ((1L << 31) - 1) / (2 * range);
+        for (int i = from; i < to; i++) {
+            long quantized = (long) ((coordinates[order[i]] + range) * scale);
+            keys[i - from] = (quantized << 32) | order[i];
+        }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            order[i] = (int) keys[i - from];
+        }
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+
+    /**
+     * @return the number of points in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the identifier of the point at the given position
+     */
+    public int id(int position) {
+        return ids[position];
+    }
+
+    public double latitude(int position) {
+        return lats[position];
+    }
+
+    public double longitude(int position) {
+        return lngs[position];
+    }
+
+    private int topLevel() {
+        return minLats.length - 1;
+    }
+
+    /**
+     * Finds the point closest to the given coordinates.
+     *
+     * @return the position of the nearest point, or -1 if the index is empty
+     */
+    public int nearest(double lat, double lng) {
+        return nearest(lat, lng, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the point closest to the given coordinates, within a maximum distance.
+     *
+     * @return the position of the nearest point, or -1 if no point is within {@code maxDistance} meters
+     */
+    public int nearest(double lat, double lng, double maxDistance) {
+        if (size == 0) {
+            return -1;
+        }
+        double bestDistance = maxDistance;
+        int best = -1;
+
+        // best-first traversal: nodes are expanded by increasing distance
+        NodeQueue queue = new NodeQueue();
+        int top = topLevel();
+        for (int node = 0; node < minLats[top].length; node++) {
+            double distance = minDistance(top, node, lat, lng);
+            if (distance <= bestDistance) {
+                queue.push(distance, top, node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            if (queue.peekDistance() > bestDistance) {
+                break;
+            }
+            long ref = queue.pop();
+            int level = (int) (ref >>> 32);
+            int node = (int) ref;
+            int start = node * NODE_CAPACITY;
+            if (level == 0) {
+                int end = Math.min(start + NODE_CAPACITY, size);
+                for (int position = start; position < end; position++) {
+                    if (Math.abs(lat - lats[position]) * GeoDistance.METERS_PER_DEGREE > bestDistance + PRUNING_SLACK) {
+                        continue;
+                    }
+                    double distance = GeoDistance.haversineDistance(lat, lng, lats[position], lngs[position]);
+                    if (distance < bestDistance || (distance == bestDistance && best == -1)) {
+                        bestDistance = distance;
+                        best = position;
+                    }
+                }
+            } else {
+                int end = Math.min(start + NODE_CAPACITY, minLats[level - 1].length);
+                for (int child = start; child < end; child++) {
+                    if (latitudeGap(level - 1, child, lat) * GeoDistance.METERS_PER_DEGREE > bestDistance
+                            + PRUNING_SLACK) {
+                        continue;
+                    }
+                    double distance = minDistance(level - 1, child, lat, lng);
+                    if (distance <= bestDistance) {
+                        queue.push(distance, level - 1, child);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reports the position of every point within {@code radius} meters of the given coordinates, in no particular
+     * order.
+     */
+    public void within(double lat, double lng, double radius, IntConsumer consumer) {
+        if (size == 0) {
+            return;
+        }
+        double limit = radius + PRUNING_SLACK;
+        int[] stackLevels = new int[64];
+        int[] stackNodes = new int[64];
+        int depth = 0;
+        int top = topLevel();
+        for (int node = minLats[top].length - 1; node >= 0; node--) {
+            if (depth == stackNodes.length) {
+                stackLevels = Arrays.copyOf(stackLevels, depth * 2);
+                stackNodes = Arrays.copyOf(stackNodes, depth * 2);
+            }
+            stackLevels[depth] = top;
+            stackNodes[depth++] = node;
+        }
+        while (depth > 0) {
+            int level = stackLevels[--depth];
+            int node = stackNodes[depth];
+            if (latitudeGap(level, node, lat) * GeoDistance.METERS_PER_DEGREE > limit
+                    || minDistance(level, node, lat, lng) > limit) {
+                continue;
+            }
+            int start = node * NODE_CAPACITY;
+            if (level == 0) {
+                int end = Math.min(start + NODE_CAPACITY, size);
+                for (int position = start; position < end; position++) {
+                    if (Math.abs(lat - lats[position]) * GeoDistance.METERS_PER_DEGREE <= limit
+                            && GeoDistance.haversineDistance(lat, lng, lats[position], lngs[position]) <= radius) {
+                        consumer.accept(position);
+                    }
+                }
+            } else {
+                int end = Math.min(start + NODE_CAPACITY, minLats[level - 1].length);
+                if (depth + (end - start) > stackNodes.length) {
+                    stackLevels = Arrays.copyOf(stackLevels, stackLevels.length * 2 + NODE_CAPACITY);
+                    stackNodes = Arrays.copyOf(stackNodes, stackNodes.length * 2 + NODE_CAPACITY);
+                }
+                for (int child = start; child < end; child++) {
+                    stackLevels[depth] = level - 1;
+                    stackNodes[depth++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports the position of every point inside a latitude/longitude box, bounds included, in no particular order. The
+     * box must not cross the antimeridian: callers split such boxes in two.
+     */
+    public void withinBox(double minLat, double maxLat, double minLng, double maxLng, IntConsumer consumer) {
+        if (size == 0) {
+            return;
+        }
+        int[] stackLevels = new int[64];
+        int[] stackNodes = new int[64];
+        int depth = 0;
+        int top = topLevel();
+        for (int node = minLats[top].length - 1; node >= 0; node--) {
+            if (depth == stackNodes.length) {
+                stackLevels = Arrays.copyOf(stackLevels, depth * 2);
+                stackNodes = Arrays.copyOf(stackNodes, depth * 2);
+            }
+            stackLevels[depth] = top;
+            stackNodes[depth++] = node;
+        }
+        while (depth > 0) {
+            int level = stackLevels[--depth];
+            int node = stackNodes[depth];
+            if (minLats[level][node] > maxLat || maxLats[level][node] < minLat
+                    || minLngs[level][node] > maxLng || maxLngs[level][node] < minLng) {
+                continue;
+            }
+            int start = node * NODE_CAPACITY;
+            if (level == 0) {
+                int end = Math.min(start + NODE_CAPACITY, size);
+                for (int position = start; position < end; position++) {
+                    double lat = lats[position];
+                    double lng = lngs[position];
+                    if (lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng) {
+                        consumer.accept(position);
+                    }
+                }
+            } else {
+                int end = Math.min(start + NODE_CAPACITY, minLats[level - 1].length);
+                if (depth + (end - start) > stackNodes.length) {
+                    stackLevels = Arrays.copyOf(stackLevels, stackLevels.length * 2 + NODE_CAPACITY);
+                    stackNodes = Arrays.copyOf(stackNodes, stackNodes.length * 2 + NODE_CAPACITY);
+                }
+                for (int child = start; child < end; child++) {
+                    stackLevels[depth] = level - 1;
+                    stackNodes[depth++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower bound of the distance in meters between the given point and any point of a node: the exact distance to its
+     * bounding box.
+     */
+    double minDistance(int level, int node, double lat, double lng) {
+        return distanceToBox(lat, lng, minLats[level][node], maxLats[level][node], minLngs[level][node], maxLngs[level][node]);
+    }
+
+    /**
+     * Difference in degrees between a latitude and the latitude range of a node, 0 when within the range.
+     */
+    private double latitudeGap(int level, int node, double lat) {
+        return Math.max(0.0, Math.max(minLats[level][node] - lat, lat - maxLats[level][node]));
+    }
+
+    /**
+     * Great circle distance in meters between a point and the closest point of a latitude/longitude box (which does not
+     * cross the antimeridian).
+     */
+    static double distanceToBox(double lat, double lng, double minLat, double maxLat, double minLng, double maxLng) {
+        if (lng >= minLng && lng <= maxLng) {
+            // the closest point is straight north or south
+            double closestLat = Math.max(minLat, Math.min(maxLat, lat));
+            return GeoDistance.haversineDistance(lat, lng, closestLat, lng);
+        }
+        // otherwise it lies on the bounding meridian closest in longitude, around the globe: at any latitude, the
+        // distance to a point grows with the difference in longitude
+        double toMin = lng < minLng ? minLng - lng : minLng - lng + 360.0;
+        double toMax = lng > maxLng ? lng - maxLng : lng - maxLng + 360.0;
+        return distanceToMeridian(lat, lng, toMin <= toMax ? minLng : maxLng, minLat, maxLat);
+    }
+
+    private static double distanceToMeridian(double lat, double lng, double meridian, double minLat, double maxLat) {
+        double latRad = Math.toRadians(lat);
+        double cosDlng = Math.cos(Math.toRadians(meridian - lng));
+        if (cosDlng < 0) {
+            // more than 90 degrees away, the point of the great circle closest to (lat, lng) lies beyond a pole, on the
+            // opposite meridian: along this one, the distance peaks between the ends of the segment, so one of them
+            // is the closest
+            return Math.min(GeoDistance.haversineDistance(lat, lng, minLat, meridian),
+                    GeoDistance.haversineDistance(lat, lng, maxLat, meridian));
+        }
+        // latitude of the point of the meridian's great circle closest to (lat, lng), clamped to the segment
+        double closestLat = Math.toDegrees(Math.atan2(Math.sin(latRad), Math.cos(latRad) * cosDlng));
+        closestLat = Math.max(minLat, Math.min(maxLat, closestLat));
+        return GeoDistance.haversineDistance(lat, lng, closestLat, meridian);
+    }
+
+    /**
+     * Approximate memory footprint of the index, in bytes.
+     */
+    public long estimatedBytes() {
+        long bytes = (long) size * (8 + 8 + 4);
+        for (double[] level : minLats) {
+            bytes += 4L * 8 * level.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Binary min-heap of nodes keyed by distance, on primitive arrays.
+     */
+    static final class NodeQueue {
+
+        private double[] distances = new double[64];
+        private long[] refs = new long[64];
+        private int length;
+
+        boolean isEmpty() {
+            return length == 0;
+        }
+
+        double peekDistance() {
+            return distances[0];
+        }
+
+        void push(double distance, int level, int node) {
+            if (length == distances.length) {
+                distances = Arrays.copyOf(distances, length * 2);
+                refs = Arrays.copyOf(refs, length * 2);
+            }
+            long ref = ((long) level << 32) | (node & 0xffffffffL);
+            int i = length++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] <= distance) {
+                    break;
+                }
+                distances[i] = distances[parent];
+                refs[i] = refs[parent];
+                i = parent;
+            }
+            distances[i] = distance;
+            refs[i] = ref;
+        }
+
+        long pop() {
+            long result = refs[0];
+            double distance = distances[--length];
+            long ref = refs[length];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= length) {
+                    break;
+                }
+                if (child + 1 < length && distances[child + 1] < distances[child]) {
+                    child++;
+                }
+                if (distances[child] >= distance) {
+                    break;
+                }
+                distances[i] = distances[child];
+                refs[i] = refs[child];
+                i = child;
+            }
+            distances[i] = distance;
+            refs[i] = ref;
+            return result;
+        }
+    }
+}
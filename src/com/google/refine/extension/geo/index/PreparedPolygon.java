@@ -0,0 +1,211 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.List;
+
+/**
+ * A polygon (or multipolygon, with holes) prepared for repeated point-in-polygon tests.
+ * <p>
+ * Its edges are stored in primitive arrays and bucketed into horizontal bands of equal height over the bounding box,
+ * about one band per edge: a test casts a horizontal ray from the point and only counts the crossings of the edges of
+ * the band of the point, so that it reads a handful of edges rather than all of them. Rings are combined with the
+ * even-odd rule, so holes and several outer rings need no orientation. Coordinates are planar longitudes and
+ * latitudes: polygons crossing the antimeridian must be split.
+ */
+public final class PreparedPolygon {
+
+    static final int MAX_BANDS = 1 << 16;
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int edgeCount;
+
+    private final int bandCount;
+    private final double bandHeight;
+    // edges of each band, as the coordinates of their ends, band after band, and the first edge of each band
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] x2;
+    private final double[] y2;
+    private final int[] bandStarts;
+
+    /**
+     * @param rings
+     *            rings of interleaved {@code x, y} coordinates, closed or not, as read by
+     *            {@link com.google.refine.extension.geo.util.PolygonParser}
+     */
+    public PreparedPolygon(List<double[]> rings) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int edgeCount = 0;
+        for (double[] ring : rings) {
+            int points = ring.length / 2;
+            for (int i = 0; i < points; i++) {
+                minX = Math.min(minX, ring[2 * i]);
+                maxX = Math.max(maxX, ring[2 * i]);
+                minY = Math.min(minY, ring[2 * i + 1]);
+                maxY = Math.max(maxY, ring[2 * i + 1]);
+            }
+            if (points >= 2) {
+                // a closed ring repeats its first point, which adds no edge
+                boolean closed = ring[0] == ring[2 * points - 2] && ring[1] == ring[2 * points - 1];
+                edgeCount += closed ? points - 1 : points;
+            }
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.edgeCount = edgeCount;
+
+        bandCount = Math.max(1, Math.min(MAX_BANDS, edgeCount));
+        double height = (maxY - minY) / bandCount;
+        bandHeight = height > 0 ? height : 1;
+
+        // count the edges of each band, then place them
+        int[] starts = new int[bandCount + 1];
+        forEachEdge(rings, (ax, ay, bx, by) -> {
+            for (int band = band(Math.min(ay, by)); band <= band(Math.max(ay, by)); band++) {
+                starts[band + 1]++;
+            }
+        });
+        for (int band = 0; band < bandCount; band++) {
+            starts[band + 1] += starts[band];
+        }
+        int total = starts[bandCount];
+        x1 = new double[total];
+        y1 = new double[total];
+        x2 = new double[total];
+        y2 = new double[total];
+        int[] next = starts.clone();
+        forEachEdge(rings, (ax, ay, bx, by) -> {
+            for (int band = band(Math.min(ay, by)); band <= band(Math.max(ay, by)); band++) {
+                int position = next[band]++;
+                x1[position] = ax;
+                y1[position] = ay;
+                x2[position] = bx;
+                y2[position] = by;
+            }
+        });
+        bandStarts = starts;
+    }
+
+    @FunctionalInterface
+    private interface EdgeConsumer {
+
+        void accept(double ax, double ay, double bx, double by);
+    }
+
+    /**
+     * Reports the edges of the rings, including the closing edge of rings which are not closed. Horizontal edges,
+     * which a horizontal ray never crosses, are skipped.
+     */
+    private static void forEachEdge(List<double[]> rings, EdgeConsumer consumer) {
+        for (double[] ring : rings) {
+            int points = ring.length / 2;
+            if (points < 2) {
+                continue;
+            }
+            for (int i = 0; i < points; i++) {
+                int j = i + 1 == points ? 0 : i + 1;
+                double ay = ring[2 * i + 1];
+                double by = ring[2 * j + 1];
+                if (ay != by) {
+                    consumer.accept(ring[2 * i], ay, ring[2 * j], by);
+                }
+            }
+        }
+    }
+
+    private int band(double y) {
+        return Math.max(0, Math.min(bandCount - 1, (int) ((y - minY) / bandHeight)));
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * @return the number of edges of the rings
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Approximate memory footprint of the polygon, in bytes.
+     */
+    public long estimatedBytes() {
+        return 4L * 8 * x1.length + 4L * bandStarts.length;
+    }
+
+    /**
+     * Tells whether a point lies inside the polygon. Points on the boundary may be reported either way.
+     */
+    public boolean contains(double x, double y) {
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return false;
+        }
+        int band = band(y);
+        boolean inside = false;
+        for (int i = bandStarts[band]; i < bandStarts[band + 1]; i++) {
+            double ay = y1[i];
+            double by = y2[i];
+            if ((ay > y) != (by > y)) {
+                double ax = x1[i];
+                if (x < ax + (y - ay) * (x2[i] - ax) / (by - ay)) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
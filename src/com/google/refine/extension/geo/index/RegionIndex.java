@@ -0,0 +1,160 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.Arrays;
+
+/**
+ * Finds which of a set of {@link PreparedPolygon}s contains a point.
+ * <p>
+ * The bounding boxes of the polygons are bucketed into a uniform grid over their union, with about four cells per
+ * polygon, so that a lookup only tests the few polygons whose box overlaps the cell of the point, however many regions
+ * there are.
+ */
+public final class RegionIndex {
+
+    static final int MAX_GRID_SIZE = 1024;
+
+    private final PreparedPolygon[] polygons;
+    private final int[] ids;
+
+    private final double minX;
+    private final double minY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int gridSize;
+    // positions of the polygons overlapping each cell, cell after cell, and the first position of each cell
+    private final int[] cellPolygons;
+    private final int[] cellStarts;
+
+    /**
+     * Indexes the first {@code count} polygons, identified by the matching entries of {@code ids}. Empty polygons are
+     * left out.
+     */
+    public RegionIndex(PreparedPolygon[] polygons, int[] ids, int count) {
+        int size = 0;
+        PreparedPolygon[] kept = new PreparedPolygon[count];
+        int[] keptIds = new int[count];
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            PreparedPolygon polygon = polygons[i];
+            if (polygon != null && polygon.getEdgeCount() > 0) {
+                kept[size] = polygon;
+                keptIds[size++] = ids[i];
+                minX = Math.min(minX, polygon.getMinX());
+                minY = Math.min(minY, polygon.getMinY());
+                maxX = Math.max(maxX, polygon.getMaxX());
+                maxY = Math.max(maxY, polygon.getMaxY());
+            }
+        }
+        this.polygons = Arrays.copyOf(kept, size);
+        this.ids = Arrays.copyOf(keptIds, size);
+        this.minX = minX;
+        this.minY = minY;
+        gridSize = (int) Math.max(1, Math.min(MAX_GRID_SIZE, Math.ceil(2 * Math.sqrt(size))));
+        cellWidth = maxX > minX ? (maxX - minX) / gridSize : 1;
+        cellHeight = maxY > minY ? (maxY - minY) / gridSize : 1;
+
+        int[] starts = new int[gridSize * gridSize + 1];
+        for (int p = 0; p < size; p++) {
+            PreparedPolygon polygon = kept[p];
+            for (int row = cell(polygon.getMinY(), minY, cellHeight); row <= cell(polygon.getMaxY(), minY, cellHeight); row++) {
+                for (int column = cell(polygon.getMinX(), minX, cellWidth); column <= cell(polygon.getMaxX(), minX,
+                        cellWidth); column++) {
+                    starts[row * gridSize + column + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < gridSize * gridSize; c++) {
+            starts[c + 1] += starts[c];
+        }
+        int[] next = starts.clone();
+        cellPolygons = new int[starts[gridSize * gridSize]];
+        // polygons are placed in order, so each cell lists them by position
+        for (int p = 0; p < size; p++) {
+            PreparedPolygon polygon = kept[p];
+            for (int row = cell(polygon.getMinY(), minY, cellHeight); row <= cell(polygon.getMaxY(), minY, cellHeight); row++) {
+                for (int column = cell(polygon.getMinX(), minX, cellWidth); column <= cell(polygon.getMaxX(), minX,
+                        cellWidth); column++) {
+                    cellPolygons[next[row * gridSize + column]++] = p;
+                }
+            }
+        }
+        cellStarts = starts;
+    }
+
+    private int cell(double value, double min, double width) {
+        return Math.max(0, Math.min(gridSize - 1, (int) ((value - min) / width)));
+    }
+
+    /**
+     * @return the number of indexed polygons
+     */
+    public int size() {
+        return polygons.length;
+    }
+
+    /**
+     * Approximate memory footprint of the index and its polygons, in bytes.
+     */
+    public long estimatedBytes() {
+        long bytes = 4L * (ids.length + cellPolygons.length + cellStarts.length);
+        for (PreparedPolygon polygon : polygons) {
+            bytes += polygon.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Finds a polygon containing a point given as longitude and latitude.
+     *
+     * @return the id of the first polygon, in the order they were given, containing the point, or -1 if there is none
+     */
+    public int find(double x, double y) {
+        if (cellPolygons.length == 0 || Double.isNaN(x) || Double.isNaN(y)) {
+            return -1;
+        }
+        int cell = cell(y, minY, cellHeight) * gridSize + cell(x, minX, cellWidth);
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            int p = cellPolygons[i];
+            if (polygons[p].contains(x, y)) {
+                return ids[p];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.extension.geo.util.PolygonParser;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+
+/**
+ * Caches the {@link RegionIndex} built over the polygons of a geometry column of a project, written as WKT or GeoJSON.
+ * <p>
+ * As with {@link SpatialIndexCache}, each index is stamped with the last entry of the project history at build time and
+ * rebuilt on the next lookup after the project changes, and only the most recently used indexes are kept. Likewise,
+ * the indexes of a deleted or closed project are released only by eviction, or when the module shuts down.
+ */
+public final class RegionIndexCache {
+
+    private static final Logger logger = LoggerFactory.getLogger("RegionIndexCache");
+
+    static final int MAX_ENTRIES = 8;
+
+    // total time spent building indexes, for GeoResources
+    private static final LongAdder buildMillis = new LongAdder();
+
+    private static final Map<Key, CachedIndex> entries = new LinkedHashMap<Key, CachedIndex>(MAX_ENTRIES, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedIndex> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private RegionIndexCache() {
+    }
+
+    /**
+     * Returns the index of the polygons of all rows of the project, keyed by row index, building it if needed. Rows
+     * whose cell is blank or not a valid polygon are left out.
+     *
+     * @throws Exception
+     *             if the column does not exist
+     */
+    public static RegionIndex get(Project project, String geometryColumnName) throws Exception {
+        Column column = project.columnModel.getColumnByName(geometryColumnName);
+        if (column == null) {
+            throw new Exception("No column named " + geometryColumnName);
+        }
+        Key key = new Key(project.id, geometryColumnName);
+        CachedIndex entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, k -> new CachedIndex());
+        }
+        synchronized (entry) {
+            long stamp = SpatialIndexCache.historyStamp(project);
+            if (entry.index == null || entry.stamp != stamp) {
+                long start = System.currentTimeMillis();
+                entry.index = build(project, column.getCellIndex());
+                entry.stamp = stamp;
+                long millis = System.currentTimeMillis() - start;
+                buildMillis.add(millis);
+                logger.info("Built region index over {} polygons of {} in project {} in {} ms", entry.index.size(),
+                        geometryColumnName, project.id, millis);
+            }
+            return entry.index;
+        }
+    }
+
+    /**
+     * Drops every index.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the total time spent building indexes, in milliseconds
+     */
+    public static long getBuildMillis() {
+        return buildMillis.sum();
+    }
+
+    /**
+     * Approximate memory footprint of the cached indexes, in bytes.
+     */
+    public static long estimatedBytes() {
+        List<CachedIndex> cached;
+        synchronized (entries) {
+            cached = new ArrayList<>(entries.values());
+        }
+        long bytes = 0;
+        for (CachedIndex entry : cached) {
+            RegionIndex index = entry.index;
+            if (index != null) {
+                bytes += index.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    static RegionIndex build(Project project, int cellIndex) {
+        synchronized (project) {
+            int count = project.rows.size();
+            Object[] values = new Object[count];
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = project.rows.get(i).getCellValue(cellIndex);
+                ids[i] = i;
+            }
+            // parsing and preparing dominate, and do not depend on each other
+            PreparedPolygon[] polygons = new PreparedPolygon[count];
+            GeoExecutors.parallelFor(count, 16, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (values[i] instanceof String) {
+                        try {
+                            polygons[i] = new PreparedPolygon(PolygonParser.parse((String) values[i]));
+                        } catch (IllegalArgumentException e) {
+                            // not a polygon, left out
+                        }
+                    }
+                }
+            });
+            return new RegionIndex(polygons, ids, count);
+        }
+    }
+
+    private static final class CachedIndex {
+
+        volatile long stamp;
+        volatile RegionIndex index;
+    }
+
+    private static final class Key {
+
+        final long projectId;
+        final String columnName;
+
+        Key(long projectId, String columnName) {
+            this.projectId = projectId;
+            this.columnName = columnName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return projectId == key.projectId && columnName.equals(key.columnName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, columnName);
+        }
+    }
+}
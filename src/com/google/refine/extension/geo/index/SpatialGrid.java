@@ -0,0 +1,218 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+/**
+ * Spatial hash of points into cells at least {@code cellSize} meters wide.
+ * <p>
+ * The globe is cut into latitude bands of {@code cellSize} meters, and each band into as many equal longitude cells as
+ * fit at its poleward edge, so that cells never get narrower than the requested size and wrap around the antimeridian.
+ * Points are sorted by cell, band first, and stored in primitive arrays next to the sorted keys of the occupied cells:
+ * the cells of a band overlapping a query are a contiguous range of keys, found with one binary search, and their
+ * points a contiguous range of positions. Unlike {@link PointIndex}, the grid is cheap to build, which suits one-off
+ * queries with a fixed radius such as proximity clustering. Iterating queries by position keeps them cache friendly.
+ */
+public final class SpatialGrid {
+
+    /**
+     * Degrees added to query ranges, so that rounding never drops a cell touching the circle.
+     */
+    private static final double RANGE_SLACK = 1e-9;
+
+    private final double bandHeight;
+    private final int bandCount;
+    private final int cellBits;
+
+    private final int size;
+    // points, sorted by cell
+    private final double[] lats;
+    private final double[] lngs;
+    private final int[] ids;
+    // sorted keys of the occupied cells, and the first position of each of them (plus the end)
+    private final long[] cellKeys;
+    private final int[] cellStarts;
+
+    /**
+     * Hashes the first {@code count} points of the arrays, identified by their index. Points with a NaN coordinate are
+     * left out. The arrays are not modified nor retained.
+     * <p>
+     * Points are sorted on a single {@code long} holding the key of their cell and their index, so cells get wider
+     * than {@code cellSize} when that is needed to fit both. This only happens for cells of a few meters on millions of
+     * points, and only makes queries return more candidates.
+     */
+    public SpatialGrid(double[] lats, double[] lngs, int count, double cellSize) {
+        int indexBits = Math.max(1, 64 - Long.numberOfLeadingZeros(count - 1L));
+        double height = Math.min(180.0, Math.max(cellSize / GeoDistance.METERS_PER_DEGREE, 1e-7));
+        while (bits((long) Math.ceil(180.0 / height)) + bits((long) (360.0 / height)) > 63 - indexBits) {
+            height *= 2;
+        }
+        bandHeight = height;
+        bandCount = (int) Math.ceil(180.0 / bandHeight);
+        cellBits = bits((long) (360.0 / bandHeight));
+
+        int size = 0;
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(lats[i]) && !Double.isNaN(lngs[i])) {
+                int band = band(lats[i]);
+                sorted[size++] = (cellKey(band, cell(band, lngs[i])) << indexBits) | i;
+            }
+        }
+        this.size = size;
+        Arrays.sort(sorted, 0, size);
+
+        this.lats = new double[size];
+        this.lngs = new double[size];
+        this.ids = new int[size];
+        long[] keys = new long[size];
+        int[] starts = new int[size + 1];
+        int cells = 0;
+        long indexMask = (1L << indexBits) - 1;
+        for (int position = 0; position < size; position++) {
+            long key = sorted[position] >>> indexBits;
+            int id = (int) (sorted[position] & indexMask);
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells++] = position;
+            }
+            this.lats[position] = lats[id];
+            this.lngs[position] = lngs[id];
+            this.ids[position] = id;
+        }
+        starts[cells] = size;
+        cellKeys = Arrays.copyOf(keys, cells);
+        cellStarts = Arrays.copyOf(starts, cells + 1);
+    }
+
+    /**
+     * Number of bits needed to write the integers below {@code count}.
+     */
+    private static int bits(long count) {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(count - 1));
+    }
+
+    private int band(double lat) {
+        return Math.min(bandCount - 1, (int) ((lat + 90.0) / bandHeight));
+    }
+
+    /**
+     * Number of cells of a band: as many as fit at its poleward edge, where they must still be cellSize wide.
+     */
+    private int cellCount(int band) {
+        double edge = Math.max(Math.abs(-90.0 + band * bandHeight), Math.abs(-90.0 + (band + 1) * bandHeight));
+        double width = 360.0 * Math.cos(Math.toRadians(Math.min(90.0, edge)));
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, Math.floor(width / bandHeight)));
+    }
+
+    private int cell(int band, double lng) {
+        int count = cellCount(band);
+        return Math.min(count - 1, (int) ((lng + 180.0) / 360.0 * count));
+    }
+
+    private long cellKey(int band, int cell) {
+        return ((long) band << cellBits) | cell;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index of the point at a position of the grid, in the arrays it was built from.
+     */
+    public int id(int position) {
+        return ids[position];
+    }
+
+    public double latitude(int position) {
+        return lats[position];
+    }
+
+    public double longitude(int position) {
+        return lngs[position];
+    }
+
+    /**
+     * Reports the position of every point of the cells intersecting the bounding box of a circle, in no particular
+     * order. This is a superset of the points within the circle, which callers filter with an exact distance.
+     */
+    public void candidates(double lat, double lng, double radius, IntConsumer consumer) {
+        double angle = radius / GeoDistance.EARTH_RADIUS_M;
+        double dLat = Math.toDegrees(angle) + RANGE_SLACK;
+        double halfWidth;
+        if (angle >= Math.PI / 2 - Math.toRadians(Math.abs(lat))) {
+            halfWidth = 180.0;
+        } else {
+            halfWidth = Math.toDegrees(Math.asin(Math.min(1.0, Math.sin(angle) / Math.cos(Math.toRadians(lat))))) + RANGE_SLACK;
+        }
+        int fromBand = band(Math.max(-90.0, lat - dLat));
+        int toBand = band(Math.min(90.0, lat + dLat));
+        for (int band = fromBand; band <= toBand; band++) {
+            int count = cellCount(band);
+            long from = (long) Math.floor((lng - halfWidth + 180.0) / 360.0 * count);
+            long to = (long) Math.floor((lng + halfWidth + 180.0) / 360.0 * count);
+            if (halfWidth >= 180.0 || to - from + 1 >= count) {
+                report(band, 0, count - 1, consumer);
+            } else if (from < 0) {
+                report(band, (int) (from + count), count - 1, consumer);
+                report(band, 0, (int) to, consumer);
+            } else if (to >= count) {
+                report(band, (int) from, count - 1, consumer);
+                report(band, 0, (int) (to - count), consumer);
+            } else {
+                report(band, (int) from, (int) to, consumer);
+            }
+        }
+    }
+
+    private void report(int band, int fromCell, int toCell, IntConsumer consumer) {
+        long last = cellKey(band, toCell);
+        int rank = Arrays.binarySearch(cellKeys, cellKey(band, fromCell));
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        int end = rank;
+        while (end < cellKeys.length && cellKeys[end] <= last) {
+            end++;
+        }
+        for (int position = cellStarts[rank]; position < cellStarts[end]; position++) {
+            consumer.accept(position);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Project;
+
+/**
+ * Caches the {@link PointIndex} built over a pair of coordinate columns of a project.
+ * <p>
+ * Each index is stamped with the last entry of the project history at build time. Any operation, undo or redo changes
+ * that entry, and the index is rebuilt on the next lookup. Only the most recently used indexes are kept.
+ * <p>
+ * Deleting or closing a project does not drop its indexes: they are released only when evicted by newer ones, or when
+ * the module shuts down and {@link com.google.refine.extension.geo.util.GeoResources} clears the cache.
+ */
+public final class SpatialIndexCache {
+
+    private static final Logger logger = LoggerFactory.getLogger("SpatialIndexCache");
+
+    static final int MAX_ENTRIES = 16;
+
+    // total time spent building indexes, for GeoResources
+    private static final LongAdder buildMillis = new LongAdder();
+
+    private static final Map<Key, CachedIndex> entries = new LinkedHashMap<Key, CachedIndex>(MAX_ENTRIES, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedIndex> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private SpatialIndexCache() {
+    }
+
+    /**
+     * Returns the index of the points of all rows of the project, keyed by row index, building it if needed. Rows with
+     * a missing or invalid coordinate are left out.
+     *
+     * @throws Exception
+     *             if one of the columns does not exist
+     */
+    public static PointIndex get(Project project, String latColumnName, String lngColumnName) throws Exception {
+        CoordinateColumns.resolve(project, latColumnName, lngColumnName);
+        Key key = new Key(project.id, latColumnName, lngColumnName);
+        CachedIndex entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, k -> new CachedIndex());
+        }
+        // building happens outside of the map lock, so that other indexes stay available meanwhile
+        synchronized (entry) {
+            long stamp = historyStamp(project);
+            if (entry.index == null || entry.stamp != stamp) {
+                long start = System.currentTimeMillis();
+                entry.index = build(CoordinateStoreCache.get(project, latColumnName, lngColumnName));
+                entry.stamp = stamp;
+                long millis = System.currentTimeMillis() - start;
+                buildMillis.add(millis);
+                logger.info("Built spatial index over {} points of ({}, {}) in project {} in {} ms", entry.index.size(),
+                        latColumnName, lngColumnName, project.id, millis);
+            }
+            return entry.index;
+        }
+    }
+
+    /**
+     * Drops every index.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the total time spent building indexes, in milliseconds
+     */
+    public static long getBuildMillis() {
+        return buildMillis.sum();
+    }
+
+    /**
+     * Approximate memory footprint of the cached indexes, in bytes.
+     */
+    public static long estimatedBytes() {
+        List<CachedIndex> cached;
+        synchronized (entries) {
+            cached = new ArrayList<>(entries.values());
+        }
+        long bytes = 0;
+        for (CachedIndex entry : cached) {
+            PointIndex index = entry.index;
+            if (index != null) {
+                bytes += index.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Identifies the state of a project: the id of the last applied history entry, or 0 if there is none.
+     */
+    public static long historyStamp(Project project) {
+        List<HistoryEntry> lastEntries = project.history.getLastPastEntries(1);
+        return lastEntries.isEmpty() ? 0L : lastEntries.get(0).id;
+    }
+
+    static PointIndex build(CoordinateStore store) {
+        int count = store.size();
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = store.latitude(i);
+            lngs[i] = store.longitude(i);
+            ids[i] = i;
+        }
+        return PointIndex.build(lats, lngs, ids, count);
+    }
+
+    private static final class CachedIndex {
+
+        volatile long stamp;
+        volatile PointIndex index;
+    }
+
+    private static final class Key {
+
+        final long projectId;
+        final String latColumnName;
+        final String lngColumnName;
+
+        Key(long projectId, String latColumnName, String lngColumnName) {
+            this.projectId = projectId;
+            this.latColumnName = latColumnName;
+            this.lngColumnName = lngColumnName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return projectId == key.projectId && latColumnName.equals(key.latColumnName)
+                    && lngColumnName.equals(key.lngColumnName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, latColumnName, lngColumnName);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.extension.geo.functions.DecToGMS;
+import com.google.refine.extension.geo.util.CoordinateColumns;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.model.changes.CellChange;
+import com.google.refine.operations.EngineDependentMassCellOperation;
+
+/**
+ * Converts the decimal degrees of a column to degrees, minutes and seconds, in place, like {@code decToGMS()}.
+ * <p>
+ * Cells are converted in parallel blocks. Cells which are not numeric, or out of range for the coordinate type, are left
+ * untouched.
+ */
+public class DecToGMSOperation extends EngineDependentMassCellOperation {
+
+    final protected String _coordType;
+
+    @JsonCreator
+    public DecToGMSOperation(
+            @JsonProperty("engineConfig") EngineConfig engineConfig,
+            @JsonProperty("columnName") String columnName,
+            @JsonProperty("coordType") String coordType) {
+        super(engineConfig, columnName, true);
+        String type = coordType == null ? null : coordType.toLowerCase(Locale.ROOT);
+        _coordType = "lon".equals(type) ? "lng" : type;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        Validate.notNull(_columnName, "Missing column name");
+        Validate.isTrue(_coordType == null || "lat".equals(_coordType) || "lng".equals(_coordType),
+                "Coordinate type must be 'lat' or 'lng'");
+    }
+
+    @JsonProperty("coordType")
+    public String getCoordType() {
+        return _coordType;
+    }
+
+    @Override
+    protected String getBriefDescription(Project project) {
+        return "Convert decimal degrees to degrees, minutes, seconds in column " + _columnName;
+    }
+
+    @Override
+    protected String createDescription(Column column, List<CellChange> cellChanges) {
+        return "Convert " + cellChanges.size() + " cells in column " + column.getName()
+                + " from decimal degrees to degrees, minutes, seconds";
+    }
+
+    @Override
+    protected RowVisitor createRowVisitor(Project project, List<CellChange> cellChanges, long historyEntryID) throws Exception {
+        Column column = project.columnModel.getColumnByName(_columnName);
+        return new ConversionRowVisitor(column.getCellIndex(), _coordType, cellChanges);
+    }
+
+    static class ConversionRowVisitor extends ParallelRowVisitor {
+
+        final int cellIndex;
+        final String coordType;
+        final List<CellChange> cellChanges;
+        final String[] converted = new String[BLOCK_SIZE];
+
+        ConversionRowVisitor(int cellIndex, String coordType, List<CellChange> cellChanges) {
+            super("dec-to-gms");
+            this.cellIndex = cellIndex;
+            this.coordType = coordType;
+            this.cellChanges = cellChanges;
+        }
+
+        @Override
+        protected void process(int from, int to) {
+            for (int i = from; i < to; i++) {
+                Object value = rows[i].getCellValue(cellIndex);
+                double decimal;
+                if ("lat".equals(coordType)) {
+                    decimal = CoordinateColumns.toLatitude(value);
+                } else if ("lng".equals(coordType)) {
+                    decimal = CoordinateColumns.toLongitude(value);
+                } else {
+                    decimal = CoordinateColumns.toDegrees(value);
+                }
+                converted[i] = Double.isFinite(decimal) ? DecToGMS.convertToGMS(decimal, coordType) : null;
+            }
+        }
+
+        @Override
+        protected void collect(int length) {
+            for (int i = 0; i < length; i++) {
+                String value = converted[i];
+                if (value != null) {
+                    Row row = rows[i];
+                    Cell cell = row.getCell(cellIndex);
+                    cellChanges.add(new CellChange(rowIndices[i], cellIndex, cell, new Cell(value, cell.recon)));
+                    converted[i] = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.browsing.FilteredRows;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.CoordinateStore;
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.history.Change;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.changes.CellAtRow;
+import com.google.refine.model.changes.ColumnAdditionChange;
+import com.google.refine.operations.EngineDependentOperation;
+
+/**
+ * Adds a column with the great circle distance between two points stored in four coordinate columns.
+ * <p>
+ * Unlike a {@code geoDistance()} expression, coordinates are read into primitive blocks and the distances of a block
+ * are computed in tight loops, without boxing, per-row validation or unit lookup, spread over the cores of the
+ * machine. Rows with a missing or invalid coordinate are left blank.
+ */
+public class GeoDistanceOperation extends EngineDependentOperation {
+
+    final protected String _lat1ColumnName;
+    final protected String _lng1ColumnName;
+    final protected String _lat2ColumnName;
+    final protected String _lng2ColumnName;
+    final protected String _unit;
+
+    final protected String _newColumnName;
+    final protected int _columnInsertIndex;
+
+    @JsonCreator
+    public GeoDistanceOperation(
+            @JsonProperty("engineConfig") EngineConfig engineConfig,
+            @JsonProperty("lat1ColumnName") String lat1ColumnName,
+            @JsonProperty("lng1ColumnName") String lng1ColumnName,
+            @JsonProperty("lat2ColumnName") String lat2ColumnName,
+            @JsonProperty("lng2ColumnName") String lng2ColumnName,
+            @JsonProperty("unit") String unit,
+            @JsonProperty("newColumnName") String newColumnName,
+            @JsonProperty("columnInsertIndex") int columnInsertIndex) {
+        super(engineConfig);
+
+        _lat1ColumnName = lat1ColumnName;
+        _lng1ColumnName = lng1ColumnName;
+        _lat2ColumnName = lat2ColumnName;
+        _lng2ColumnName = lng2ColumnName;
+        _unit = unit == null ? "m" : unit.toLowerCase(Locale.ROOT);
+
+        _newColumnName = newColumnName;
+        _columnInsertIndex = columnInsertIndex;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        Validate.notNull(_lat1ColumnName, "Missing lat1 column name");
+        Validate.notNull(_lng1ColumnName, "Missing lng1 column name");
+        Validate.notNull(_lat2ColumnName, "Missing lat2 column name");
+        Validate.notNull(_lng2ColumnName, "Missing lng2 column name");
+        Validate.isTrue(!Double.isNaN(GeoDistance.metersPerUnit(_unit)), "Unit must be 'm', 'km' or 'mi'");
+        Validate.notNull(_newColumnName, "Missing new column name");
+        Validate.isTrue(_columnInsertIndex >= 0, "Invalid column insert index");
+    }
+
+    @JsonProperty("lat1ColumnName")
+    public String getLat1ColumnName() {
+        return _lat1ColumnName;
+    }
+
+    @JsonProperty("lng1ColumnName")
+    public String getLng1ColumnName() {
+        return _lng1ColumnName;
+    }
+
+    @JsonProperty("lat2ColumnName")
+    public String getLat2ColumnName() {
+        return _lat2ColumnName;
+    }
+
+    @JsonProperty("lng2ColumnName")
+    public String getLng2ColumnName() {
+        return _lng2ColumnName;
+    }
+
+    @JsonProperty("unit")
+    public String getUnit() {
+        return _unit;
+    }
+
+    @JsonProperty("newColumnName")
+    public String getNewColumnName() {
+        return _newColumnName;
+    }
+
+    @JsonProperty("columnInsertIndex")
+    public int getColumnInsertIndex() {
+        return _columnInsertIndex;
+    }
+
+    @Override
+    protected String getBriefDescription(Project project) {
+        return "Create column " + _newColumnName + " at index " + _columnInsertIndex
+                + " with the distance between (" + _lat1ColumnName + ", " + _lng1ColumnName + ") and ("
+                + _lat2ColumnName + ", " + _lng2ColumnName + ")";
+    }
+
+    protected String createDescription(List<CellAtRow> cellsAtRows) {
+        return "Create new column " + _newColumnName + ", filling " + cellsAtRows.size()
+                + " rows with the distance between (" + _lat1ColumnName + ", " + _lng1ColumnName + ") and ("
+                + _lat2ColumnName + ", " + _lng2ColumnName + ") in " + _unit;
+    }
+
+    @Override
+    protected HistoryEntry createHistoryEntry(Project project, long historyEntryID) throws Exception {
+        Engine engine = createEngine(project);
+
+        CoordinateStore from = CoordinateStoreCache.get(project, _lat1ColumnName, _lng1ColumnName);
+        CoordinateStore to = CoordinateStoreCache.get(project, _lat2ColumnName, _lng2ColumnName);
+        if (project.columnModel.getColumnByName(_newColumnName) != null) {
+            throw new Exception("Another column already named " + _newColumnName);
+        }
+
+        List<CellAtRow> cellsAtRows = new ArrayList<CellAtRow>(project.rows.size());
+
+        FilteredRows filteredRows = engine.getAllFilteredRows();
+        filteredRows.accept(project, new DistanceRowVisitor(from, to, GeoDistance.metersPerUnit(_unit), cellsAtRows));
+
+        String description = createDescription(cellsAtRows);
+
+        Change change = new ColumnAdditionChange(_newColumnName, _columnInsertIndex, cellsAtRows);
+
+        return new HistoryEntry(
+                historyEntryID, project, description, this, change);
+    }
+
+    /**
+     * Copies the coordinates of each block from the stores of the two points into primitive arrays and computes their
+     * distances in parallel chunks.
+     */
+    static class DistanceRowVisitor extends ParallelRowVisitor {
+
+        final CoordinateStore from;
+        final CoordinateStore to;
+        final double metersPerUnit;
+        final List<CellAtRow> cellsAtRows;
+
+        final double[] lat1 = new double[BLOCK_SIZE];
+        final double[] lng1 = new double[BLOCK_SIZE];
+        final double[] lat2 = new double[BLOCK_SIZE];
+        final double[] lng2 = new double[BLOCK_SIZE];
+        final double[] distances = new double[BLOCK_SIZE];
+
+        DistanceRowVisitor(CoordinateStore from, CoordinateStore to, double metersPerUnit, List<CellAtRow> cellsAtRows) {
+            super("geo-distance");
+            this.from = from;
+            this.to = to;
+            this.metersPerUnit = metersPerUnit;
+            this.cellsAtRows = cellsAtRows;
+        }
+
+        @Override
+        protected void process(int start, int end) {
+            for (int i = start; i < end; i++) {
+                int rowIndex = rowIndices[i];
+                lat1[i] = from.latitude(rowIndex);
+                lng1[i] = from.longitude(rowIndex);
+                lat2[i] = to.latitude(rowIndex);
+                lng2[i] = to.longitude(rowIndex);
+            }
+            GeoDistance.haversineDistances(lat1, lng1, lat2, lng2, distances, start, end);
+        }
+
+        @Override
+        protected void collect(int length) {
+            for (int i = 0; i < length; i++) {
+                double distance = distances[i];
+                if (!Double.isNaN(distance)) {
+                    cellsAtRows.add(new CellAtRow(rowIndices[i], new Cell(distance / metersPerUnit, null)));
+                }
+            }
+        }
+    }
+}
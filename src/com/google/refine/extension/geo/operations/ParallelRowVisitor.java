@@ -0,0 +1,111 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.util.Arrays;
+
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.extension.geo.util.GeoMetrics.BatchMetrics;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+/**
+ * Row visitor which hands the filtered rows to worker threads in blocks.
+ * <p>
+ * Visiting rows (and evaluating facets) stays sequential, and only records the rows of the current block. Once a block
+ * is full, {@link #process(int, int)} runs on chunks of it in parallel, then {@link #collect(int)} gathers the results
+ * in the calling thread, in row order. The time spent on each block is recorded in the {@link GeoMetrics} of the
+ * operation.
+ */
+abstract class ParallelRowVisitor implements RowVisitor {
+
+    static final int BLOCK_SIZE = 1 << 16;
+    static final int GRAIN = 2048;
+
+    protected final int[] rowIndices = new int[BLOCK_SIZE];
+    protected final Row[] rows = new Row[BLOCK_SIZE];
+    private final BatchMetrics metrics;
+    private int length;
+
+    /**
+     * @param name
+     *            name of the operation in the metrics
+     */
+    protected ParallelRowVisitor(String name) {
+        metrics = GeoMetrics.batch(name);
+    }
+
+    @Override
+    public void start(Project project) {
+        length = 0;
+    }
+
+    @Override
+    public boolean visit(Project project, int rowIndex, Row row) {
+        rowIndices[length] = rowIndex;
+        rows[length] = row;
+        if (++length == BLOCK_SIZE) {
+            flush();
+        }
+        return false;
+    }
+
+    @Override
+    public void end(Project project) {
+        flush();
+    }
+
+    private void flush() {
+        if (length > 0) {
+            long start = metrics.start();
+            GeoExecutors.parallelFor(length, GRAIN, this::process);
+            collect(length);
+            metrics.finish(start, length);
+            Arrays.fill(rows, 0, length, null);
+            length = 0;
+        }
+    }
+
+    /**
+     * Processes the positions {@code [from, to)} of the current block. Called concurrently on disjoint ranges.
+     */
+    protected abstract void process(int from, int to);
+
+    /**
+     * Gathers the results of the first {@code length} positions of the current block, in row order.
+     */
+    protected abstract void collect(int length);
+}
@@ -0,0 +1,272 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.index.CoordinateStore;
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.extension.geo.util.TrackSimplifier;
+import com.google.refine.history.Change;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Record;
+import com.google.refine.model.changes.CellAtRow;
+import com.google.refine.model.changes.ColumnAdditionChange;
+import com.google.refine.model.changes.RowRemovalChange;
+import com.google.refine.operations.EngineDependentOperation;
+
+/**
+ * Simplifies the track of each record, whose rows are the successive points of a route, to a tolerance in meters, with
+ * {@link TrackSimplifier}. The rows of the dropped points are either marked in a new column or removed.
+ * <p>
+ * Only the rows with a valid point take part in a track, and only those are ever marked or removed, so that the first
+ * row of a record, which holds its key, stays in place. As in {@link TrackLengthOperation}, only the rows matching the
+ * current facets are considered, and records are simplified in parallel.
+ */
+public class SimplifyTrackOperation extends EngineDependentOperation {
+
+    public static final String METHOD_DOUGLAS_PEUCKER = "douglas-peucker";
+    public static final String METHOD_VISVALINGAM = "visvalingam";
+
+    public static final String DISTANCE_PROJECTED = "projected";
+    public static final String DISTANCE_HAVERSINE = "haversine";
+
+    public static final String ACTION_MARK = "mark";
+    public static final String ACTION_REMOVE = "remove";
+
+    static final int GRAIN = 64;
+
+    final protected String _latColumnName;
+    final protected String _lngColumnName;
+    final protected double _tolerance;
+    final protected String _method;
+    final protected String _distance;
+    final protected String _action;
+
+    final protected String _markColumnName;
+    final protected int _columnInsertIndex;
+
+    @JsonCreator
+    public SimplifyTrackOperation(
+            @JsonProperty("engineConfig") EngineConfig engineConfig,
+            @JsonProperty("latColumnName") String latColumnName,
+            @JsonProperty("lngColumnName") String lngColumnName,
+            @JsonProperty("tolerance") double tolerance,
+            @JsonProperty("method") String method,
+            @JsonProperty("distance") String distance,
+            @JsonProperty("action") String action,
+            @JsonProperty("markColumnName") String markColumnName,
+            @JsonProperty("columnInsertIndex") int columnInsertIndex) {
+        super(engineConfig);
+
+        _latColumnName = latColumnName;
+        _lngColumnName = lngColumnName;
+        _tolerance = tolerance;
+        _method = method == null ? METHOD_DOUGLAS_PEUCKER : method.toLowerCase(Locale.ROOT);
+        _distance = distance == null ? DISTANCE_PROJECTED : distance.toLowerCase(Locale.ROOT);
+        _action = action == null ? ACTION_MARK : action.toLowerCase(Locale.ROOT);
+
+        _markColumnName = markColumnName;
+        _columnInsertIndex = columnInsertIndex;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        Validate.notNull(_latColumnName, "Missing latitude column name");
+        Validate.notNull(_lngColumnName, "Missing longitude column name");
+        Validate.isTrue(_tolerance >= 0 && Double.isFinite(_tolerance), "Tolerance must be a distance in meters");
+        Validate.isTrue(METHOD_DOUGLAS_PEUCKER.equals(_method) || METHOD_VISVALINGAM.equals(_method),
+                "Method must be 'douglas-peucker' or 'visvalingam'");
+        Validate.isTrue(DISTANCE_PROJECTED.equals(_distance) || DISTANCE_HAVERSINE.equals(_distance),
+                "Distance must be 'projected' or 'haversine'");
+        Validate.isTrue(ACTION_MARK.equals(_action) || ACTION_REMOVE.equals(_action),
+                "Action must be 'mark' or 'remove'");
+        if (ACTION_MARK.equals(_action)) {
+            Validate.notNull(_markColumnName, "Missing mark column name");
+            Validate.isTrue(_columnInsertIndex >= 0, "Invalid column insert index");
+        }
+    }
+
+    @JsonProperty("latColumnName")
+    public String getLatColumnName() {
+        return _latColumnName;
+    }
+
+    @JsonProperty("lngColumnName")
+    public String getLngColumnName() {
+        return _lngColumnName;
+    }
+
+    @JsonProperty("tolerance")
+    public double getTolerance() {
+        return _tolerance;
+    }
+
+    @JsonProperty("method")
+    public String getMethod() {
+        return _method;
+    }
+
+    @JsonProperty("distance")
+    public String getDistance() {
+        return _distance;
+    }
+
+    @JsonProperty("action")
+    public String getAction() {
+        return _action;
+    }
+
+    @JsonProperty("markColumnName")
+    @JsonInclude(Include.NON_NULL)
+    public String getMarkColumnName() {
+        return _markColumnName;
+    }
+
+    @JsonProperty("columnInsertIndex")
+    public int getColumnInsertIndex() {
+        return _columnInsertIndex;
+    }
+
+    @Override
+    protected String getBriefDescription(Project project) {
+        return (ACTION_REMOVE.equals(_action) ? "Remove" : "Mark") + " the redundant points of the track of ("
+                + _latColumnName + ", " + _lngColumnName + ") in each record, within " + _tolerance + " m";
+    }
+
+    protected String createDescription(int redundantCount) {
+        return (ACTION_REMOVE.equals(_action) ? "Remove " : "Mark in column " + _markColumnName + " ") + redundantCount
+                + " redundant points of the track of (" + _latColumnName + ", " + _lngColumnName + ") within "
+                + _tolerance + " m";
+    }
+
+    @Override
+    protected HistoryEntry createHistoryEntry(Project project, long historyEntryID) throws Exception {
+        Engine engine = createEngine(project);
+
+        CoordinateStore store = CoordinateStoreCache.get(project, _latColumnName, _lngColumnName);
+        if (ACTION_MARK.equals(_action) && project.columnModel.getColumnByName(_markColumnName) != null) {
+            throw new Exception("Another column already named " + _markColumnName);
+        }
+
+        BitSet included = EngineRows.includedRows(project, engine);
+        boolean[] redundant = new boolean[project.rows.size()];
+        int recordCount = project.recordModel.getRecordCount();
+        GeoExecutors.parallelFor(recordCount, GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                simplify(project.recordModel.getRecord(i), store, included, redundant);
+            }
+        });
+
+        Change change;
+        int redundantCount;
+        if (ACTION_REMOVE.equals(_action)) {
+            List<Integer> rowIndices = new ArrayList<>();
+            for (int rowIndex = 0; rowIndex < redundant.length; rowIndex++) {
+                if (redundant[rowIndex]) {
+                    rowIndices.add(rowIndex);
+                }
+            }
+            redundantCount = rowIndices.size();
+            change = new RowRemovalChange(rowIndices);
+        } else {
+            List<CellAtRow> cellsAtRows = new ArrayList<>();
+            for (int rowIndex = 0; rowIndex < redundant.length; rowIndex++) {
+                if (redundant[rowIndex]) {
+                    cellsAtRows.add(new CellAtRow(rowIndex, new Cell(true, null)));
+                }
+            }
+            redundantCount = cellsAtRows.size();
+            change = new ColumnAdditionChange(_markColumnName, _columnInsertIndex, cellsAtRows);
+        }
+
+        return new HistoryEntry(
+                historyEntryID, project, createDescription(redundantCount), this, change);
+    }
+
+    /**
+     * Copies the valid points of the record into primitive arrays, simplifies them, and flags the rows of the dropped
+     * points.
+     */
+    private void simplify(Record record, CoordinateStore store, BitSet included, boolean[] redundant) {
+        int count = 0;
+        for (int rowIndex = record.fromRowIndex; rowIndex < record.toRowIndex; rowIndex++) {
+            if (included.get(rowIndex) && store.isValid(rowIndex)) {
+                count++;
+            }
+        }
+        if (count <= 2) {
+            return;
+        }
+        int[] rowIndices = new int[count];
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        int position = 0;
+        for (int rowIndex = record.fromRowIndex; rowIndex < record.toRowIndex; rowIndex++) {
+            if (included.get(rowIndex) && store.isValid(rowIndex)) {
+                rowIndices[position] = rowIndex;
+                lats[position] = store.latitude(rowIndex);
+                lngs[position] = store.longitude(rowIndex);
+                position++;
+            }
+        }
+
+        boolean[] keep = new boolean[count];
+        if (METHOD_VISVALINGAM.equals(_method)) {
+            TrackSimplifier.visvalingam(lats, lngs, count, _tolerance, keep);
+        } else {
+            TrackSimplifier.douglasPeucker(lats, lngs, count, _tolerance, DISTANCE_HAVERSINE.equals(_distance), keep);
+        }
+        for (int i = 0; i < count; i++) {
+            if (!keep[i]) {
+                redundant[rowIndices[i]] = true;
+            }
+        }
+    }
+}
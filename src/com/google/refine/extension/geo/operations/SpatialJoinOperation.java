@@ -0,0 +1,499 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+
+package com.google.refine.extension.geo.operations;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.CoordinateStore;
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.extension.geo.index.PointIndex;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.history.Change;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.model.changes.CellAtRow;
+import com.google.refine.model.changes.ColumnAdditionChange;
+import com.google.refine.model.changes.MassChange;
+import com.google.refine.operations.EngineDependentOperation;
+import com.google.refine.util.GetProjectIDException;
+
+/**
+ * Joins the rows of the project to the rows of a target project by location rather than by key: each row gets the
+ * values of the given columns of the nearest target row, or of every target row within a radius.
+ * <p>
+ * The target points are looked up in the {@link SpatialIndexCache} index of the target columns, built once per state
+ * of the target project, and the rows of the project are probed in parallel. Only the rows matching the current facets,
+ * with a valid point, are joined. In {@code within} mode, the values of the matches are joined with a separator, nearest
+ * first.
+ */
+public class SpatialJoinOperation extends EngineDependentOperation {
+
+    public static final String MODE_NEAREST = "nearest";
+    public static final String MODE_WITHIN = "within";
+
+    static final int GRAIN = 256;
+
+    final protected String _latColumnName;
+    final protected String _lngColumnName;
+    final protected String _targetProjectName;
+    final protected String _targetLatColumnName;
+    final protected String _targetLngColumnName;
+    final protected List<String> _targetColumnNames;
+    final protected String _mode;
+    final protected double _radius;
+    final protected String _unit;
+    final protected String _separator;
+
+    final protected String _columnPrefix;
+    final protected String _distanceColumnName;
+    final protected int _columnInsertIndex;
+
+    @JsonCreator
+    public SpatialJoinOperation(
+            @JsonProperty("engineConfig") EngineConfig engineConfig,
+            @JsonProperty("latColumnName") String latColumnName,
+            @JsonProperty("lngColumnName") String lngColumnName,
+            @JsonProperty("targetProjectName") String targetProjectName,
+            @JsonProperty("targetLatColumnName") String targetLatColumnName,
+            @JsonProperty("targetLngColumnName") String targetLngColumnName,
+            @JsonProperty("targetColumnNames") List<String> targetColumnNames,
+            @JsonProperty("mode") String mode,
+            @JsonProperty("radius") double radius,
+            @JsonProperty("unit") String unit,
+            @JsonProperty("separator") String separator,
+            @JsonProperty("columnPrefix") String columnPrefix,
+            @JsonProperty("distanceColumnName") String distanceColumnName,
+            @JsonProperty("columnInsertIndex") int columnInsertIndex) {
+        super(engineConfig);
+
+        _latColumnName = latColumnName;
+        _lngColumnName = lngColumnName;
+        _targetProjectName = targetProjectName;
+        _targetLatColumnName = targetLatColumnName;
+        _targetLngColumnName = targetLngColumnName;
+        _targetColumnNames = targetColumnNames == null ? Collections.emptyList() : targetColumnNames;
+        _mode = mode == null ? MODE_NEAREST : mode.toLowerCase(Locale.ROOT);
+        _radius = radius;
+        _unit = unit == null ? "m" : unit.toLowerCase(Locale.ROOT);
+        _separator = separator == null ? "|" : separator;
+
+        _columnPrefix = columnPrefix == null ? "" : columnPrefix;
+        _distanceColumnName = distanceColumnName;
+        _columnInsertIndex = columnInsertIndex;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        Validate.notNull(_latColumnName, "Missing latitude column name");
+        Validate.notNull(_lngColumnName, "Missing longitude column name");
+        Validate.notEmpty(_targetProjectName, "Missing target project name");
+        Validate.notNull(_targetLatColumnName, "Missing target latitude column name");
+        Validate.notNull(_targetLngColumnName, "Missing target longitude column name");
+        Validate.isTrue(!_targetColumnNames.isEmpty() || _distanceColumnName != null,
+                "Nothing to join: no target column nor distance column");
+        Validate.isTrue(MODE_NEAREST.equals(_mode) || MODE_WITHIN.equals(_mode), "Mode must be 'nearest' or 'within'");
+        Validate.isTrue(!Double.isNaN(GeoDistance.metersPerUnit(_unit)), "Unit must be 'm', 'km' or 'mi'");
+        if (MODE_WITHIN.equals(_mode)) {
+            Validate.isTrue(_radius > 0 && Double.isFinite(_radius), "Radius must be a positive distance");
+        } else {
+            Validate.isTrue(_radius >= 0, "Radius must not be negative");
+        }
+        Validate.isTrue(_columnInsertIndex >= 0, "Invalid column insert index");
+    }
+
+    @JsonProperty("latColumnName")
+    public String getLatColumnName() {
+        return _latColumnName;
+    }
+
+    @JsonProperty("lngColumnName")
+    public String getLngColumnName() {
+        return _lngColumnName;
+    }
+
+    @JsonProperty("targetProjectName")
+    public String getTargetProjectName() {
+        return _targetProjectName;
+    }
+
+    @JsonProperty("targetLatColumnName")
+    public String getTargetLatColumnName() {
+        return _targetLatColumnName;
+    }
+
+    @JsonProperty("targetLngColumnName")
+    public String getTargetLngColumnName() {
+        return _targetLngColumnName;
+    }
+
+    @JsonProperty("targetColumnNames")
+    public List<String> getTargetColumnNames() {
+        return _targetColumnNames;
+    }
+
+    @JsonProperty("mode")
+    public String getMode() {
+        return _mode;
+    }
+
+    @JsonProperty("radius")
+    public double getRadius() {
+        return _radius;
+    }
+
+    @JsonProperty("unit")
+    public String getUnit() {
+        return _unit;
+    }
+
+    @JsonProperty("separator")
+    public String getSeparator() {
+        return _separator;
+    }
+
+    @JsonProperty("columnPrefix")
+    public String getColumnPrefix() {
+        return _columnPrefix;
+    }
+
+    @JsonProperty("distanceColumnName")
+    @JsonInclude(Include.NON_NULL)
+    public String getDistanceColumnName() {
+        return _distanceColumnName;
+    }
+
+    @JsonProperty("columnInsertIndex")
+    public int getColumnInsertIndex() {
+        return _columnInsertIndex;
+    }
+
+    @Override
+    protected String getBriefDescription(Project project) {
+        return "Join the " + (MODE_WITHIN.equals(_mode) ? "rows within " + _radius + " " + _unit : "nearest row")
+                + " of project " + _targetProjectName + " to each point of (" + _latColumnName + ", " + _lngColumnName
+                + ")";
+    }
+
+    protected String createDescription(int matchedCount) {
+        return "Join the " + (MODE_WITHIN.equals(_mode) ? "rows within " + _radius + " " + _unit : "nearest row")
+                + " of project " + _targetProjectName + " to " + matchedCount + " points of (" + _latColumnName + ", "
+                + _lngColumnName + ")";
+    }
+
+    @Override
+    protected HistoryEntry createHistoryEntry(Project project, long historyEntryID) throws Exception {
+        Engine engine = createEngine(project);
+
+        Project target;
+        try {
+            target = ProjectManager.singleton.getProject(ProjectManager.singleton.getProjectID(_targetProjectName));
+        } catch (GetProjectIDException e) {
+            throw new Exception(e.getMessage(), e);
+        }
+        if (target == null) {
+            throw new Exception("Could not load project " + _targetProjectName);
+        }
+
+        List<String> newColumnNames = new ArrayList<>();
+        for (String name : _targetColumnNames) {
+            newColumnNames.add(_columnPrefix + name);
+        }
+        if (_distanceColumnName != null) {
+            newColumnNames.add(_distanceColumnName);
+        }
+        Set<String> seen = new HashSet<>();
+        for (String name : newColumnNames) {
+            if (!seen.add(name) || project.columnModel.getColumnByName(name) != null) {
+                throw new Exception("Another column already named " + name);
+            }
+        }
+
+        CoordinateStore store = CoordinateStoreCache.get(project, _latColumnName, _lngColumnName);
+        BitSet included = EngineRows.includedRows(project, engine);
+        int[] rowIndices = new int[included.cardinality()];
+        int count = 0;
+        for (int rowIndex = included.nextSetBit(0); rowIndex >= 0; rowIndex = included.nextSetBit(rowIndex + 1)) {
+            if (store.isValid(rowIndex)) {
+                rowIndices[count++] = rowIndex;
+            }
+        }
+
+        Probes probes;
+        // the target stays unchanged while its rows are read
+        synchronized (target) {
+            int[] cellIndices = new int[_targetColumnNames.size()];
+            for (int i = 0; i < cellIndices.length; i++) {
+                Column column = target.columnModel.getColumnByName(_targetColumnNames.get(i));
+                if (column == null) {
+                    throw new Exception("No column named " + _targetColumnNames.get(i) + " in project "
+                            + _targetProjectName);
+                }
+                cellIndices[i] = column.getCellIndex();
+            }
+            PointIndex index = SpatialIndexCache.get(target, _targetLatColumnName, _targetLngColumnName);
+            probes = new Probes(store, rowIndices, count, index, target, cellIndices);
+            probes.run();
+        }
+
+        List<List<CellAtRow>> columns = new ArrayList<>();
+        for (int i = 0; i < newColumnNames.size(); i++) {
+            columns.add(new ArrayList<>());
+        }
+        int matchedCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (Double.isNaN(probes.distances[i])) {
+                continue;
+            }
+            matchedCount++;
+            for (int column = 0; column < _targetColumnNames.size(); column++) {
+                Serializable value = probes.values[column][i];
+                if (value != null) {
+                    columns.get(column).add(new CellAtRow(rowIndices[i], new Cell(value, null)));
+                }
+            }
+            if (_distanceColumnName != null) {
+                columns.get(columns.size() - 1).add(new CellAtRow(rowIndices[i], new Cell(probes.distances[i], null)));
+            }
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < newColumnNames.size(); i++) {
+            changes.add(new ColumnAdditionChange(newColumnNames.get(i), _columnInsertIndex + i, columns.get(i)));
+        }
+        Change change = changes.size() == 1 ? changes.get(0) : new MassChange(changes, false);
+
+        return new HistoryEntry(
+                historyEntryID, project, createDescription(matchedCount), this, change);
+    }
+
+    /**
+     * Probes the target index with the points of the given rows, in parallel, and collects the target values and the
+     * distance of the nearest match of each probe, NaN when nothing matched.
+     */
+    private class Probes {
+
+        final CoordinateStore store;
+        final int[] rowIndices;
+        final int count;
+        final PointIndex index;
+        final Project target;
+        final int[] cellIndices;
+        final double metersPerUnit;
+
+        final double[] distances;
+        // [target column][probe]
+        final Serializable[][] values;
+
+        Probes(CoordinateStore store, int[] rowIndices, int count, PointIndex index, Project target, int[] cellIndices) {
+            this.store = store;
+            this.rowIndices = rowIndices;
+            this.count = count;
+            this.index = index;
+            this.target = target;
+            this.cellIndices = cellIndices;
+            this.metersPerUnit = GeoDistance.metersPerUnit(_unit);
+            distances = new double[count];
+            values = new Serializable[cellIndices.length][count];
+        }
+
+        void run() {
+            GeoExecutors.parallelFor(count, GRAIN, (from, to) -> {
+                Matches matches = new Matches();
+                for (int i = from; i < to; i++) {
+                    double lat = store.latitude(rowIndices[i]);
+                    double lng = store.longitude(rowIndices[i]);
+                    if (MODE_WITHIN.equals(_mode)) {
+                        matches.clear();
+                        index.within(lat, lng, _radius * metersPerUnit, matches);
+                        joinAll(i, lat, lng, matches);
+                    } else {
+                        double maxDistance = _radius > 0 ? _radius * metersPerUnit : Double.POSITIVE_INFINITY;
+                        join(i, lat, lng, index.nearest(lat, lng, maxDistance));
+                    }
+                }
+            });
+        }
+
+        private void join(int probe, double lat, double lng, int position) {
+            if (position < 0) {
+                distances[probe] = Double.NaN;
+                return;
+            }
+            distances[probe] = distance(lat, lng, position);
+            Row row = target.rows.get(index.id(position));
+            for (int column = 0; column < cellIndices.length; column++) {
+                values[column][probe] = (Serializable) row.getCellValue(cellIndices[column]);
+            }
+        }
+
+        private void joinAll(int probe, double lat, double lng, Matches matches) {
+            if (matches.size == 0) {
+                distances[probe] = Double.NaN;
+                return;
+            }
+            for (int i = 0; i < matches.size; i++) {
+                matches.distances[i] = distance(lat, lng, matches.positions[i]);
+                matches.ids[i] = index.id(matches.positions[i]);
+            }
+            int[] order = matches.sort();
+            distances[probe] = matches.distances[order[0]];
+            for (int column = 0; column < cellIndices.length; column++) {
+                StringBuilder joined = new StringBuilder();
+                for (int i = 0; i < matches.size; i++) {
+                    if (i > 0) {
+                        joined.append(_separator);
+                    }
+                    Object value = target.rows.get(matches.ids[order[i]]).getCellValue(cellIndices[column]);
+                    if (value != null) {
+                        joined.append(value);
+                    }
+                }
+                values[column][probe] = joined.toString();
+            }
+        }
+
+        private double distance(double lat, double lng, int position) {
+            return GeoDistance.haversineDistance(lat, lng, index.latitude(position), index.longitude(position))
+                    / metersPerUnit;
+        }
+    }
+
+    /**
+     * Positions reported by a radius query, with their distances and target row indices, in reusable buffers.
+     * <p>
+     * Matches are sorted on primitive arrays rather than through a boxed comparator: by insertion for the few matches
+     * of a typical radius, and by merging sorted runs of those beyond that, so that a dense radius stays O(n log n).
+     */
+    private static final class Matches implements IntConsumer {
+
+        static final int INSERTION_SORT_THRESHOLD = 16;
+
+        int[] positions = new int[16];
+        double[] distances = new double[16];
+        int[] ids = new int[16];
+        private int[] order = new int[16];
+        private int[] scratch = new int[16];
+        int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        @Override
+        public void accept(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                distances = new double[size * 2];
+                ids = new int[size * 2];
+                order = new int[size * 2];
+                scratch = new int[size * 2];
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * Sorts the matches, once their distances and ids are set: nearest first, then in target row order.
+         *
+         * @return the indices of the matches in that order, valid until the next query
+         */
+        int[] sort() {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            sort(0, size);
+            return order;
+        }
+
+        private void sort(int from, int to) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                for (int i = from + 1; i < to; i++) {
+                    int match = order[i];
+                    int j = i;
+                    while (j > from && before(match, order[j - 1])) {
+                        order[j] = order[j - 1];
+                        j--;
+                    }
+                    order[j] = match;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            sort(from, middle);
+            sort(middle, to);
+            if (!before(order[middle], order[middle - 1])) {
+                return;
+            }
+            // merge the left run, moved aside, with the right one, which stays in place
+            System.arraycopy(order, from, scratch, from, middle - from);
+            int left = from;
+            int right = middle;
+            int next = from;
+            while (left < middle && right < to) {
+                order[next++] = before(order[right], scratch[left]) ? order[right++] : scratch[left++];
+            }
+            while (left < middle) {
+                order[next++] = scratch[left++];
+            }
+        }
+
+        private boolean before(int a, int b) {
+            return distances[a] < distances[b] || (distances[a] == distances[b] && ids[a] < ids[b]);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.Validate;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.CoordinateStore;
+import com.google.refine.extension.geo.index.CoordinateStoreCache;
+import com.google.refine.extension.geo.util.GeoExecutors;
+import com.google.refine.history.Change;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Record;
+import com.google.refine.model.changes.CellAtRow;
+import com.google.refine.model.changes.ColumnAdditionChange;
+import com.google.refine.model.changes.MassChange;
+import com.google.refine.operations.EngineDependentOperation;
+
+/**
+ * Measures the track of each record, whose rows are the successive points of a route: its length, its longest hop and,
+ * given a time column and a speed limit, the number of hops faster than the limit.
+ * <p>
+ * Each record is walked once, row after row, summing the great circle distances between consecutive valid points;
+ * rows with a missing or invalid point are skipped. Coordinates come from the {@link CoordinateStore} of the columns,
+ * and records are measured in parallel. Results go to new columns, on the first row of each record. Only the rows
+ * matching the current facets are measured: in row mode, a hop joins consecutive matching rows of a record.
+ */
+public class TrackLengthOperation extends EngineDependentOperation {
+
+    static final int GRAIN = 256;
+
+    final protected String _latColumnName;
+    final protected String _lngColumnName;
+    final protected String _timeColumnName;
+    final protected String _unit;
+    final protected double _maxSpeed;
+
+    final protected String _newColumnName;
+    final protected String _maxHopColumnName;
+    final protected String _outlierColumnName;
+    final protected int _columnInsertIndex;
+
+    @JsonCreator
+    public TrackLengthOperation(
+            @JsonProperty("engineConfig") EngineConfig engineConfig,
+            @JsonProperty("latColumnName") String latColumnName,
+            @JsonProperty("lngColumnName") String lngColumnName,
+            @JsonProperty("timeColumnName") String timeColumnName,
+            @JsonProperty("unit") String unit,
+            @JsonProperty("maxSpeed") double maxSpeed,
+            @JsonProperty("newColumnName") String newColumnName,
+            @JsonProperty("maxHopColumnName") String maxHopColumnName,
+            @JsonProperty("outlierColumnName") String outlierColumnName,
+            @JsonProperty("columnInsertIndex") int columnInsertIndex) {
+        super(engineConfig);
+
+        _latColumnName = latColumnName;
+        _lngColumnName = lngColumnName;
+        _timeColumnName = timeColumnName;
+        _unit = unit == null ? "m" : unit.toLowerCase(Locale.ROOT);
+        _maxSpeed = maxSpeed;
+
+        _newColumnName = newColumnName;
+        _maxHopColumnName = maxHopColumnName;
+        _outlierColumnName = outlierColumnName;
+        _columnInsertIndex = columnInsertIndex;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        Validate.notNull(_latColumnName, "Missing latitude column name");
+        Validate.notNull(_lngColumnName, "Missing longitude column name");
+        Validate.isTrue(!Double.isNaN(GeoDistance.metersPerUnit(_unit)), "Unit must be 'm', 'km' or 'mi'");
+        Validate.notNull(_newColumnName, "Missing new column name");
+        Validate.isTrue(_maxSpeed >= 0, "Maximum speed must not be negative");
+        if (_outlierColumnName != null) {
+            Validate.notNull(_timeColumnName, "Speed outliers need a time column");
+            Validate.isTrue(_maxSpeed > 0, "Speed outliers need a maximum speed");
+        }
+        Validate.isTrue(!_newColumnName.equals(_maxHopColumnName) && !_newColumnName.equals(_outlierColumnName)
+                && (_maxHopColumnName == null || !_maxHopColumnName.equals(_outlierColumnName)),
+                "New column names must be distinct");
+        Validate.isTrue(_columnInsertIndex >= 0, "Invalid column insert index");
+    }
+
+    @JsonProperty("latColumnName")
+    public String getLatColumnName() {
+        return _latColumnName;
+    }
+
+    @JsonProperty("lngColumnName")
+    public String getLngColumnName() {
+        return _lngColumnName;
+    }
+
+    @JsonProperty("timeColumnName")
+    @JsonInclude(Include.NON_NULL)
+    public String getTimeColumnName() {
+        return _timeColumnName;
+    }
+
+    @JsonProperty("unit")
+    public String getUnit() {
+        return _unit;
+    }
+
+    @JsonProperty("maxSpeed")
+    public double getMaxSpeed() {
+        return _maxSpeed;
+    }
+
+    @JsonProperty("newColumnName")
+    public String getNewColumnName() {
+        return _newColumnName;
+    }
+
+    @JsonProperty("maxHopColumnName")
+    @JsonInclude(Include.NON_NULL)
+    public String getMaxHopColumnName() {
+        return _maxHopColumnName;
+    }
+
+    @JsonProperty("outlierColumnName")
+    @JsonInclude(Include.NON_NULL)
+    public String getOutlierColumnName() {
+        return _outlierColumnName;
+    }
+
+    @JsonProperty("columnInsertIndex")
+    public int getColumnInsertIndex() {
+        return _columnInsertIndex;
+    }
+
+    @Override
+    protected String getBriefDescription(Project project) {
+        return "Create column " + _newColumnName + " at index " + _columnInsertIndex
+                + " with the length of the track of (" + _latColumnName + ", " + _lngColumnName + ") in each record";
+    }
+
+    protected String createDescription(int trackCount) {
+        return "Create new column " + _newColumnName + ", filling " + trackCount + " records with the length of the track of ("
+                + _latColumnName + ", " + _lngColumnName + ") in " + _unit;
+    }
+
+    @Override
+    protected HistoryEntry createHistoryEntry(Project project, long historyEntryID) throws Exception {
+        Engine engine = createEngine(project);
+
+        CoordinateStore store = CoordinateStoreCache.get(project, _latColumnName, _lngColumnName);
+        int timeCellIndex = -1;
+        if (_timeColumnName != null) {
+            Column timeColumn = project.columnModel.getColumnByName(_timeColumnName);
+            if (timeColumn == null) {
+                throw new Exception("No column named " + _timeColumnName);
+            }
+            timeCellIndex = timeColumn.getCellIndex();
+        }
+        for (String name : new String[] { _newColumnName, _maxHopColumnName, _outlierColumnName }) {
+            if (name != null && project.columnModel.getColumnByName(name) != null) {
+                throw new Exception("Another column already named " + name);
+            }
+        }
+
+        BitSet included = EngineRows.includedRows(project, engine);
+        Tracks tracks = new Tracks(project, store, included, timeCellIndex, GeoDistance.metersPerUnit(_unit), _maxSpeed);
+        tracks.measure();
+
+        List<CellAtRow> lengths = new ArrayList<>();
+        List<CellAtRow> maxHops = new ArrayList<>();
+        List<CellAtRow> outliers = new ArrayList<>();
+        for (int i = 0; i < tracks.recordCount; i++) {
+            if (tracks.points[i] > 0) {
+                int rowIndex = project.recordModel.getRecord(i).fromRowIndex;
+                lengths.add(new CellAtRow(rowIndex, new Cell(tracks.lengths[i], null)));
+                maxHops.add(new CellAtRow(rowIndex, new Cell(tracks.maxHops[i], null)));
+                if (timeCellIndex >= 0) {
+                    outliers.add(new CellAtRow(rowIndex, new Cell((long) tracks.outliers[i], null)));
+                }
+            }
+        }
+
+        List<Change> changes = new ArrayList<>();
+        int insertIndex = _columnInsertIndex;
+        changes.add(new ColumnAdditionChange(_newColumnName, insertIndex++, lengths));
+        if (_maxHopColumnName != null) {
+            changes.add(new ColumnAdditionChange(_maxHopColumnName, insertIndex++, maxHops));
+        }
+        if (_outlierColumnName != null) {
+            changes.add(new ColumnAdditionChange(_outlierColumnName, insertIndex++, outliers));
+        }
+        Change change = changes.size() == 1 ? changes.get(0) : new MassChange(changes, false);
+
+        return new HistoryEntry(
+                historyEntryID, project, createDescription(lengths.size()), this, change);
+    }
+
+    /**
+     * Measures of the tracks of all records, by record index.
+     */
+    static class Tracks {
+
+        final Project project;
+        final CoordinateStore store;
+        final BitSet included;
+        final int timeCellIndex;
+        final double metersPerUnit;
+        final double maxSpeed;
+
+        final int recordCount;
+        // number of valid points of each track, 0 for records without any
+        final int[] points;
+        final double[] lengths;
+        final double[] maxHops;
+        final int[] outliers;
+
+        Tracks(Project project, CoordinateStore store, BitSet included, int timeCellIndex, double metersPerUnit,
+                double maxSpeed) {
+            this.project = project;
+            this.store = store;
+            this.included = included;
+            this.timeCellIndex = timeCellIndex;
+            this.metersPerUnit = metersPerUnit;
+            this.maxSpeed = maxSpeed;
+            recordCount = project.recordModel.getRecordCount();
+            points = new int[recordCount];
+            lengths = new double[recordCount];
+            maxHops = new double[recordCount];
+            outliers = new int[recordCount];
+        }
+
+        void measure() {
+            GeoExecutors.parallelFor(recordCount, GRAIN, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    measure(i, project.recordModel.getRecord(i));
+                }
+            });
+        }
+
+        /**
+         * Walks the rows of a record in order, each hop joining a valid point to the previous one.
+         */
+        void measure(int recordIndex, Record record) {
+            int count = 0;
+            double length = 0;
+            double maxHop = 0;
+            int outlierCount = 0;
+            double lat = Double.NaN;
+            double lng = Double.NaN;
+            double time = Double.NaN;
+            for (int rowIndex = record.fromRowIndex; rowIndex < record.toRowIndex; rowIndex++) {
+                if (!included.get(rowIndex) || !store.isValid(rowIndex)) {
+                    continue;
+                }
+                double nextLat = store.latitude(rowIndex);
+                double nextLng = store.longitude(rowIndex);
+                double nextTime = timeCellIndex < 0 ? Double.NaN
+                        : toEpochSeconds(project.rows.get(rowIndex).getCellValue(timeCellIndex));
+                if (count > 0) {
+                    double hop = GeoDistance.haversineDistance(lat, lng, nextLat, nextLng) / metersPerUnit;
+                    length += hop;
+                    maxHop = Math.max(maxHop, hop);
+                    double hours = (nextTime - time) / 3600.0;
+                    // hops without a time at both ends, or going back in time, have no speed
+                    if (maxSpeed > 0 && hours > 0 && hop / hours > maxSpeed) {
+                        outlierCount++;
+                    }
+                }
+                lat = nextLat;
+                lng = nextLng;
+                time = nextTime;
+                count++;
+            }
+            points[recordIndex] = count;
+            lengths[recordIndex] = length;
+            maxHops[recordIndex] = maxHop;
+            outliers[recordIndex] = outlierCount;
+        }
+    }
+
+    /**
+     * Reads a time: a date cell, a number of seconds since the epoch, or an ISO 8601 date and time, taken as UTC
+     * without an offset.
+     *
+     * @return the seconds since the epoch, or NaN if the value is not a time
+     */
+    static double toEpochSeconds(Object value) {
+        if (value instanceof OffsetDateTime) {
+            return toEpochSeconds(((OffsetDateTime) value).toInstant());
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            String text = ((String) value).trim();
+            try {
+                return toEpochSeconds(OffsetDateTime.parse(text).toInstant());
+            } catch (DateTimeParseException e) {
+                // try without an offset
+            }
+            try {
+                return toEpochSeconds(LocalDateTime.parse(text).toInstant(ZoneOffset.UTC));
+            } catch (DateTimeParseException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double toEpochSeconds(Instant instant) {
+        return instant.getEpochSecond() + instant.getNano() / 1e9;
+    }
+}
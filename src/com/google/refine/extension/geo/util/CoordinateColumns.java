@@ -0,0 +1,137 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+/**
+ * A pair of latitude and longitude columns of a project, read as primitive decimal degrees.
+ * <p>
+ * Cells holding numbers or numeric strings are accepted. Blank, non-numeric or out of range cells read as NaN, so that
+ * callers can fill primitive arrays without boxing and skip invalid points with a single check.
+ */
+public final class CoordinateColumns {
+
+    private final String latColumnName;
+    private final String lngColumnName;
+    private final int latCellIndex;
+    private final int lngCellIndex;
+
+    private CoordinateColumns(String latColumnName, String lngColumnName, int latCellIndex, int lngCellIndex) {
+        this.latColumnName = latColumnName;
+        this.lngColumnName = lngColumnName;
+        this.latCellIndex = latCellIndex;
+        this.lngCellIndex = lngCellIndex;
+    }
+
+    /**
+     * Looks up the two columns in the project.
+     *
+     * @throws Exception
+     *             if one of the columns does not exist
+     */
+    public static CoordinateColumns resolve(Project project, String latColumnName, String lngColumnName) throws Exception {
+        Column latColumn = project.columnModel.getColumnByName(latColumnName);
+        if (latColumn == null) {
+            throw new Exception("No column named " + latColumnName);
+        }
+        Column lngColumn = project.columnModel.getColumnByName(lngColumnName);
+        if (lngColumn == null) {
+            throw new Exception("No column named " + lngColumnName);
+        }
+        return new CoordinateColumns(latColumnName, lngColumnName, latColumn.getCellIndex(), lngColumn.getCellIndex());
+    }
+
+    public String getLatColumnName() {
+        return latColumnName;
+    }
+
+    public String getLngColumnName() {
+        return lngColumnName;
+    }
+
+    /**
+     * @return the latitude of the row, or NaN if it is missing or invalid
+     */
+    public double latitude(Row row) {
+        return toLatitude(row.getCellValue(latCellIndex));
+    }
+
+    /**
+     * @return the longitude of the row, or NaN if it is missing or invalid
+     */
+    public double longitude(Row row) {
+        return toLongitude(row.getCellValue(lngCellIndex));
+    }
+
+    /**
+     * Converts a cell value to decimal degrees: numbers are used as is and strings are parsed.
+     *
+     * @return the value, or NaN if it is not numeric
+     */
+    public static double toDegrees(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            String string = ((String) value).trim();
+            if (!string.isEmpty()) {
+                try {
+                    return Double.parseDouble(string);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * @return the value as a latitude, or NaN if it is not numeric or outside of [-90, 90]
+     */
+    public static double toLatitude(Object value) {
+        double degrees = toDegrees(value);
+        return degrees >= -90 && degrees <= 90 ? degrees : Double.NaN;
+    }
+
+    /**
+     * @return the value as a longitude, or NaN if it is not numeric or outside of [-180, 180]
+     */
+    public static double toLongitude(Object value) {
+        double degrees = toDegrees(value);
+        return degrees >= -180 && degrees <= 180 ? degrees : Double.NaN;
+    }
+}
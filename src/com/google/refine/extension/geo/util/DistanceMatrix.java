@@ -0,0 +1,201 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.io.IOException;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+/**
+ * Computes the great circle distances between every point of a first set (the rows of the matrix) and every point of a
+ * second set (its columns), band by band.
+ * <p>
+ * Each point is converted once to a unit vector, held in primitive arrays of x, y and z coordinates, so that a distance
+ * only takes the length of the chord between two vectors and an arc sine, see {@link #asin(double)}: no trigonometry
+ * per pair, and no cancellation for nearby points as with the dot product. A band of consecutive rows is computed in
+ * tiles of {@link #TILE_ROWS} by {@link #TILE_COLUMNS} distances, whose vectors stay in the L1 cache, in parallel on
+ * {@link GeoExecutors#pool()}. The band is then handed over in row order, so that the matrix is streamed without ever
+ * being held whole. Distances agree with {@code geoDistance()} to within rounding errors; pairs with an invalid point
+ * are NaN.
+ */
+public final class DistanceMatrix {
+
+    static final double MAX_SERIES_SINE = 0.1;
+
+    // Taylor coefficients of asin(x), up to x^19
+    private static final double A0 = 1.0;
+    private static final double A1 = 1.0 / 6;
+    private static final double A2 = 3.0 / 40;
+    private static final double A3 = 5.0 / 112;
+    private static final double A4 = 35.0 / 1152;
+    private static final double A5 = 63.0 / 2816;
+    private static final double A6 = 231.0 / 13312;
+    private static final double A7 = 143.0 / 10240;
+    private static final double A8 = 6435.0 / 557056;
+    private static final double A9 = 12155.0 / 1245184;
+
+    static final int TILE_ROWS = 32;
+    static final int TILE_COLUMNS = 1024;
+
+    /**
+     * Number of distances computed between two calls to the consumer, so that a band fits in a few megabytes.
+     */
+    static final int BAND_SIZE = 1 << 19;
+
+    /**
+     * Receives the distances of consecutive rows of the matrix.
+     */
+    @FunctionalInterface
+    public interface BandConsumer {
+
+        /**
+         * @param distances
+         *            the distances of the rows {@code [firstRow, firstRow + rowCount)}, row after row, the distance
+         *            between row {@code r} and column {@code c} at {@code (r - firstRow) * columns + c}. The array is
+         *            reused for the next band.
+         */
+        void accept(int firstRow, int rowCount, double[] distances) throws IOException;
+    }
+
+    private final int rows;
+    private final int columns;
+    private final double[] rowX;
+    private final double[] rowY;
+    private final double[] rowZ;
+    private final double[] columnX;
+    private final double[] columnY;
+    private final double[] columnZ;
+    private final double scale;
+
+    /**
+     * @param rowLats
+     *            latitudes of the rows, in decimal degrees, NaN for invalid points
+     * @param rowLngs
+     *            longitudes of the rows
+     * @param rows
+     *            number of rows, read from the start of the arrays
+     * @param metersPerUnit
+     *            number of meters in the unit of the distances
+     */
+    public DistanceMatrix(double[] rowLats, double[] rowLngs, int rows, double[] columnLats, double[] columnLngs,
+            int columns, double metersPerUnit) {
+        this.rows = rows;
+        this.columns = columns;
+        rowX = new double[rows];
+        rowY = new double[rows];
+        rowZ = new double[rows];
+        columnX = new double[columns];
+        columnY = new double[columns];
+        columnZ = new double[columns];
+        toVectors(rowLats, rowLngs, rows, rowX, rowY, rowZ);
+        toVectors(columnLats, columnLngs, columns, columnX, columnY, columnZ);
+        scale = 2 * GeoDistance.EARTH_RADIUS_M / metersPerUnit;
+    }
+
+    private static void toVectors(double[] lats, double[] lngs, int count, double[] x, double[] y, double[] z) {
+        for (int i = 0; i < count; i++) {
+            double lat = Math.toRadians(lats[i]);
+            double lng = Math.toRadians(lngs[i]);
+            double cosLat = Math.cos(lat);
+            x[i] = cosLat * Math.cos(lng);
+            y[i] = cosLat * Math.sin(lng);
+            z[i] = Math.sin(lat);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Computes the matrix, handing its bands to the consumer in row order, from the calling thread.
+     */
+    public void compute(BandConsumer consumer) throws IOException {
+        if (rows == 0 || columns == 0) {
+            return;
+        }
+        int bandRows = Math.max(1, Math.min(rows, BAND_SIZE / columns));
+        double[] band = new double[bandRows * columns];
+        int columnTiles = (columns + TILE_COLUMNS - 1) / TILE_COLUMNS;
+        for (int firstRow = 0; firstRow < rows; firstRow += bandRows) {
+            int first = firstRow;
+            int count = Math.min(bandRows, rows - firstRow);
+            int rowTiles = (count + TILE_ROWS - 1) / TILE_ROWS;
+            GeoExecutors.parallelFor(rowTiles * columnTiles, 1, (from, to) -> {
+                for (int tile = from; tile < to; tile++) {
+                    int rowFrom = first + (tile / columnTiles) * TILE_ROWS;
+                    int columnFrom = (tile % columnTiles) * TILE_COLUMNS;
+                    computeTile(band, first, rowFrom, Math.min(rowFrom + TILE_ROWS, first + count), columnFrom,
+                            Math.min(columnFrom + TILE_COLUMNS, columns));
+                }
+            });
+            consumer.accept(first, count, band);
+        }
+    }
+
+    private void computeTile(double[] band, int firstRow, int rowFrom, int rowTo, int columnFrom, int columnTo) {
+        for (int r = rowFrom; r < rowTo; r++) {
+            double x = rowX[r];
+            double y = rowY[r];
+            double z = rowZ[r];
+            int offset = (r - firstRow) * columns;
+            for (int c = columnFrom; c < columnTo; c++) {
+                double dx = columnX[c] - x;
+                double dy = columnY[c] - y;
+                double dz = columnZ[c] - z;
+                // half the chord is the sine of half the central angle
+                double halfChord = 0.5 * Math.sqrt(dx * dx + dy * dy + dz * dz);
+                band[offset + c] = scale * asin(Math.min(1.0, halfChord));
+            }
+        }
+    }
+
+    /**
+     * Arc sine of a value in [0, 1], or NaN. Up to {@link #MAX_SERIES_SINE}, that is for points less than 1280 km
+     * apart, the Taylor series is evaluated, with a relative error of 2e-16; further, the arc tangent is used.
+     * {@link Math#asin} is far slower than both, as it is not an intrinsic of the JVM.
+     */
+    static double asin(double x) {
+        if (x <= MAX_SERIES_SINE) {
+            double x2 = x * x;
+            return x * (A0 + x2 * (A1 + x2 * (A2 + x2 * (A3 + x2 * (A4 + x2 * (A5 + x2 * (A6 + x2 * (A7 + x2 * (A8
+                    + x2 * A9)))))))));
+        }
+        return Math.atan(x / Math.sqrt((1 - x) * (1 + x)));
+    }
+}
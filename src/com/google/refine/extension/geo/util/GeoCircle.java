@@ -0,0 +1,188 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+/**
+ * A circle on the sphere: every point within a great circle distance of a centre.
+ * <p>
+ * Membership tests are staged so that most points never reach the Haversine formula. Points outside the exact
+ * latitude/longitude bounding box of the circle are rejected with comparisons only. For small circles away from the
+ * poles, the equirectangular approximation then decides every point which is not within {@link #FAST_MARGIN} of the
+ * boundary; within that band, and for any other circle, {@link GeoDistance#haversineDistance} decides. The result is
+ * always the same as {@code haversineDistance(...) <= radius}.
+ */
+public final class GeoCircle {
+
+    /**
+     * Largest radius, in meters, for which the equirectangular approximation is used.
+     */
+    static final double FAST_MAX_RADIUS = 100000.0;
+
+    /**
+     * Largest absolute latitude of the centre for which the equirectangular approximation is used.
+     */
+    static final double FAST_MAX_LATITUDE = 70.0;
+
+    /**
+     * Relative band around the radius where the approximation is not trusted. Within the limits above, its error stays
+     * below 0.05%.
+     */
+    static final double FAST_MARGIN = 0.01;
+
+    /**
+     * Bounding boxes are widened by this many degrees, so that rounding never rejects a point lying on the circle.
+     */
+    private static final double BOX_SLACK = 1e-9;
+
+    private final double lat;
+    private final double lng;
+    private final double radius;
+
+    private final double minLat;
+    private final double maxLat;
+    private final double halfWidthLng;
+    private final boolean allLongitudes;
+
+    private final boolean fast;
+    private final double innerSquared;
+    private final double outerSquared;
+
+    /**
+     * @param lat
+     *            latitude of the centre, in decimal degrees
+     * @param lng
+     *            longitude of the centre, in decimal degrees
+     * @param radius
+     *            radius in meters
+     */
+    public GeoCircle(double lat, double lng, double radius) {
+        this.lat = lat;
+        this.lng = lng;
+        this.radius = radius;
+
+        double angle = radius / GeoDistance.EARTH_RADIUS_M;
+        double dLat = Math.toDegrees(angle) + BOX_SLACK;
+        minLat = Math.max(-90.0, lat - dLat);
+        maxLat = Math.min(90.0, lat + dLat);
+        if (angle >= Math.PI / 2 - Math.toRadians(Math.abs(lat))) {
+            // the circle reaches a pole, so it covers every meridian
+            allLongitudes = true;
+            halfWidthLng = 180.0;
+        } else {
+            // widest longitude extent, reached at the latitude where the meridians are tangent to the circle
+            double sinRatio = Math.min(1.0, Math.sin(angle) / Math.cos(Math.toRadians(lat)));
+            halfWidthLng = Math.toDegrees(Math.asin(sinRatio)) + BOX_SLACK;
+            allLongitudes = halfWidthLng >= 180.0;
+        }
+
+        fast = radius <= FAST_MAX_RADIUS && Math.abs(lat) < FAST_MAX_LATITUDE;
+        double inner = angle * (1 - FAST_MARGIN);
+        double outer = angle * (1 + FAST_MARGIN);
+        innerSquared = inner * inner;
+        outerSquared = outer * outer;
+    }
+
+    public double getLatitude() {
+        return lat;
+    }
+
+    public double getLongitude() {
+        return lng;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public double getMinLatitude() {
+        return minLat;
+    }
+
+    public double getMaxLatitude() {
+        return maxLat;
+    }
+
+    /**
+     * Western bound of the bounding box. It is below -180 when the circle crosses the antimeridian, and irrelevant when
+     * {@link #coversAllLongitudes()}.
+     */
+    public double getMinLongitude() {
+        return lng - halfWidthLng;
+    }
+
+    /**
+     * Eastern bound of the bounding box. It is above 180 when the circle crosses the antimeridian, and irrelevant when
+     * {@link #coversAllLongitudes()}.
+     */
+    public double getMaxLongitude() {
+        return lng + halfWidthLng;
+    }
+
+    public boolean coversAllLongitudes() {
+        return allLongitudes;
+    }
+
+    /**
+     * Tests whether a point lies within the circle. NaN coordinates never do.
+     */
+    public boolean contains(double pointLat, double pointLng) {
+        if (!(pointLat >= minLat && pointLat <= maxLat)) {
+            return false;
+        }
+        double dLng = pointLng - lng;
+        if (dLng > 180.0) {
+            dLng -= 360.0;
+        } else if (dLng < -180.0) {
+            dLng += 360.0;
+        }
+        if (!allLongitudes && !(Math.abs(dLng) <= halfWidthLng)) {
+            return false;
+        }
+        if (fast) {
+            // equirectangular projection around the mean latitude, in radians of arc
+            double x = Math.toRadians(dLng) * Math.cos(Math.toRadians((lat + pointLat) / 2));
+            double y = Math.toRadians(pointLat - lat);
+            double squared = x * x + y * y;
+            if (squared < innerSquared) {
+                return true;
+            }
+            if (squared > outerSquared) {
+                return false;
+            }
+        }
+        return GeoDistance.haversineDistance(lat, lng, pointLat, pointLng) <= radius;
+    }
+}
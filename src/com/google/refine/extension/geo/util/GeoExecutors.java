@@ -0,0 +1,135 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Shared fork-join pool of the extension, sized to the number of available processors, for column-wide computations.
+ */
+public final class GeoExecutors {
+
+    private static final ForkJoinWorkerThreadFactory THREAD_FACTORY = pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("geo-worker-" + thread.getPoolIndex());
+        return thread;
+    };
+
+    private static volatile ForkJoinPool pool;
+
+    private GeoExecutors() {
+    }
+
+    /**
+     * A task working on the range {@code [from, to)} of a larger input.
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+
+        void run(int from, int to);
+    }
+
+    /**
+     * @return the shared pool, created on first use
+     */
+    public static ForkJoinPool pool() {
+        ForkJoinPool result = pool;
+        if (result == null) {
+            synchronized (GeoExecutors.class) {
+                result = pool;
+                if (result == null) {
+                    result = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), THREAD_FACTORY, null, false);
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Shuts the shared pool down, letting running tasks complete. A later use creates a new pool.
+     */
+    public static void shutdown() {
+        ForkJoinPool result;
+        synchronized (GeoExecutors.class) {
+            result = pool;
+            pool = null;
+        }
+        if (result != null) {
+            result.shutdown();
+        }
+    }
+
+    /**
+     * Runs the task over {@code [0, length)}, split into chunks of at most {@code grain} elements which are processed in
+     * parallel. Returns once every chunk is done. Inputs no larger than one chunk run in the calling thread.
+     */
+    public static void parallelFor(int length, int grain, RangeTask task) {
+        if (length <= grain) {
+            task.run(0, length);
+        } else {
+            pool().invoke(new RangeAction(task, 0, length, grain));
+        }
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final RangeTask task;
+        final int from;
+        final int to;
+        final int grain;
+
+        RangeAction(RangeTask task, int from, int to, int grain) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                task.run(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(task, from, middle, grain), new RangeAction(task, middle, to, grain));
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.refine.expr.EvalError;
+
+/**
+ * Counters of the hot paths of the extension: the calls of the GREL geo functions, the errors they return by reason
+ * and how long they take, and the blocks of rows processed by the parallel operations.
+ * <p>
+ * They tell a slow transform spending its time in geo math from one driven down the error path by bad data. All
+ * counters are {@link LongAdder}s and latencies go to {@link LatencyHistogram}s. Reading the clock costs more than a
+ * short function itself, so calls and errors are all counted but only a random sample of one call in
+ * {@link #TIMING_SAMPLE} is timed, which leaves the latency percentiles unbiased. Metrics can be turned off with the
+ * {@code metrics.enabled} property of the module, see {@link #setEnabled(boolean)}.
+ */
+public final class GeoMetrics {
+
+    public static final String ENABLED_PROPERTY = "metrics.enabled";
+
+    /**
+     * Why a function returned an error.
+     */
+    public enum ErrorReason {
+        /** wrong number of arguments */
+        ARGUMENTS,
+        /** an argument of the wrong type, such as a string for a number */
+        TYPE,
+        /** a coordinate out of its range */
+        RANGE,
+        /** an unknown unit, model or coordinate type */
+        UNIT,
+        /** a value which cannot be parsed, or any other reason */
+        OTHER;
+
+        public String getKey() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * One call of a function in this many is timed. A power of two.
+     */
+    public static final int TIMING_SAMPLE = 16;
+
+    // returned by start() for calls which are not timed, so that finish() records nothing
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = true;
+
+    private static final ConcurrentMap<String, FunctionMetrics> functions = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, BatchMetrics> batches = new ConcurrentHashMap<>();
+
+    private GeoMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the recording of metrics on or off. Metrics recorded so far are kept.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * @return the metrics of the GREL function of the given name, created on first use
+     */
+    public static FunctionMetrics function(String name) {
+        return functions.computeIfAbsent(name, FunctionMetrics::new);
+    }
+
+    /**
+     * @return the metrics of the blocks of rows processed by the operation of the given name, created on first use
+     */
+    public static BatchMetrics batch(String name) {
+        return batches.computeIfAbsent(name, BatchMetrics::new);
+    }
+
+    /**
+     * @return the metrics of every function, by name
+     */
+    public static Map<String, FunctionMetrics> getFunctions() {
+        return Collections.unmodifiableMap(new TreeMap<>(functions));
+    }
+
+    /**
+     * @return the metrics of every operation, by name
+     */
+    public static Map<String, BatchMetrics> getBatches() {
+        return Collections.unmodifiableMap(new TreeMap<>(batches));
+    }
+
+    /**
+     * Sets every counter back to 0.
+     */
+    public static void reset() {
+        functions.values().forEach(FunctionMetrics::reset);
+        batches.values().forEach(BatchMetrics::reset);
+    }
+
+    /**
+     * Calls, errors and latency of a GREL function. A call is counted and maybe timed with {@link #start()} and
+     * {@link #finish(long)}, and its errors are built with {@link #error(ErrorReason, String)}.
+     */
+    public static final class FunctionMetrics {
+
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder[] errors = new LongAdder[ErrorReason.values().length];
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        FunctionMetrics(String name) {
+            this.name = name;
+            for (int i = 0; i < errors.length; i++) {
+                errors[i] = new LongAdder();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Counts a call.
+         *
+         * @return the start time of the call if it is to be timed, to pass to {@link #finish(long)}
+         */
+        public long start() {
+            if (!enabled) {
+                return NOT_TIMED;
+            }
+            calls.increment();
+            return (ThreadLocalRandom.current().nextInt() & (TIMING_SAMPLE - 1)) == 0 ? System.nanoTime() : NOT_TIMED;
+        }
+
+        /**
+         * Records the latency of a call which started at the given time, if it was timed.
+         */
+        public void finish(long start) {
+            if (start != NOT_TIMED) {
+                latency.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Counts an error of the given reason.
+         *
+         * @return the error to return from the function
+         */
+        public EvalError error(ErrorReason reason, String message) {
+            if (enabled) {
+                errors[reason.ordinal()].increment();
+            }
+            return new EvalError(message);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getErrors(ErrorReason reason) {
+            return errors[reason.ordinal()].sum();
+        }
+
+        /**
+         * @return the number of errors, whatever their reason
+         */
+        public long getErrors() {
+            long total = 0;
+            for (LongAdder adder : errors) {
+                total += adder.sum();
+            }
+            return total;
+        }
+
+        /**
+         * @return the latencies of the timed calls
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        void reset() {
+            calls.reset();
+            for (LongAdder adder : errors) {
+                adder.reset();
+            }
+            latency.reset();
+        }
+    }
+
+    /**
+     * Rows and latency of the blocks of rows processed by an operation.
+     */
+    public static final class BatchMetrics {
+
+        private final String name;
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        BatchMetrics(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the start time of a block, to pass to {@link #finish(long, int)}
+         */
+        public long start() {
+            return enabled ? System.nanoTime() : NOT_TIMED;
+        }
+
+        /**
+         * Counts a block of the given number of rows which started at the given time.
+         */
+        public void finish(long start, int rowCount) {
+            if (start != NOT_TIMED) {
+                rows.add(rowCount);
+                latency.record(System.nanoTime() - start);
+            }
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        /**
+         * @return the number of blocks
+         */
+        public long getBatches() {
+            return latency.getCount();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        void reset() {
+            rows.reset();
+            latency.reset();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the heavy structures of the extension, such as the gazetteer and the spatial index caches, which must
+ * stay off the servlet init path.
+ * <p>
+ * Each resource is loaded on first use, or warmed in a background thread with {@link #warmUp(Collection)} when the
+ * module asks for it, and released when the module is destroyed. The registry records how long each resource took to
+ * load and how much memory it holds, for the {@code get-resources} command. It is reached through
+ * {@link com.google.refine.extension.geo.GeoModuleImpl#getResources()}, or {@link #get()} where the module may not be
+ * initialized.
+ */
+public final class GeoResources {
+
+    private static final Logger logger = LoggerFactory.getLogger("GeoResources");
+
+    public static final String WARM_UP_PROPERTY = "resources.warmup";
+
+    private static final GeoResources instance = new GeoResources();
+
+    private final Map<String, Resource> resources = new LinkedHashMap<>();
+
+    GeoResources() {
+    }
+
+    public static GeoResources get() {
+        return instance;
+    }
+
+    /**
+     * A structure tracked by the registry.
+     */
+    public interface Resource {
+
+        String getName();
+
+        boolean isLoaded();
+
+        /**
+         * @return the time spent loading the resource, in milliseconds
+         */
+        long getLoadMillis();
+
+        /**
+         * @return the approximate memory held by the resource, in bytes, or 0 when it is not loaded
+         */
+        long getEstimatedBytes();
+
+        /**
+         * Loads the resource if it is not loaded yet.
+         */
+        void load() throws Exception;
+
+        /**
+         * Drops the resource, which is loaded again by its next use.
+         */
+        void release();
+    }
+
+    /**
+     * A resource holding a single value, loaded on the first call to {@link #get()}. Loading happens at most once at a
+     * time: concurrent callers wait for it, and a failed load is attempted again by the next call.
+     */
+    public static final class LazyResource<T> implements Resource {
+
+        private final String name;
+        private final Callable<T> loader;
+        private final ToLongFunction<T> sizer;
+        private final Consumer<T> releaser;
+
+        private volatile T value;
+        private volatile long loadMillis;
+        private volatile String error;
+
+        LazyResource(String name, Callable<T> loader, ToLongFunction<T> sizer, Consumer<T> releaser) {
+            this.name = name;
+            this.loader = loader;
+            this.sizer = sizer;
+            this.releaser = releaser;
+        }
+
+        /**
+         * @return the value, loaded if needed
+         * @throws Exception
+         *             the exception of the loader
+         */
+        public T get() throws Exception {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        long start = System.currentTimeMillis();
+                        try {
+                            result = loader.call();
+                        } catch (Exception e) {
+                            error = e.getMessage();
+                            throw e;
+                        }
+                        loadMillis = System.currentTimeMillis() - start;
+                        error = null;
+                        value = result;
+                        logger.info("Loaded {} in {} ms", name, loadMillis);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the value if it is loaded, or null
+         */
+        public T getIfLoaded() {
+            return value;
+        }
+
+        /**
+         * @return the message of the last failed load, or null if the last load succeeded
+         */
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return value != null;
+        }
+
+        @Override
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        @Override
+        public long getEstimatedBytes() {
+            T loaded = value;
+            return loaded == null || sizer == null ? 0 : sizer.applyAsLong(loaded);
+        }
+
+        @Override
+        public void load() throws Exception {
+            get();
+        }
+
+        @Override
+        public synchronized void release() {
+            T loaded = value;
+            value = null;
+            if (loaded != null && releaser != null) {
+                releaser.accept(loaded);
+            }
+        }
+    }
+
+    /**
+     * A resource made of entries built on demand by a cache of its own, such as {@link
+     * com.google.refine.extension.geo.index.SpatialIndexCache}. It has nothing to load up front, and releasing it
+     * clears the cache.
+     */
+    private static final class CacheResource implements Resource {
+
+        private final String name;
+        private final LongSupplier loadMillis;
+        private final LongSupplier estimatedBytes;
+        private final Runnable clear;
+
+        CacheResource(String name, LongSupplier loadMillis, LongSupplier estimatedBytes, Runnable clear) {
+            this.name = name;
+            this.loadMillis = loadMillis;
+            this.estimatedBytes = estimatedBytes;
+            this.clear = clear;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return estimatedBytes.getAsLong() > 0;
+        }
+
+        @Override
+        public long getLoadMillis() {
+            return loadMillis.getAsLong();
+        }
+
+        @Override
+        public long getEstimatedBytes() {
+            return estimatedBytes.getAsLong();
+        }
+
+        @Override
+        public void load() {
+        }
+
+        @Override
+        public void release() {
+            clear.run();
+        }
+    }
+
+    /**
+     * Registers a lazily loaded resource, replacing (and releasing) any resource of the same name.
+     *
+     * @param sizer
+     *            estimates the memory held by the value, or null if unknown
+     * @param releaser
+     *            frees the value when the resource is released, or null if dropping it is enough
+     */
+    public <T> LazyResource<T> register(String name, Callable<T> loader, ToLongFunction<T> sizer, Consumer<T> releaser) {
+        LazyResource<T> resource = new LazyResource<>(name, loader, sizer, releaser);
+        register(resource);
+        return resource;
+    }
+
+    /**
+     * Registers a cache, reported by the total time spent building its entries and their memory, and cleared on
+     * release.
+     */
+    public void registerCache(String name, LongSupplier loadMillis, LongSupplier estimatedBytes, Runnable clear) {
+        register(new CacheResource(name, loadMillis, estimatedBytes, clear));
+    }
+
+    private void register(Resource resource) {
+        Resource previous;
+        synchronized (resources) {
+            previous = resources.put(resource.getName(), resource);
+        }
+        if (previous != null && previous != resource) {
+            previous.release();
+        }
+    }
+
+    /**
+     * Removes a resource from the registry, releasing it.
+     */
+    public void unregister(String name) {
+        Resource previous;
+        synchronized (resources) {
+            previous = resources.remove(name);
+        }
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /**
+     * @return the resource of the given name, or null
+     */
+    public Resource lookup(String name) {
+        synchronized (resources) {
+            return resources.get(name);
+        }
+    }
+
+    /**
+     * @return the registered resources, in registration order
+     */
+    public List<Resource> list() {
+        synchronized (resources) {
+            return new ArrayList<>(resources.values());
+        }
+    }
+
+    /**
+     * Loads the named resources one after the other in a background daemon thread, and returns it. Unknown names and
+     * failures are logged; the resources concerned load on first use as usual.
+     */
+    public Thread warmUp(Collection<String> names) {
+        List<String> toLoad = new ArrayList<>(names);
+        Thread thread = new Thread(() -> {
+            for (String name : toLoad) {
+                Resource resource = lookup(name);
+                if (resource == null) {
+                    logger.warn("No geo resource named {} to warm up", name);
+                    continue;
+                }
+                try {
+                    resource.load();
+                } catch (Exception e) {
+                    logger.warn("Could not warm up " + name, e);
+                }
+            }
+        }, "geo-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Releases every resource, keeping them registered so that they load again on their next use.
+     */
+    public void releaseAll() {
+        for (Resource resource : list()) {
+            try {
+                resource.release();
+            } catch (RuntimeException e) {
+                logger.warn("Could not release " + resource.getName(), e);
+            }
+        }
+    }
+}
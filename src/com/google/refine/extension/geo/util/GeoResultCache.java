@@ -0,0 +1,247 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the results of the GREL geo functions, for columns where the same coordinates appear on many rows.
+ * <p>
+ * Results are keyed on the raw bits of up to four numeric arguments and a tag, which the caller uses to tell apart the
+ * functions and the non-numeric arguments (coordinate type, distance model). Entries are split across
+ * {@link #SEGMENTS} segments, each one a least recently used map behind its own lock, so that concurrent evaluations
+ * rarely wait on each other. The cache is shared by all projects and operations, and is disabled unless the
+ * {@code cache.size} property of the module sets its capacity, see {@link #configure(int)}.
+ */
+public final class GeoResultCache {
+
+    public static final String SIZE_PROPERTY = "cache.size";
+
+    /**
+     * Tags of the cached functions.
+     */
+    public static final int TAG_HAVERSINE = 1;
+    public static final int TAG_WGS84 = 2;
+    public static final int TAG_GMS = 3;
+    public static final int TAG_GMS_LAT = 4;
+    public static final int TAG_GMS_LNG = 5;
+
+    static final int SEGMENTS = 16;
+    // approximate footprint of an entry: its key, its map entry and a boxed or short string value
+    static final int ENTRY_BYTES = 160;
+    // the segment is picked from the high bits of the hash, the maps of the segments use its low bits
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+
+    private static volatile GeoResultCache instance = new GeoResultCache(0);
+
+    private final int capacity;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    GeoResultCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        segments = new Segment[this.capacity == 0 ? 0 : SEGMENTS];
+        for (int i = 0; i < segments.length; i++) {
+            // the first segments take the remainder, so that the capacities add up
+            segments[i] = new Segment(this.capacity / SEGMENTS + (i < this.capacity % SEGMENTS ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return the shared cache
+     */
+    public static GeoResultCache get() {
+        return instance;
+    }
+
+    /**
+     * Replaces the shared cache with an empty one of the given capacity, in entries. A capacity of 0 disables caching.
+     */
+    public static void configure(int capacity) {
+        instance = new GeoResultCache(capacity);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @return the cached result for the arguments, or null if there is none or the cache is disabled
+     */
+    public Object lookup(int tag, double a, double b, double c, double d) {
+        if (capacity == 0) {
+            return null;
+        }
+        Key key = new Key(tag, a, b, c, d);
+        Segment segment = segments[key.hash >>> SEGMENT_SHIFT];
+        Object value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches the result for the arguments, evicting the least recently used entry of its segment if it is full.
+     */
+    public void store(int tag, double a, double b, double c, double d, Object value) {
+        if (capacity == 0) {
+            return;
+        }
+        Key key = new Key(tag, a, b, c, d);
+        Segment segment = segments[key.hash >>> SEGMENT_SHIFT];
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Approximate memory footprint of the cached results, in bytes.
+     */
+    public long estimatedBytes() {
+        return (long) ENTRY_BYTES * size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Empties the cache and resets its counters.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private final class Segment extends LinkedHashMap<Key, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Key {
+
+        final int tag;
+        final long a;
+        final long b;
+        final long c;
+        final long d;
+        final int hash;
+
+        Key(int tag, double a, double b, double c, double d) {
+            this.tag = tag;
+            // raw bits, so that 0.0 and -0.0 are told apart and NaN matches itself
+            this.a = Double.doubleToRawLongBits(a);
+            this.b = Double.doubleToRawLongBits(b);
+            this.c = Double.doubleToRawLongBits(c);
+            this.d = Double.doubleToRawLongBits(d);
+            long h = tag;
+            h = h * 31 + this.a;
+            h = h * 31 + this.b;
+            h = h * 31 + this.c;
+            h = h * 31 + this.d;
+            // final mix of MurmurHash3, so that the high bits depend on every argument
+            h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+            h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            hash = (int) (h ^ (h >>> 33));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return tag == key.tag && a == key.a && b == key.b && c == key.c && d == key.d;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
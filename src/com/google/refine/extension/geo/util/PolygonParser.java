@@ -0,0 +1,275 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.google.refine.util.ParsingUtilities;
+
+/**
+ * Reads the rings of polygons written as WKT ({@code POLYGON} or {@code MULTIPOLYGON}) or as GeoJSON (a Polygon or
+ * MultiPolygon geometry, a Feature, a FeatureCollection or a GeometryCollection of them).
+ * <p>
+ * Each ring is returned as an array of interleaved coordinates {@code x0, y0, x1, y1, ...}, longitude first. Outer
+ * rings and holes are not told apart, as the even-odd rule of {@code PreparedPolygon} does not need it. Third and
+ * fourth dimensions are ignored.
+ */
+public final class PolygonParser {
+
+    private PolygonParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the text is neither a WKT nor a GeoJSON polygon
+     */
+    public static List<double[]> parse(String text) {
+        String trimmed = text.trim();
+        List<double[]> rings = new ArrayList<>();
+        if (trimmed.startsWith("{")) {
+            JsonNode node;
+            try {
+                node = ParsingUtilities.mapper.readTree(trimmed);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid GeoJSON: " + e.getMessage(), e);
+            }
+            if (!readGeoJson(node, rings)) {
+                throw new IllegalArgumentException("Expected a GeoJSON Polygon or MultiPolygon");
+            }
+        } else {
+            new WktReader(trimmed).read(rings);
+        }
+        return rings;
+    }
+
+    /**
+     * @return false if the node holds no polygon
+     */
+    private static boolean readGeoJson(JsonNode node, List<double[]> rings) {
+        switch (node.path("type").asText()) {
+            case "Polygon":
+                return readGeoJsonRings(node.get("coordinates"), rings);
+            case "MultiPolygon":
+                JsonNode polygons = node.get("coordinates");
+                if (polygons == null || !polygons.isArray()) {
+                    return false;
+                }
+                for (JsonNode polygon : polygons) {
+                    if (!readGeoJsonRings(polygon, rings)) {
+                        return false;
+                    }
+                }
+                return true;
+            case "Feature":
+                JsonNode geometry = node.get("geometry");
+                return geometry != null && geometry.isObject() && readGeoJson(geometry, rings);
+            case "FeatureCollection":
+            case "GeometryCollection":
+                JsonNode members = node.get(node.has("features") ? "features" : "geometries");
+                boolean found = false;
+                if (members != null) {
+                    for (JsonNode member : members) {
+                        found |= readGeoJson(member, rings);
+                    }
+                }
+                return found;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean readGeoJsonRings(JsonNode polygon, List<double[]> rings) {
+        if (polygon == null || !polygon.isArray()) {
+            return false;
+        }
+        for (JsonNode ring : polygon) {
+            if (!ring.isArray()) {
+                return false;
+            }
+            double[] coordinates = new double[2 * ring.size()];
+            int i = 0;
+            for (JsonNode position : ring) {
+                if (!position.isArray() || position.size() < 2 || !position.get(0).isNumber()
+                        || !position.get(1).isNumber()) {
+                    return false;
+                }
+                coordinates[i++] = position.get(0).doubleValue();
+                coordinates[i++] = position.get(1).doubleValue();
+            }
+            rings.add(coordinates);
+        }
+        return true;
+    }
+
+    /**
+     * Recursive descent reader of WKT polygons.
+     */
+    private static final class WktReader {
+
+        private final String text;
+        private int position;
+
+        WktReader(String text) {
+            this.text = text;
+        }
+
+        void read(List<double[]> rings) {
+            String tag = word();
+            // dimension qualifiers such as POLYGON Z
+            String next = word();
+            while (next.equals("Z") || next.equals("M") || next.equals("ZM")) {
+                next = word();
+            }
+            if (next.equals("EMPTY")) {
+                end();
+                return;
+            }
+            if (!next.isEmpty()) {
+                throw error();
+            }
+            if (tag.equals("POLYGON")) {
+                readPolygon(rings);
+            } else if (tag.equals("MULTIPOLYGON")) {
+                expect('(');
+                do {
+                    if (word().equals("EMPTY")) {
+                        continue;
+                    }
+                    readPolygon(rings);
+                } while (accept(','));
+                expect(')');
+            } else {
+                throw new IllegalArgumentException("Expected a WKT POLYGON or MULTIPOLYGON");
+            }
+            end();
+        }
+
+        private void readPolygon(List<double[]> rings) {
+            expect('(');
+            do {
+                readRing(rings);
+            } while (accept(','));
+            expect(')');
+        }
+
+        private void readRing(List<double[]> rings) {
+            expect('(');
+            double[] coordinates = new double[32];
+            int length = 0;
+            do {
+                if (length + 2 > coordinates.length) {
+                    coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+                }
+                coordinates[length++] = number();
+                coordinates[length++] = number();
+                // z and m values
+                skipSpaces();
+                while (position < text.length() && text.charAt(position) != ',' && text.charAt(position) != ')') {
+                    number();
+                    skipSpaces();
+                }
+            } while (accept(','));
+            expect(')');
+            rings.add(Arrays.copyOf(coordinates, length));
+        }
+
+        private String word() {
+            skipSpaces();
+            int start = position;
+            while (position < text.length() && Character.isLetter(text.charAt(position))) {
+                position++;
+            }
+            return text.substring(start, position).toUpperCase(Locale.ROOT);
+        }
+
+        private double number() {
+            skipSpaces();
+            int start = position;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if ((c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (start == position) {
+                throw error();
+            }
+            try {
+                return Double.parseDouble(text.substring(start, position));
+            } catch (NumberFormatException e) {
+                throw error();
+            }
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error();
+            }
+        }
+
+        private void end() {
+            skipSpaces();
+            if (position < text.length()) {
+                throw error();
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Invalid WKT at character " + (position + 1));
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Arrays;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+/**
+ * Simplifies tracks, given as arrays of latitudes and longitudes, by flagging the points which can be dropped without
+ * moving the track by more than a tolerance in meters.
+ * <p>
+ * Both algorithms work on primitive arrays only, and neither recurses, so that tracks of millions of points need
+ * neither deep stacks nor per-point objects. The first and last points are always kept.
+ * <ul>
+ * <li>Douglas-Peucker keeps the point furthest from the segment joining two kept points while it is further than the
+ * tolerance, using an explicit stack of segments. Distances to segments are measured either on a local
+ * equirectangular projection, which is exact enough over the length of a hop, or on the sphere.</li>
+ * <li>Visvalingam-Whyatt drops, smallest first, the points whose triangle with their neighbours has an area below the
+ * square of the tolerance, using an indexed heap of areas. Areas are measured on a local equirectangular
+ * projection.</li>
+ * </ul>
+ */
+public final class TrackSimplifier {
+
+    private TrackSimplifier() {
+    }
+
+    /**
+     * Flags the points to keep with the Douglas-Peucker algorithm.
+     *
+     * @param keep
+     *            receives, for each of the first {@code count} points, whether it is kept
+     * @param spherical
+     *            whether to measure distances on the sphere rather than on a projection
+     * @return the number of kept points
+     */
+    public static int douglasPeucker(double[] lats, double[] lngs, int count, double tolerance, boolean spherical,
+            boolean[] keep) {
+        if (count <= 2) {
+            Arrays.fill(keep, 0, count, true);
+            return count;
+        }
+        Arrays.fill(keep, 0, count, false);
+        keep[0] = true;
+        keep[count - 1] = true;
+        int kept = 2;
+        double squaredTolerance = tolerance * tolerance;
+
+        // segments still to split, as pairs of point positions
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int furthest = -1;
+            double maxDistance = -1;
+            if (spherical) {
+                // the arc of the segment is measured once for all of its points
+                double length = GeoDistance.haversineDistance(lats[first], lngs[first], lats[last], lngs[last])
+                        / GeoDistance.EARTH_RADIUS_M;
+                double bearing = bearing(lats[first], lngs[first], lats[last], lngs[last]);
+                for (int i = first + 1; i < last; i++) {
+                    double distance = sphericalSegmentDistance(lats[i], lngs[i], lats[first], lngs[first], lats[last],
+                            lngs[last], length, bearing);
+                    if (distance > maxDistance) {
+                        maxDistance = distance;
+                        furthest = i;
+                    }
+                }
+                maxDistance = maxDistance * maxDistance;
+            } else {
+                // in degrees of latitude, on the projection of the segment
+                double scale = Math.cos(Math.toRadians((lats[first] + lats[last]) * 0.5));
+                double bx = longitudeDelta(lngs[last], lngs[first]) * scale;
+                double by = lats[last] - lats[first];
+                double squaredLength = bx * bx + by * by;
+                for (int i = first + 1; i < last; i++) {
+                    double distance = squaredSegmentDistance(longitudeDelta(lngs[i], lngs[first]) * scale,
+                            lats[i] - lats[first], bx, by, squaredLength);
+                    if (distance > maxDistance) {
+                        maxDistance = distance;
+                        furthest = i;
+                    }
+                }
+                maxDistance *= GeoDistance.METERS_PER_DEGREE * GeoDistance.METERS_PER_DEGREE;
+            }
+            if (furthest >= 0 && maxDistance > squaredTolerance) {
+                keep[furthest] = true;
+                kept++;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (furthest - first > 1) {
+                    stack[top++] = first;
+                    stack[top++] = furthest;
+                }
+                if (last - furthest > 1) {
+                    stack[top++] = furthest;
+                    stack[top++] = last;
+                }
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Flags the points to keep with the Visvalingam-Whyatt algorithm: points are dropped while the smallest effective
+     * area, in square meters, is below {@code tolerance * tolerance}. The effective area of a point never gets smaller
+     * than that of a point dropped before it.
+     *
+     * @param keep
+     *            receives, for each of the first {@code count} points, whether it is kept
+     * @return the number of kept points
+     */
+    public static int visvalingam(double[] lats, double[] lngs, int count, double tolerance, boolean[] keep) {
+        Arrays.fill(keep, 0, count, true);
+        if (count <= 2) {
+            return count;
+        }
+        double threshold = tolerance * tolerance;
+        int[] previous = new int[count];
+        int[] next = new int[count];
+        double[] areas = new double[count];
+        for (int i = 0; i < count; i++) {
+            previous[i] = i - 1;
+            next[i] = i + 1;
+        }
+
+        // min-heap of the interior points by area, with the heap position of each point
+        int size = count - 2;
+        int[] heap = new int[size];
+        int[] positions = new int[count];
+        for (int i = 1; i < count - 1; i++) {
+            areas[i] = triangleArea(lats, lngs, i - 1, i, i + 1);
+            heap[i - 1] = i;
+            positions[i] = i - 1;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, positions, areas, size, i);
+        }
+
+        int kept = count;
+        while (size > 0 && areas[heap[0]] < threshold) {
+            int point = heap[0];
+            double area = areas[point];
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(heap, positions, areas, size, 0);
+            }
+            positions[point] = -1;
+            keep[point] = false;
+            kept--;
+
+            int before = previous[point];
+            int after = next[point];
+            next[before] = after;
+            previous[after] = before;
+            if (previous[before] >= 0) {
+                update(heap, positions, areas, size, before,
+                        Math.max(area, triangleArea(lats, lngs, previous[before], before, after)));
+            }
+            if (next[after] < count) {
+                update(heap, positions, areas, size, after,
+                        Math.max(area, triangleArea(lats, lngs, before, after, next[after])));
+            }
+        }
+        return kept;
+    }
+
+    private static void update(int[] heap, int[] positions, double[] areas, int size, int point, double area) {
+        double old = areas[point];
+        areas[point] = area;
+        if (area < old) {
+            siftUp(heap, positions, areas, positions[point]);
+        } else {
+            siftDown(heap, positions, areas, size, positions[point]);
+        }
+    }
+
+    private static void siftUp(int[] heap, int[] positions, double[] areas, int position) {
+        int point = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (areas[heap[parent]] <= areas[point]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = point;
+        positions[point] = position;
+    }
+
+    private static void siftDown(int[] heap, int[] positions, double[] areas, int size, int position) {
+        int point = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && areas[heap[child + 1]] < areas[heap[child]]) {
+                child++;
+            }
+            if (areas[heap[child]] >= areas[point]) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = point;
+        positions[point] = position;
+    }
+
+    /**
+     * Area in square meters of the triangle of three points of the arrays, on an equirectangular projection centred on
+     * the middle one.
+     */
+    static double triangleArea(double[] lats, double[] lngs, int a, int b, int c) {
+        double scale = Math.cos(Math.toRadians(lats[b]));
+        double ax = longitudeDelta(lngs[a], lngs[b]) * scale;
+        double ay = lats[a] - lats[b];
+        double cx = longitudeDelta(lngs[c], lngs[b]) * scale;
+        double cy = lats[c] - lats[b];
+        return Math.abs(ax * cy - cx * ay) * 0.5 * GeoDistance.METERS_PER_DEGREE * GeoDistance.METERS_PER_DEGREE;
+    }
+
+    /**
+     * Squared distance in square meters from a point to the segment joining two others, on an equirectangular
+     * projection centred on the first end of the segment, at the mean latitude of the segment.
+     */
+    static double squaredSegmentDistance(double lat, double lng, double lat1, double lng1, double lat2, double lng2) {
+        double scale = Math.cos(Math.toRadians((lat1 + lat2) * 0.5));
+        double bx = longitudeDelta(lng2, lng1) * scale;
+        double by = lat2 - lat1;
+        return squaredSegmentDistance(longitudeDelta(lng, lng1) * scale, lat - lat1, bx, by, bx * bx + by * by)
+                * GeoDistance.METERS_PER_DEGREE * GeoDistance.METERS_PER_DEGREE;
+    }
+
+    /**
+     * Squared distance from the point {@code (px, py)} to the segment from the origin to {@code (bx, by)}, in the
+     * units of the coordinates.
+     */
+    private static double squaredSegmentDistance(double px, double py, double bx, double by, double squaredLength) {
+        double t = squaredLength == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / squaredLength));
+        double dx = px - t * bx;
+        double dy = py - t * by;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Great circle distance in meters from a point to the arc joining two others: the cross-track distance when the
+     * point projects within the arc, or else the distance to the nearest end.
+     */
+    static double sphericalSegmentDistance(double lat, double lng, double lat1, double lng1, double lat2, double lng2) {
+        return sphericalSegmentDistance(lat, lng, lat1, lng1, lat2, lng2,
+                GeoDistance.haversineDistance(lat1, lng1, lat2, lng2) / GeoDistance.EARTH_RADIUS_M,
+                bearing(lat1, lng1, lat2, lng2));
+    }
+
+    /**
+     * Same as {@link #sphericalSegmentDistance(double, double, double, double, double, double)}, given the angular
+     * length and the initial bearing of the arc.
+     */
+    private static double sphericalSegmentDistance(double lat, double lng, double lat1, double lng1, double lat2,
+            double lng2, double length, double bearing) {
+        double d13 = GeoDistance.haversineDistance(lat1, lng1, lat, lng) / GeoDistance.EARTH_RADIUS_M;
+        if (d13 == 0 || length == 0) {
+            return d13 * GeoDistance.EARTH_RADIUS_M;
+        }
+        double angle = bearing(lat1, lng1, lat, lng) - bearing;
+        if (Math.cos(angle) < 0) {
+            // behind the first end
+            return d13 * GeoDistance.EARTH_RADIUS_M;
+        }
+        double crossTrack = Math.asin(Math.sin(d13) * Math.sin(angle));
+        double alongTrack = Math.acos(Math.max(-1.0, Math.min(1.0, Math.cos(d13) / Math.cos(crossTrack))));
+        if (alongTrack > length) {
+            return GeoDistance.haversineDistance(lat2, lng2, lat, lng);
+        }
+        return Math.abs(crossTrack) * GeoDistance.EARTH_RADIUS_M;
+    }
+
+    private static double bearing(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaLambda = Math.toRadians(lng2 - lng1);
+        return Math.atan2(Math.sin(deltaLambda) * Math.cos(phi2),
+                Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda));
+    }
+
+    /**
+     * Difference of two longitudes, in degrees, taking the short way around the antimeridian.
+     */
+    private static double longitudeDelta(double lng, double origin) {
+        double delta = lng - origin;
+        if (delta > 180.0) {
+            delta -= 360.0;
+        } else if (delta < -180.0) {
+            delta += 360.0;
+        }
+        return delta;
+    }
+}
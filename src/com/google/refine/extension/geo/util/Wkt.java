@@ -0,0 +1,74 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Helpers to write geometries as Well-Known Text.
+ */
+public final class Wkt {
+
+    private Wkt() {
+    }
+
+    /**
+     * Formats a coordinate without the exponent notation, which not all WKT readers accept.
+     */
+    public static String formatCoordinate(double value) {
+        String string = Double.toString(value);
+        return string.indexOf('E') < 0 ? string : BigDecimal.valueOf(value).toPlainString();
+    }
+
+    /**
+     * Appends a position, longitude (x) first.
+     */
+    public static void appendPosition(StringBuilder builder, double x, double y) {
+        builder.append(formatCoordinate(x)).append(' ').append(formatCoordinate(y));
+    }
+
+    /**
+     * Appends the parenthesized positions at {@code [from, to)} of the coordinate arrays.
+     */
+    public static void appendPositions(StringBuilder builder, double[] xs, double[] ys, int from, int to) {
+        builder.append('(');
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append(", ");
+            }
+            appendPosition(builder, xs[i], ys[i]);
+        }
+        builder.append(')');
+    }
+}
@@ -0,0 +1,105 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+import com.google.refine.LookupCacheManager;
+import com.google.refine.ProjectManager;
+import com.google.refine.ProjectMetadata;
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.history.HistoryEntryManager;
+import com.google.refine.model.AbstractOperation;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.ModelException;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.process.Process;
+
+/**
+ * Builds small in-memory projects for the tests of operations, facets and indexes.
+ */
+public class GeoTestUtils {
+
+    /**
+     * Installs a mock project manager, which projects created by {@link #createProject} are registered with.
+     */
+    public static void mockProjectManager() {
+        ProjectManager projectManager = mock(ProjectManager.class);
+        when(projectManager.getHistoryEntryManager()).thenReturn(mock(HistoryEntryManager.class));
+        when(projectManager.getLookupCacheManager()).thenReturn(mock(LookupCacheManager.class));
+        ProjectManager.singleton = projectManager;
+    }
+
+    /**
+     * Creates a project with the given column names, and one row per array of cell values. Null values are left
+     * blank.
+     */
+    public static Project createProject(String[] columnNames, Serializable[][] rows) throws ModelException {
+        Project project = new Project();
+        ProjectMetadata metadata = new ProjectMetadata();
+        metadata.setName("project " + project.id);
+        when(ProjectManager.singleton.getProject(project.id)).thenReturn(project);
+        when(ProjectManager.singleton.getProjectMetadata(project.id)).thenReturn(metadata);
+
+        for (int i = 0; i < columnNames.length; i++) {
+            project.columnModel.addColumn(i, new Column(project.columnModel.allocateNewCellIndex(), columnNames[i]), false);
+        }
+        for (Serializable[] values : rows) {
+            Row row = new Row(columnNames.length);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    row.setCell(i, new Cell(values[i], null));
+                }
+            }
+            project.rows.add(row);
+        }
+        project.update();
+        return project;
+    }
+
+    /**
+     * Validates and applies an operation to a project, adding it to the project history.
+     */
+    public static HistoryEntry runOperation(AbstractOperation operation, Project project) throws Exception {
+        operation.validate();
+        Process process = operation.createProcess(project, new Properties());
+        return process.performImmediate();
+    }
+}
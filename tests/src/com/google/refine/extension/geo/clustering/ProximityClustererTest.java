@@ -0,0 +1,173 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.clustering;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.clustering.Clusterer;
+import com.google.refine.clustering.ClustererConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+public class ProximityClustererTest {
+
+    @BeforeClass
+    public void registerClusterer() {
+        ProximityClusterer.registerClustererType();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        GeoTestUtils.mockProjectManager();
+    }
+
+    private static JsonNode cluster(Project project, String config) throws Exception {
+        ClustererConfig clustererConfig = ParsingUtilities.mapper.readValue(config, ClustererConfig.class);
+        Clusterer clusterer = clustererConfig.apply(project);
+        clusterer.computeClusters(new Engine(project));
+        return ParsingUtilities.mapper.readTree(ParsingUtilities.mapper.writeValueAsString(clusterer));
+    }
+
+    @Test
+    public void testClusters() throws Exception {
+        Project project = GeoTestUtils.createProject(new String[] { "point" }, new Serializable[][] {
+                { "48.8584, 2.2945" }, { "48.8584, 2.2945" }, { "48.8585,2.2946" }, { "48.8600, 2.2945" },
+                { "40.6892; -74.0445" }, { "40.6893 -74.0444" }, { "not a point" }, { "95, 10" }, { null },
+                { "0, 179.9999" }, { "0, -179.9999" } });
+
+        JsonNode clusters = cluster(project,
+                "{\"type\":\"geo/proximity\",\"column\":\"point\",\"params\":{\"radius\":50}}");
+        Assert.assertEquals(clusters.size(), 3);
+        // the biggest cluster comes first, and its values by decreasing count
+        Assert.assertEquals(clusters.get(0).size(), 2);
+        Assert.assertEquals(clusters.get(0).get(0).get("v").asText(), "48.8584, 2.2945");
+        Assert.assertEquals(clusters.get(0).get(0).get("c").asInt(), 2);
+        Assert.assertEquals(clusters.get(0).get(1).get("v").asText(), "48.8585,2.2946");
+
+        Set<Set<String>> found = new HashSet<>();
+        for (JsonNode c : clusters) {
+            Set<String> values = new HashSet<>();
+            c.forEach(entry -> values.add(entry.get("v").asText()));
+            found.add(values);
+        }
+        Assert.assertTrue(found.contains(Set.of("40.6892; -74.0445", "40.6893 -74.0444")));
+        Assert.assertTrue(found.contains(Set.of("0, 179.9999", "0, -179.9999")));
+
+        // a wider radius chains the third Paris point in
+        JsonNode wider = cluster(project,
+                "{\"type\":\"geo/proximity\",\"column\":\"point\",\"params\":{\"radius\":0.5,\"unit\":\"km\"}}");
+        Assert.assertEquals(wider.get(0).size(), 3);
+    }
+
+    @Test
+    public void testMatchesAllPairs() {
+        Random random = new Random(31L);
+        int count = 3000;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        for (int i = 0; i < count; i++) {
+            double baseLat = i % 3 == 0 ? 85.0 : 48.8;
+            lats[i] = baseLat + random.nextDouble() * 0.05;
+            lngs[i] = (i % 2 == 0 ? 179.97 : -180.0) + random.nextDouble() * 0.03;
+        }
+        double radius = 150;
+        int[] parents = ProximityClusterer.link(lats, lngs, count, radius);
+
+        int[] expected = new int[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                if (GeoDistance.haversineDistance(lats[i], lngs[i], lats[j], lngs[j]) <= radius) {
+                    int a = ProximityClusterer.find(expected, i);
+                    int b = ProximityClusterer.find(expected, j);
+                    expected[b] = a;
+                }
+            }
+        }
+        List<Integer> mismatches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j += 7) {
+                boolean same = ProximityClusterer.find(parents, i) == ProximityClusterer.find(parents, j);
+                boolean expectedSame = ProximityClusterer.find(expected, i) == ProximityClusterer.find(expected, j);
+                if (same != expectedSame) {
+                    mismatches.add(i);
+                }
+            }
+        }
+        Assert.assertEquals(mismatches, List.of());
+    }
+
+    @Test
+    public void testUnitIsCaseInsensitive() throws Exception {
+        Project project = GeoTestUtils.createProject(new String[] { "point" },
+                new Serializable[][] { { "48.8584, 2.2945" }, { "48.8600, 2.2950" } });
+        JsonNode clusters = cluster(project,
+                "{\"type\":\"geo/proximity\",\"column\":\"point\",\"params\":{\"radius\":0.5,\"unit\":\"KM\"}}");
+        Assert.assertEquals(clusters.size(), 1);
+        Assert.assertEquals(clusters.get(0).size(), 2);
+    }
+
+    @Test
+    public void testParsePoint() {
+        double[] point = new double[2];
+        Assert.assertTrue(ProximityClusterer.parsePoint(" 12.5 , -3 ", point));
+        Assert.assertEquals(point, new double[] { 12.5, -3 });
+        Assert.assertTrue(ProximityClusterer.parsePoint("12.5 -3", point));
+        Assert.assertEquals(point, new double[] { 12.5, -3 });
+        Assert.assertFalse(ProximityClusterer.parsePoint("12.5", point));
+        Assert.assertFalse(ProximityClusterer.parsePoint("12.5, 181", point));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidRadius() throws Exception {
+        Project project = GeoTestUtils.createProject(new String[] { "point" }, new Serializable[][] { { "1, 1" } });
+        cluster(project, "{\"type\":\"geo/proximity\",\"column\":\"point\",\"params\":{\"radius\":0}}");
+    }
+}
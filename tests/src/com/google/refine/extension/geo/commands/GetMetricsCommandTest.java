@@ -0,0 +1,95 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.commands;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Properties;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.util.GeoMetrics;
+import com.google.refine.util.ParsingUtilities;
+
+public class GetMetricsCommandTest {
+
+    @AfterMethod
+    public void tearDown() {
+        GeoMetrics.reset();
+    }
+
+    @Test
+    public void testReportsMetrics() throws Exception {
+        GeoMetrics.reset();
+        GeoDistance geoDistance = new GeoDistance();
+        geoDistance.call(new Properties(), new Object[] { 0.0, 0.0, 1.0, 1.0 });
+        geoDistance.call(new Properties(), new Object[] { 0.0, 200.0, 1.0, 1.0 });
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter writer = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(writer));
+
+        new GetMetricsCommand().doGet(request, response);
+
+        JsonNode metrics = ParsingUtilities.mapper.readTree(writer.toString());
+        Assert.assertTrue(metrics.get("enabled").asBoolean());
+        JsonNode function = null;
+        for (JsonNode node : metrics.get("functions")) {
+            if (node.get("name").asText().equals("geoDistance")) {
+                function = node;
+            }
+        }
+        Assert.assertNotNull(function);
+        Assert.assertEquals(function.get("calls").asLong(), 2L);
+        Assert.assertEquals(function.get("errors").get("range").asLong(), 1L);
+        Assert.assertEquals(function.get("errors").get("type").asLong(), 0L);
+        Assert.assertEquals(function.get("errorRate").asDouble(), 0.5);
+        JsonNode latency = function.get("latency");
+        Assert.assertTrue(latency.get("count").asLong() <= 2L);
+        Assert.assertTrue(latency.get("p50Nanos").asLong() <= latency.get("maxNanos").asLong());
+        Assert.assertTrue(latency.get("p999Nanos").asLong() <= latency.get("maxNanos").asLong());
+        Assert.assertTrue(metrics.get("operations").isArray());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.commands;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.util.GeoResources;
+import com.google.refine.util.ParsingUtilities;
+
+public class GetResourcesCommandTest {
+
+    @AfterMethod
+    public void tearDown() {
+        GeoResources.get().unregister("test-loaded");
+        GeoResources.get().unregister("test-failed");
+    }
+
+    @Test
+    public void testReportsResources() throws Exception {
+        GeoResources.get().register("test-loaded", () -> new byte[100], bytes -> bytes.length, null).get();
+        GeoResources.get().register("test-failed", () -> {
+            throw new IllegalStateException("no data");
+        }, null, null);
+        try {
+            GeoResources.get().lookup("test-failed").load();
+        } catch (IllegalStateException e) {
+            // reported below
+        }
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter writer = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(writer));
+
+        new GetResourcesCommand().doGet(request, response);
+
+        JsonNode stats = ParsingUtilities.mapper.readTree(writer.toString());
+        JsonNode loaded = null;
+        JsonNode failed = null;
+        for (JsonNode resource : stats.get("resources")) {
+            if (resource.get("name").asText().equals("test-loaded")) {
+                loaded = resource;
+            } else if (resource.get("name").asText().equals("test-failed")) {
+                failed = resource;
+            }
+        }
+        Assert.assertNotNull(loaded);
+        Assert.assertTrue(loaded.get("loaded").asBoolean());
+        Assert.assertEquals(loaded.get("estimatedBytes").asLong(), 100L);
+        Assert.assertTrue(loaded.get("loadMillis").asLong() >= 0);
+        Assert.assertFalse(loaded.has("error"));
+        Assert.assertNotNull(failed);
+        Assert.assertFalse(failed.get("loaded").asBoolean());
+        Assert.assertEquals(failed.get("error").asText(), "no data");
+        Assert.assertTrue(stats.get("estimatedBytes").asLong() >= 100L);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.browsing.Engine;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.model.Project;
+
+public class DistanceMatrixExporterTest {
+
+    private Project project;
+    private Project depots;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        project = GeoTestUtils.createProject(new String[] { "name", "lat", "lng" },
+                new Serializable[][] {
+                        { "Paris", 48.8566, 2.3522 },
+                        { "Nowhere", null, 2.0 },
+                        { "Lyon, FR", 45.764, 4.8357 } });
+        depots = GeoTestUtils.createProject(new String[] { "depot", "y", "x" },
+                new Serializable[][] {
+                        { "D1", 48.0, 2.0 },
+                        { "D2", 45.0, 5.0 } });
+        when(ProjectManager.singleton.getProjectID("Depots")).thenReturn(depots.id);
+    }
+
+    private static Properties params(String options) {
+        Properties params = new Properties();
+        params.setProperty("options", options);
+        return params;
+    }
+
+    private String exportCsv(String options) throws IOException {
+        StringWriter writer = new StringWriter();
+        new DistanceMatrixCsvExporter().export(project, params(options), new Engine(project), writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testSquareMatrixAsCsv() throws Exception {
+        String output = exportCsv("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"keyColumnName\":\"name\",\"unit\":\"km\"}");
+
+        String[] lines = output.split("\n");
+        Assert.assertEquals(lines[0], "from,to,distance");
+        // the row without a point has no pair
+        Assert.assertEquals(lines.length, 1 + 4);
+        Assert.assertEquals(lines[1], "Paris,Paris,0.0");
+        Assert.assertTrue(lines[2].startsWith("Paris,\"Lyon, FR\","));
+        double distance = Double.parseDouble(lines[2].substring(lines[2].lastIndexOf(',') + 1));
+        Assert.assertEquals(distance, GeoDistance.haversineDistance(48.8566, 2.3522, 45.764, 4.8357) / 1000, 1e-9);
+        Assert.assertTrue(lines[3].startsWith("\"Lyon, FR\",Paris,"));
+    }
+
+    @Test
+    public void testUnitIsCaseInsensitive() throws Exception {
+        String upper = exportCsv("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"unit\":\"KM\"}");
+        Assert.assertEquals(upper, exportCsv("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"unit\":\"km\"}"));
+    }
+
+    @Test
+    public void testTargetProjectAsCsv() throws Exception {
+        String output = exportCsv("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"targetProjectName\":\"Depots\","
+                + "\"targetLatColumnName\":\"y\",\"targetLngColumnName\":\"x\",\"targetKeyColumnName\":\"depot\","
+                + "\"maxDistance\":100000}");
+
+        // keys default to row indices, and far away pairs are left out
+        String[] lines = output.split("\n");
+        Assert.assertEquals(lines.length, 1 + 2);
+        Assert.assertTrue(lines[1].startsWith("0,D1,"));
+        Assert.assertTrue(lines[2].startsWith("2,D2,"));
+    }
+
+    @Test
+    public void testBinary() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new DistanceMatrixBinaryExporter().export(project, params("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\","
+                + "\"targetProjectName\":\"Depots\",\"targetLatColumnName\":\"y\",\"targetLngColumnName\":\"x\"}"),
+                new Engine(project), stream);
+
+        ByteBuffer buffer = ByteBuffer.wrap(stream.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(buffer.remaining(), 3 * 2 * Double.BYTES);
+        Assert.assertEquals(buffer.getDouble(0), GeoDistance.haversineDistance(48.8566, 2.3522, 48.0, 2.0), 1e-6);
+        Assert.assertTrue(Double.isNaN(buffer.getDouble(2 * Double.BYTES)));
+        Assert.assertEquals(buffer.getDouble(5 * Double.BYTES), GeoDistance.haversineDistance(45.764, 4.8357, 45.0, 5.0), 1e-6);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testUnknownTargetColumn() throws Exception {
+        exportCsv("{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"targetProjectName\":\"Depots\"}");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.exporters;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.util.Properties;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+public class GeoJsonExporterTest {
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        project = GeoTestUtils.createProject(new String[] { "name", "lat", "lng", "count" },
+                new Serializable[][] {
+                        { "Paris", 48.8566, 2.3522, 3L },
+                        { "nowhere, \"really\"", "north", 2.0, null },
+                        { "Tiny", 0.00001, -0.5, 1.5 } });
+    }
+
+    private String export(PointExporter exporter, String options) throws IOException {
+        Properties params = new Properties();
+        params.setProperty("options", options);
+        StringWriter writer = new StringWriter();
+        exporter.export(project, params, new Engine(project), writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testFeatureCollection() throws Exception {
+        String output = export(new GeoJsonExporter(false), "{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\"}");
+
+        JsonNode collection = ParsingUtilities.mapper.readTree(output);
+        Assert.assertEquals(collection.get("type").asText(), "FeatureCollection");
+        JsonNode features = collection.get("features");
+        Assert.assertEquals(features.size(), 3);
+
+        JsonNode paris = features.get(0);
+        Assert.assertEquals(paris.get("id").asInt(), 0);
+        Assert.assertEquals(paris.get("geometry").get("type").asText(), "Point");
+        Assert.assertEquals(paris.get("geometry").get("coordinates").get(0).asDouble(), 2.3522);
+        Assert.assertEquals(paris.get("geometry").get("coordinates").get(1).asDouble(), 48.8566);
+        Assert.assertEquals(paris.get("properties").get("name").asText(), "Paris");
+        Assert.assertEquals(paris.get("properties").get("count").asLong(), 3L);
+        Assert.assertEquals(paris.get("properties").size(), 2);
+
+        Assert.assertTrue(features.get(1).get("geometry").isNull());
+        Assert.assertTrue(features.get(1).get("properties").get("count").isNull());
+    }
+
+    @Test
+    public void testLineDelimited() throws Exception {
+        String output = export(new GeoJsonExporter(true),
+                "{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"columns\":[\"name\"]}");
+
+        String[] lines = output.split("\n");
+        Assert.assertEquals(lines.length, 3);
+        Assert.assertTrue(output.endsWith("\n"));
+        JsonNode tiny = ParsingUtilities.mapper.readTree(lines[2]);
+        Assert.assertEquals(tiny.get("id").asInt(), 2);
+        Assert.assertEquals(tiny.get("properties").size(), 1);
+        Assert.assertEquals(tiny.get("properties").get("name").asText(), "Tiny");
+    }
+
+    @Test
+    public void testWkt() throws Exception {
+        String output = export(new WktExporter(), "{\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\"}");
+
+        Assert.assertEquals(output, "WKT,name,count\n"
+                + "POINT (2.3522 48.8566),Paris,3\n"
+                + ",\"nowhere, \"\"really\"\"\",\n"
+                + "POINT (-0.5 0.000010),Tiny,1.5\n");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testUnknownColumn() throws Exception {
+        export(new GeoJsonExporter(false), "{\"latColumnName\":\"lat\",\"lngColumnName\":\"longitude\"}");
+    }
+}
@@ -0,0 +1,209 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.facets;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+import com.google.refine.util.ParsingUtilities;
+
+public class GeoFacetTest {
+
+    private static final int ROWS = 20000;
+
+    private Project project;
+
+    @BeforeClass
+    public void registerFacet() {
+        GeoFacet.registerFacetType();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        SpatialIndexCache.clear();
+        Random random = new Random(17L);
+        Serializable[][] rows = new Serializable[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 1000 == 0) {
+                rows[i] = new Serializable[] { "blank " + i, null, null };
+            } else if (i % 2 == 0) {
+                // around Lyon
+                rows[i] = new Serializable[] { "point " + i, 45.5 + random.nextDouble() * 0.5, 4.6 + random.nextDouble() * 0.5 };
+            } else {
+                rows[i] = new Serializable[] { "point " + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180 };
+            }
+        }
+        project = GeoTestUtils.createProject(new String[] { "name", "lat", "lng" }, rows);
+    }
+
+    private Engine createEngine(String facetJson, String mode) throws Exception {
+        EngineConfig config = EngineConfig.reconstruct("{\"mode\":\"" + mode + "\",\"facets\":[" + facetJson + "]}");
+        config.validate();
+        Engine engine = new Engine(project);
+        engine.initializeFromConfig(config);
+        return engine;
+    }
+
+    private List<Integer> filteredRows(Engine engine) {
+        List<Integer> rowIndices = new ArrayList<>();
+        engine.getAllFilteredRows().accept(project, new RowVisitor() {
+
+            @Override
+            public void start(Project project) {
+            }
+
+            @Override
+            public boolean visit(Project project, int rowIndex, Row row) {
+                rowIndices.add(rowIndex);
+                return false;
+            }
+
+            @Override
+            public void end(Project project) {
+            }
+        });
+        return rowIndices;
+    }
+
+    private List<Integer> bruteForceCircle(double lat, double lng, double radius) {
+        List<Integer> rowIndices = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Object pointLat = project.rows.get(i).getCellValue(1);
+            if (pointLat != null && GeoDistance.haversineDistance(lat, lng, (Double) pointLat,
+                    (Double) project.rows.get(i).getCellValue(2)) <= radius) {
+                rowIndices.add(i);
+            }
+        }
+        return rowIndices;
+    }
+
+    private static String circle(double lat, double lng, double radius, String unit) {
+        return "{\"type\":\"geo/area\",\"name\":\"area\",\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\","
+                + "\"shape\":\"circle\",\"lat\":" + lat + ",\"lng\":" + lng + ",\"radius\":" + radius + ",\"unit\":\"" + unit + "\"}";
+    }
+
+    @Test
+    public void testCircleMatchesBruteForce() throws Exception {
+        double[][] circles = { { 45.75, 4.85, 10 }, { 45.75, 4.85, 30 }, { 0, 179.5, 2000 }, { 80, -30, 3000 },
+                { -20, 60, 8000 }, { 10, 10, 0 } };
+        for (double[] c : circles) {
+            Engine engine = createEngine(circle(c[0], c[1], c[2], "km"), "row-based");
+            Assert.assertEquals(filteredRows(engine), bruteForceCircle(c[0], c[1], c[2] * 1000));
+        }
+    }
+
+    @Test
+    public void testUnitIsCaseInsensitive() throws Exception {
+        Engine engine = createEngine(circle(45.75, 4.85, 20, "KM"), "row-based");
+        Assert.assertEquals(filteredRows(engine), bruteForceCircle(45.75, 4.85, 20000));
+    }
+
+    @Test
+    public void testBox() throws Exception {
+        String box = "{\"type\":\"geo/area\",\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"shape\":\"box\","
+                + "\"minLat\":-30,\"maxLat\":30,\"minLng\":170,\"maxLng\":-170}";
+        List<Integer> rows = filteredRows(createEngine(box, "row-based"));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Double lat = (Double) project.rows.get(i).getCellValue(1);
+            Double lng = (Double) project.rows.get(i).getCellValue(2);
+            if (lat != null && lat >= -30 && lat <= 30 && (lng >= 170 || lng <= -170)) {
+                expected.add(i);
+            }
+        }
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(rows, expected);
+    }
+
+    @Test
+    public void testInvert() throws Exception {
+        String facet = circle(45.75, 4.85, 20000, "m").replace("}", ",\"invert\":true}");
+        List<Integer> rows = filteredRows(createEngine(facet, "row-based"));
+        Assert.assertEquals(rows.size() + bruteForceCircle(45.75, 4.85, 20000).size(), ROWS);
+    }
+
+    @Test
+    public void testRecordMode() throws Exception {
+        Engine engine = createEngine(circle(45.75, 4.85, 20, "km"), "record-based");
+        List<Integer> rows = filteredRows(engine);
+        Assert.assertEquals(rows, bruteForceCircle(45.75, 4.85, 20000));
+    }
+
+    @Test
+    public void testComputedCounts() throws Exception {
+        Engine engine = createEngine(circle(45.75, 4.85, 20, "km"), "row-based");
+        engine.computeFacets();
+        JsonNode json = ParsingUtilities.mapper.readTree(ParsingUtilities.mapper.writeValueAsString(engine));
+        JsonNode facet = json.get("facets").get(0);
+        Assert.assertEquals(facet.get("count").asInt(), bruteForceCircle(45.75, 4.85, 20000).size());
+        Assert.assertEquals(facet.get("blankCount").asInt(), ROWS / 1000);
+        Assert.assertNull(facet.get("error"));
+    }
+
+    @Test
+    public void testMissingColumn() throws Exception {
+        Engine engine = createEngine(circle(45.75, 4.85, 20, "km").replace("\"lat\",", "\"latitude\","), "row-based");
+        Assert.assertEquals(filteredRows(engine).size(), ROWS);
+        engine.computeFacets();
+        JsonNode json = ParsingUtilities.mapper.readTree(ParsingUtilities.mapper.writeValueAsString(engine));
+        Assert.assertEquals(json.get("facets").get(0).get("error").asText(), "No column named latitude");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCircle() throws Exception {
+        createEngine(circle(95, 4.85, 20, "km"), "row-based");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidUnit() throws Exception {
+        createEngine(circle(45, 4.85, 20, "ft"), "row-based");
+    }
+}
@@ -202,4 +202,13 @@ public class DecToGMSTest {
         Assert.assertTrue(((String) result).contains("40°"));
         Assert.assertTrue(((String) result).contains("N"));
     }
+
+    @Test
+    public void testSecondsRoundingUp() {
+        DecToGMS function = new DecToGMS();
+
+        // Seconds are rounded half-up to two decimals without carrying into the minutes
+        Object result = function.call(bindings, new Object[] { 40.99999999, "lat" });
+        Assert.assertEquals(result, "40° 59' 60.00\" N");
+    }
 }
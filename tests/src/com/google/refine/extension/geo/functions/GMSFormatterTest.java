@@ -0,0 +1,137 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class GMSFormatterTest {
+
+    private static Properties bindings = new Properties();
+
+    private static String reference(int degrees, int minutes, double seconds, String direction) {
+        return String.format(Locale.ROOT, "%d° %d' %.2f\"%s", degrees, minutes, seconds, direction);
+    }
+
+    // The conversion as it was implemented with String.format
+    private static String reference(double decimal, String coordType) {
+        boolean isNegative = decimal < 0;
+        double absDecimal = Math.abs(decimal);
+        int degrees = (int) absDecimal;
+        double minutesDecimal = (absDecimal - degrees) * 60;
+        int minutes = (int) minutesDecimal;
+        double seconds = (minutesDecimal - minutes) * 60;
+
+        String direction = "";
+        if ("lat".equals(coordType)) {
+            direction = isNegative ? " S" : " N";
+        } else if ("lng".equals(coordType)) {
+            direction = isNegative ? " W" : " E";
+        } else if (isNegative) {
+            direction = " (-)";
+        }
+        return reference(degrees, minutes, seconds, direction);
+    }
+
+    @Test
+    public void testRoundingEdgeCases() {
+        double[] seconds = { 0.0, 0.004, 0.005, 0.045, 0.125, 0.135, 1.005, 1.115, 2.675, 9.995, 10.0, 59.99, 59.994,
+                59.995, 59.996, 59.999999 };
+        for (double value : seconds) {
+            Assert.assertEquals(GMSFormatter.format(12, 34, value, " N"), reference(12, 34, value, " N"), "seconds " + value);
+        }
+        Assert.assertEquals(GMSFormatter.format(40, 59, 59.995, ""), "40° 59' 60.00\"");
+    }
+
+    @Test
+    public void testNearTies() {
+        // every x.xx5 value and its neighbouring doubles
+        for (int i = 0; i < 6000; i++) {
+            double tie = (i + 0.5) / 100.0;
+            double below = Math.nextDown(tie);
+            double above = Math.nextUp(tie);
+            for (double value : new double[] { Math.nextDown(below), below, tie, above, Math.nextUp(above) }) {
+                Assert.assertEquals(GMSFormatter.format(1, 2, value, ""), reference(1, 2, value, ""), "seconds " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testNonFiniteSeconds() {
+        Assert.assertEquals(GMSFormatter.format(0, 0, Double.NaN, ""), reference(0, 0, Double.NaN, ""));
+        Assert.assertEquals(GMSFormatter.format(0, 0, Double.POSITIVE_INFINITY, ""),
+                reference(0, 0, Double.POSITIVE_INFINITY, ""));
+    }
+
+    @Test
+    public void testLargeUntypedInputs() {
+        // without a coordinate type, any number is converted, and its seconds can be far larger than a double holds
+        // to the hundredth
+        Assert.assertEquals(DecToGMS.convertToGMS(1.5611362492167797E13, null), reference(1.5611362492167797E13, null));
+        Random random = new Random(1113L);
+        for (int i = 0; i < 100_000; i++) {
+            double decimal = Math.pow(10, 4 + random.nextDouble() * 10) * (i % 2 == 0 ? 1 : -1);
+            Assert.assertEquals(DecToGMS.convertToGMS(decimal, null), reference(decimal, null), "decimal " + decimal);
+        }
+        for (int i = 0; i < 6000; i++) {
+            // ties around the limit of the fixed-point path
+            double tie = Math.floor(random.nextDouble() * 1e8) / 100.0 + 0.005;
+            for (double value : new double[] { Math.nextDown(tie), tie, Math.nextUp(tie) }) {
+                Assert.assertEquals(GMSFormatter.format(1, 2, value, ""), reference(1, 2, value, ""), "seconds " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomizedEquivalence() {
+        DecToGMS function = new DecToGMS();
+        Random random = new Random(6570L);
+        String[] coordTypes = { null, "lat", "lng" };
+        for (int i = 0; i < 500_000; i++) {
+            String coordType = coordTypes[i % 3];
+            double range = "lat".equals(coordType) ? 90.0 : 180.0;
+            double decimal = (random.nextDouble() * 2 - 1) * range;
+            if (i % 5 == 0) {
+                // coordinates as they usually appear in data, with a handful of decimals
+                decimal = Math.round(decimal * 1e6) / 1e6;
+            }
+            Object[] args = coordType == null ? new Object[] { decimal } : new Object[] { decimal, coordType };
+            Assert.assertEquals(function.call(bindings, args), reference(decimal, coordType), "decimal " + decimal);
+        }
+    }
+}
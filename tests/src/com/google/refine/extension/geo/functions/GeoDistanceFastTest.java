@@ -0,0 +1,114 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+
+public class GeoDistanceFastTest {
+
+    private static Properties bindings = new Properties();
+
+    private final GeoDistanceFast function = new GeoDistanceFast();
+
+    @Test
+    public void testMatchesHaversineOnShortHops() {
+        Random random = new Random(41L);
+        for (int i = 0; i < 1_000_000; i++) {
+            double lat1 = random.nextDouble() * 180 - 90;
+            double lng1 = random.nextDouble() * 360 - 180;
+            double spread = Math.pow(10, -random.nextDouble() * 5) * 5;
+            double lat2 = Math.max(-90, Math.min(90, lat1 + (random.nextDouble() * 2 - 1) * spread));
+            double lng2 = lng1 + (random.nextDouble() * 2 - 1) * spread;
+            lng2 = lng2 > 180 ? lng2 - 360 : lng2 < -180 ? lng2 + 360 : lng2;
+
+            double exact = GeoDistance.haversineDistance(lat1, lng1, lat2, lng2);
+            double fast = GeoDistanceFast.fastDistance(lat1, lng1, lat2, lng2);
+            Assert.assertEquals(fast, exact, 1e-4, "(" + lat1 + ", " + lng1 + ") to (" + lat2 + ", " + lng2 + ")");
+            if (exact > 1000) {
+                Assert.assertEquals(fast, exact, exact * 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testLongDistancesAreExact() {
+        Assert.assertEquals(GeoDistanceFast.fastDistance(40.7128, -74.0060, 34.0522, -118.2437),
+                GeoDistance.haversineDistance(40.7128, -74.0060, 34.0522, -118.2437));
+        Assert.assertEquals(GeoDistanceFast.fastDistance(90, 0, -90, 0), GeoDistance.haversineDistance(90, 0, -90, 0));
+        // close to the pole, a wide longitude difference is a short distance but not a small angle
+        Assert.assertEquals(GeoDistanceFast.fastDistance(89.99, 0, 89.99, 170), GeoDistance.haversineDistance(89.99, 0, 89.99, 170));
+    }
+
+    @Test
+    public void testAntimeridian() {
+        double fast = GeoDistanceFast.fastDistance(10, 179.999, 10, -179.999);
+        Assert.assertEquals(fast, GeoDistance.haversineDistance(10, 179.999, 10, -179.999), 1e-6);
+        Assert.assertTrue(fast < 250);
+    }
+
+    @Test
+    public void testPrecomputedCosines() {
+        double cos = GeoDistanceFast.cosLatitude(48.8566);
+        Assert.assertEquals(cos, Math.cos(Math.toRadians(48.8566)), 1e-12);
+        Assert.assertEquals(GeoDistanceFast.fastDistance(48.8566, cos, 2.3522, 48.86, GeoDistanceFast.cosLatitude(48.86), 2.35),
+                GeoDistanceFast.fastDistance(48.8566, 2.3522, 48.86, 2.35));
+        for (int lat = -90; lat <= 90; lat++) {
+            Assert.assertEquals(GeoDistanceFast.cosLatitude(lat), Math.cos(Math.toRadians(lat)), 1e-12);
+        }
+    }
+
+    @Test
+    public void testCall() {
+        Object meters = function.call(bindings, new Object[] { 48.8566, 2.3522, 48.8606, 2.3376 });
+        Assert.assertEquals((Double) meters, GeoDistance.haversineDistance(48.8566, 2.3522, 48.8606, 2.3376), 1e-6);
+        Object kilometers = function.call(bindings, new Object[] { 48.8566, 2.3522, 48.8606, 2.3376, "km" });
+        Assert.assertEquals((Double) kilometers, (Double) meters / 1000, 1e-9);
+    }
+
+    @Test
+    public void testErrors() {
+        Object result = function.call(bindings, new Object[] { 48.8566, 2.3522, "48.8606", 2.3376 });
+        Assert.assertTrue(result instanceof EvalError);
+        Assert.assertEquals(((EvalError) result).message, "geoDistanceFast() third argument (lat2) must be a number");
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8566, 2.3522, 48.8606 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8566, 2.3522, 98.8606, 2.3376 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8566, 2.3522, 48.8606, 2.3376, "ft" }) instanceof EvalError);
+    }
+}
@@ -222,4 +222,48 @@ public class GeoDistanceTest {
         Assert.assertTrue(Math.abs(distanceM / 1000 - distanceKm) < 1);
         Assert.assertTrue(Math.abs(distanceM / 1609.344 - distanceMi) < 1);
     }
+
+    @Test
+    public void testRepeatedArgumentsGiveSameResults() {
+        GeoDistance function = new GeoDistance();
+        String unit = "KM";
+        String model = "wgs84";
+
+        // the same unit and model objects on every call, as a literal of an expression passes them
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, unit }),
+                    new GeoDistance().call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, "km" }));
+            Assert.assertEquals(function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -73.0, unit, model }),
+                    new GeoDistance().call(bindings, new Object[] { 40.0, -74.0, 41.0, -73.0, "km", "wgs84" }));
+        }
+        Assert.assertEquals(function.call(bindings, new Object[] { 40, -74, 41, -74, unit }),
+                new GeoDistance().call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, "km" }));
+        Object nan = function.call(bindings, new Object[] { Double.NaN, -74.0, 41.0, -74.0, unit });
+        Assert.assertTrue(nan instanceof Double && ((Double) nan).isNaN());
+    }
+
+    @Test
+    public void testErrorsAfterValidCall() {
+        GeoDistance function = new GeoDistance();
+        String unit = "mi";
+        Assert.assertTrue(function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, unit }) instanceof Number);
+
+        // a previous valid call changes none of the errors
+        Object result = function.call(bindings, new Object[] { 91.0, -74.0, 41.0, -74.0, unit });
+        Assert.assertEquals(((EvalError) result).message, "lat1 must be between -90 and 90 degrees");
+        result = function.call(bindings, new Object[] { 40.0, -74.0, 41.0, 181.0, unit });
+        Assert.assertEquals(((EvalError) result).message, "lng2 must be between -180 and 180 degrees");
+        result = function.call(bindings, new Object[] { "40", -74.0, 41.0, -74.0, unit });
+        Assert.assertTrue(result instanceof EvalError);
+        result = function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, null });
+        Assert.assertEquals(((EvalError) result).message, "geoDistance() fifth argument (unit) must be a string");
+        result = function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, unit, "flat" });
+        Assert.assertEquals(((EvalError) result).message, "geoDistance() model must be 'sphere' or 'wgs84'");
+        result = function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, "yards" });
+        Assert.assertTrue(result instanceof EvalError);
+
+        // and the unit of a call without one is still meters
+        Assert.assertEquals(function.call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0 }),
+                new GeoDistance().call(bindings, new Object[] { 40.0, -74.0, 41.0, -74.0, "m" }));
+    }
 }
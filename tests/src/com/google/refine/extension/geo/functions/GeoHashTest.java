@@ -0,0 +1,163 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.functions.GeoHashDecode.DecodedCell;
+
+public class GeoHashTest {
+
+    private static Properties bindings = new Properties();
+
+    private final GeoHash geoHash = new GeoHash();
+    private final GeoHashDecode geoHashDecode = new GeoHashDecode();
+
+    /**
+     * Textbook encoding, by bisection and one character at a time.
+     */
+    private static String referenceEncode(double lat, double lng, int precision) {
+        String alphabet = "0123456789bcdefghjkmnpqrstuvwxyz";
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder();
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(alphabet.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    @Test
+    public void testKnownHashes() {
+        Assert.assertEquals(geoHash.call(bindings, new Object[] { 57.64911, 10.40744, 11 }), "u4pruydqqvj");
+        Assert.assertEquals(geoHash.call(bindings, new Object[] { 42.6, -5.6, 5 }), "ezs42");
+        Assert.assertEquals(geoHash.call(bindings, new Object[] { 0.0, 0.0, 4 }), "s000");
+        Assert.assertEquals(geoHash.call(bindings, new Object[] { -90.0, -180.0 }), "000000000000");
+        Assert.assertEquals(geoHash.call(bindings, new Object[] { 90.0, 180.0 }), "zzzzzzzzzzzz");
+    }
+
+    @Test
+    public void testMatchesBisection() {
+        Random random = new Random(21L);
+        for (int i = 0; i < 200000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            if (i % 4 == 0) {
+                // values on or next to cell boundaries
+                lat = Math.nextAfter(Math.round(lat * 64) / 64.0, random.nextBoolean() ? 100 : -100);
+                lng = random.nextBoolean() ? Math.round(lng * 64) / 64.0 : lng;
+            }
+            int precision = 1 + random.nextInt(GeoHash.MAX_PRECISION);
+            Assert.assertEquals(GeoHash.encode(lat, lng, precision), referenceEncode(lat, lng, precision),
+                    "(" + lat + ", " + lng + ") at precision " + precision);
+        }
+    }
+
+    @Test
+    public void testDecode() {
+        DecodedCell cell = (DecodedCell) geoHashDecode.call(bindings, new Object[] { "ezs42" });
+        Assert.assertEquals(cell.lat, 42.60498046875);
+        Assert.assertEquals(cell.lng, -5.60302734375);
+        Assert.assertEquals(cell.latError, 0.02197265625);
+        Assert.assertEquals(cell.lngError, 0.02197265625);
+        Assert.assertEquals(cell.getField("lat", bindings), 42.60498046875);
+
+        DecodedCell upperCase = (DecodedCell) geoHashDecode.call(bindings, new Object[] { "EZS42" });
+        Assert.assertEquals(upperCase.lat, cell.lat);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(23L);
+        for (int i = 0; i < 10000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            int precision = 1 + random.nextInt(GeoHash.MAX_PRECISION);
+            String hash = GeoHash.encode(lat, lng, precision);
+            DecodedCell cell = (DecodedCell) geoHashDecode.call(bindings, new Object[] { hash });
+            Assert.assertTrue(Math.abs(cell.lat - lat) <= cell.latError);
+            Assert.assertTrue(Math.abs(cell.lng - lng) <= cell.lngError);
+            Assert.assertEquals(GeoHash.encode(cell.lat, cell.lng, precision), hash);
+        }
+    }
+
+    @Test
+    public void testErrors() {
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 10.0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { "10", 10.0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 91.0, 10.0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 10.0, -181.0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { Double.NaN, 10.0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 10.0, 10.0, 0 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 10.0, 10.0, 13 }) instanceof EvalError);
+        Assert.assertTrue(geoHash.call(bindings, new Object[] { 10.0, 10.0, 2.5 }) instanceof EvalError);
+
+        Assert.assertTrue(geoHashDecode.call(bindings, new Object[] {}) instanceof EvalError);
+        Assert.assertTrue(geoHashDecode.call(bindings, new Object[] { 12 }) instanceof EvalError);
+        Assert.assertTrue(geoHashDecode.call(bindings, new Object[] { "" }) instanceof EvalError);
+        Assert.assertTrue(geoHashDecode.call(bindings, new Object[] { "ezs4a" }) instanceof EvalError);
+        Assert.assertTrue(geoHashDecode.call(bindings, new Object[] { "ezs42ezs42ezs" }) instanceof EvalError);
+    }
+}
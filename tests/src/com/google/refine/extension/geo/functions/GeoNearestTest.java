@@ -0,0 +1,154 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoNearest.NearestMatch;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.model.Project;
+import com.google.refine.util.GetProjectIDException;
+
+public class GeoNearestTest {
+
+    private static final int STORES = 2000;
+
+    private final GeoNearest function = new GeoNearest();
+    private Properties bindings;
+    private Project stores;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        SpatialIndexCache.clear();
+        Random random = new Random(7L);
+        Serializable[][] rows = new Serializable[STORES][];
+        for (int i = 0; i < STORES; i++) {
+            rows[i] = new Serializable[] { "store " + i, random.nextDouble() * 20 + 40, random.nextDouble() * 30 - 10 };
+        }
+        // a row without coordinates, which must never be returned
+        rows[5] = new Serializable[] { "closed", null, null };
+        stores = GeoTestUtils.createProject(new String[] { "name", "lat", "lng" }, rows);
+        when(ProjectManager.singleton.getProjectID("Stores")).thenReturn(stores.id);
+        when(ProjectManager.singleton.getProjectID("Missing")).thenThrow(new GetProjectIDException("No project named Missing"));
+
+        bindings = new Properties();
+        bindings.put("project", GeoTestUtils.createProject(new String[] { "lat", "lng" }, new Serializable[0][]));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(11L);
+        for (int i = 0; i < 200; i++) {
+            double lat = random.nextDouble() * 30 + 35;
+            double lng = random.nextDouble() * 40 - 15;
+            Object result = function.call(bindings, new Object[] { lat, lng, "Stores", "lat", "lng", "name" });
+            Assert.assertTrue(result instanceof NearestMatch);
+            NearestMatch match = (NearestMatch) result;
+
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int row = 0; row < STORES; row++) {
+                Object storeLat = stores.rows.get(row).getCellValue(1);
+                if (storeLat == null) {
+                    continue;
+                }
+                double distance = GeoDistance.haversineDistance(lat, lng, (Double) storeLat,
+                        (Double) stores.rows.get(row).getCellValue(2));
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = row;
+                }
+            }
+            Assert.assertEquals(match.row, best);
+            Assert.assertEquals(match.key, "store " + best);
+            Assert.assertEquals(match.distance, bestDistance, 1e-6);
+            Assert.assertEquals(match.getField("distance", bindings), match.distance);
+        }
+    }
+
+    @Test
+    public void testKeyDefaultsToRowIndex() {
+        double lat = (Double) stores.rows.get(42).getCellValue(1);
+        double lng = (Double) stores.rows.get(42).getCellValue(2);
+        NearestMatch match = (NearestMatch) function.call(bindings, new Object[] { lat, lng, "Stores", "lat", "lng" });
+        Assert.assertEquals(match.getField("key", bindings), 42);
+        Assert.assertEquals(match.getField("row", bindings), 42);
+        Assert.assertEquals(match.distance, 0.0);
+    }
+
+    @Test
+    public void testIndexIsReused() throws Exception {
+        function.call(bindings, new Object[] { 50.0, 5.0, "Stores", "lat", "lng" });
+        Object index = SpatialIndexCache.get(stores, "lat", "lng");
+        function.call(bindings, new Object[] { 45.0, 0.0, "Stores", "lat", "lng" });
+        Assert.assertSame(SpatialIndexCache.get(stores, "lat", "lng"), index);
+    }
+
+    @Test
+    public void testCurrentProject() {
+        bindings.put("project", stores);
+        Object result = function.call(bindings, new Object[] { 50.0, 5.0, "", "lat", "lng" });
+        Assert.assertTrue(result instanceof NearestMatch);
+    }
+
+    @Test
+    public void testEmptyReference() {
+        Object result = function.call(bindings, new Object[] { 50.0, 5.0, "", "lat", "lng" });
+        Assert.assertNull(result);
+    }
+
+    @Test
+    public void testErrors() {
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 5.0, "Stores", "lat" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "50", 5.0, "Stores", "lat", "lng" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 5.0, "Stores", "lat", 3 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 95.0, 5.0, "Stores", "lat", "lng" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 185.0, "Stores", "lat", "lng" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 5.0, "Missing", "lat", "lng" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 5.0, "Stores", "latitude", "lng" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 50.0, 5.0, "Stores", "lat", "lng", "id" }) instanceof EvalError);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.index.RegionIndexCache;
+import com.google.refine.model.Project;
+import com.google.refine.util.GetProjectIDException;
+
+public class GeoRegionTest {
+
+    private static final int SIDE = 20;
+
+    private final GeoRegion function = new GeoRegion();
+    private Properties bindings;
+    private Project regions;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        RegionIndexCache.clear();
+        // a grid of one degree squares from 0 to 20 degrees, with a few cells which are not polygons
+        Serializable[][] rows = new Serializable[SIDE * SIDE][];
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                String wkt = String.format("POLYGON ((%d %d, %d %d, %d %d, %d %d, %d %d))",
+                        j, i, j + 1, i, j + 1, i + 1, j, i + 1, j, i);
+                rows[i * SIDE + j] = new Serializable[] { "cell " + i + "/" + j, wkt };
+            }
+        }
+        rows[3] = new Serializable[] { "missing", null };
+        rows[4] = new Serializable[] { "broken", "POLYGON ((" };
+        regions = GeoTestUtils.createProject(new String[] { "name", "geometry" }, rows);
+        when(ProjectManager.singleton.getProjectID("Regions")).thenReturn(regions.id);
+        when(ProjectManager.singleton.getProjectID("Missing")).thenThrow(new GetProjectIDException("No project named Missing"));
+
+        bindings = new Properties();
+        bindings.put("project", GeoTestUtils.createProject(new String[] { "lat", "lng" }, new Serializable[0][]));
+    }
+
+    @Test
+    public void testFindsRegion() {
+        Random random = new Random(23L);
+        for (int k = 0; k < 1000; k++) {
+            double lat = random.nextDouble() * SIDE;
+            double lng = random.nextDouble() * SIDE;
+            int i = (int) lat;
+            int j = (int) lng;
+            Object expected = i == 0 && (j == 3 || j == 4) ? null : "cell " + i + "/" + j;
+            Assert.assertEquals(function.call(bindings, new Object[] { lat, lng, "Regions", "geometry", "name" }), expected);
+        }
+    }
+
+    @Test
+    public void testKeyDefaultsToRowIndex() {
+        Assert.assertEquals(function.call(bindings, new Object[] { 2.5, 7.5, "Regions", "geometry" }), 2 * SIDE + 7);
+        Assert.assertNull(function.call(bindings, new Object[] { 25.0, 7.5, "Regions", "geometry" }));
+        Assert.assertNull(function.call(bindings, new Object[] { -2.5, 7.5, "Regions", "geometry" }));
+    }
+
+    @Test
+    public void testIndexIsReused() throws Exception {
+        function.call(bindings, new Object[] { 2.5, 7.5, "Regions", "geometry" });
+        Object index = RegionIndexCache.get(regions, "geometry");
+        function.call(bindings, new Object[] { 5.5, 1.5, "Regions", "geometry" });
+        Assert.assertSame(RegionIndexCache.get(regions, "geometry"), index);
+    }
+
+    @Test
+    public void testCurrentProject() {
+        bindings.put("project", regions);
+        Assert.assertEquals(function.call(bindings, new Object[] { 2.5, 7.5, "", "geometry", "name" }), "cell 2/7");
+    }
+
+    @Test
+    public void testErrors() {
+        Assert.assertTrue(function.call(bindings, new Object[] { 2.5, 7.5, "Regions" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "2.5", 7.5, "Regions", "geometry" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 2.5, 7.5, "Regions", 3 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 95.0, 7.5, "Regions", "geometry" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 2.5, 7.5, "Missing", "geometry" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 2.5, 7.5, "Regions", "shape" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 2.5, 7.5, "Regions", "geometry", "id" }) instanceof EvalError);
+    }
+}
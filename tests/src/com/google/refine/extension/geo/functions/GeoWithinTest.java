@@ -0,0 +1,95 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+
+public class GeoWithinTest {
+
+    private static final String SQUARE = "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (4 4, 6 4, 6 6, 4 6, 4 4))";
+
+    private final GeoWithin function = new GeoWithin();
+    private final Properties bindings = new Properties();
+
+    @Test
+    public void testWkt() {
+        Assert.assertEquals(function.call(bindings, new Object[] { 1.0, 1.0, SQUARE }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 5.0, 5.0, SQUARE }), false);
+        Assert.assertEquals(function.call(bindings, new Object[] { 5.0, 15.0, SQUARE }), false);
+        // latitude first in arguments, longitude first in the polygon
+        Assert.assertEquals(function.call(bindings, new Object[] { 2, 8, "POLYGON ((7 1, 9 1, 9 3, 7 3, 7 1))" }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 8, 2, "POLYGON ((7 1, 9 1, 9 3, 7 3, 7 1))" }), false);
+    }
+
+    @Test
+    public void testMultiPolygon() {
+        String wkt = "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((20 20, 21 20, 21 21, 20 21, 20 20)))";
+        Assert.assertEquals(function.call(bindings, new Object[] { 0.5, 0.5, wkt }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 20.5, 20.5, wkt }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 10.0, 10.0, wkt }), false);
+    }
+
+    @Test
+    public void testGeoJson() {
+        String geometry = "{\"type\":\"Polygon\",\"coordinates\":[[[2.2,48.8],[2.5,48.8],[2.5,48.9],[2.2,48.9],[2.2,48.8]]]}";
+        String feature = "{\"type\":\"Feature\",\"properties\":{\"name\":\"Paris\"},\"geometry\":" + geometry + "}";
+        Assert.assertEquals(function.call(bindings, new Object[] { 48.85, 2.35, geometry }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 48.85, 2.35, feature }), true);
+        Assert.assertEquals(function.call(bindings, new Object[] { 45.76, 4.83, feature }), false);
+    }
+
+    @Test
+    public void testPolygonIsPreparedOnce() {
+        Assert.assertSame(GeoWithin.prepare(SQUARE), GeoWithin.prepare(SQUARE));
+    }
+
+    @Test
+    public void testErrors() {
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "1", 1.0, SQUARE }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0, 3 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 95.0, 1.0, SQUARE }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 185.0, SQUARE }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0, "POINT (1 1)" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0, "POLYGON ((0 0, 1 0" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0, "{\"type\":\"Point\"}" }) instanceof EvalError);
+        // errors are cached as well
+        Assert.assertTrue(function.call(bindings, new Object[] { 1.0, 1.0, "POINT (1 1)" }) instanceof EvalError);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+
+public class GmsToDecTest {
+
+    private static Properties bindings = new Properties();
+
+    // half a hundredth of a second, the precision of decToGMS()
+    private static final double PRECISION = 0.005 / 3600 + 1e-12;
+
+    private static double parse(String gms, String coordType) {
+        return GmsToDec.convertToDec(gms, coordType);
+    }
+
+    @Test
+    public void testFormats() {
+        double expected = 40 + 42 / 60.0 + 46.08 / 3600;
+        Assert.assertEquals(parse("40° 42' 46.08\" N", null), expected, 1e-12);
+        Assert.assertEquals(parse("40°42'46.08\"N", null), expected, 1e-12);
+        Assert.assertEquals(parse("40 42 46.08 N", null), expected, 1e-12);
+        Assert.assertEquals(parse("40:42:46.08", null), expected, 1e-12);
+        Assert.assertEquals(parse("N40:42:46.08", null), expected, 1e-12);
+        Assert.assertEquals(parse("n 40º 42′ 46.08″", null), expected, 1e-12);
+        Assert.assertEquals(parse("40° 42' 46.08''", null), expected, 1e-12);
+        Assert.assertEquals(parse("  +40 42 46.08  ", null), expected, 1e-12);
+        Assert.assertEquals(parse("40° 42.768'", null), 40 + 42.768 / 60, 1e-12);
+        Assert.assertEquals(parse("40.7128", null), 40.7128, 0.0);
+        Assert.assertEquals(parse("40", null), 40.0, 0.0);
+    }
+
+    @Test
+    public void testHemispheres() {
+        Assert.assertEquals(parse("33° 52' 7.68\" S", null), -(33 + 52 / 60.0 + 7.68 / 3600), 1e-12);
+        Assert.assertEquals(parse("W74 0 21.6", null), -(74 + 21.6 / 3600), 1e-12);
+        Assert.assertEquals(parse("74° 0' 21.60\" (-)", null), -(74 + 21.6 / 3600), 1e-12);
+        Assert.assertEquals(parse("-0 30", null), -0.5, 0.0);
+        Assert.assertEquals(parse("151° 12' 33.48\" E", "lng"), 151 + 12 / 60.0 + 33.48 / 3600, 1e-12);
+    }
+
+    @Test
+    public void testInvalidInputs() {
+        String[] invalid = { "", "   ", "N", "abc", "40.5 30", "40 30.5 20", "40 60 0", "40 0 60.5", "40 0 0 0",
+                "40° 42\" 46'", "42' 46\"", "N 40 S", "-40 N", "40 (-) N", "40 42 46 X", "1.2.3", ".", "40°42'46\"N!",
+                "12345678901234567890" };
+        for (String gms : invalid) {
+            Assert.assertTrue(Double.isNaN(parse(gms, null)), gms);
+        }
+    }
+
+    @Test
+    public void testCoordTypeAndRange() {
+        Assert.assertTrue(Double.isNaN(parse("40 0 0 E", "lat")));
+        Assert.assertTrue(Double.isNaN(parse("40 0 0 N", "lng")));
+        Assert.assertTrue(Double.isNaN(parse("90 0 1 N", null)));
+        Assert.assertTrue(Double.isNaN(parse("91", "lat")));
+        Assert.assertTrue(Double.isNaN(parse("180 0 1 W", null)));
+        Assert.assertEquals(parse("90 0 0 S", "lat"), -90.0, 0.0);
+        Assert.assertEquals(parse("180° 0' 0.00\" W", "lng"), -180.0, 0.0);
+        // without an axis, values are not range checked, as with decToGMS()
+        Assert.assertEquals(parse("200", null), 200.0, 0.0);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(14);
+        for (int i = 0; i < 100_000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            Assert.assertEquals(parse(DecToGMS.convertToGMS(lat, "lat"), "lat"), lat, PRECISION);
+            Assert.assertEquals(parse(DecToGMS.convertToGMS(lng, "lng"), "lng"), lng, PRECISION);
+            Assert.assertEquals(parse(DecToGMS.convertToGMS(lng, null), null), lng, PRECISION);
+        }
+        // seconds rounded up to 60 by decToGMS()
+        Assert.assertEquals(parse("40° 59' 60.00\"", null), 41.0, 1e-12);
+    }
+
+    @Test
+    public void testFunction() {
+        GmsToDec function = new GmsToDec();
+
+        Assert.assertEquals((double) function.call(bindings, new Object[] { "40° 42' 46.08\" N" }), 40.7128, 1e-12);
+        Assert.assertEquals((double) function.call(bindings, new Object[] { "74° 0' 21.60\" W", "lon" }), -74.006, 1e-12);
+        Assert.assertTrue(function.call(bindings, new Object[] {}) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 40.7128 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "40 42 46", "north" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "40 42 46 E", "lat" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "not a coordinate" }) instanceof EvalError);
+    }
+}
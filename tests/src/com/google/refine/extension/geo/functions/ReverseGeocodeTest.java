@@ -0,0 +1,104 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.functions.ReverseGeocode.Place;
+import com.google.refine.extension.geo.index.Gazetteer;
+
+public class ReverseGeocodeTest {
+
+    private static final String PLACES = "2988507\tParis\tParis\t\t48.85341\t2.3488\tP\tPPLC\tFR\t\t11\t75\t751\t75056\t2138551\t\t42\tEurope/Paris\t2024-01-01\n"
+            + "2995469\tMarseille\tMarseille\t\t43.29695\t5.38107\tP\tPPLA\tFR\t\t93\t13\t133\t13055\t870731\t\t28\tEurope/Paris\t2024-01-01\n"
+            + "2950159\tBerlin\tBerlin\t\t52.52437\t13.41053\tP\tPPLC\tDE\t\t16\t00\t11000\t11000000\t3426354\t74\t43\tEurope/Berlin\t2024-01-01\n";
+
+    private final ReverseGeocode function = new ReverseGeocode();
+    private final Properties bindings = new Properties();
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        File dir = Files.createTempDirectory("gazetteer").toFile();
+        Files.write(new File(dir, "cities.txt").toPath(), PLACES.getBytes(StandardCharsets.UTF_8));
+        Gazetteer.configure(dir);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        Gazetteer.configure(null);
+    }
+
+    @Test
+    public void testNearestPlace() {
+        Object result = function.call(bindings, new Object[] { 48.8, 2.5 });
+        Assert.assertTrue(result instanceof Place);
+        Place place = (Place) result;
+        Assert.assertEquals(place.getField("name", bindings), "Paris");
+        Assert.assertEquals(place.getField("id", bindings), 2988507L);
+        Assert.assertEquals(place.getField("countryCode", bindings), "FR");
+        Assert.assertEquals(place.getField("admin1Code", bindings), "11");
+        Assert.assertEquals(place.getField("featureCode", bindings), "PPLC");
+        Assert.assertEquals(place.getField("population", bindings), 2138551L);
+        Assert.assertEquals(place.distance, GeoDistance.haversineDistance(48.8, 2.5, 48.85341, 2.3488), 1e-6);
+
+        Assert.assertEquals(((Place) function.call(bindings, new Object[] { 51, 12 })).name, "Berlin");
+    }
+
+    @Test
+    public void testMaxDistance() {
+        Assert.assertEquals(((Place) function.call(bindings, new Object[] { 43.3, 5.4, 5000 })).name, "Marseille");
+        Assert.assertNull(function.call(bindings, new Object[] { 40.0, -3.7, 100000 }));
+    }
+
+    @Test
+    public void testErrors() {
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { "48.8", 2.5 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 95.0, 2.5 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8, 185.0 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8, 2.5, -1 }) instanceof EvalError);
+        Gazetteer.configure(null);
+        Assert.assertTrue(function.call(bindings, new Object[] { 48.8, 2.5 }) instanceof EvalError);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.functions;
+
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+
+public class Wgs84GeodesicTest {
+
+    private static Properties bindings = new Properties();
+
+    private static double dms(int degrees, int minutes, double seconds) {
+        double value = Math.abs(degrees) + minutes / 60.0 + seconds / 3600.0;
+        return degrees < 0 ? -value : value;
+    }
+
+    @Test
+    public void testKnownGeodesics() {
+        // Flinders Peak to Buninyong, the example of Vincenty's paper, which both solutions agree on
+        Assert.assertEquals(Wgs84Geodesic.solve(dms(-37, 57, 3.72030), dms(144, 25, 29.52440),
+                dms(-37, 39, 10.15610), dms(143, 55, 35.38390)), 54972.271, 0.001);
+        // one degree along the equator and along a meridian
+        Assert.assertEquals(Wgs84Geodesic.solve(0, 0, 0, 1), Wgs84Geodesic.SEMI_MAJOR_AXIS * Math.PI / 180, 1e-6);
+        Assert.assertEquals(Wgs84Geodesic.solve(0, 0, 1, 0), 110574.389, 0.001);
+        // pole to pole is twice the quarter meridian
+        Assert.assertEquals(Wgs84Geodesic.solve(90, 0, -90, 0), 20003931.459, 0.001);
+        Assert.assertEquals(Wgs84Geodesic.solve(10, 20, 10, 20), 0.0);
+        // across the antimeridian
+        Assert.assertEquals(Wgs84Geodesic.solve(0, 179.5, 0, -179.5), Wgs84Geodesic.SEMI_MAJOR_AXIS * Math.PI / 180, 1e-6);
+    }
+
+    @Test
+    public void testAntipodalPoints() {
+        // the shortest path between antipodes on the equator goes over the poles
+        Assert.assertEquals(Wgs84Geodesic.solve(0, 0, 0, 180), 20003931.459, 0.001);
+        // nearly antipodal points, where Vincenty's formula does not converge, are solved on the ellipsoid too
+        double nearlyAntipodal = Wgs84Geodesic.solve(0, 0, 0.5, 179.7);
+        Assert.assertEquals(Wgs84Geodesic.solve(0.5, 179.7, 0, 0), nearlyAntipodal, 1e-6);
+        Assert.assertTrue(nearlyAntipodal < 20003931.459);
+        Assert.assertTrue(nearlyAntipodal > Wgs84Geodesic.solve(0, 0, 0, 179.0));
+    }
+
+    @Test
+    public void testCounters() {
+        long pairs = Wgs84Geodesic.getPairs();
+        long repeated = Wgs84Geodesic.getRepeated();
+
+        double first = Wgs84Geodesic.distance(40.7128, -74.0060, 34.0522, -118.2437);
+        Assert.assertEquals(Wgs84Geodesic.distance(40.7128, -74.0060, 34.0522, -118.2437), first);
+        Assert.assertEquals(Wgs84Geodesic.getPairs() - pairs, 2);
+        Assert.assertEquals(Wgs84Geodesic.getRepeated() - repeated, 1);
+    }
+
+    @Test
+    public void testModelArgument() {
+        GeoDistance function = new GeoDistance();
+
+        double sphere = (Double) function.call(bindings, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "km", "sphere" });
+        Assert.assertEquals(sphere, (Double) function.call(bindings, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "km" }));
+        double ellipsoid = (Double) function.call(bindings, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "km", "WGS84" });
+        Assert.assertEquals(ellipsoid, Wgs84Geodesic.solve(40.7128, -74.0060, 34.0522, -118.2437) / 1000);
+        Assert.assertNotEquals(ellipsoid, sphere);
+        Assert.assertEquals(ellipsoid, sphere, sphere * 0.005);
+
+        Assert.assertTrue(function.call(bindings, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "km", "clarke" }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "km", 1 }) instanceof EvalError);
+        Assert.assertTrue(function.call(bindings, new Object[] { 95.0, -74.0060, 34.0522, -118.2437, "km", "wgs84" }) instanceof EvalError);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.ProjectMetadata;
+import com.google.refine.importing.ImportingJob;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+public class GeoJsonImporterTest {
+
+    private static final String COLLECTION = "{\"type\": \"FeatureCollection\", \"name\": \"places\", \"features\": ["
+            + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [2.35, 48.85]},"
+            + " \"properties\": {\"name\": \"Paris\", \"population\": 2100000, \"capital\": true}},"
+            + "{\"type\": \"Feature\", \"geometry\": null, \"properties\": {\"name\": \"Nowhere\", \"tags\": [\"a\", \"b\"]}},"
+            + "{\"type\": \"Feature\", \"properties\": {\"name\": \"Square\", \"area\": 1.5, \"lat\": \"attribute\"},"
+            + " \"geometry\": {\"type\": \"Polygon\", \"coordinates\": [[[0, 0], [0, 10], [10, 10], [10, 0], [0, 0]],"
+            + " [[2, 2], [4, 2], [4, 4], [2, 2]]]}}]}";
+
+    private final ProjectMetadata metadata = new ProjectMetadata();
+    private final ImportingJob job = mock(ImportingJob.class);
+
+    private Project parse(String json, String geometry, int limit, List<Exception> exceptions) {
+        Project project = new Project();
+        ObjectNode options = ParsingUtilities.mapper.createObjectNode();
+        options.put("geometry", geometry);
+        new GeoJsonImporter().parseOneFile(project, metadata, job, "places.geojson",
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), limit, options, exceptions);
+        return project;
+    }
+
+    private static List<String> names(Project project) {
+        return project.columnModel.columns.stream().map(Column::getName).collect(Collectors.toList());
+    }
+
+    private static Object value(Project project, int row, String column) {
+        return project.rows.get(row).getCellValue(project.columnModel.getColumnByName(column).getCellIndex());
+    }
+
+    @Test
+    public void testFeatureCollectionAsPoints() {
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(COLLECTION, "latlng", -1, exceptions);
+
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(names(project),
+                List.of("lat", "lng", "name", "population", "capital", "tags", "area", "lat 2"));
+        Assert.assertEquals(project.rows.size(), 3);
+        Assert.assertEquals(value(project, 0, "lat"), 48.85);
+        Assert.assertEquals(value(project, 0, "lng"), 2.35);
+        Assert.assertEquals(value(project, 0, "population"), 2100000L);
+        Assert.assertEquals(value(project, 0, "capital"), true);
+        Assert.assertNull(value(project, 1, "lat"));
+        Assert.assertEquals(value(project, 1, "tags"), "[\"a\",\"b\"]");
+        // centre of the bounding box of the polygon
+        Assert.assertEquals(value(project, 2, "lat"), 5.0);
+        Assert.assertEquals(value(project, 2, "lng"), 5.0);
+        Assert.assertEquals(value(project, 2, "lat 2"), "attribute");
+    }
+
+    @Test
+    public void testFeatureCollectionAsWkt() {
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(COLLECTION, "wkt", -1, exceptions);
+
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(names(project).get(0), "geometry");
+        Assert.assertEquals(value(project, 0, "geometry"), "POINT (2.35 48.85)");
+        Assert.assertNull(value(project, 1, "geometry"));
+        Assert.assertEquals(value(project, 2, "geometry"),
+                "POLYGON ((0.0 0.0, 0.0 10.0, 10.0 10.0, 10.0 0.0, 0.0 0.0), (2.0 2.0, 4.0 2.0, 4.0 4.0, 2.0 2.0))");
+    }
+
+    @Test
+    public void testGeometryTypesAsWkt() throws Exception {
+        String[][] cases = {
+                { "{\"type\": \"MultiPoint\", \"coordinates\": [[1, 2], [3, 4.5, 100]]}", "MULTIPOINT ((1.0 2.0), (3.0 4.5))" },
+                { "{\"type\": \"LineString\", \"coordinates\": [[1, 2], [3, 4]]}", "LINESTRING (1.0 2.0, 3.0 4.0)" },
+                { "{\"type\": \"MultiLineString\", \"coordinates\": [[[1, 2], [3, 4]], [[5, 6], [7, 8]]]}",
+                        "MULTILINESTRING ((1.0 2.0, 3.0 4.0), (5.0 6.0, 7.0 8.0))" },
+                { "{\"type\": \"MultiPolygon\", \"coordinates\": [[[[0, 0], [1, 0], [1, 1], [0, 0]]]]}",
+                        "MULTIPOLYGON (((0.0 0.0, 1.0 0.0, 1.0 1.0, 0.0 0.0)))" },
+                { "{\"type\": \"GeometryCollection\", \"geometries\": [{\"type\": \"Point\", \"coordinates\": [1, 2]},"
+                        + " {\"type\": \"Point\", \"coordinates\": []}]}", "GEOMETRYCOLLECTION (POINT (1.0 2.0), POINT EMPTY)" },
+                { "{\"type\": \"Point\", \"coordinates\": [0.00001, 2]}", "POINT (0.000010 2.0)" },
+                { "{\"type\": \"Point\", \"coordinates\": [\"a\", 2]}", null },
+                { "{\"type\": \"Circle\", \"coordinates\": [1, 2]}", null } };
+        for (String[] c : cases) {
+            StringBuilder builder = new StringBuilder();
+            boolean valid = GeoJsonImporter.appendWkt(builder, ParsingUtilities.mapper.readTree(c[0]));
+            Assert.assertEquals(valid ? builder.toString() : null, c[1], c[0]);
+        }
+    }
+
+    @Test
+    public void testSingleFeaturesAndLimit() {
+        String lines = "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [1, 2]}, \"properties\": {\"n\": 1}}\n"
+                + "{\"properties\": {\"n\": 2}, \"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [3, 4]}}\n"
+                + "{\"type\": \"Feature\", \"geometry\": null, \"properties\": {\"n\": 3}}\n";
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(lines, "latlng", -1, exceptions);
+
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(project.rows.size(), 3);
+        Assert.assertEquals(value(project, 1, "lat"), 4.0);
+        Assert.assertEquals(value(project, 2, "n"), 3L);
+
+        Assert.assertEquals(parse(COLLECTION, "latlng", 2, exceptions).rows.size(), 2);
+        Assert.assertEquals(parse("[" + lines.replace("}\n{", "},{") + "]", "latlng", -1, exceptions).rows.size(), 3);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        List<Exception> exceptions = new ArrayList<>();
+        parse("{\"type\": \"FeatureCollection\", \"features\": [{\"type\": \"Feature\"", "latlng", -1, exceptions);
+        Assert.assertEquals(exceptions.size(), 1);
+
+        exceptions.clear();
+        parse(COLLECTION, "geohash", -1, exceptions);
+        Assert.assertEquals(exceptions.size(), 1);
+    }
+}
@@ -0,0 +1,300 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.importers;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.importing.ImportingJob;
+import com.google.refine.model.Column;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+public class ShapefileImporterTest {
+
+    private final ImportingJob job = mock(ImportingJob.class);
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("shapefile").toFile();
+        dir.deleteOnExit();
+    }
+
+    private File write(String name, byte[] bytes) throws IOException {
+        File file = new File(dir, name);
+        Files.write(file.toPath(), bytes);
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Builds a .shp file from the contents of its records, given in little endian.
+     */
+    private static byte[] shp(int shapeType, ByteBuffer... records) {
+        int length = 100;
+        for (ByteBuffer record : records) {
+            length += 8 + record.limit();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.order(ByteOrder.BIG_ENDIAN).putInt(9994).putInt(0).putInt(0).putInt(0).putInt(0).putInt(0).putInt(length / 2);
+        buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(1000).putInt(shapeType);
+        buffer.position(100);
+        for (int i = 0; i < records.length; i++) {
+            buffer.order(ByteOrder.BIG_ENDIAN).putInt(i + 1).putInt(records[i].limit() / 2);
+            buffer.put(records[i].array(), 0, records[i].limit());
+        }
+        return buffer.array();
+    }
+
+    private static ByteBuffer record(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer point(double x, double y) {
+        ByteBuffer record = record(20).putInt(1).putDouble(x).putDouble(y);
+        record.flip();
+        return record;
+    }
+
+    private static ByteBuffer nullShape() {
+        ByteBuffer record = record(4).putInt(0);
+        record.flip();
+        return record;
+    }
+
+    private static ByteBuffer polygon(double[]... rings) {
+        int points = 0;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] ring : rings) {
+            points += ring.length / 2;
+            for (int i = 0; i < ring.length; i += 2) {
+                minX = Math.min(minX, ring[i]);
+                maxX = Math.max(maxX, ring[i]);
+                minY = Math.min(minY, ring[i + 1]);
+                maxY = Math.max(maxY, ring[i + 1]);
+            }
+        }
+        ByteBuffer record = record(44 + 4 * rings.length + 16 * points);
+        record.putInt(5).putDouble(minX).putDouble(minY).putDouble(maxX).putDouble(maxY).putInt(rings.length).putInt(points);
+        int start = 0;
+        for (double[] ring : rings) {
+            record.putInt(start);
+            start += ring.length / 2;
+        }
+        for (double[] ring : rings) {
+            for (double coordinate : ring) {
+                record.putDouble(coordinate);
+            }
+        }
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Builds a .dbf file with the given field descriptors ({name, type, length}) and records, the first character of
+     * each record being the deletion flag.
+     */
+    private static byte[] dbf(int languageDriver, String[][] fields, String... records) {
+        int recordLength = 1;
+        for (String[] field : fields) {
+            recordLength += Integer.parseInt(field[2]);
+        }
+        int headerLength = 32 + 32 * fields.length + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength + recordLength * records.length + 1).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 3).put(new byte[3]).putInt(records.length).putShort((short) headerLength).putShort((short) recordLength);
+        buffer.position(29);
+        buffer.put((byte) languageDriver);
+        buffer.position(32);
+        for (String[] field : fields) {
+            byte[] name = new byte[11];
+            byte[] ascii = field[0].getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(ascii, 0, name, 0, ascii.length);
+            buffer.put(name).put((byte) field[1].charAt(0)).put(new byte[4]).put((byte) Integer.parseInt(field[2])).put(new byte[15]);
+        }
+        buffer.put((byte) 0x0D);
+        for (String record : records) {
+            byte[] bytes = record.getBytes(StandardCharsets.ISO_8859_1);
+            Assert.assertEquals(bytes.length, recordLength);
+            buffer.put(bytes);
+        }
+        buffer.put((byte) 0x1A);
+        return buffer.array();
+    }
+
+    private static final String[][] FIELDS = { { "NAME", "C", "8" }, { "POP", "N", "9" }, { "AREA", "F", "6" },
+            { "CAPITAL", "L", "1" }, { "FOUNDED", "D", "8" } };
+
+    private static String city(char flag, String name, String population, String area, String capital, String founded) {
+        return String.format("%c%-8s%9s%6s%1s%8s", flag, name, population, area, capital, founded);
+    }
+
+    private Project parse(File shp, File dbf, String geometry, int limit, List<Exception> exceptions) {
+        Project project = new Project();
+        ObjectNode options = ParsingUtilities.mapper.createObjectNode();
+        options.put("geometry", geometry);
+        ShapefileImporter.parse(project, job, shp, dbf, limit, options, exceptions, position -> {
+        });
+        return project;
+    }
+
+    private static List<String> names(Project project) {
+        return project.columnModel.columns.stream().map(Column::getName).collect(Collectors.toList());
+    }
+
+    private static Object value(Project project, int row, String column) {
+        return project.rows.get(row).getCellValue(project.columnModel.getColumnByName(column).getCellIndex());
+    }
+
+    @Test
+    public void testPointsWithAttributes() throws IOException {
+        File shp = write("cities.shp", shp(1, point(2.35, 48.85), nullShape(), point(13.4, 52.5), point(12.5, 41.9)));
+        File dbf = write("CITIES.DBF", dbf(0x57, FIELDS,
+                city(' ', "Paris", "2100000", "105.4", "T", "17870101"),
+                city(' ', "Atlantis", "0", "-0.5", "?", ""),
+                city('*', "Berlin", "3600000", "891.8", "T", ""),
+                city(' ', "Romé", "2800000", "1285", "F", "")));
+
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(shp, ShapefileImporter.sibling(shp, "dbf"), "latlng", -1, exceptions);
+
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(names(project), List.of("lat", "lng", "NAME", "POP", "AREA", "CAPITAL", "FOUNDED"));
+        // the deleted record is skipped
+        Assert.assertEquals(project.rows.size(), 3);
+        Assert.assertEquals(value(project, 0, "lat"), 48.85);
+        Assert.assertEquals(value(project, 0, "lng"), 2.35);
+        Assert.assertEquals(value(project, 0, "NAME"), "Paris");
+        Assert.assertEquals(value(project, 0, "POP"), 2100000L);
+        Assert.assertEquals(value(project, 0, "AREA"), 105.4);
+        Assert.assertEquals(value(project, 0, "CAPITAL"), true);
+        Assert.assertEquals(value(project, 0, "FOUNDED"), "1787-01-01");
+        Assert.assertNull(value(project, 1, "lat"));
+        Assert.assertNull(value(project, 1, "CAPITAL"));
+        Assert.assertNull(value(project, 1, "FOUNDED"));
+        Assert.assertEquals(value(project, 1, "AREA"), -0.5);
+        Assert.assertEquals(value(project, 2, "NAME"), "Romé");
+        Assert.assertEquals(value(project, 2, "lat"), 41.9);
+        Assert.assertEquals(value(project, 2, "AREA"), 1285.0);
+
+        Assert.assertEquals(parse(shp, null, "wkt", 2, exceptions).rows.size(), 2);
+        Assert.assertEquals(value(parse(shp, null, "wkt", -1, exceptions), 0, "geometry"), "POINT (2.35 48.85)");
+    }
+
+    @Test
+    public void testPolygons() throws IOException {
+        double[] square = { 0, 0, 0, 10, 10, 10, 10, 0, 0, 0 };
+        double[] hole = { 2, 2, 4, 2, 4, 4, 2, 4, 2, 2 };
+        double[] island = { 20, 20, 20, 21, 21, 21, 20, 20 };
+        File shp = write("parcels.shp", shp(5, polygon(square, hole, island), polygon(island)));
+        write("parcels.prj", "PROJCS[\"WGS_1984_UTM_Zone_31N\",GEOGCS[\"GCS_WGS_1984\"]]".getBytes(StandardCharsets.US_ASCII));
+
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(shp, null, "wkt", -1, exceptions);
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(value(project, 0, "geometry"), "MULTIPOLYGON (((0.0 0.0, 0.0 10.0, 10.0 10.0, 10.0 0.0, 0.0 0.0), "
+                + "(2.0 2.0, 4.0 2.0, 4.0 4.0, 2.0 4.0, 2.0 2.0)), ((20.0 20.0, 20.0 21.0, 21.0 21.0, 20.0 20.0)))");
+        Assert.assertEquals(value(project, 1, "geometry"), "POLYGON ((20.0 20.0, 20.0 21.0, 21.0 21.0, 20.0 20.0))");
+
+        // projected coordinates are not longitudes and latitudes
+        project = parse(shp, null, "latlng", -1, exceptions);
+        Assert.assertEquals(names(project), List.of("y", "x"));
+        Assert.assertEquals(value(project, 0, "x"), 10.5);
+        Assert.assertEquals(value(project, 0, "y"), 10.5);
+    }
+
+    @Test
+    public void testEncodingAndLoneDbf() throws IOException {
+        // the UTF-8 bytes of the name, written as they are
+        String record = new String(" café".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        File dbf = write("names.dbf", dbf(0, new String[][] { { "NAME", "C", "5" } }, record));
+        write("names.cpg", "UTF-8\n".getBytes(StandardCharsets.US_ASCII));
+
+        List<Exception> exceptions = new ArrayList<>();
+        Project project = parse(null, dbf, "latlng", -1, exceptions);
+        Assert.assertEquals(exceptions, List.of());
+        Assert.assertEquals(names(project), List.of("lat", "lng", "NAME"));
+        Assert.assertEquals(value(project, 0, "NAME"), "café");
+        Assert.assertEquals(ShapefileImporter.dbfCharset(dbf, null), StandardCharsets.UTF_8);
+        Assert.assertEquals(ShapefileImporter.dbfCharset(dbf, "windows-1252").name(), "windows-1252");
+        Assert.assertEquals(DbfReader.languageDriverCharset(0x57).name(), "windows-1252");
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        File shp = write("broken.shp", new byte[100]);
+        List<Exception> exceptions = new ArrayList<>();
+        parse(shp, null, "latlng", -1, exceptions);
+        Assert.assertEquals(exceptions.size(), 1);
+
+        // truncated record
+        byte[] bytes = shp(1, point(1, 2));
+        byte[] truncated = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        exceptions.clear();
+        parse(write("truncated.shp", truncated), null, "latlng", -1, exceptions);
+        Assert.assertEquals(exceptions.size(), 1);
+    }
+
+    @Test
+    public void testMappedWindows() throws IOException {
+        byte[] bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        try (MappedFile file = new MappedFile(write("bytes.bin", bytes), 16)) {
+            for (int position = 0; position + 24 <= bytes.length; position += 7) {
+                ByteBuffer buffer = file.read(position, 24);
+                for (int i = 0; i < 24; i++) {
+                    Assert.assertEquals(buffer.get(), (byte) (position + i));
+                }
+            }
+            Assert.assertThrows(IOException.class, () -> file.read(90, 11));
+        }
+    }
+}
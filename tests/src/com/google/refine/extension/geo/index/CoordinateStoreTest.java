@@ -0,0 +1,107 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.io.Serializable;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.operations.DecToGMSOperation;
+import com.google.refine.model.Project;
+
+public class CoordinateStoreTest {
+
+    @Test
+    public void testStoresCoordinatesByRowIndex() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        Project project = GeoTestUtils.createProject(new String[] { "lat", "lng" },
+                new Serializable[][] {
+                        { 10.5, -20.25 },
+                        { "45", "7.5" },
+                        { null, 12.0 },
+                        { 91.0, 0.0 },
+                        { "north", 3.0 },
+                        { -33.9, 151.2 } });
+
+        CoordinateStore store = CoordinateStoreCache.get(project, "lat", "lng");
+        Assert.assertEquals(store.size(), 6);
+        Assert.assertEquals(store.validCount(), 3);
+        Assert.assertEquals(store.estimatedBytes(), 6L * CoordinateStore.BYTES_PER_ROW);
+
+        Assert.assertEquals(store.latitude(0), 10.5);
+        Assert.assertEquals(store.longitude(0), -20.25);
+        Assert.assertEquals(store.latitude(1), 45.0);
+        Assert.assertEquals(store.longitude(1), 7.5);
+        Assert.assertEquals(store.latitude(5), -33.9);
+        Assert.assertEquals(store.longitude(5), 151.2);
+
+        // a row with one invalid coordinate has neither
+        for (int rowIndex = 2; rowIndex <= 4; rowIndex++) {
+            Assert.assertFalse(store.isValid(rowIndex));
+            Assert.assertTrue(Double.isNaN(store.latitude(rowIndex)));
+            Assert.assertTrue(Double.isNaN(store.longitude(rowIndex)));
+        }
+        Assert.assertFalse(store.isValid(6));
+        Assert.assertTrue(Double.isNaN(store.longitude(6)));
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testUnknownColumn() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        Project project = GeoTestUtils.createProject(new String[] { "lat", "lng" },
+                new Serializable[][] { { 10.0, 20.0 } });
+        CoordinateStoreCache.get(project, "lat", "longitude");
+    }
+
+    @Test
+    public void testCacheRebuildsAfterHistoryChange() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        Project project = GeoTestUtils.createProject(new String[] { "lat", "lng" },
+                new Serializable[][] { { 10.0, 20.0 }, { 30.0, 40.0 } });
+
+        CoordinateStore store = CoordinateStoreCache.get(project, "lat", "lng");
+        Assert.assertSame(CoordinateStoreCache.get(project, "lat", "lng"), store);
+        Assert.assertEquals(store.validCount(), 2);
+
+        GeoTestUtils.runOperation(new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "lat"), project);
+        CoordinateStore rebuilt = CoordinateStoreCache.get(project, "lat", "lng");
+        Assert.assertNotSame(rebuilt, store);
+        Assert.assertEquals(rebuilt.validCount(), 0);
+        // the previous snapshot is left as it was
+        Assert.assertEquals(store.latitude(1), 30.0);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+public class GazetteerTest {
+
+    private static final int PLACES = 5000;
+
+    private File dir;
+    private double[] lats;
+    private double[] lngs;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("gazetteer").toFile();
+        Random random = new Random(3L);
+        lats = new double[PLACES];
+        lngs = new double[PLACES];
+        StringBuilder text = new StringBuilder("# a GeoNames extract\n");
+        for (int i = 0; i < PLACES; i++) {
+            // clusters of places, as on land, and a few isolated ones, poles and antimeridian included
+            if (i % 100 < 95) {
+                lats[i] = Math.round((45 + random.nextGaussian() * 5) * 1e5) / 1e5;
+                lngs[i] = Math.round((5 + random.nextGaussian() * 8) * 1e5) / 1e5;
+            } else {
+                lats[i] = Math.round((random.nextDouble() * 180 - 90) * 1e5) / 1e5;
+                lngs[i] = Math.round((random.nextDouble() * 360 - 180) * 1e5) / 1e5;
+            }
+            text.append(1000 + i).append("\tPlace ").append(i).append("\tPlace ").append(i).append("\t\t")
+                    .append(lats[i]).append('\t').append(lngs[i]).append("\tP\tPPL\tFR\t\t").append(i % 13)
+                    .append("\t\t\t\t").append(10 * i).append("\t\t12\tEurope/Paris\t2024-01-01\n");
+        }
+        text.append("not\ta\tplace\n");
+        Files.write(new File(dir, "places.txt").toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMatchesBruteForce() throws IOException {
+        Gazetteer gazetteer = Gazetteer.open(dir);
+        Assert.assertEquals(gazetteer.size(), PLACES);
+        Random random = new Random(5L);
+        for (int q = 0; q < 1000; q++) {
+            double lat = q % 2 == 0 ? 45 + random.nextGaussian() * 8 : random.nextDouble() * 180 - 90;
+            double lng = q % 2 == 0 ? 5 + random.nextGaussian() * 10 : random.nextDouble() * 360 - 180;
+            lat = Math.max(-90, Math.min(90, lat));
+            lng = Math.max(-180, Math.min(180, lng));
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < PLACES; i++) {
+                bestDistance = Math.min(bestDistance, GeoDistance.haversineDistance(lat, lng, lats[i], lngs[i]));
+            }
+            int position = gazetteer.nearest(lat, lng, Double.POSITIVE_INFINITY);
+            double distance = GeoDistance.haversineDistance(lat, lng, gazetteer.latitude(position),
+                    gazetteer.longitude(position));
+            Assert.assertEquals(distance, bestDistance, 1e-6, "around " + lat + ", " + lng);
+        }
+    }
+
+    @Test
+    public void testFarQueriesMatchBruteForce() throws IOException {
+        // a sparse gazetteer on one side of the globe, queried from more than 90 degrees of longitude away
+        File sparse = Files.createTempDirectory("sparse").toFile();
+        Random random = new Random(11L);
+        int count = 300;
+        double[] farLats = new double[count];
+        double[] farLngs = new double[count];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            farLats[i] = Math.round((random.nextDouble() * 160 - 80) * 1e5) / 1e5;
+            farLngs[i] = Math.round((100 + random.nextDouble() * 40) * 1e5) / 1e5;
+            text.append(i).append("\tPlace ").append(i).append("\tPlace ").append(i).append("\t\t").append(farLats[i])
+                    .append('\t').append(farLngs[i]).append('\n');
+        }
+        Files.write(new File(sparse, "places.txt").toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+
+        Gazetteer gazetteer = Gazetteer.open(sparse);
+        for (int q = 0; q < 2000; q++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = -60 + random.nextDouble() * 50;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                bestDistance = Math.min(bestDistance, GeoDistance.haversineDistance(lat, lng, farLats[i], farLngs[i]));
+            }
+            int position = gazetteer.nearest(lat, lng, Double.POSITIVE_INFINITY);
+            double distance = GeoDistance.haversineDistance(lat, lng, gazetteer.latitude(position),
+                    gazetteer.longitude(position));
+            Assert.assertEquals(distance, bestDistance, 1e-6, "around " + lat + ", " + lng);
+        }
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        Gazetteer gazetteer = Gazetteer.open(dir);
+        int position = gazetteer.nearest(lats[42], lngs[42], 1.0);
+        Assert.assertEquals(gazetteer.id(position), 1042L);
+        Assert.assertEquals(gazetteer.name(position), "Place 42");
+        Assert.assertEquals(gazetteer.featureCode(position), "PPL");
+        Assert.assertEquals(gazetteer.countryCode(position), "FR");
+        Assert.assertEquals(gazetteer.admin1Code(position), "3");
+        Assert.assertEquals(gazetteer.population(position), 420L);
+        Assert.assertEquals(gazetteer.latitude(position), lats[42], 1e-9);
+        Assert.assertEquals(gazetteer.longitude(position), lngs[42], 1e-9);
+    }
+
+    @Test
+    public void testMaxDistance() throws IOException {
+        Gazetteer gazetteer = Gazetteer.open(dir);
+        int position = gazetteer.nearest(lats[7] + 0.01, lngs[7], 5000);
+        Assert.assertTrue(position >= 0);
+        Assert.assertEquals(gazetteer.nearest(-89.999, 0, 10), -1);
+    }
+
+    @Test
+    public void testIndexIsReusedUntilSourcesChange() throws IOException {
+        Gazetteer.open(dir);
+        File index = new File(dir, Gazetteer.INDEX_FILE_NAME);
+        Assert.assertTrue(index.isFile());
+        long built = index.lastModified();
+        index.setLastModified(built - 10000);
+        Gazetteer.open(dir);
+        Assert.assertEquals(index.lastModified(), built - 10000);
+
+        Files.write(new File(dir, "more.tsv").toPath(),
+                "1\tNorth Pole\tNorth Pole\t\t90\t0\n".getBytes(StandardCharsets.UTF_8));
+        Gazetteer gazetteer = Gazetteer.open(dir);
+        Assert.assertEquals(gazetteer.size(), PLACES + 1);
+        Assert.assertEquals(gazetteer.name(gazetteer.nearest(89.9, 100, Double.POSITIVE_INFINITY)), "North Pole");
+        Assert.assertEquals(gazetteer.featureCode(gazetteer.nearest(89.9, 100, Double.POSITIVE_INFINITY)), "");
+        Assert.assertEquals(dir.list().length, 3);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testEmptyDirectory() throws IOException {
+        Gazetteer.open(Files.createTempDirectory("empty").toFile());
+    }
+}
@@ -0,0 +1,249 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.operations.DecToGMSOperation;
+import com.google.refine.model.Project;
+
+public class PointIndexTest {
+
+    private static final int POINTS = 5000;
+
+    private final double[] lats = new double[POINTS];
+    private final double[] lngs = new double[POINTS];
+    private final int[] ids = new int[POINTS];
+
+    public PointIndexTest() {
+        Random random = new Random(42L);
+        for (int i = 0; i < POINTS; i++) {
+            // half of the points clustered around Paris, the rest all over the globe
+            if (i % 2 == 0) {
+                lats[i] = 48.8 + random.nextDouble() * 0.2;
+                lngs[i] = 2.2 + random.nextDouble() * 0.3;
+            } else {
+                lats[i] = random.nextDouble() * 180 - 90;
+                lngs[i] = random.nextDouble() * 360 - 180;
+            }
+            ids[i] = 1000 + i;
+        }
+    }
+
+    private int bruteForceNearest(double lat, double lng) {
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < POINTS; i++) {
+            double distance = GeoDistance.haversineDistance(lat, lng, lats[i], lngs[i]);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        PointIndex index = PointIndex.build(lats, lngs, ids, POINTS);
+        Assert.assertEquals(index.size(), POINTS);
+
+        Random random = new Random(7L);
+        double[][] queries = new double[500][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[] { random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180 };
+        }
+        queries[0] = new double[] { 90.0, 0.0 };
+        queries[1] = new double[] { -90.0, 0.0 };
+        queries[2] = new double[] { 0.0, 180.0 };
+        queries[3] = new double[] { 48.9, 2.35 };
+        for (double[] query : queries) {
+            int position = index.nearest(query[0], query[1]);
+            int expected = bruteForceNearest(query[0], query[1]);
+            Assert.assertEquals(
+                    GeoDistance.haversineDistance(query[0], query[1], index.latitude(position), index.longitude(position)),
+                    GeoDistance.haversineDistance(query[0], query[1], lats[expected], lngs[expected]));
+            Assert.assertEquals(index.id(position) - 1000, expected);
+        }
+    }
+
+    @Test
+    public void testDistanceToBoxIsALowerBound() {
+        // more than 90 degrees of longitude away, the closest corner is not the one on the side of the point
+        Assert.assertEquals(PointIndex.distanceToBox(0.001, -20, -80, 10, 100, 110),
+                GeoDistance.haversineDistance(0.001, -20, -80, 100));
+
+        Random random = new Random(3L);
+        for (int i = 0; i < 10_000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            double minLat = random.nextDouble() * 180 - 90;
+            double maxLat = minLat + random.nextDouble() * (90 - minLat);
+            double minLng = random.nextDouble() * 360 - 180;
+            double maxLng = minLng + random.nextDouble() * (180 - minLng);
+            double bound = PointIndex.distanceToBox(lat, lng, minLat, maxLat, minLng, maxLng);
+            for (int j = 0; j < 20; j++) {
+                double pointLat = minLat + random.nextDouble() * (maxLat - minLat);
+                double pointLng = j < 2 ? (j == 0 ? minLng : maxLng) : minLng + random.nextDouble() * (maxLng - minLng);
+                double distance = GeoDistance.haversineDistance(lat, lng, pointLat, pointLng);
+                Assert.assertTrue(bound <= distance + 1e-6, bound + " > " + distance);
+            }
+        }
+    }
+
+    @Test
+    public void testFarQueriesMatchBruteForce() {
+        // points on one side of the globe, queried from more than 90 degrees of longitude away
+        Random random = new Random(13L);
+        int count = 2000;
+        double[] farLats = new double[count];
+        double[] farLngs = new double[count];
+        int[] farIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            farLats[i] = random.nextDouble() * 160 - 80;
+            farLngs[i] = 100 + random.nextDouble() * 40;
+            farIds[i] = i;
+        }
+        PointIndex index = PointIndex.build(farLats, farLngs, farIds, count);
+        for (int query = 0; query < 2000; query++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = -60 + random.nextDouble() * 50;
+            double best = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                best = Math.min(best, GeoDistance.haversineDistance(lat, lng, farLats[i], farLngs[i]));
+            }
+            int position = index.nearest(lat, lng);
+            Assert.assertEquals(GeoDistance.haversineDistance(lat, lng, index.latitude(position), index.longitude(position)),
+                    best, "(" + lat + ", " + lng + ")");
+
+            double radius = best * 1.01;
+            int expected = 0;
+            for (int i = 0; i < count; i++) {
+                if (GeoDistance.haversineDistance(lat, lng, farLats[i], farLngs[i]) <= radius) {
+                    expected++;
+                }
+            }
+            List<Integer> found = new ArrayList<>();
+            index.within(lat, lng, radius, found::add);
+            Assert.assertEquals(found.size(), expected, "(" + lat + ", " + lng + ")");
+        }
+    }
+
+    @Test
+    public void testNearestWithMaxDistance() {
+        PointIndex index = PointIndex.build(new double[] { 0.0 }, new double[] { 0.0 }, new int[] { 5 }, 1);
+
+        Assert.assertEquals(index.nearest(0.0, 1.0, 200_000), 0);
+        Assert.assertEquals(index.nearest(0.0, 1.0, 100_000), -1);
+    }
+
+    @Test
+    public void testWithinMatchesBruteForce() {
+        PointIndex index = PointIndex.build(lats, lngs, ids, POINTS);
+
+        double[][] queries = { { 48.9, 2.35, 5_000 }, { 48.9, 2.35, 500_000 }, { 0.0, 179.9, 2_000_000 },
+                { 89.0, 0.0, 1_000_000 }, { -10.0, 20.0, 0.0 } };
+        for (double[] query : queries) {
+            List<Integer> found = new ArrayList<>();
+            index.within(query[0], query[1], query[2], position -> found.add(index.id(position) - 1000));
+            Collections.sort(found);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < POINTS; i++) {
+                if (GeoDistance.haversineDistance(query[0], query[1], lats[i], lngs[i]) <= query[2]) {
+                    expected.add(i);
+                }
+            }
+            Assert.assertEquals(found, expected);
+        }
+    }
+
+    @Test
+    public void testWithinBoxMatchesBruteForce() {
+        PointIndex index = PointIndex.build(lats, lngs, ids, POINTS);
+
+        double[][] boxes = { { 48.85, 48.95, 2.3, 2.4 }, { -90.0, 90.0, -180.0, 180.0 }, { 10.0, 60.0, -20.0, 170.0 },
+                { 5.0, 5.0, 0.0, 0.0 } };
+        for (double[] box : boxes) {
+            List<Integer> found = new ArrayList<>();
+            index.withinBox(box[0], box[1], box[2], box[3], position -> found.add(index.id(position) - 1000));
+            Collections.sort(found);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < POINTS; i++) {
+                if (lats[i] >= box[0] && lats[i] <= box[1] && lngs[i] >= box[2] && lngs[i] <= box[3]) {
+                    expected.add(i);
+                }
+            }
+            Assert.assertEquals(found, expected);
+        }
+    }
+
+    @Test
+    public void testInvalidPointsAreSkipped() {
+        PointIndex index = PointIndex.build(new double[] { Double.NaN, 10.0 }, new double[] { 1.0, 20.0 }, new int[] { 0, 1 },
+                2);
+
+        Assert.assertEquals(index.size(), 1);
+        Assert.assertEquals(index.id(index.nearest(0.0, 0.0)), 1);
+        Assert.assertEquals(PointIndex.build(new double[0], new double[0], new int[0], 0).nearest(0.0, 0.0), -1);
+    }
+
+    @Test
+    public void testCacheRebuildsAfterHistoryChange() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        Project project = GeoTestUtils.createProject(new String[] { "lat", "lng" },
+                new Serializable[][] { { 10.0, 20.0 }, { 30.0, 40.0 } });
+
+        PointIndex index = SpatialIndexCache.get(project, "lat", "lng");
+        Assert.assertSame(SpatialIndexCache.get(project, "lat", "lng"), index);
+        Assert.assertEquals(index.size(), 2);
+
+        // turning the latitudes into strings which are not numbers anymore changes the indexed points
+        GeoTestUtils.runOperation(new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "lat"), project);
+        PointIndex rebuilt = SpatialIndexCache.get(project, "lat", "lng");
+        Assert.assertNotSame(rebuilt, index);
+        Assert.assertEquals(rebuilt.size(), 0);
+    }
+}
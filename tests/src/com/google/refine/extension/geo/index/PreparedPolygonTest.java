@@ -0,0 +1,106 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PreparedPolygonTest {
+
+    private static boolean bruteForceContains(List<double[]> rings, double x, double y) {
+        boolean inside = false;
+        for (double[] ring : rings) {
+            int points = ring.length / 2;
+            for (int i = 0, j = points - 1; i < points; j = i++) {
+                double xi = ring[2 * i], yi = ring[2 * i + 1];
+                double xj = ring[2 * j], yj = ring[2 * j + 1];
+                if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static double[] star(Random random, double cx, double cy, double radius, int points) {
+        double[] ring = new double[2 * points];
+        for (int i = 0; i < points; i++) {
+            double angle = 2 * Math.PI * i / points;
+            double r = radius * (0.3 + 0.7 * random.nextDouble());
+            ring[2 * i] = cx + r * Math.cos(angle);
+            ring[2 * i + 1] = cy + r * Math.sin(angle);
+        }
+        return ring;
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(17L);
+        for (int trial = 0; trial < 20; trial++) {
+            List<double[]> rings = new ArrayList<>();
+            // an outer ring, a hole, and a second disjoint part
+            rings.add(star(random, 0, 0, 10, 3 + random.nextInt(2000)));
+            rings.add(star(random, 0, 0, 2, 3 + random.nextInt(50)));
+            rings.add(star(random, 30, 5, 4, 3 + random.nextInt(200)));
+            PreparedPolygon polygon = new PreparedPolygon(rings);
+            for (int i = 0; i < 2000; i++) {
+                double x = random.nextDouble() * 50 - 12;
+                double y = random.nextDouble() * 24 - 12;
+                Assert.assertEquals(polygon.contains(x, y), bruteForceContains(rings, x, y), "at " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void testSquareWithHole() {
+        List<double[]> rings = Arrays.asList(
+                new double[] { 0, 0, 10, 0, 10, 10, 0, 10, 0, 0 },
+                new double[] { 4, 4, 6, 4, 6, 6, 4, 6, 4, 4 });
+        PreparedPolygon polygon = new PreparedPolygon(rings);
+        Assert.assertTrue(polygon.contains(1, 1));
+        Assert.assertTrue(polygon.contains(9, 5));
+        Assert.assertFalse(polygon.contains(5, 5));
+        Assert.assertFalse(polygon.contains(11, 5));
+        Assert.assertFalse(polygon.contains(5, -1));
+        Assert.assertFalse(polygon.contains(Double.NaN, 5));
+        Assert.assertEquals(polygon.getEdgeCount(), 8);
+        Assert.assertEquals(polygon.getMinX(), 0.0);
+        Assert.assertEquals(polygon.getMaxY(), 10.0);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.index;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+public class SpatialGridTest {
+
+    @Test
+    public void testCandidatesCoverCircles() {
+        Random random = new Random(37L);
+        int count = 2000;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        for (int i = 0; i < count; i++) {
+            // pairs of close points, spread over the globe, poles and antimeridian included
+            if (i % 2 == 0) {
+                lats[i] = random.nextDouble() * 180 - 90;
+                lngs[i] = random.nextDouble() * 360 - 180;
+            } else {
+                lats[i] = Math.max(-90, Math.min(90, lats[i - 1] + random.nextGaussian() * 0.001));
+                lngs[i] = lngs[i - 1] + random.nextGaussian() * 0.001;
+                lngs[i] = lngs[i] > 180 ? lngs[i] - 360 : lngs[i] < -180 ? lngs[i] + 360 : lngs[i];
+            }
+        }
+        lats[10] = 90.0;
+        lats[11] = 89.9999;
+        lats[12] = Double.NaN;
+
+        for (double radius : new double[] { 0.5, 150, 20000, 3000000 }) {
+            SpatialGrid grid = new SpatialGrid(lats, lngs, count, radius);
+            Assert.assertEquals(grid.size(), count - 1);
+            for (int position = 0; position < grid.size(); position++) {
+                double lat = grid.latitude(position);
+                double lng = grid.longitude(position);
+                Set<Integer> candidates = new HashSet<>();
+                grid.candidates(lat, lng, radius, other -> candidates.add(grid.id(other)));
+                for (int i = 0; i < count; i++) {
+                    if (GeoDistance.haversineDistance(lat, lng, lats[i], lngs[i]) <= radius) {
+                        Assert.assertTrue(candidates.contains(i), "point " + i + " missing around " + grid.id(position)
+                                + " within " + radius + " m");
+                    }
+                }
+            }
+        }
+    }
+}
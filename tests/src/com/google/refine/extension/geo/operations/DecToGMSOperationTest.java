@@ -0,0 +1,97 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.io.Serializable;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.model.Project;
+
+public class DecToGMSOperationTest {
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        project = GeoTestUtils.createProject(
+                new String[] { "lat" },
+                new Serializable[][] {
+                        { 40.7128 },
+                        { "-33.8688" },
+                        { 91.0 },
+                        { "unknown" },
+                        { null },
+                });
+    }
+
+    @Test
+    public void testLatitudeConversion() throws Exception {
+        GeoTestUtils.runOperation(new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "lat"), project);
+
+        Assert.assertEquals(project.rows.get(0).getCellValue(0), "40° 42' 46.08\" N");
+        Assert.assertEquals(project.rows.get(1).getCellValue(0), "33° 52' 7.68\" S");
+        // out of range and non-numeric cells are left untouched
+        Assert.assertEquals(project.rows.get(2).getCellValue(0), 91.0);
+        Assert.assertEquals(project.rows.get(3).getCellValue(0), "unknown");
+        Assert.assertNull(project.rows.get(4).getCellValue(0));
+    }
+
+    @Test
+    public void testCoordTypeIsCaseInsensitive() {
+        // as in decToGMS()
+        Assert.assertEquals(new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "LAT").getCoordType(), "lat");
+        DecToGMSOperation operation = new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "Lon");
+        operation.validate();
+        Assert.assertEquals(operation.getCoordType(), "lng");
+    }
+
+    @Test
+    public void testWithoutCoordType() throws Exception {
+        GeoTestUtils.runOperation(new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", null), project);
+
+        Assert.assertEquals(project.rows.get(1).getCellValue(0), "33° 52' 7.68\" (-)");
+        Assert.assertEquals(project.rows.get(2).getCellValue(0), "91° 0' 0.00\"");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCoordType() {
+        new DecToGMSOperation(EngineConfig.defaultRowBased(), "lat", "north").validate();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.io.Serializable;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.model.Project;
+
+public class GeoDistanceOperationTest {
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        project = GeoTestUtils.createProject(
+                new String[] { "lat1", "lng1", "lat2", "lng2" },
+                new Serializable[][] {
+                        { 40.7128, -74.0060, 34.0522, -118.2437 },
+                        { "40.7128", "-74.0060", "40.7228", "-74.0060" },
+                        { 91.0, -74.0060, 34.0522, -118.2437 },
+                        { null, -74.0060, 34.0522, -118.2437 },
+                        { "north", -74.0060, 34.0522, -118.2437 },
+                });
+    }
+
+    @Test
+    public void testDistanceColumn() throws Exception {
+        GeoTestUtils.runOperation(
+                new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat2", "lng2", "km", "distance", 4),
+                project);
+
+        int cellIndex = project.columnModel.getColumnByName("distance").getCellIndex();
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("distance"), 4);
+        Assert.assertEquals((Double) project.rows.get(0).getCellValue(cellIndex),
+                GeoDistance.haversineDistance(40.7128, -74.0060, 34.0522, -118.2437) / 1000.0);
+        Assert.assertEquals((Double) project.rows.get(1).getCellValue(cellIndex),
+                GeoDistance.haversineDistance(40.7128, -74.0060, 40.7228, -74.0060) / 1000.0);
+        // invalid coordinates are left blank
+        Assert.assertNull(project.rows.get(2).getCellValue(cellIndex));
+        Assert.assertNull(project.rows.get(3).getCellValue(cellIndex));
+        Assert.assertNull(project.rows.get(4).getCellValue(cellIndex));
+    }
+
+    @Test
+    public void testMatchesGrelFunction() throws Exception {
+        GeoTestUtils.runOperation(
+                new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat2", "lng2", "mi", "distance", 0),
+                project);
+
+        int cellIndex = project.columnModel.getColumnByName("distance").getCellIndex();
+        Object expected = new GeoDistance().call(null, new Object[] { 40.7128, -74.0060, 34.0522, -118.2437, "mi" });
+        Assert.assertEquals(project.rows.get(0).getCellValue(cellIndex), expected);
+    }
+
+    @Test
+    public void testUnitIsCaseInsensitive() throws Exception {
+        // as in geoDistance()
+        GeoDistanceOperation operation = new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat2",
+                "lng2", "KM", "distance", 4);
+        Assert.assertEquals(operation.getUnit(), "km");
+        GeoTestUtils.runOperation(operation, project);
+
+        int cellIndex = project.columnModel.getColumnByName("distance").getCellIndex();
+        Assert.assertEquals((Double) project.rows.get(0).getCellValue(cellIndex),
+                GeoDistance.haversineDistance(40.7128, -74.0060, 34.0522, -118.2437) / 1000.0);
+    }
+
+    @Test
+    public void testLargeProjectKeepsRowOrder() throws Exception {
+        // several blocks, each split into chunks computed by different threads
+        Serializable[][] rows = new Serializable[150_000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Serializable[] { 0.0, 0.0, (i % 90) * 1.0, 0.0 };
+        }
+        project = GeoTestUtils.createProject(new String[] { "lat1", "lng1", "lat2", "lng2" }, rows);
+
+        GeoTestUtils.runOperation(
+                new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat2", "lng2", "m", "distance", 4),
+                project);
+
+        int cellIndex = project.columnModel.getColumnByName("distance").getCellIndex();
+        for (int i = 0; i < rows.length; i++) {
+            Assert.assertEquals((Double) project.rows.get(i).getCellValue(cellIndex),
+                    GeoDistance.haversineDistance(0.0, 0.0, (i % 90) * 1.0, 0.0), "row " + i);
+        }
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testMissingColumn() throws Exception {
+        GeoTestUtils.runOperation(
+                new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat3", "lng2", "m", "distance", 0),
+                project);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidUnit() {
+        new GeoDistanceOperation(EngineConfig.defaultRowBased(), "lat1", "lng1", "lat2", "lng2", "ft", "distance", 0).validate();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+
+package com.google.refine.extension.geo.operations;
+
+import java.io.Serializable;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.model.Project;
+
+public class SimplifyTrackOperationTest {
+
+    private static final String RECORD_BASED = "{\"mode\":\"record-based\",\"facets\":[]}";
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        // east along the equator, then north: only the corner is needed between the ends
+        project = GeoTestUtils.createProject(
+                new String[] { "vehicle", "lat", "lng" },
+                new Serializable[][] {
+                        { "A", 0.0, 0.0 },
+                        { null, 0.0, 0.001 },
+                        { null, 0.0, 0.002 },
+                        { null, "north", 0.0025 },
+                        { null, 0.001, 0.002 },
+                        { null, 0.002, 0.002 },
+                        { "B", 10.0, 10.0 },
+                        { null, 10.0, 10.001 },
+                        { "C", null, null },
+                });
+    }
+
+    private SimplifyTrackOperation operation(String method, String distance, String action) throws Exception {
+        return new SimplifyTrackOperation(EngineConfig.reconstruct(RECORD_BASED), "lat", "lng", 1.0, method, distance,
+                action, "redundant", 3);
+    }
+
+    private Object value(int rowIndex, String columnName) {
+        return project.rows.get(rowIndex).getCellValue(project.columnModel.getColumnByName(columnName).getCellIndex());
+    }
+
+    @Test
+    public void testMarksRedundantPoints() throws Exception {
+        GeoTestUtils.runOperation(operation(null, null, null), project);
+
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("redundant"), 3);
+        for (int rowIndex = 0; rowIndex < project.rows.size(); rowIndex++) {
+            Object expected = rowIndex == 1 || rowIndex == 4 ? Boolean.TRUE : null;
+            Assert.assertEquals(value(rowIndex, "redundant"), expected, "row " + rowIndex);
+        }
+    }
+
+    @Test
+    public void testRemovesRedundantPoints() throws Exception {
+        for (String[] options : new String[][] {
+                { SimplifyTrackOperation.METHOD_DOUGLAS_PEUCKER, SimplifyTrackOperation.DISTANCE_HAVERSINE },
+                { SimplifyTrackOperation.METHOD_VISVALINGAM, SimplifyTrackOperation.DISTANCE_PROJECTED } }) {
+            setUp();
+            GeoTestUtils.runOperation(operation(options[0], options[1], SimplifyTrackOperation.ACTION_REMOVE), project);
+
+            Assert.assertEquals(project.rows.size(), 7, options[0]);
+            // the key of each record and the row without a valid point stay in place
+            Assert.assertEquals(value(0, "vehicle"), "A");
+            Assert.assertEquals(value(1, "lng"), 0.002);
+            Assert.assertEquals(value(2, "lat"), "north");
+            Assert.assertEquals(value(3, "lat"), 0.002);
+            Assert.assertEquals(value(4, "vehicle"), "B");
+            Assert.assertEquals(value(6, "vehicle"), "C");
+        }
+    }
+
+    @Test
+    public void testOptionsAreCaseInsensitive() throws Exception {
+        SimplifyTrackOperation operation = operation("Visvalingam", "HAVERSINE", "Remove");
+        Assert.assertEquals(operation.getMethod(), SimplifyTrackOperation.METHOD_VISVALINGAM);
+        Assert.assertEquals(operation.getDistance(), SimplifyTrackOperation.DISTANCE_HAVERSINE);
+        Assert.assertEquals(operation.getAction(), SimplifyTrackOperation.ACTION_REMOVE);
+        GeoTestUtils.runOperation(operation, project);
+
+        Assert.assertEquals(project.rows.size(), 7);
+    }
+
+    @Test
+    public void testLooseToleranceKeepsEnds() throws Exception {
+        GeoTestUtils.runOperation(
+                new SimplifyTrackOperation(EngineConfig.reconstruct(RECORD_BASED), "lat", "lng", 1000.0, null, null,
+                        SimplifyTrackOperation.ACTION_REMOVE, null, 0),
+                project);
+
+        Assert.assertEquals(project.rows.size(), 6);
+        Assert.assertEquals(value(1, "lat"), "north");
+        Assert.assertEquals(value(2, "lat"), 0.002);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownMethod() throws Exception {
+        operation("radial", null, null).validate();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeTolerance() {
+        new SimplifyTrackOperation(EngineConfig.defaultRowBased(), "lat", "lng", -1.0, null, null, null, "redundant",
+                3).validate();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMarkNeedsColumn() {
+        new SimplifyTrackOperation(EngineConfig.defaultRowBased(), "lat", "lng", 1.0, null, null,
+                SimplifyTrackOperation.ACTION_MARK, null, 3).validate();
+    }
+}
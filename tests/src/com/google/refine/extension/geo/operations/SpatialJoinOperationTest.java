@@ -0,0 +1,231 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+
+package com.google.refine.extension.geo.operations;
+
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.facets.GeoFacet;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.index.SpatialIndexCache;
+import com.google.refine.model.Project;
+import com.google.refine.util.GetProjectIDException;
+
+public class SpatialJoinOperationTest {
+
+    private static final double DELTA = 1e-9;
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        SpatialIndexCache.clear();
+        Project stores = GeoTestUtils.createProject(
+                new String[] { "name", "lat", "lng", "opening" },
+                new Serializable[][] {
+                        { "center", 0.0, 0.0, 1990 },
+                        { "north", 1.0, 0.0, null },
+                        { "east", 0.0, 1.0, 2005 },
+                        // without coordinates, never matched
+                        { "closed", null, null, 1980 },
+                });
+        when(ProjectManager.singleton.getProjectID("Stores")).thenReturn(stores.id);
+        when(ProjectManager.singleton.getProjectID("Missing")).thenThrow(new GetProjectIDException("No project named Missing"));
+
+        project = GeoTestUtils.createProject(
+                new String[] { "id", "lat", "lng" },
+                new Serializable[][] {
+                        { "p0", 0.1, 0.0 },
+                        { "p1", 0.9, 0.05 },
+                        { "p2", "bad", 0.0 },
+                        { "p3", 10.0, 10.0 },
+                });
+    }
+
+    private SpatialJoinOperation operation(String mode, double radius, String distanceColumnName) {
+        return new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng", "Stores", "lat", "lng",
+                Arrays.asList("name", "opening"), mode, radius, "km", null, "store ", distanceColumnName, 3);
+    }
+
+    private Object value(int rowIndex, String columnName) {
+        return project.rows.get(rowIndex).getCellValue(project.columnModel.getColumnByName(columnName).getCellIndex());
+    }
+
+    @Test
+    public void testJoinsNearestRow() throws Exception {
+        GeoTestUtils.runOperation(operation(SpatialJoinOperation.MODE_NEAREST, 0, "distance"), project);
+
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("store name"), 3);
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("store opening"), 4);
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("distance"), 5);
+
+        Assert.assertEquals(value(0, "store name"), "center");
+        Assert.assertEquals(value(0, "store opening"), 1990);
+        Assert.assertEquals((Double) value(0, "distance"), GeoDistance.haversineDistance(0.1, 0.0, 0.0, 0.0) / 1000,
+                DELTA);
+        Assert.assertEquals(value(1, "store name"), "north");
+        Assert.assertNull(value(1, "store opening"));
+        // no valid point
+        Assert.assertNull(value(2, "store name"));
+        Assert.assertNull(value(2, "distance"));
+        // far away, but without a radius anything goes
+        Assert.assertEquals(value(3, "store name"), "east");
+    }
+
+    @Test
+    public void testNearestWithinRadius() throws Exception {
+        GeoTestUtils.runOperation(operation(SpatialJoinOperation.MODE_NEAREST, 50.0, "distance"), project);
+
+        Assert.assertEquals(value(0, "store name"), "center");
+        Assert.assertEquals(value(1, "store name"), "north");
+        Assert.assertNull(value(3, "store name"));
+        Assert.assertNull(value(3, "distance"));
+    }
+
+    @Test
+    public void testJoinsAllRowsWithinRadius() throws Exception {
+        GeoTestUtils.runOperation(operation(SpatialJoinOperation.MODE_WITHIN, 120.0, "distance"), project);
+
+        // nearest first, with blanks kept in place
+        Assert.assertEquals(value(0, "store name"), "center|north|east");
+        Assert.assertEquals(value(0, "store opening"), "1990||2005");
+        Assert.assertEquals((Double) value(0, "distance"), GeoDistance.haversineDistance(0.1, 0.0, 0.0, 0.0) / 1000,
+                DELTA);
+        Assert.assertEquals(value(1, "store name"), "north|center");
+        Assert.assertNull(value(2, "store name"));
+        Assert.assertNull(value(3, "store name"));
+    }
+
+    @Test
+    public void testSortsManyMatches() throws Exception {
+        // more matches than an insertion sort handles, in pairs at the same place and in a shuffled row order
+        Serializable[][] rows = new Serializable[40][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Serializable[] { "s" + i, 0.001 * ((i % 20) * 7 % 20), 0.0 };
+        }
+        Project line = GeoTestUtils.createProject(new String[] { "name", "lat", "lng" }, rows);
+        when(ProjectManager.singleton.getProjectID("Line")).thenReturn(line.id);
+
+        GeoTestUtils.runOperation(
+                new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng", "Line", "lat", "lng",
+                        Collections.singletonList("name"), SpatialJoinOperation.MODE_WITHIN, 20.0, "km", ",", "store ",
+                        null, 3),
+                project);
+
+        // p0 lies north of all the points: the northernmost first, and each pair in row order
+        StringBuilder expected = new StringBuilder();
+        for (int step = 19; step >= 0; step--) {
+            int row = step * 3 % 20;
+            expected.append(step < 19 ? "," : "").append("s").append(row).append(",s").append(row + 20);
+        }
+        Assert.assertEquals(value(0, "store name"), expected.toString());
+    }
+
+    @Test
+    public void testModeAndUnitAreCaseInsensitive() throws Exception {
+        SpatialJoinOperation operation = new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng",
+                "Stores", "lat", "lng", Collections.singletonList("name"), "Within", 120.0, "KM", null, "store ",
+                "distance", 3);
+        Assert.assertEquals(operation.getMode(), SpatialJoinOperation.MODE_WITHIN);
+        Assert.assertEquals(operation.getUnit(), "km");
+        GeoTestUtils.runOperation(operation, project);
+
+        Assert.assertEquals(value(0, "store name"), "center|north|east");
+        Assert.assertEquals((Double) value(0, "distance"), GeoDistance.haversineDistance(0.1, 0.0, 0.0, 0.0) / 1000,
+                DELTA);
+    }
+
+    @Test
+    public void testFacetsLimitTheJoinedRows() throws Exception {
+        GeoFacet.registerFacetType();
+        // only p1 lies north of half a degree
+        EngineConfig engineConfig = EngineConfig.reconstruct("{\"mode\":\"row-based\",\"facets\":["
+                + "{\"type\":\"geo/area\",\"latColumnName\":\"lat\",\"lngColumnName\":\"lng\",\"shape\":\"box\","
+                + "\"minLat\":0.5,\"maxLat\":5,\"minLng\":-5,\"maxLng\":5}]}");
+        GeoTestUtils.runOperation(
+                new SpatialJoinOperation(engineConfig, "lat", "lng", "Stores", "lat", "lng",
+                        Collections.singletonList("name"), null, 0, null, null, null, null, 3),
+                project);
+
+        Assert.assertNull(value(0, "name"));
+        Assert.assertEquals(value(1, "name"), "north");
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testMissingProject() throws Exception {
+        GeoTestUtils.runOperation(
+                new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng", "Missing", "lat", "lng",
+                        Collections.singletonList("name"), null, 0, null, null, null, null, 3),
+                project);
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testMissingTargetColumn() throws Exception {
+        GeoTestUtils.runOperation(
+                new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng", "Stores", "lat", "lng",
+                        Collections.singletonList("address"), null, 0, null, null, null, null, 3),
+                project);
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testColumnNameTaken() throws Exception {
+        // without a prefix, the joined column would be a second "lat"
+        GeoTestUtils.runOperation(
+                new SpatialJoinOperation(EngineConfig.defaultRowBased(), "lat", "lng", "Stores", "lat", "lng",
+                        Collections.singletonList("lat"), null, 0, null, null, null, null, 3),
+                project);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWithinNeedsRadius() {
+        operation(SpatialJoinOperation.MODE_WITHIN, 0, null).validate();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownMode() {
+        operation("intersects", 10.0, null).validate();
+    }
+}
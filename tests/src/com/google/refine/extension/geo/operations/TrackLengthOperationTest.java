@@ -0,0 +1,186 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.operations;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.extension.geo.GeoTestUtils;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.model.Project;
+
+public class TrackLengthOperationTest {
+
+    private static final double DELTA = 1e-9;
+
+    private Project project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        GeoTestUtils.mockProjectManager();
+        // a record per vehicle: rows without a vehicle continue the track above them
+        project = GeoTestUtils.createProject(
+                new String[] { "vehicle", "lat", "lng", "time" },
+                new Serializable[][] {
+                        { "A", 0.0, 0.0, "2024-01-01T00:00:00Z" },
+                        { null, 0.0, 1.0, "2024-01-01T01:00:00Z" },
+                        { null, "north", 1.5, "2024-01-01T01:05:00Z" },
+                        { null, 0.0, 2.0, "2024-01-01T01:10:00Z" },
+                        { "B", 10.0, 10.0, 0 },
+                        { null, 10.0, 10.5, 3600 },
+                        { null, 10.0, 10.0, null },
+                        { "C", null, null, null },
+                        { "D", 5.0, 5.0, "2024-01-01T00:00:00" },
+                });
+    }
+
+    private TrackLengthOperation operation(EngineConfig engineConfig) {
+        return new TrackLengthOperation(engineConfig, "lat", "lng", "time", "km", 200.0, "length", "max hop",
+                "outliers", 1);
+    }
+
+    private Object value(int rowIndex, String columnName) {
+        return project.rows.get(rowIndex).getCellValue(project.columnModel.getColumnByName(columnName).getCellIndex());
+    }
+
+    @Test
+    public void testMeasuresEachRecord() throws Exception {
+        GeoTestUtils.runOperation(operation(EngineConfig.reconstruct("{\"mode\":\"record-based\",\"facets\":[]}")),
+                project);
+
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("length"), 1);
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("max hop"), 2);
+        Assert.assertEquals(project.columnModel.getColumnIndexByName("outliers"), 3);
+
+        // the invalid point is skipped, and the second hop takes 10 minutes for a degree of longitude
+        double degree = GeoDistance.haversineDistance(0.0, 0.0, 0.0, 1.0) / 1000.0;
+        Assert.assertEquals((Double) value(0, "length"), 2 * degree, DELTA);
+        Assert.assertEquals((Double) value(0, "max hop"), degree, DELTA);
+        Assert.assertEquals(value(0, "outliers"), 1L);
+        Assert.assertNull(value(1, "length"));
+
+        // back and forth, the last point without a time
+        double hop = GeoDistance.haversineDistance(10.0, 10.0, 10.0, 10.5) / 1000.0;
+        Assert.assertEquals((Double) value(4, "length"), 2 * hop, DELTA);
+        Assert.assertEquals((Double) value(4, "max hop"), hop, DELTA);
+        Assert.assertEquals(value(4, "outliers"), 0L);
+
+        // no valid point, then a single one
+        Assert.assertNull(value(7, "length"));
+        Assert.assertEquals(value(8, "length"), 0.0);
+        Assert.assertEquals(value(8, "outliers"), 0L);
+    }
+
+    @Test
+    public void testRowModeMeasuresTheSame() throws Exception {
+        GeoTestUtils.runOperation(operation(EngineConfig.defaultRowBased()), project);
+
+        double degree = GeoDistance.haversineDistance(0.0, 0.0, 0.0, 1.0) / 1000.0;
+        Assert.assertEquals((Double) value(0, "length"), 2 * degree, DELTA);
+        Assert.assertEquals(value(0, "outliers"), 1L);
+    }
+
+    @Test
+    public void testLengthOnly() throws Exception {
+        GeoTestUtils.runOperation(
+                new TrackLengthOperation(EngineConfig.defaultRowBased(), "lat", "lng", null, "m", 0, "length", null,
+                        null, 4),
+                project);
+
+        Assert.assertEquals(project.columnModel.columns.size(), 5);
+        Assert.assertEquals((Double) value(0, "length"), 2 * GeoDistance.haversineDistance(0.0, 0.0, 0.0, 1.0), 1e-6);
+    }
+
+    @Test
+    public void testUnitIsCaseInsensitive() throws Exception {
+        // as in geoDistance()
+        TrackLengthOperation operation = new TrackLengthOperation(EngineConfig.defaultRowBased(), "lat", "lng", null,
+                "KM", 0, "length", null, null, 4);
+        Assert.assertEquals(operation.getUnit(), "km");
+        GeoTestUtils.runOperation(operation, project);
+
+        Assert.assertEquals((Double) value(0, "length"), 2 * GeoDistance.haversineDistance(0.0, 0.0, 0.0, 1.0) / 1000.0,
+                DELTA);
+    }
+
+    @Test
+    public void testManyRecords() throws Exception {
+        // tracks of three points along the equator, measured by several threads
+        Serializable[][] rows = new Serializable[30_000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Serializable[] { i % 3 == 0 ? "v" + i : null, 0.0, (i % 3) * 0.1 };
+        }
+        project = GeoTestUtils.createProject(new String[] { "vehicle", "lat", "lng" }, rows);
+
+        GeoTestUtils.runOperation(
+                new TrackLengthOperation(EngineConfig.reconstruct("{\"mode\":\"record-based\",\"facets\":[]}"), "lat",
+                        "lng", null, "m", 0, "length", null, null, 3),
+                project);
+
+        double expected = GeoDistance.haversineDistance(0.0, 0.0, 0.0, 0.2);
+        for (int i = 0; i < rows.length; i += 3) {
+            Assert.assertEquals((Double) value(i, "length"), expected, 1e-6, "row " + i);
+        }
+    }
+
+    @Test
+    public void testTimes() {
+        Assert.assertEquals(TrackLengthOperation.toEpochSeconds(90), 90.0);
+        Assert.assertEquals(TrackLengthOperation.toEpochSeconds("1970-01-01T00:01:30Z"), 90.0);
+        Assert.assertEquals(TrackLengthOperation.toEpochSeconds("1970-01-01T01:01:30+01:00"), 90.0);
+        Assert.assertEquals(TrackLengthOperation.toEpochSeconds("1970-01-01T00:01:30.5"), 90.5);
+        Assert.assertEquals(TrackLengthOperation.toEpochSeconds(OffsetDateTime.parse("1970-01-01T00:01:30Z")), 90.0);
+        Assert.assertTrue(Double.isNaN(TrackLengthOperation.toEpochSeconds("yesterday")));
+        Assert.assertTrue(Double.isNaN(TrackLengthOperation.toEpochSeconds(null)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOutliersNeedTimes() {
+        new TrackLengthOperation(EngineConfig.defaultRowBased(), "lat", "lng", null, "km", 200.0, "length", null,
+                "outliers", 1).validate();
+    }
+
+    @Test(expectedExceptions = Exception.class)
+    public void testMissingTimeColumn() throws Exception {
+        GeoTestUtils.runOperation(
+                new TrackLengthOperation(EngineConfig.defaultRowBased(), "lat", "lng", "when", "km", 200.0, "length",
+                        null, "outliers", 1),
+                project);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+public class DistanceMatrixTest {
+
+    @Test
+    public void testMatchesHaversine() throws Exception {
+        Random random = new Random(16);
+        // more columns than a tile, and more rows than a band
+        int rows = DistanceMatrix.BAND_SIZE / 1500 + 7;
+        int columns = 1500;
+        double[] rowLats = new double[rows];
+        double[] rowLngs = new double[rows];
+        double[] columnLats = new double[columns];
+        double[] columnLngs = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            rowLats[i] = random.nextDouble() * 180 - 90;
+            rowLngs[i] = random.nextDouble() * 360 - 180;
+        }
+        for (int i = 0; i < columns; i++) {
+            // nearby points as well as far away ones
+            columnLats[i] = i % 2 == 0 ? rowLats[i % rows] + 1e-5 : random.nextDouble() * 180 - 90;
+            columnLngs[i] = i % 2 == 0 ? rowLngs[i % rows] : random.nextDouble() * 360 - 180;
+        }
+        rowLats[3] = Double.NaN;
+
+        DistanceMatrix matrix = new DistanceMatrix(rowLats, rowLngs, rows, columnLats, columnLngs, columns, 1000.0);
+        int[] seen = new int[1];
+        matrix.compute((firstRow, rowCount, distances) -> {
+            Assert.assertEquals(firstRow, seen[0]);
+            for (int r = firstRow; r < firstRow + rowCount; r++) {
+                for (int c = 0; c < columns; c++) {
+                    double distance = distances[(r - firstRow) * columns + c];
+                    if (r == 3) {
+                        Assert.assertTrue(Double.isNaN(distance));
+                        continue;
+                    }
+                    double expected = GeoDistance.haversineDistance(rowLats[r], rowLngs[r], columnLats[c], columnLngs[c]) / 1000;
+                    Assert.assertEquals(distance, expected, 1e-9 + expected * 1e-9);
+                }
+            }
+            seen[0] += rowCount;
+        });
+        Assert.assertEquals(seen[0], rows);
+    }
+
+    @Test
+    public void testAsin() {
+        Random random = new Random(17);
+        for (int i = 0; i < 100_000; i++) {
+            double x = i % 2 == 0 ? random.nextDouble() * DistanceMatrix.MAX_SERIES_SINE : random.nextDouble();
+            double expected = StrictMath.asin(x);
+            Assert.assertEquals(DistanceMatrix.asin(x), expected, expected * 1e-15);
+        }
+        Assert.assertEquals(DistanceMatrix.asin(1.0), Math.PI / 2);
+        Assert.assertEquals(DistanceMatrix.asin(0.0), 0.0);
+        Assert.assertTrue(Double.isNaN(DistanceMatrix.asin(Double.NaN)));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        DistanceMatrix matrix = new DistanceMatrix(new double[0], new double[0], 0, new double[] { 1 }, new double[] { 2 },
+                1, 1.0);
+        matrix.compute((firstRow, rowCount, distances) -> Assert.fail());
+    }
+}
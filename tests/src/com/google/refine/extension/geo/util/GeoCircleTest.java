@@ -0,0 +1,123 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.refine.extension.geo.functions.GeoDistance;
+
+public class GeoCircleTest {
+
+    private static void assertSameAsHaversine(GeoCircle circle, double lat, double lng) {
+        boolean expected = GeoDistance.haversineDistance(circle.getLatitude(), circle.getLongitude(), lat, lng) <= circle
+                .getRadius();
+        Assert.assertEquals(circle.contains(lat, lng), expected,
+                "circle (" + circle.getLatitude() + ", " + circle.getLongitude() + ", " + circle.getRadius() + "), point ("
+                        + lat + ", " + lng + ")");
+    }
+
+    private static void checkRandomPoints(GeoCircle circle, Random random, int count) {
+        double angle = Math.toDegrees(circle.getRadius() / 6371000.0);
+        for (int i = 0; i < count; i++) {
+            // points around the circle, concentrated near its boundary
+            double scale = angle * (0.9 + random.nextDouble() * 0.2) / Math.max(0.05, Math.cos(Math.toRadians(circle.getLatitude())));
+            double lat = Math.max(-90, Math.min(90, circle.getLatitude() + (random.nextDouble() * 2 - 1) * scale));
+            double lng = circle.getLongitude() + (random.nextDouble() * 2 - 1) * scale;
+            lng = lng > 180 ? lng - 360 : lng < -180 ? lng + 360 : lng;
+            assertSameAsHaversine(circle, lat, lng);
+        }
+        for (int i = 0; i < count; i++) {
+            assertSameAsHaversine(circle, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+        }
+    }
+
+    @Test
+    public void testSmallCircles() {
+        Random random = new Random(3L);
+        for (int i = 0; i < 200; i++) {
+            GeoCircle circle = new GeoCircle(random.nextDouble() * 140 - 70, random.nextDouble() * 360 - 180,
+                    random.nextDouble() * GeoCircle.FAST_MAX_RADIUS);
+            checkRandomPoints(circle, random, 2000);
+        }
+    }
+
+    @Test
+    public void testLargeAndPolarCircles() {
+        Random random = new Random(5L);
+        for (int i = 0; i < 200; i++) {
+            GeoCircle circle = new GeoCircle(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180,
+                    random.nextDouble() * 5000000);
+            checkRandomPoints(circle, random, 2000);
+        }
+    }
+
+    @Test
+    public void testAntimeridian() {
+        GeoCircle circle = new GeoCircle(10, 179.9, 50000);
+        Assert.assertTrue(circle.getMaxLongitude() > 180);
+        Assert.assertTrue(circle.contains(10, -179.9));
+        Assert.assertFalse(circle.contains(10, 179.0));
+        checkRandomPoints(circle, new Random(7L), 10000);
+    }
+
+    @Test
+    public void testPole() {
+        GeoCircle circle = new GeoCircle(89.5, 0, 100000);
+        Assert.assertTrue(circle.coversAllLongitudes());
+        Assert.assertTrue(circle.contains(89.9, 180));
+        Assert.assertTrue(circle.contains(90, 0));
+        checkRandomPoints(circle, new Random(9L), 10000);
+    }
+
+    @Test
+    public void testWholeSphere() {
+        GeoCircle circle = new GeoCircle(0, 0, 30000000);
+        Assert.assertTrue(circle.contains(0, 180));
+        Assert.assertTrue(circle.contains(-90, 0));
+    }
+
+    @Test
+    public void testBoundary() {
+        GeoCircle circle = new GeoCircle(45, 5, 10000);
+        Assert.assertTrue(circle.contains(45, 5));
+        double edge = Math.toDegrees(10000 / 6371000.0);
+        assertSameAsHaversine(circle, 45 + edge, 5);
+        assertSameAsHaversine(circle, 45 - edge, 5);
+        Assert.assertFalse(circle.contains(Double.NaN, 5));
+        Assert.assertFalse(circle.contains(45, Double.NaN));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.refine.expr.EvalError;
+import com.google.refine.extension.geo.functions.DecToGMS;
+import com.google.refine.extension.geo.functions.GeoDistance;
+import com.google.refine.extension.geo.functions.GeoDistanceFast;
+import com.google.refine.extension.geo.functions.GeoHash;
+import com.google.refine.extension.geo.functions.GeoHashDecode;
+import com.google.refine.extension.geo.functions.GeoNearest;
+import com.google.refine.extension.geo.functions.GeoRegion;
+import com.google.refine.extension.geo.functions.GeoWithin;
+import com.google.refine.extension.geo.functions.ReverseGeocode;
+import com.google.refine.extension.geo.util.GeoMetrics.ErrorReason;
+import com.google.refine.extension.geo.util.GeoMetrics.FunctionMetrics;
+import com.google.refine.grel.Function;
+
+public class GeoMetricsTest {
+
+    private final Properties bindings = new Properties();
+
+    @BeforeMethod
+    public void setUp() {
+        GeoMetrics.setEnabled(true);
+        GeoMetrics.reset();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        GeoMetrics.setEnabled(true);
+        GeoMetrics.reset();
+    }
+
+    @Test
+    public void testCountsCallsAndErrorsByReason() {
+        GeoDistance geoDistance = new GeoDistance();
+        geoDistance.call(bindings, new Object[] { 0.0, 0.0, 1.0, 1.0 });
+        geoDistance.call(bindings, new Object[] { 0.0, 0.0, 1.0, 1.0, "km" });
+        Assert.assertTrue(geoDistance.call(bindings, new Object[] { 0.0, 0.0 }) instanceof EvalError);
+        Assert.assertTrue(geoDistance.call(bindings, new Object[] { "north", 0.0, 1.0, 1.0 }) instanceof EvalError);
+        Assert.assertTrue(geoDistance.call(bindings, new Object[] { 95.0, 0.0, 1.0, 1.0 }) instanceof EvalError);
+        Assert.assertTrue(geoDistance.call(bindings, new Object[] { 0.0, 0.0, 1.0, 1.0, "ft" }) instanceof EvalError);
+
+        FunctionMetrics metrics = GeoMetrics.function("geoDistance");
+        Assert.assertEquals(metrics.getCalls(), 6L);
+        Assert.assertEquals(metrics.getErrors(ErrorReason.ARGUMENTS), 1L);
+        Assert.assertEquals(metrics.getErrors(ErrorReason.TYPE), 1L);
+        Assert.assertEquals(metrics.getErrors(ErrorReason.RANGE), 1L);
+        Assert.assertEquals(metrics.getErrors(ErrorReason.UNIT), 1L);
+        Assert.assertEquals(metrics.getErrors(ErrorReason.OTHER), 0L);
+        Assert.assertEquals(metrics.getErrors(), 4L);
+        // only a sample of the calls is timed
+        Assert.assertTrue(metrics.getLatency().getCount() <= 6L);
+
+        new DecToGMS().call(bindings, new Object[] { 120.0, "lat" });
+        Assert.assertEquals(GeoMetrics.function("decToGMS").getErrors(ErrorReason.RANGE), 1L);
+        Assert.assertTrue(GeoMetrics.getFunctions().containsKey("decToGMS"));
+    }
+
+    @DataProvider(name = "calls")
+    public Object[][] calls() {
+        Function fast = new GeoDistanceFast();
+        Function hash = new GeoHash();
+        Function decode = new GeoHashDecode();
+        Function within = new GeoWithin();
+        Function nearest = new GeoNearest();
+        Function region = new GeoRegion();
+        Function reverse = new ReverseGeocode();
+        String square = "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))";
+        // the project and gazetteer lookups come after the argument checks, and fail with neither configured
+        return new Object[][] {
+                { fast, "geoDistanceFast", new Object[] { 48.8566, 2.3522, 48.8606, 2.3376 }, null },
+                { fast, "geoDistanceFast", new Object[] { 48.8566, 2.3522, 48.8606 }, ErrorReason.ARGUMENTS },
+                { fast, "geoDistanceFast", new Object[] { 48.8566, 2.3522, "48.8606", 2.3376 }, ErrorReason.TYPE },
+                { fast, "geoDistanceFast", new Object[] { 48.8566, 2.3522, 98.8606, 2.3376 }, ErrorReason.RANGE },
+                { fast, "geoDistanceFast", new Object[] { 48.8566, 2.3522, 48.8606, 2.3376, "ft" }, ErrorReason.UNIT },
+                { hash, "geoHash", new Object[] { 10.0, 10.0 }, null },
+                { hash, "geoHash", new Object[] { 10.0 }, ErrorReason.ARGUMENTS },
+                { hash, "geoHash", new Object[] { 10.0, 10.0, 2.5 }, ErrorReason.TYPE },
+                { hash, "geoHash", new Object[] { 91.0, 10.0 }, ErrorReason.RANGE },
+                { hash, "geoHash", new Object[] { 10.0, 10.0, 13 }, ErrorReason.RANGE },
+                { decode, "geoHashDecode", new Object[] { "ezs42" }, null },
+                { decode, "geoHashDecode", new Object[] {}, ErrorReason.ARGUMENTS },
+                { decode, "geoHashDecode", new Object[] { 12 }, ErrorReason.TYPE },
+                { decode, "geoHashDecode", new Object[] { "ezs4a" }, ErrorReason.OTHER },
+                { within, "geoWithin", new Object[] { 5.0, 5.0, square }, null },
+                { within, "geoWithin", new Object[] { 1.0, 1.0 }, ErrorReason.ARGUMENTS },
+                { within, "geoWithin", new Object[] { "1", 1.0, square }, ErrorReason.TYPE },
+                { within, "geoWithin", new Object[] { 1.0, 185.0, square }, ErrorReason.RANGE },
+                { within, "geoWithin", new Object[] { 1.0, 1.0, "POINT (1 1)" }, ErrorReason.OTHER },
+                { nearest, "geoNearest", new Object[] { 50.0, 5.0, "Stores", "lat" }, ErrorReason.ARGUMENTS },
+                { nearest, "geoNearest", new Object[] { "50", 5.0, "Stores", "lat", "lng" }, ErrorReason.TYPE },
+                { nearest, "geoNearest", new Object[] { 95.0, 5.0, "Stores", "lat", "lng" }, ErrorReason.RANGE },
+                { nearest, "geoNearest", new Object[] { 50.0, 5.0, "", "lat", "lng" }, ErrorReason.OTHER },
+                { region, "geoRegion", new Object[] { 2.5, 7.5, "Regions" }, ErrorReason.ARGUMENTS },
+                { region, "geoRegion", new Object[] { 2.5, 7.5, "Regions", 3 }, ErrorReason.TYPE },
+                { region, "geoRegion", new Object[] { 95.0, 7.5, "Regions", "geometry" }, ErrorReason.RANGE },
+                { region, "geoRegion", new Object[] { 2.5, 7.5, "", "geometry" }, ErrorReason.OTHER },
+                { reverse, "reverseGeocode", new Object[] { 48.8 }, ErrorReason.ARGUMENTS },
+                { reverse, "reverseGeocode", new Object[] { "48.8", 2.5 }, ErrorReason.TYPE },
+                { reverse, "reverseGeocode", new Object[] { 48.8, 2.5, -1 }, ErrorReason.RANGE },
+                { reverse, "reverseGeocode", new Object[] { 48.8, 2.5 }, ErrorReason.OTHER },
+        };
+    }
+
+    @Test(dataProvider = "calls")
+    public void testCountsEachFunctionApart(Function function, String name, Object[] args, ErrorReason reason) {
+        GeoMetrics.reset();
+        Object result = function.call(bindings, args);
+        Assert.assertEquals(result instanceof EvalError, reason != null, name + " returned " + result);
+
+        FunctionMetrics metrics = GeoMetrics.function(name);
+        Assert.assertEquals(metrics.getErrors(), reason == null ? 0L : 1L);
+        if (reason != null) {
+            Assert.assertEquals(metrics.getErrors(reason), 1L, name + " error reason");
+        }
+        // only the function called is counted, not the one it extends
+        for (Map.Entry<String, FunctionMetrics> entry : GeoMetrics.getFunctions().entrySet()) {
+            Assert.assertEquals(entry.getValue().getCalls(), entry.getKey().equals(name) ? 1L : 0L, entry.getKey());
+        }
+    }
+
+    @Test
+    public void testTimesASampleOfCalls() {
+        GeoDistance geoDistance = new GeoDistance();
+        int calls = 100 * GeoMetrics.TIMING_SAMPLE;
+        for (int i = 0; i < calls; i++) {
+            geoDistance.call(bindings, new Object[] { 0.0, 0.0, 1.0, 1.0 });
+        }
+        FunctionMetrics metrics = GeoMetrics.function("geoDistance");
+        Assert.assertEquals(metrics.getCalls(), (long) calls);
+        long timed = metrics.getLatency().getCount();
+        Assert.assertTrue(timed >= 50 && timed <= 150, "timed " + timed);
+    }
+
+    @Test
+    public void testDisabled() {
+        GeoMetrics.setEnabled(false);
+        GeoDistance geoDistance = new GeoDistance();
+        Assert.assertEquals(geoDistance.call(bindings, new Object[] { 0.0, 0.0, 0.0, 0.0 }), 0.0);
+        Assert.assertTrue(geoDistance.call(bindings, new Object[] { 95.0, 0.0, 1.0, 1.0 }) instanceof EvalError);
+
+        FunctionMetrics metrics = GeoMetrics.function("geoDistance");
+        Assert.assertEquals(metrics.getCalls(), 0L);
+        Assert.assertEquals(metrics.getErrors(), 0L);
+        Assert.assertEquals(metrics.getLatency().getCount(), 0L);
+    }
+
+    @Test
+    public void testBatches() {
+        GeoMetrics.BatchMetrics batch = GeoMetrics.batch("test-operation");
+        batch.finish(batch.start(), 100);
+        batch.finish(batch.start(), 50);
+        Assert.assertEquals(batch.getRows(), 150L);
+        Assert.assertEquals(batch.getBatches(), 2L);
+        Assert.assertSame(GeoMetrics.getBatches().get("test-operation"), batch);
+
+        GeoMetrics.reset();
+        Assert.assertEquals(batch.getRows(), 0L);
+    }
+}
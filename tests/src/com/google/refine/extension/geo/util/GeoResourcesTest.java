@@ -0,0 +1,173 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class GeoResourcesTest {
+
+    private GeoResources resources;
+
+    @BeforeMethod
+    public void setUp() {
+        resources = new GeoResources();
+    }
+
+    @Test
+    public void testLoadsOnFirstUse() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        GeoResources.LazyResource<long[]> resource = resources.register("numbers", () -> {
+            loads.incrementAndGet();
+            return new long[1000];
+        }, values -> 8L * values.length, null);
+
+        Assert.assertFalse(resource.isLoaded());
+        Assert.assertNull(resource.getIfLoaded());
+        Assert.assertEquals(resource.getEstimatedBytes(), 0L);
+        Assert.assertEquals(loads.get(), 0);
+
+        long[] values = resource.get();
+        Assert.assertSame(resource.get(), values);
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertTrue(resource.isLoaded());
+        Assert.assertEquals(resource.getEstimatedBytes(), 8000L);
+        Assert.assertSame(resources.lookup("numbers"), resource);
+    }
+
+    @Test
+    public void testConcurrentCallersLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        GeoResources.LazyResource<Object> resource = resources.register("slow", () -> {
+            loads.incrementAndGet();
+            Thread.sleep(50);
+            return new Object();
+        }, null, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> {
+                    start.await();
+                    return resource.get();
+                });
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                Assert.assertSame(result.get(), resource.getIfLoaded());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(loads.get(), 1);
+    }
+
+    @Test
+    public void testFailedLoadIsRetried() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        GeoResources.LazyResource<String> resource = resources.register("flaky", () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IOException("not yet");
+            }
+            return "ready";
+        }, null, null);
+        try {
+            resource.get();
+            Assert.fail("expected the first load to fail");
+        } catch (IOException e) {
+            Assert.assertEquals(resource.getError(), "not yet");
+        }
+        Assert.assertEquals(resource.get(), "ready");
+        Assert.assertNull(resource.getError());
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger cleared = new AtomicInteger();
+        GeoResources.LazyResource<String> resource = resources.register("text", () -> "value", String::length,
+                value -> released.incrementAndGet());
+        resources.registerCache("cache", () -> 12L, () -> 34L, cleared::incrementAndGet);
+        resource.get();
+
+        resources.releaseAll();
+        Assert.assertFalse(resource.isLoaded());
+        Assert.assertEquals(released.get(), 1);
+        Assert.assertEquals(cleared.get(), 1);
+        // still registered, and loaded again on next use
+        Assert.assertEquals(resources.list().size(), 2);
+        Assert.assertEquals(resource.get(), "value");
+
+        GeoResources.Resource cache = resources.lookup("cache");
+        Assert.assertEquals(cache.getLoadMillis(), 12L);
+        Assert.assertEquals(cache.getEstimatedBytes(), 34L);
+
+        resources.unregister("text");
+        Assert.assertEquals(released.get(), 2);
+        Assert.assertNull(resources.lookup("text"));
+    }
+
+    @Test
+    public void testReplacingReleasesPrevious() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        resources.register("value", () -> "first", null, value -> released.incrementAndGet()).get();
+        GeoResources.LazyResource<String> second = resources.register("value", () -> "second", null, null);
+        Assert.assertEquals(released.get(), 1);
+        Assert.assertEquals(second.get(), "second");
+        Assert.assertEquals(resources.list().size(), 1);
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        GeoResources.LazyResource<String> resource = resources.register("warm", () -> "value", null, null);
+        resources.register("broken", () -> {
+            throw new IOException("missing");
+        }, null, null);
+        Thread thread = resources.warmUp(Arrays.asList("broken", "unknown", "warm"));
+        thread.join(10000);
+        Assert.assertTrue(thread.isDaemon());
+        Assert.assertTrue(resource.isLoaded());
+        Assert.assertFalse(resources.lookup("broken").isLoaded());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class GeoResultCacheTest {
+
+    @Test
+    public void testLookupAndStore() {
+        GeoResultCache cache = new GeoResultCache(1000);
+        Assert.assertNull(cache.lookup(GeoResultCache.TAG_HAVERSINE, 1, 2, 3, 4));
+        cache.store(GeoResultCache.TAG_HAVERSINE, 1, 2, 3, 4, 42.0);
+        Assert.assertEquals(cache.lookup(GeoResultCache.TAG_HAVERSINE, 1, 2, 3, 4), 42.0);
+        // the tag and every argument are part of the key
+        Assert.assertNull(cache.lookup(GeoResultCache.TAG_WGS84, 1, 2, 3, 4));
+        Assert.assertNull(cache.lookup(GeoResultCache.TAG_HAVERSINE, 1, 2, 3, 5));
+        Assert.assertNull(cache.lookup(GeoResultCache.TAG_HAVERSINE, -0.0, 0, 0, 0));
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 4);
+        Assert.assertEquals(cache.size(), 1);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getHits(), 0);
+    }
+
+    @Test
+    public void testEviction() {
+        GeoResultCache cache = new GeoResultCache(64);
+        for (int i = 0; i < 1000; i++) {
+            cache.store(GeoResultCache.TAG_GMS, i, 0, 0, 0, "value " + i);
+        }
+        Assert.assertTrue(cache.size() <= 64);
+        Assert.assertEquals(cache.getEvictions(), 1000 - cache.size());
+        // the last stored entry of a segment is its most recently used one
+        Assert.assertEquals(cache.lookup(GeoResultCache.TAG_GMS, 999, 0, 0, 0), "value 999");
+    }
+
+    @Test
+    public void testDisabled() {
+        GeoResultCache cache = new GeoResultCache(0);
+        Assert.assertFalse(cache.isEnabled());
+        cache.store(GeoResultCache.TAG_GMS, 1, 0, 0, 0, "value");
+        Assert.assertNull(cache.lookup(GeoResultCache.TAG_GMS, 1, 0, 0, 0));
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getMisses(), 0);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        // every value falls in a bucket whose bounds hold it, within the precision of the sub-buckets
+        long[] values = { 0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789, Long.MAX_VALUE };
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            Assert.assertTrue(bucket >= 0 && bucket < LatencyHistogram.BUCKETS, "bucket of " + value);
+            Assert.assertTrue(LatencyHistogram.highestValue(bucket) >= value, "upper bound of " + value);
+            if (bucket > 0) {
+                Assert.assertTrue(LatencyHistogram.highestValue(bucket - 1) < value, "lower bound of " + value);
+            }
+            Assert.assertTrue(LatencyHistogram.highestValue(bucket) - value <= value / LatencyHistogram.SUB_BUCKETS,
+                    "precision of " + value);
+        }
+        Assert.assertEquals(LatencyHistogram.bucket(Long.MAX_VALUE), LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getPercentile(50), 0L);
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos);
+        }
+        Assert.assertEquals(histogram.getCount(), 1000L);
+        Assert.assertEquals(histogram.getTotalNanos(), 500500L);
+        Assert.assertEquals(histogram.getMaxNanos(), 1000L);
+        long median = histogram.getPercentile(50);
+        Assert.assertTrue(median >= 500 && median <= 500 * 9 / 8, "median " + median);
+        long p99 = histogram.getPercentile(99);
+        Assert.assertTrue(p99 >= 990 && p99 <= 1000, "p99 " + p99);
+        Assert.assertEquals(histogram.getPercentile(100), 1000L);
+
+        histogram.record(-5);
+        Assert.assertEquals(histogram.getPercentile(0), 0L);
+
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0L);
+        Assert.assertEquals(histogram.getMaxNanos(), 0L);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(histogram.getCount(), 40000L);
+        Assert.assertEquals(histogram.getMaxNanos(), 9999L);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+
+Copyright 2025, OpenRefine contributors
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+    * Redistributions of source code must retain the above copyright
+notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above
+copyright notice, this list of conditions and the following disclaimer
+in the documentation and/or other materials provided with the
+distribution.
+    * Neither the name of the copyright holder nor the names of its
+contributors may be used to endorse or promote products derived from
+this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.google.refine.extension.geo.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TrackSimplifierTest {
+
+    /**
+     * A random walk of hops of about 10 m, turning gently.
+     */
+    private static double[][] randomTrack(int count, long seed) {
+        Random random = new Random(seed);
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        double heading = 0;
+        lats[0] = 48.85;
+        lngs[0] = 2.35;
+        for (int i = 1; i < count; i++) {
+            heading += random.nextGaussian() * 0.2;
+            lats[i] = lats[i - 1] + Math.cos(heading) * 9e-5;
+            lngs[i] = lngs[i - 1] + Math.sin(heading) * 9e-5 / Math.cos(Math.toRadians(lats[i - 1]));
+        }
+        return new double[][] { lats, lngs };
+    }
+
+    @Test
+    public void testStraightLineKeepsEnds() {
+        int count = 1000;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            // about 1 m of noise around the equator
+            lats[i] = random.nextGaussian() * 5e-6;
+            lngs[i] = i * 1e-4;
+        }
+        boolean[] keep = new boolean[count];
+        Assert.assertEquals(TrackSimplifier.douglasPeucker(lats, lngs, count, 10.0, false, keep), 2);
+        Assert.assertTrue(keep[0] && keep[count - 1]);
+        Assert.assertEquals(TrackSimplifier.douglasPeucker(lats, lngs, count, 10.0, true, keep), 2);
+        // triangles grow as their neighbours are dropped, so the noise is only thinned out
+        Assert.assertTrue(TrackSimplifier.visvalingam(lats, lngs, count, 10.0, keep) < count / 10);
+        Assert.assertTrue(keep[0] && keep[count - 1]);
+    }
+
+    @Test
+    public void testCornerIsKept() {
+        double[] lats = { 0.0, 0.0, 0.0, 0.001, 0.002 };
+        double[] lngs = { 0.0, 0.001, 0.002, 0.002, 0.002 };
+        boolean[] keep = new boolean[5];
+        Assert.assertEquals(TrackSimplifier.douglasPeucker(lats, lngs, 5, 1.0, false, keep), 3);
+        Assert.assertEquals(keep, new boolean[] { true, false, true, false, true });
+        Assert.assertEquals(TrackSimplifier.visvalingam(lats, lngs, 5, 1.0, keep), 3);
+        Assert.assertEquals(keep, new boolean[] { true, false, true, false, true });
+    }
+
+    @Test
+    public void testShortTracks() {
+        boolean[] keep = new boolean[2];
+        Assert.assertEquals(TrackSimplifier.douglasPeucker(new double[] { 1, 2 }, new double[] { 1, 2 }, 2, 5, false, keep), 2);
+        Assert.assertEquals(keep, new boolean[] { true, true });
+        Assert.assertEquals(TrackSimplifier.visvalingam(new double[1], new double[1], 1, 5, keep), 1);
+    }
+
+    @Test
+    public void testDroppedPointsStayWithinTolerance() {
+        double[][] track = randomTrack(5000, 2);
+        double[] lats = track[0];
+        double[] lngs = track[1];
+        int count = lats.length;
+        for (boolean spherical : new boolean[] { false, true }) {
+            boolean[] keep = new boolean[count];
+            int kept = TrackSimplifier.douglasPeucker(lats, lngs, count, 5.0, spherical, keep);
+            Assert.assertTrue(kept > 2 && kept < count / 2, "kept " + kept);
+            int previous = 0;
+            for (int i = 1; i < count; i++) {
+                if (keep[i]) {
+                    for (int j = previous + 1; j < i; j++) {
+                        double distance = TrackSimplifier.sphericalSegmentDistance(lats[j], lngs[j], lats[previous],
+                                lngs[previous], lats[i], lngs[i]);
+                        // the projection is within a fraction of a percent of the sphere over a few kilometers
+                        Assert.assertTrue(distance <= 5.0 * 1.01, "point " + j + " at " + distance);
+                    }
+                    previous = i;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testProjectedDistanceMatchesSphere() {
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            double lat1 = random.nextDouble() * 140 - 70;
+            double lng1 = random.nextDouble() * 360 - 180;
+            double lat2 = lat1 + random.nextGaussian() * 0.01;
+            double lng2 = lng1 + random.nextGaussian() * 0.01;
+            double lat = lat1 + random.nextGaussian() * 0.01;
+            double lng = lng1 + random.nextGaussian() * 0.01;
+            double projected = Math.sqrt(TrackSimplifier.squaredSegmentDistance(lat, lng, lat1, lng1, lat2, lng2));
+            double spherical = TrackSimplifier.sphericalSegmentDistance(lat, lng, lat1, lng1, lat2, lng2);
+            Assert.assertEquals(projected, spherical, 0.01 * spherical + 0.01);
+        }
+    }
+
+    @Test
+    public void testVisvalingamMatchesNaiveVersion() {
+        double[][] track = randomTrack(500, 4);
+        double[] lats = track[0];
+        double[] lngs = track[1];
+        int count = lats.length;
+        double tolerance = 8.0;
+        boolean[] keep = new boolean[count];
+        int kept = TrackSimplifier.visvalingam(lats, lngs, count, tolerance, keep);
+
+        // drop the smallest effective area, one point at a time, rescanning every remaining point
+        boolean[] expected = new boolean[count];
+        Arrays.fill(expected, true);
+        double[] areas = new double[count];
+        for (int i = 1; i < count - 1; i++) {
+            areas[i] = TrackSimplifier.triangleArea(lats, lngs, i - 1, i, i + 1);
+        }
+        while (true) {
+            int smallest = -1;
+            for (int i = 1; i < count - 1; i++) {
+                if (expected[i] && (smallest < 0 || areas[i] < areas[smallest])) {
+                    smallest = i;
+                }
+            }
+            if (smallest < 0 || areas[smallest] >= tolerance * tolerance) {
+                break;
+            }
+            expected[smallest] = false;
+            int before = smallest - 1;
+            while (!expected[before]) {
+                before--;
+            }
+            int after = smallest + 1;
+            while (!expected[after]) {
+                after++;
+            }
+            if (before > 0) {
+                int beforeBefore = before - 1;
+                while (!expected[beforeBefore]) {
+                    beforeBefore--;
+                }
+                areas[before] = Math.max(areas[smallest], TrackSimplifier.triangleArea(lats, lngs, beforeBefore, before, after));
+            }
+            if (after < count - 1) {
+                int afterAfter = after + 1;
+                while (!expected[afterAfter]) {
+                    afterAfter++;
+                }
+                areas[after] = Math.max(areas[smallest], TrackSimplifier.triangleArea(lats, lngs, before, after, afterAfter));
+            }
+        }
+        Assert.assertEquals(keep, expected);
+        int expectedKept = 0;
+        for (boolean k : expected) {
+            expectedKept += k ? 1 : 0;
+        }
+        Assert.assertEquals(kept, expectedKept);
+        Assert.assertTrue(kept < count);
+    }
+
+    @Test
+    public void testLongTrack() {
+        // deep splits, many of them, which must neither recurse nor overflow anything
+        double[][] track = randomTrack(1_000_000, 2);
+        double[] lats = track[0];
+        double[] lngs = track[1];
+        int count = lats.length;
+        boolean[] keep = new boolean[count];
+        int kept = TrackSimplifier.douglasPeucker(lats, lngs, count, 2.0, false, keep);
+        Assert.assertTrue(kept > 2 && kept < count, "kept " + kept);
+        Assert.assertTrue(keep[0] && keep[count - 1]);
+        kept = TrackSimplifier.visvalingam(lats, lngs, count, 2.0, keep);
+        Assert.assertTrue(kept > 2 && kept < count, "kept " + kept);
+        Assert.assertTrue(keep[0] && keep[count - 1]);
+    }
+}